@@ -15,6 +15,7 @@
  */
 package leap.core;
 
+import leap.core.annotation.Bean;
 import leap.core.ioc.BeanContainer;
 import leap.core.ioc.BeanDefinition;
 import leap.core.ioc.BeanDefinitionException;
@@ -61,7 +62,7 @@ public class DefaultBeanFactory extends BeanFactoryInternal implements BeanFacto
 
 		this.beanContainer.setAppContext(appContext);
 		this.beanContainer.loadFromResources(resources.search("beans"))
-                          .loadFromClasses(config.getResources().searchClasses())
+                          .loadFromClasses(config.getResources().searchAnnotatedClasses(Bean.class))
 						  .init()
 						  .registerShutdownHook();
 		return this;
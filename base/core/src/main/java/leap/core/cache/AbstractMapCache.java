@@ -18,12 +18,15 @@ package leap.core.cache;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
 import leap.lang.Args;
 
 public abstract class AbstractMapCache<K,V> implements Cache<K, V> {
 	
 	private final Map<K, V> map;
+	private final LongAdder hitCount  = new LongAdder();
+	private final LongAdder missCount = new LongAdder();
 
 	protected AbstractMapCache(Map<K, V> map) {
 		Args.notNull(map,"map");
@@ -32,7 +35,13 @@ public abstract class AbstractMapCache<K,V> implements Cache<K, V> {
 
 	@Override
     public V get(K key) {
-	    return map.get(key);
+		V value = map.get(key);
+		if(null == value) {
+			missCount.increment();
+		}else{
+			hitCount.increment();
+		}
+	    return value;
     }
 	
 	@Override
@@ -64,4 +73,9 @@ public abstract class AbstractMapCache<K,V> implements Cache<K, V> {
     public void clear() {
 		map.clear();
     }
+
+	@Override
+	public CacheStats getStats() {
+		return new CacheStats(hitCount.sum(), missCount.sum(), 0, 0, 0, 0);
+	}
 }
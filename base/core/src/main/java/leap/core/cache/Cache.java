@@ -16,6 +16,7 @@
 package leap.core.cache;
 
 import java.util.Map;
+import java.util.function.Function;
 
 /**
  * All implementations must be thread safe.
@@ -30,6 +31,27 @@ public interface Cache<K,V> {
 	 */
 	V get(K key);
 	
+	/**
+	 * Gets an entry mapping to the given key, or loads the value by the given loader and caches it if absent.
+	 * 
+	 * <p>
+	 * Returns <code>null</code> if the loader returns <code>null</code> (the <code>null</code> value will not be cached).
+	 * 
+	 * <p>
+	 * The default implementation does not coalesce the concurrent loadings of the same key, 
+	 * the implementations should override it if possible.
+	 */
+	default V get(K key, Function<? super K, ? extends V> loader) {
+		V value = get(key);
+		if(null == value) {
+			value = loader.apply(key);
+			if(null != value) {
+				put(key, value);
+			}
+		}
+		return value;
+	}
+	
 	/**
 	 * Returns a new created map contains all the cached items.
 	 */
@@ -74,4 +96,14 @@ public interface Cache<K,V> {
 	 * Clears all entries in this cache. 
 	 */
 	void clear();
+	
+	/**
+	 * Returns a snapshot of the statistics of this cache.
+	 * 
+	 * <p>
+	 * Returns {@link CacheStats#EMPTY} if the statistics is not supported.
+	 */
+	default CacheStats getStats() {
+		return CacheStats.EMPTY;
+	}
 }
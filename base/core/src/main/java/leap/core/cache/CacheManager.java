@@ -18,6 +18,8 @@ package leap.core.cache;
 import leap.lang.exception.ObjectExistsException;
 import leap.lang.exception.ObjectNotFoundException;
 
+import java.util.Map;
+
 
 public interface CacheManager {
     
@@ -30,6 +32,26 @@ public interface CacheManager {
 	 * Creates a simple lru cache and register it to this manager.
 	 */
 	<K,V> Cache<K,V> createSimpleLRUCache(String cacheName) throws ObjectExistsException;
+	
+	/**
+	 * Creates a high concurrency cache, see {@link ConcurrentLFUCache}.
+	 */
+	<K,V> Cache<K,V> createConcurrentCache(int maxSize);
+	
+	/**
+	 * Creates a high concurrency cache and register it to this manager, see {@link ConcurrentLFUCache}.
+	 */
+	<K,V> Cache<K,V> createConcurrentCache(String cacheName) throws ObjectExistsException;
+	
+	/**
+	 * Creates a high concurrency cache by the given spec, see {@link CacheSpec}.
+	 */
+	<K,V> Cache<K,V> createCache(CacheSpec<K,V> spec);
+	
+	/**
+	 * Creates a high concurrency cache by the given spec and register it to this manager.
+	 */
+	<K,V> Cache<K,V> createCache(String cacheName, CacheSpec<K,V> spec) throws ObjectExistsException;
 
 	/**
 	 * Looks up a managed {@link Cache} given it's name.
@@ -49,6 +71,18 @@ public interface CacheManager {
 	 */
 	void registerCache(String name,Cache<?, ?> cache) throws ObjectExistsException;
 	
+	/**
+	 * Returns the statistics of the cache defined by the given cache name.
+	 * 
+	 * @throws ObjectNotFoundException if the cache name not exists.
+	 */
+	CacheStats getCacheStats(String cacheName) throws ObjectNotFoundException;
+	
+	/**
+	 * Returns the statistics of all the managed {@link Cache}, the key of the returned map is the cache name.
+	 */
+	Map<String, CacheStats> getAllCacheStats();
+	
 	/**
 	 * Clears the cache defined by the given cache name.
 	 * 
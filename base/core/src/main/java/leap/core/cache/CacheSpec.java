@@ -0,0 +1,128 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.core.cache;
+
+import leap.lang.Args;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The specification for creating a {@link ConcurrentLFUCache}.
+ */
+public class CacheSpec<K,V> {
+
+	protected int 		   maxSize = ConcurrentLFUCache.DEFAULT_MAX_SIZE;
+	protected long 		   maxWeight;
+	protected Weigher<K,V> weigher;
+	protected long 		   expireAfterWriteNanos;
+	protected long 		   expireAfterAccessNanos;
+	protected long 		   refreshAfterWriteNanos;
+	protected Executor	   executor = ForkJoinPool.commonPool();
+	
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * Sets the maximum number of entries, ignored if the {@link #setMaxWeight(long, Weigher)} was set.
+	 */
+	public CacheSpec<K,V> setMaxSize(int maxSize) {
+		Args.assertTrue(maxSize > 0, "The maxSize must be positive");
+		this.maxSize = maxSize;
+		return this;
+	}
+	
+	public boolean isWeighted() {
+		return null != weigher;
+	}
+	
+	public long getMaxWeight() {
+		return maxWeight;
+	}
+	
+	public Weigher<K, V> getWeigher() {
+		return weigher;
+	}
+
+	/**
+	 * Sets the maximum total weight of the entries, the weight of an entry is calculated by the given {@link Weigher}.
+	 */
+	public CacheSpec<K,V> setMaxWeight(long maxWeight, Weigher<K, V> weigher) {
+		Args.assertTrue(maxWeight > 0, "The maxWeight must be positive");
+		Args.notNull(weigher, "weigher");
+		this.maxWeight = maxWeight;
+		this.weigher   = weigher;
+		return this;
+	}
+	
+	public long getExpireAfterWriteNanos() {
+		return expireAfterWriteNanos;
+	}
+
+	/**
+	 * Sets the duration that an entry expires after it was created or replaced.
+	 */
+	public CacheSpec<K,V> setExpireAfterWrite(long duration, TimeUnit unit) {
+		Args.assertTrue(duration >= 0, "The duration must not be negative");
+		this.expireAfterWriteNanos = unit.toNanos(duration);
+		return this;
+	}
+	
+	public long getExpireAfterAccessNanos() {
+		return expireAfterAccessNanos;
+	}
+
+	/**
+	 * Sets the duration that an entry expires after it was created, replaced or last read.
+	 */
+	public CacheSpec<K,V> setExpireAfterAccess(long duration, TimeUnit unit) {
+		Args.assertTrue(duration >= 0, "The duration must not be negative");
+		this.expireAfterAccessNanos = unit.toNanos(duration);
+		return this;
+	}
+	
+	public long getRefreshAfterWriteNanos() {
+		return refreshAfterWriteNanos;
+	}
+	
+	/**
+	 * Sets the duration that an entry becomes eligible for asynchronous refreshing after it was created or replaced.
+	 * 
+	 * <p>
+	 * The refreshing is triggered by {@link Cache#get(Object, java.util.function.Function)}, 
+	 * the stale value is returned while refreshing.
+	 */
+	public CacheSpec<K,V> setRefreshAfterWrite(long duration, TimeUnit unit) {
+		Args.assertTrue(duration >= 0, "The duration must not be negative");
+		this.refreshAfterWriteNanos = unit.toNanos(duration);
+		return this;
+	}
+	
+	public Executor getExecutor() {
+		return executor;
+	}
+
+	/**
+	 * Sets the executor for refreshing values asynchronously, default is {@link ForkJoinPool#commonPool()}.
+	 */
+	public CacheSpec<K,V> setExecutor(Executor executor) {
+		Args.notNull(executor, "executor");
+		this.executor = executor;
+		return this;
+	}
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.core.cache;
+
+/**
+ * An immutable snapshot of the statistics of a {@link Cache}.
+ */
+public class CacheStats {
+	
+	public static final CacheStats EMPTY = new CacheStats(0, 0, 0, 0, 0, 0);
+	
+	private final long hitCount;
+	private final long missCount;
+	private final long evictionCount;
+	private final long loadSuccessCount;
+	private final long loadFailureCount;
+	private final long totalLoadTime;
+
+	public CacheStats(long hitCount, long missCount, long evictionCount, 
+					  long loadSuccessCount, long loadFailureCount, long totalLoadTime) {
+		this.hitCount 		  = hitCount;
+		this.missCount 		  = missCount;
+		this.evictionCount 	  = evictionCount;
+		this.loadSuccessCount = loadSuccessCount;
+		this.loadFailureCount = loadFailureCount;
+		this.totalLoadTime 	  = totalLoadTime;
+	}
+
+	/**
+	 * Returns the number of lookups returned a cached value.
+	 */
+	public long getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * Returns the number of lookups returned <code>null</code> or a loaded value.
+	 */
+	public long getMissCount() {
+		return missCount;
+	}
+	
+	/**
+	 * Returns the number of all lookups, hits plus misses.
+	 */
+	public long getRequestCount() {
+		return hitCount + missCount;
+	}
+	
+	/**
+	 * Returns the ratio of hits to all lookups, returns 1.0 if no lookups.
+	 */
+	public double getHitRate() {
+		long requestCount = getRequestCount();
+		return requestCount == 0 ? 1.0 : (double)hitCount / requestCount;
+	}
+
+	/**
+	 * Returns the number of entries evicted by size, weight or expiration.
+	 */
+	public long getEvictionCount() {
+		return evictionCount;
+	}
+
+	/**
+	 * Returns the number of values loaded successfully by the loader.
+	 */
+	public long getLoadSuccessCount() {
+		return loadSuccessCount;
+	}
+
+	/**
+	 * Returns the number of loadings threw exception.
+	 */
+	public long getLoadFailureCount() {
+		return loadFailureCount;
+	}
+
+	/**
+	 * Returns the total nanoseconds spent on loading values.
+	 */
+	public long getTotalLoadTime() {
+		return totalLoadTime;
+	}
+	
+	/**
+	 * Returns the average nanoseconds spent on loading a value.
+	 */
+	public double getAverageLoadPenalty() {
+		long loadCount = loadSuccessCount + loadFailureCount;
+		return loadCount == 0 ? 0.0 : (double)totalLoadTime / loadCount;
+	}
+
+	@Override
+	public String toString() {
+		return "CacheStats[hitCount=" + hitCount + ", missCount=" + missCount + ", evictionCount=" + evictionCount + 
+			   ", loadSuccessCount=" + loadSuccessCount + ", loadFailureCount=" + loadFailureCount + ", totalLoadTime=" + totalLoadTime + "]";
+	}
+}
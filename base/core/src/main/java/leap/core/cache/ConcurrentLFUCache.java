@@ -0,0 +1,873 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.core.cache;
+
+import leap.lang.Args;
+import leap.lang.logging.Log;
+import leap.lang.logging.LogFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * A high concurrency bounded {@link Cache} using the W-TinyLFU eviction policy.
+ * 
+ * <p>
+ * The entries are stored in a {@link ConcurrentHashMap}, so reads never lock. The recency updates 
+ * caused by reads are recorded in striped lossy buffers and the writes are recorded in a queue, 
+ * both of them are replayed against the eviction policy in batches under a non-blocking lock.
+ * 
+ * <p>
+ * The eviction policy is a small lru admission window in front of a segmented lru main space (probation and protected).
+ * An entry evicted from the window is admitted into the main space only if it is estimated 
+ * to be used more frequently than the entry it would replace.
+ * 
+ * <p>
+ * The cache can be bounded by the number of entries or by the total weight of the entries, 
+ * and the entries can expire after write or access, see {@link CacheSpec}.
+ */
+public class ConcurrentLFUCache<K,V> implements Cache<K, V> {
+	
+	private static final Log log = LogFactory.get(ConcurrentLFUCache.class);
+	
+	public static final int DEFAULT_MAX_SIZE = 2048;
+	
+	static final int QUEUE_NONE      = 0;
+	static final int QUEUE_WINDOW    = 1;
+	static final int QUEUE_PROBATION = 2;
+	static final int QUEUE_PROTECTED = 3;
+	
+	protected final ConcurrentHashMap<K, Node<K,V>> data;
+	
+	private final long							  maximum;
+	private final long							  maxWindow;
+	private final long							  maxMain;
+	private final long							  maxProtected;
+	private final Weigher<K,V>					  weigher;
+	private final long							  expireAfterWriteNanos;
+	private final long							  expireAfterAccessNanos;
+	private final long							  refreshAfterWriteNanos;
+	private final Executor						  executor;
+	private final boolean						  timed;
+	private final ReentrantLock					  evictionLock = new ReentrantLock();
+	private final ReadBuffer<K,V>				  readBuffer   = new ReadBuffer<>();
+	private final ConcurrentLinkedQueue<Runnable> writeBuffer  = new ConcurrentLinkedQueue<>();
+	private final FrequencySketch				  sketch;
+	private final NodeDeque<K,V>				  window       = new NodeDeque<>(false);
+	private final NodeDeque<K,V>				  probation    = new NodeDeque<>(false);
+	private final NodeDeque<K,V>				  protect      = new NodeDeque<>(false);
+	private final NodeDeque<K,V>				  writeOrder   = new NodeDeque<>(true);
+	private final ConcurrentHashMap<K, CompletableFuture<V>> loadings   = new ConcurrentHashMap<>();
+	private final ConcurrentHashMap<K, Node<K,V>>			 refreshing = new ConcurrentHashMap<>();
+	
+	private final LongAdder hitCount         = new LongAdder();
+	private final LongAdder missCount        = new LongAdder();
+	private final LongAdder evictionCount    = new LongAdder();
+	private final LongAdder loadSuccessCount = new LongAdder();
+	private final LongAdder loadFailureCount = new LongAdder();
+	private final LongAdder totalLoadTime    = new LongAdder();
+	
+	//guarded by the eviction lock.
+	private long windowWeight;
+	private long mainWeight;
+	private long protectedWeight;
+	
+	public ConcurrentLFUCache() {
+		this(DEFAULT_MAX_SIZE);
+	}
+	
+	public ConcurrentLFUCache(int maxSize) {
+		this(new CacheSpec<K,V>().setMaxSize(maxSize));
+	}
+	
+	public ConcurrentLFUCache(CacheSpec<K,V> spec) {
+		Args.notNull(spec, "spec");
+		
+		this.weigher				= spec.getWeigher();
+		this.maximum      			= null != weigher ? spec.getMaxWeight() : spec.getMaxSize();
+		this.maxWindow    			= Math.max(1, maximum / 100);
+		this.maxMain      			= maximum - maxWindow;
+		this.maxProtected 			= maxMain * 80 / 100;
+		this.expireAfterWriteNanos  = spec.getExpireAfterWriteNanos();
+		this.expireAfterAccessNanos = spec.getExpireAfterAccessNanos();
+		this.refreshAfterWriteNanos = spec.getRefreshAfterWriteNanos();
+		this.executor				= spec.getExecutor();
+		this.timed					= expireAfterWriteNanos > 0 || expireAfterAccessNanos > 0 || refreshAfterWriteNanos > 0;
+		this.data         			= new ConcurrentHashMap<>(null != weigher ? 16 : (int)Math.min(maximum, 1024));
+		this.sketch       			= new FrequencySketch(null != weigher ? 1024 : (int)Math.min(maximum, 1 << 24));
+	}
+	
+	/**
+	 * Returns the maximum number of entries, or the maximum total weight if the cache is weighted.
+	 */
+	public long getMaximum() {
+		return maximum;
+	}
+	
+	/**
+	 * Returns the approximate number of entries, may exceed the maximum temporarily before the pending evictions done.
+	 */
+	public int size() {
+		return data.size();
+	}
+	
+	/**
+	 * Returns the total weight of the entries, the same as the number of entries if the cache is not weighted.
+	 * 
+	 * <p>
+	 * The pending writes are not counted.
+	 */
+	public long weight() {
+		evictionLock.lock();
+		try{
+			return windowWeight + mainWeight;
+		}finally{
+			evictionLock.unlock();
+		}
+	}
+
+	@Override
+	public V get(K key) {
+		Node<K,V> node = getIfPresent(key, now());
+		if(null == node) {
+			missCount.increment();
+			return null;
+		}
+		hitCount.increment();
+		return node.value;
+	}
+	
+	@Override
+	public V get(K key, Function<? super K, ? extends V> loader) {
+		Args.notNull(loader, "loader");
+		
+		final long now = now();
+		
+		Node<K,V> node = getIfPresent(key, now);
+		if(null != node) {
+			hitCount.increment();
+			if(refreshAfterWriteNanos > 0 && now - node.writeTime >= refreshAfterWriteNanos) {
+				refresh(node, loader);
+			}
+			return node.value;
+		}
+		
+		missCount.increment();
+		
+		CompletableFuture<V> future = new CompletableFuture<>();
+		CompletableFuture<V> prior  = loadings.putIfAbsent(key, future);
+		if(null != prior) {
+			//waits for the loading of other thread.
+			try{
+				return prior.join();
+			}catch(CompletionException e) {
+				if(e.getCause() instanceof RuntimeException) {
+					throw (RuntimeException)e.getCause();
+				}
+				throw e;
+			}
+		}
+		
+		try{
+			//double check, it may be loaded and put between the lookup and the loading registration.
+			node = getIfPresent(key, now());
+			if(null != node) {
+				future.complete(node.value);
+				return node.value;
+			}
+			
+			V value = load(key, loader);
+			if(null != value) {
+				put(key, value);
+			}
+			future.complete(value);
+			return value;
+		}catch(RuntimeException e) {
+			future.completeExceptionally(e);
+			throw e;
+		}finally{
+			loadings.remove(key, future);
+		}
+	}
+
+	@Override
+	public Map<K, V> getAll() {
+		final long now = now();
+		
+		Map<K, V> map = new HashMap<>(data.size());
+		for(Node<K,V> node : data.values()) {
+			if(!isExpired(node, now)) {
+				map.put(node.key, node.value);
+			}
+		}
+		return map;
+	}
+
+	@Override
+	public void put(K key, V value) {
+		Args.notNull(key, "key");
+		Args.notNull(value, "value");
+		
+		final long now    = now();
+		final int  weight = weigh(key, value);
+		
+		Node<K,V> node = new Node<>(key, value, weight, now);
+		for(;;) {
+			Node<K,V> prior = data.putIfAbsent(key, node);
+			if(null == prior) {
+				afterWrite(new AddTask(node));
+				return;
+			}
+			
+			//updates in place only if the prior node is still alive and mapped.
+			int     delta = 0;
+			boolean dead;
+			synchronized (prior) {
+				dead = !prior.alive || data.get(key) != prior;
+				if(!dead) {
+					delta 			 = weight - prior.weight;
+					prior.weight 	 = weight;
+					prior.value 	 = value;
+					prior.writeTime  = now;
+					prior.accessTime = now;
+				}
+			}
+			
+			if(!dead) {
+				afterWrite(new UpdateTask(prior, delta));
+				return;
+			}
+			
+			//the prior node is evicted, expired or removed concurrently.
+			if(data.replace(key, prior, node)) {
+				afterWrite(new AddTask(node));
+				return;
+			}
+		}
+	}
+
+	@Override
+	public boolean containsKey(K key) {
+		Node<K,V> node = data.get(key);
+		return null != node && !isExpired(node, now());
+	}
+
+	@Override
+	public boolean remove(K key) {
+		return null != getAndRemove(key);
+	}
+
+	@Override
+	public V getAndRemove(K key) {
+		Node<K,V> node = data.remove(key);
+		if(null == node) {
+			return null;
+		}
+		afterWrite(new RemoveTask(node));
+		return isExpired(node, now()) ? null : node.value;
+	}
+
+	@Override
+	public void clear() {
+		evictionLock.lock();
+		try{
+			maintenance();
+			
+			for(Node<K,V> node : data.values()) {
+				if(data.remove(node.key, node)) {
+					unlink(node);
+					node.alive = false;
+				}
+			}
+		}finally{
+			evictionLock.unlock();
+		}
+	}
+	
+	@Override
+	public CacheStats getStats() {
+		return new CacheStats(hitCount.sum(), missCount.sum(), evictionCount.sum(), 
+							  loadSuccessCount.sum(), loadFailureCount.sum(), totalLoadTime.sum());
+	}
+
+	/**
+	 * Performs the pending maintenance work immediately, blocks if others are doing.
+	 */
+	public void cleanUp() {
+		evictionLock.lock();
+		try{
+			maintenance();
+		}finally{
+			evictionLock.unlock();
+		}
+	}
+	
+	/**
+	 * Returns the live node of the key and records the read, or returns <code>null</code> if absent or expired.
+	 */
+	protected Node<K,V> getIfPresent(K key, long now) {
+		Node<K,V> node = data.get(key);
+		if(null == node) {
+			return null;
+		}
+		
+		if(isExpired(node, now)) {
+			if(data.remove(key, node)) {
+				evictionCount.increment();
+				afterWrite(new RemoveTask(node));
+			}
+			return null;
+		}
+		
+		if(expireAfterAccessNanos > 0) {
+			node.accessTime = now;
+		}
+		
+		afterRead(node);
+		return node;
+	}
+	
+	/**
+	 * Returns the current time in nanoseconds, or zero if this cache is not time based.
+	 */
+	protected final long now() {
+		return timed ? System.nanoTime() : 0L;
+	}
+	
+	protected boolean isExpired(Node<K,V> node, long now) {
+		return (expireAfterWriteNanos  > 0 && now - node.writeTime  >= expireAfterWriteNanos) ||
+			   (expireAfterAccessNanos > 0 && now - node.accessTime >= expireAfterAccessNanos);
+	}
+	
+	protected int weigh(K key, V value) {
+		if(null == weigher) {
+			return 1;
+		}
+		int weight = weigher.weigh(key, value);
+		Args.assertTrue(weight >= 0, "The weight must not be negative");
+		return weight;
+	}
+	
+	protected V load(K key, Function<? super K, ? extends V> loader) {
+		final long start = System.nanoTime();
+		try{
+			V value = loader.apply(key);
+			loadSuccessCount.increment();
+			return value;
+		}catch(RuntimeException e) {
+			loadFailureCount.increment();
+			throw e;
+		}finally{
+			totalLoadTime.add(System.nanoTime() - start);
+		}
+	}
+	
+	/**
+	 * Reloads the value asynchronously, the current value is still returned while refreshing.
+	 */
+	protected void refresh(final Node<K,V> node, final Function<? super K, ? extends V> loader) {
+		if(null != refreshing.putIfAbsent(node.key, node)) {
+			return;
+		}
+		
+		try{
+			executor.execute(() -> {
+				try{
+					V value = load(node.key, loader);
+					if(null != value && data.get(node.key) == node) {
+						put(node.key, value);
+					}
+				}catch(Throwable e) {
+					log.warn("Error refreshing the cached value of key '{}', {}", node.key, e.getMessage(), e);
+				}finally{
+					refreshing.remove(node.key, node);
+				}
+			});
+		}catch(RuntimeException e) {
+			refreshing.remove(node.key, node);
+			log.warn("Cannot submit the refreshing of key '{}', {}", node.key, e.getMessage());
+		}
+	}
+	
+	protected void afterRead(Node<K,V> node) {
+		if(readBuffer.offer(node)) {
+			tryMaintenance();
+		}
+	}
+	
+	protected void afterWrite(Runnable task) {
+		writeBuffer.offer(task);
+		tryMaintenance();
+	}
+	
+	/**
+	 * Drains the buffers if no other thread is doing that, never blocks.
+	 */
+	protected void tryMaintenance() {
+		do{
+			if(!evictionLock.tryLock()) {
+				return;
+			}
+			try{
+				maintenance();
+			}finally{
+				evictionLock.unlock();
+			}
+		}while(!writeBuffer.isEmpty());
+	}
+	
+	/**
+	 * Must be called under the eviction lock.
+	 */
+	protected void maintenance() {
+		readBuffer.drainTo(this);
+		
+		Runnable task;
+		while(null != (task = writeBuffer.poll())) {
+			task.run();
+		}
+		
+		expire();
+		evict();
+	}
+	
+	void onAccess(Node<K,V> node) {
+		if(!node.alive) {
+			return;
+		}
+		
+		sketch.increment(node.key);
+		
+		switch (node.queue) {
+			case QUEUE_WINDOW:
+				window.moveToBack(node);
+				break;
+			case QUEUE_PROBATION:
+				probation.remove(node);
+				protect.addLast(node);
+				node.queue = QUEUE_PROTECTED;
+				protectedWeight += node.policyWeight;
+				demoteFromProtected();
+				break;
+			case QUEUE_PROTECTED:
+				protect.moveToBack(node);
+				break;
+			default:
+				//not linked yet or removed.
+		}
+	}
+	
+	private void onUpdate(Node<K,V> node, int delta) {
+		if(!node.alive) {
+			return;
+		}
+		
+		//the updates carry the weight differences, so they can be applied in any order.
+		node.policyWeight += delta;
+		
+		if(node.queue == QUEUE_NONE) {
+			//the update runs before the add task, which counts the current weight.
+			return;
+		}
+		
+		switch (node.queue) {
+			case QUEUE_WINDOW:
+				windowWeight += delta;
+				break;
+			case QUEUE_PROBATION:
+				mainWeight += delta;
+				break;
+			case QUEUE_PROTECTED:
+				mainWeight += delta;
+				protectedWeight += delta;
+				break;
+		}
+		
+		if(expireAfterWriteNanos > 0) {
+			writeOrder.moveToBack(node);
+		}
+		
+		onAccess(node);
+	}
+	
+	private void demoteFromProtected() {
+		while(protectedWeight > maxProtected) {
+			Node<K,V> node = protect.pollFirst();
+			if(null == node) {
+				break;
+			}
+			protectedWeight -= node.policyWeight;
+			probation.addLast(node);
+			node.queue = QUEUE_PROBATION;
+		}
+	}
+	
+	private void expire() {
+		if(expireAfterWriteNanos <= 0 && expireAfterAccessNanos <= 0) {
+			return;
+		}
+		
+		final long now = now();
+		
+		if(expireAfterAccessNanos > 0) {
+			expireAccessOrder(window, now);
+			expireAccessOrder(probation, now);
+			expireAccessOrder(protect, now);
+		}
+		
+		if(expireAfterWriteNanos > 0) {
+			Node<K,V> node;
+			while(null != (node = writeOrder.peekFirst()) && isExpired(node, now)) {
+				evictNode(node);
+			}
+		}
+	}
+	
+	private void expireAccessOrder(NodeDeque<K,V> deque, long now) {
+		Node<K,V> node;
+		while(null != (node = deque.peekFirst()) && isExpired(node, now)) {
+			evictNode(node);
+		}
+	}
+	
+	private void evict() {
+		while(windowWeight > maxWindow) {
+			Node<K,V> candidate = window.pollFirst();
+			if(null == candidate) {
+				break;
+			}
+			
+			windowWeight -= candidate.policyWeight;
+			probation.addLast(candidate);
+			candidate.queue = QUEUE_PROBATION;
+			mainWeight += candidate.policyWeight;
+			
+			while(mainWeight > maxMain) {
+				Node<K,V> victim = probation.peekFirst();
+				if(null == victim) {
+					victim = protect.peekFirst();
+				}
+				
+				if(null == victim) {
+					break;
+				}
+				
+				if(null == candidate || !candidate.alive) {
+					evictNode(victim);
+				}else if(victim == candidate || !admit(candidate, victim)) {
+					evictNode(candidate);
+					candidate = null;
+				}else{
+					evictNode(victim);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Returns <code>true</code> if the candidate is more popular than the victim.
+	 */
+	private boolean admit(Node<K,V> candidate, Node<K,V> victim) {
+		return sketch.frequency(candidate.key) > sketch.frequency(victim.key);
+	}
+	
+	protected void evictNode(Node<K,V> node) {
+		unlink(node);
+		node.alive = false;
+		if(data.remove(node.key, node)) {
+			evictionCount.increment();
+		}
+	}
+	
+	private void unlink(Node<K,V> node) {
+		switch (node.queue) {
+			case QUEUE_WINDOW:
+				window.remove(node);
+				windowWeight -= node.policyWeight;
+				break;
+			case QUEUE_PROBATION:
+				probation.remove(node);
+				mainWeight -= node.policyWeight;
+				break;
+			case QUEUE_PROTECTED:
+				protect.remove(node);
+				protectedWeight -= node.policyWeight;
+				mainWeight -= node.policyWeight;
+				break;
+			default:
+				//not linked.
+				return;
+		}
+		
+		if(expireAfterWriteNanos > 0) {
+			writeOrder.remove(node);
+		}
+		node.queue = QUEUE_NONE;
+	}
+	
+	private final class AddTask implements Runnable {
+		private final Node<K,V> node;
+		
+		AddTask(Node<K,V> node) {
+			this.node = node;
+		}
+		
+		@Override
+		public void run() {
+			if(!node.alive) {
+				return;
+			}
+			sketch.increment(node.key);
+			window.addLast(node);
+			node.queue = QUEUE_WINDOW;
+			windowWeight += node.policyWeight;
+			
+			if(expireAfterWriteNanos > 0) {
+				writeOrder.addLast(node);
+			}
+		}
+	}
+	
+	private final class UpdateTask implements Runnable {
+		private final Node<K,V> node;
+		private final int		delta;
+		
+		UpdateTask(Node<K,V> node, int delta) {
+			this.node  = node;
+			this.delta = delta;
+		}
+		
+		@Override
+		public void run() {
+			onUpdate(node, delta);
+		}
+	}
+	
+	private final class RemoveTask implements Runnable {
+		private final Node<K,V> node;
+		
+		RemoveTask(Node<K,V> node) {
+			this.node = node;
+		}
+		
+		@Override
+		public void run() {
+			unlink(node);
+			node.alive = false;
+		}
+	}
+	
+	static final class Node<K,V> {
+		final K key;
+		
+		volatile V		 value;
+		volatile boolean alive = true;
+		volatile long	 writeTime;
+		volatile long	 accessTime;
+		
+		//the weight of the current value, guarded by the node itself.
+		int		  weight;
+		
+		//guarded by the eviction lock.
+		int 	  queue = QUEUE_NONE;
+		int		  policyWeight;
+		Node<K,V> prev;
+		Node<K,V> next;
+		Node<K,V> prevInWriteOrder;
+		Node<K,V> nextInWriteOrder;
+		
+		Node(K key, V value, int weight, long now) {
+			this.key   		  = key;
+			this.value 		  = value;
+			this.weight 	  = weight;
+			this.policyWeight = weight;
+			this.writeTime    = now;
+			this.accessTime   = now;
+		}
+	}
+	
+	/**
+	 * A doubly-linked list of the nodes ordered by access or write, not thread safe.
+	 */
+	static final class NodeDeque<K,V> {
+		private final boolean writeOrder;
+		
+		private Node<K,V> first;
+		private Node<K,V> last;
+		
+		NodeDeque(boolean writeOrder) {
+			this.writeOrder = writeOrder;
+		}
+		
+		Node<K,V> peekFirst() {
+			return first;
+		}
+		
+		Node<K,V> pollFirst() {
+			Node<K,V> node = first;
+			if(null != node) {
+				remove(node);
+			}
+			return node;
+		}
+		
+		void addLast(Node<K,V> node) {
+			setPrev(node, last);
+			setNext(node, null);
+			if(null == last) {
+				first = node;
+			}else{
+				setNext(last, node);
+			}
+			last = node;
+		}
+		
+		void moveToBack(Node<K,V> node) {
+			if(node != last) {
+				remove(node);
+				addLast(node);
+			}
+		}
+		
+		void remove(Node<K,V> node) {
+			Node<K,V> prev = prev(node);
+			Node<K,V> next = next(node);
+			
+			if(null == prev) {
+				first = next;
+			}else{
+				setNext(prev, next);
+			}
+			
+			if(null == next) {
+				last = prev;
+			}else{
+				setPrev(next, prev);
+			}
+			
+			setPrev(node, null);
+			setNext(node, null);
+		}
+		
+		private Node<K,V> prev(Node<K,V> node) {
+			return writeOrder ? node.prevInWriteOrder : node.prev;
+		}
+		
+		private Node<K,V> next(Node<K,V> node) {
+			return writeOrder ? node.nextInWriteOrder : node.next;
+		}
+		
+		private void setPrev(Node<K,V> node, Node<K,V> prev) {
+			if(writeOrder) {
+				node.prevInWriteOrder = prev;
+			}else{
+				node.prev = prev;
+			}
+		}
+		
+		private void setNext(Node<K,V> node, Node<K,V> next) {
+			if(writeOrder) {
+				node.nextInWriteOrder = next;
+			}else{
+				node.next = next;
+			}
+		}
+	}
+	
+	/**
+	 * Striped lossy ring buffers recording the reads, a read is dropped if the buffer is full.
+	 */
+	static final class ReadBuffer<K,V> {
+		static final int STRIPES     = ceilingPowerOfTwo(Runtime.getRuntime().availableProcessors()) * 4;
+		static final int BUFFER_SIZE = 16;
+		static final int BUFFER_MASK = BUFFER_SIZE - 1;
+		
+		private final AtomicLong[] 				 	  writeCounters = new AtomicLong[STRIPES];
+		private final AtomicLongArray			 	  readCounters  = new AtomicLongArray(STRIPES);
+		private final AtomicReferenceArray<Node<K,V>> buffers  		= new AtomicReferenceArray<>(STRIPES * BUFFER_SIZE);
+		
+		ReadBuffer() {
+			for(int i=0;i<STRIPES;i++) {
+				writeCounters[i] = new AtomicLong();
+			}
+		}
+		
+		/**
+		 * Returns <code>true</code> if the buffer should be drained.
+		 */
+		boolean offer(Node<K,V> node) {
+			int  stripe = probe() & (STRIPES - 1);
+			
+			AtomicLong counter = writeCounters[stripe];
+			long 	   w 	   = counter.get();
+			long 	   pending = w - readCounters.get(stripe);
+			
+			if(pending >= BUFFER_SIZE) {
+				return true;
+			}
+			
+			if(counter.compareAndSet(w, w + 1)) {
+				buffers.lazySet(stripe * BUFFER_SIZE + (int)(w & BUFFER_MASK), node);
+				return pending + 1 >= BUFFER_SIZE;
+			}
+			
+			return false;
+		}
+		
+		/**
+		 * Must be called under the eviction lock.
+		 */
+		void drainTo(ConcurrentLFUCache<K,V> cache) {
+			for(int stripe=0;stripe<STRIPES;stripe++) {
+				long r = readCounters.get(stripe);
+				long w = writeCounters[stripe].get();
+				
+				for(;r < w; r++) {
+					int 	  index = stripe * BUFFER_SIZE + (int)(r & BUFFER_MASK);
+					Node<K,V> node  = buffers.get(index);
+					if(null == node) {
+						//not published yet.
+						break;
+					}
+					buffers.lazySet(index, null);
+					cache.onAccess(node);
+				}
+				
+				readCounters.lazySet(stripe, r);
+			}
+		}
+		
+		private static int probe() {
+			int h = (int)Thread.currentThread().getId() * 0x9e3779b9;
+			return h ^ (h >>> 16);
+		}
+		
+		private static int ceilingPowerOfTwo(int x) {
+			return 1 << -Integer.numberOfLeadingZeros(x - 1);
+		}
+	}
+}
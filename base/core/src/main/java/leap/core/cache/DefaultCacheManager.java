@@ -26,6 +26,7 @@ import leap.lang.logging.LogFactory;
 
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 
 public class DefaultCacheManager implements CacheManager, PostCreateBean, FactoryBean {
@@ -46,6 +47,30 @@ public class DefaultCacheManager implements CacheManager, PostCreateBean, Factor
 	    return cache;
     }
 
+    @Override
+    public <K, V> Cache<K, V> createConcurrentCache(int maxSize) {
+        return new ConcurrentLFUCache<K, V>(maxSize);
+    }
+
+    @Override
+    public <K, V> Cache<K, V> createConcurrentCache(String cacheName) throws ObjectExistsException {
+    	Cache<K, V> cache = new ConcurrentLFUCache<>();
+    	registerCache(cacheName, cache);
+    	return cache;
+    }
+
+    @Override
+    public <K, V> Cache<K, V> createCache(CacheSpec<K, V> spec) {
+        return new ConcurrentLFUCache<K, V>(spec);
+    }
+
+    @Override
+    public <K, V> Cache<K, V> createCache(String cacheName, CacheSpec<K, V> spec) throws ObjectExistsException {
+    	Cache<K, V> cache = new ConcurrentLFUCache<>(spec);
+    	registerCache(cacheName, cache);
+    	return cache;
+    }
+
 	@Override
     @SuppressWarnings("unchecked")
 	public <K, V> Cache<K, V> getCache(String cacheName) {
@@ -68,6 +93,20 @@ public class DefaultCacheManager implements CacheManager, PostCreateBean, Factor
 		caches.put(name, cache);
     }
 
+	@Override
+	public CacheStats getCacheStats(String cacheName) throws ObjectNotFoundException {
+		return getCache(cacheName).getStats();
+	}
+
+	@Override
+	public Map<String, CacheStats> getAllCacheStats() {
+		Map<String, CacheStats> stats = new TreeMap<>();
+		for(Entry<String, Cache<?,?>> entry : caches.entrySet()){
+			stats.put(entry.getKey(), entry.getValue().getStats());
+		}
+		return stats;
+	}
+
 	@Override
     public void clearCache(String cacheName) throws ObjectNotFoundException {
 		getCache(cacheName).clear();
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.core.cache;
+
+/**
+ * A probabilistic multiset for estimating the popularity of the keys within a time window (count-min sketch).
+ * 
+ * <p>
+ * Each key is counted by four 4-bit counters (max 15), all counters are halved when 
+ * the number of increments reached the sample size, so the older history fades out.
+ * 
+ * <p>
+ * Not thread safe, must be guarded by the caller.
+ */
+final class FrequencySketch {
+	
+	private static final long[] SEEDS      = new long[]{0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+	private static final long   RESET_MASK = 0x7777777777777777L;
+	private static final long   ONE_MASK   = 0x1111111111111111L;
+	
+	private final long[] table;
+	private final int	 tableMask;
+	private final int	 sampleSize;
+	
+	private int size;
+	
+	FrequencySketch(int maximumSize) {
+		int capacity = ceilingPowerOfTwo(Math.max(16, maximumSize));
+		
+		this.table 		= new long[capacity];
+		this.tableMask  = capacity - 1;
+		this.sampleSize = 10 * Math.max(16, maximumSize);
+	}
+	
+	/**
+	 * Returns the estimated number of occurrences of the key, up to the maximum (15).
+	 */
+	int frequency(Object key) {
+		int hash  = spread(key.hashCode());
+		int start = (hash & 3) << 2;
+		int freq  = Integer.MAX_VALUE;
+		for(int i=0;i<4;i++) {
+			int  index = indexOf(hash, i);
+			int  count = (int)((table[index] >>> ((start + i) << 2)) & 0xfL);
+			freq = Math.min(freq, count);
+		}
+		return freq;
+	}
+	
+	/**
+	 * Increments the popularity of the key if it does not exceed the maximum (15).
+	 */
+	void increment(Object key) {
+		int hash  = spread(key.hashCode());
+		int start = (hash & 3) << 2;
+		
+		boolean added = false;
+		for(int i=0;i<4;i++) {
+			added |= incrementAt(indexOf(hash, i), start + i);
+		}
+		
+		if(added && ++size == sampleSize) {
+			reset();
+		}
+	}
+	
+	private boolean incrementAt(int i, int j) {
+		int  offset = j << 2;
+		long mask   = (0xfL << offset);
+		if((table[i] & mask) != mask) {
+			table[i] += (1L << offset);
+			return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * Halves all the counters.
+	 */
+	private void reset() {
+		int count = 0;
+		for(int i=0;i<table.length;i++) {
+			count   += Long.bitCount(table[i] & ONE_MASK);
+			table[i] = (table[i] >>> 1) & RESET_MASK;
+		}
+		size = (size >>> 1) - (count >>> 2);
+	}
+	
+	private int indexOf(int item, int i) {
+		long hash = (item + SEEDS[i]) * SEEDS[i];
+		hash += (hash >>> 32);
+		return ((int)hash) & tableMask;
+	}
+	
+	private static int spread(int x) {
+		x = ((x >>> 16) ^ x) * 0x45d9f3b;
+		x = ((x >>> 16) ^ x) * 0x45d9f3b;
+		return (x >>> 16) ^ x;
+	}
+	
+	private static int ceilingPowerOfTwo(int x) {
+		return 1 << -Integer.numberOfLeadingZeros(x - 1);
+	}
+}
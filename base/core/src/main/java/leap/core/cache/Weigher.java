@@ -0,0 +1,31 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.core.cache;
+
+/**
+ * Calculates the weight of a cache entry, used for weight bounded caches.
+ * 
+ * @see CacheSpec#setMaxWeight(long, Weigher)
+ */
+@FunctionalInterface
+public interface Weigher<K,V> {
+
+	/**
+	 * Returns the weight (e.g. the number of bytes) of the entry, must be zero or positive.
+	 */
+	int weigh(K key, V value);
+	
+}
@@ -22,4 +22,15 @@ public interface ResultSetReader<T> {
 
 	T read(ResultSet rs) throws SQLException;
 	
+	/**
+	 * Returns the fetch size hint of the underlying statement, the default is <code>0</code> (driver's default).
+	 * 
+	 * <p>
+	 * A positive value means this reader consumes the {@link ResultSet} row by row and does not hold the rows,
+	 * so the driver should stream the results instead of loading all the rows into memory.
+	 */
+	default int getFetchSize() {
+		return 0;
+	}
+	
 }
\ No newline at end of file
@@ -23,7 +23,6 @@ import leap.core.security.token.TokenVerifyException.ErrorCode;
 import leap.lang.Args;
 import leap.lang.Strings;
 import leap.lang.json.JSON;
-import leap.lang.json.JsonValue;
 
 public abstract class AbstractJwtVerifier implements JwtVerifier {
 
@@ -31,25 +30,27 @@ public abstract class AbstractJwtVerifier implements JwtVerifier {
     public Map<String, Object> verify(String token) throws TokenVerifyException {
         Args.notEmpty(token, "token");
 
-        String[] parts = Strings.split(token, '.');
-        if (parts.length < 2 || parts.length > 3) {
-            throw new TokenVerifyException(ErrorCode.INVALID_TOKEN, "Invalid jwt token, wrong number of parts: " + parts.length);
+        int dots  = 0;
+        int first = -1;
+        int last  = -1;
+        for (int i = 0; i < token.length(); i++) {
+            if (token.charAt(i) == '.') {
+                if (first < 0) {
+                    first = i;
+                }
+                last = i;
+                dots++;
+            }
         }
 
-        String content;
-        String payload;
-        String signature;
-
-        if (parts.length == 2) {
-            content = parts[0];
-            payload = parts[0];
-            signature = parts[1];
-        } else {
-            content = parts[0] + "." + parts[1];
-            payload = parts[1];
-            signature = parts[2];
+        if (dots < 1 || dots > 2) {
+            throw new TokenVerifyException(ErrorCode.INVALID_TOKEN, "Invalid jwt token, wrong number of parts: " + (dots + 1));
         }
 
+        String content   = token.substring(0, last);
+        String payload   = dots == 1 ? content : token.substring(first + 1, last);
+        String signature = token.substring(last + 1);
+
         if (payload.isEmpty() || signature.isEmpty()) {
             throw new TokenVerifyException(ErrorCode.INVALID_TOKEN, "Invalid jwt token, both payload and signature parts must not be empty");
         }
@@ -57,24 +58,25 @@ public abstract class AbstractJwtVerifier implements JwtVerifier {
         return verify(content, payload, signature);
     }
 
+    @SuppressWarnings("unchecked")
     protected Map<String, Object> verify(String content, String payload, String signature) {
         if (!verifySignature(content, signature)) {
             throw new TokenVerifyException(ErrorCode.INVALID_SIGNATURE, "Signature verification failed");
         }
 
-        JsonValue json;
+        Object json;
         try {
-            json = JSON.decodeToJsonValue(JWT.base64UrlDeocodeToString(payload));
+            json = JSON.decode(Strings.newStringUtf8(JWT.base64UrlDecode(payload, 0, payload.length())));
         } catch (Exception e) {
             throw new TokenVerifyException(ErrorCode.INVALID_PAYLOAD, "Parse payload as json object failed, " + e.getMessage());
         }
 
-        if (!json.isMap()) {
+        if (!(json instanceof Map)) {
             throw new TokenVerifyException(ErrorCode.INVALID_PAYLOAD, "The payload must be json object '{..}'");
         }
 
         //get claims
-        Map<String, Object> claims = json.asMap();
+        Map<String, Object> claims = (Map<String, Object>)json;
 
         //verify expiration
         verifyExpiration(claims);
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.core.security.token.jwt;
+
+import leap.core.cache.Cache;
+import leap.core.cache.CacheSpec;
+import leap.core.cache.CacheStats;
+import leap.core.cache.ConcurrentLFUCache;
+import leap.core.security.token.TokenVerifyException;
+import leap.lang.Args;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link JwtVerifier} caches the claims of the tokens verified by the underlying verifier.
+ *
+ * <p>
+ * The verified tokens are keyed by the signature part of the token, a cached token is returned only
+ * if the whole token equals to the verified one, so the signature verification and the payload parsing
+ * are skipped for the tokens verified before.
+ *
+ * <p>
+ * A cached token expires when the 'exp' claim expires or after the max expires, whichever comes first.
+ * The failed verifications are not cached.
+ */
+public class CachingJwtVerifier implements JwtVerifier {
+
+    public static final int DEFAULT_MAX_SIZE          = 10240;
+    public static final int DEFAULT_MAX_EXPIRES_IN_MS = 5 * 60 * 1000; //5 minutes
+
+    protected final JwtVerifier                          verifier;
+    protected final ConcurrentLFUCache<String, Verified> cache;
+    protected final int                                  maxExpiresInMs;
+
+    public CachingJwtVerifier(JwtVerifier verifier) {
+        this(verifier, DEFAULT_MAX_SIZE, DEFAULT_MAX_EXPIRES_IN_MS);
+    }
+
+    public CachingJwtVerifier(JwtVerifier verifier, int maxSize, int maxExpiresInMs) {
+        Args.notNull(verifier, "verifier");
+        Args.assertTrue(maxExpiresInMs > 0, "The maxExpiresInMs must be positive");
+
+        this.verifier       = verifier;
+        this.maxExpiresInMs = maxExpiresInMs;
+        this.cache          = new ConcurrentLFUCache<>(new CacheSpec<String, Verified>()
+                                    .setMaxSize(maxSize)
+                                    .setExpireAfterWrite(maxExpiresInMs, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Returns the underlying verifier.
+     */
+    public JwtVerifier getVerifier() {
+        return verifier;
+    }
+
+    /**
+     * Returns the cache of the verified tokens.
+     */
+    public Cache<String, ?> getCache() {
+        return cache;
+    }
+
+    /**
+     * Returns the statistics of the cache, i.e. the hit rate.
+     */
+    public CacheStats getStats() {
+        return cache.getStats();
+    }
+
+    @Override
+    public Map<String, Object> verify(String token) throws TokenVerifyException {
+        Args.notEmpty(token, "token");
+
+        final String key = token.substring(token.lastIndexOf('.') + 1);
+        final long   now = System.currentTimeMillis();
+
+        Verified verified = cache.get(key);
+        if(null != verified && verified.token.equals(token)) {
+            if(verified.expiresAt > now) {
+                return new LinkedHashMap<>(verified.claims);
+            }
+            cache.remove(key);
+        }
+
+        Map<String, Object> claims = verifier.verify(token);
+
+        long expiresAt = now + maxExpiresInMs;
+
+        Object exp = claims.get(JWT.CLAIM_EXPIRATION_TIME);
+        if(exp instanceof Long && (Long)exp > 0) {
+            expiresAt = Math.min(expiresAt, (Long)exp);
+        }
+
+        if(expiresAt > now) {
+            cache.put(key, new Verified(token, Collections.unmodifiableMap(new LinkedHashMap<>(claims)), expiresAt));
+        }
+
+        return claims;
+    }
+
+    protected static final class Verified {
+        final String              token;
+        final Map<String, Object> claims;
+        final long                expiresAt;
+
+        Verified(String token, Map<String, Object> claims, long expiresAt) {
+            this.token     = token;
+            this.claims    = claims;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
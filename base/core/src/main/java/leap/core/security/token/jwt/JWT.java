@@ -15,6 +15,8 @@
  */
 package leap.core.security.token.jwt;
 
+import java.util.Arrays;
+
 import leap.lang.Strings;
 import leap.lang.codec.Base64;
 
@@ -34,6 +36,21 @@ public class JWT {
     public static final String CLAIM_AUDIENCE        = "aud";
     public static final String CLAIM_JWT_ID          = "jti";
 
+    private static final byte[] URL_DECODE_TABLE = new byte[128];
+
+    static {
+        Arrays.fill(URL_DECODE_TABLE, (byte)-1);
+        for (int i = 0; i < 26; i++) {
+            URL_DECODE_TABLE['A' + i] = (byte)i;
+            URL_DECODE_TABLE['a' + i] = (byte)(26 + i);
+        }
+        for (int i = 0; i < 10; i++) {
+            URL_DECODE_TABLE['0' + i] = (byte)(52 + i);
+        }
+        URL_DECODE_TABLE['-'] = URL_DECODE_TABLE['+'] = 62;
+        URL_DECODE_TABLE['_'] = URL_DECODE_TABLE['/'] = 63;
+    }
+
     public static String base64UrlEncode(String data) {
         return base64UrlEncode(Strings.getBytesUtf8(data));
     }
@@ -58,6 +75,57 @@ public class JWT {
     public static String base64UrlDeocodeToString(String encoded) {
         return Strings.newStringUtf8(base64UrlDeocode(encoded));
     }
+
+    /**
+     * Decodes the base64url encoded characters in the range <code>[start, end)</code> of the given string.
+     *
+     * <p>
+     * The trailing padding characters '=' are optional. Unlike {@link #base64UrlDeocode(String)}, the characters
+     * are decoded directly into the returned byte array without creating any intermediate string or byte array.
+     *
+     * @throws IllegalArgumentException if the characters are not valid base64url encoded.
+     */
+    public static byte[] base64UrlDecode(String encoded, int start, int end) {
+        while (end > start && encoded.charAt(end - 1) == '=') {
+            end--;
+        }
+
+        int len = end - start;
+        if (len % 4 == 1) {
+            throw new IllegalArgumentException("Invalid base64url encoded length " + len);
+        }
+
+        byte[] decoded = new byte[(len / 4) * 3 + (len % 4 == 0 ? 0 : len % 4 - 1)];
+
+        int i = start;
+        int o = 0;
+        for (; i + 4 <= end; i += 4) {
+            int v = decode(encoded, i) << 18 | decode(encoded, i + 1) << 12 | decode(encoded, i + 2) << 6 | decode(encoded, i + 3);
+            decoded[o++] = (byte)(v >> 16);
+            decoded[o++] = (byte)(v >> 8);
+            decoded[o++] = (byte)v;
+        }
+
+        if (i < end) {
+            int v = decode(encoded, i) << 18 | decode(encoded, i + 1) << 12;
+            decoded[o++] = (byte)(v >> 16);
+            if (i + 2 < end) {
+                v |= decode(encoded, i + 2) << 6;
+                decoded[o] = (byte)(v >> 8);
+            }
+        }
+
+        return decoded;
+    }
+
+    private static int decode(String encoded, int index) {
+        char c = encoded.charAt(index);
+        int  v = c < 128 ? URL_DECODE_TABLE[c] : -1;
+        if (v < 0) {
+            throw new IllegalArgumentException("Invalid base64url character '" + c + "' at index " + index);
+        }
+        return v;
+    }
 	
 	protected JWT() {
 		
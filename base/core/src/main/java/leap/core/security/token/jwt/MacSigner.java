@@ -15,6 +15,7 @@
  */
 package leap.core.security.token.jwt;
 
+import java.security.MessageDigest;
 import java.util.Map;
 
 import javax.crypto.Mac;
@@ -24,6 +25,7 @@ import javax.crypto.spec.SecretKeySpec;
 import leap.core.security.token.TokenSignatureException;
 import leap.core.security.token.TokenVerifyException;
 import leap.lang.Args;
+import leap.lang.Strings;
 
 public class MacSigner extends AbstractJwtSigner implements JwtVerifier {
 	
@@ -33,6 +35,8 @@ public class MacSigner extends AbstractJwtSigner implements JwtVerifier {
     protected final String     macAlgorithm;
     protected final SecretKey  secretKey;
 
+    private final ThreadLocal<Mac> macs = new ThreadLocal<>();
+
 	protected JwtVerifier verifier;
 	
 	public MacSigner(String secret) {
@@ -60,7 +64,20 @@ public class MacSigner extends AbstractJwtSigner implements JwtVerifier {
 
 	@Override
 	protected byte[] signToBytes(String payload) {
-		return sign(macAlgorithm,secretKey,payload);
+		Mac mac = macs.get();
+		try {
+			if(null == mac) {
+				mac = Mac.getInstance(macAlgorithm);
+				mac.init(secretKey);
+				macs.set(mac);
+			}
+
+			//The mac object is reset after doFinal, so it can be reused by the thread.
+			return mac.doFinal(Strings.getBytesUtf8(payload));
+		} catch (Exception e) {
+			macs.remove();
+			throw new TokenSignatureException("Error signing data using algorithm '" + macAlgorithm + ", " + e.getMessage(), e);
+		}
 	}
 	
     @Override
@@ -74,18 +91,14 @@ public class MacSigner extends AbstractJwtSigner implements JwtVerifier {
     protected class Verifier extends AbstractJwtVerifier {
         @Override
         protected boolean verifySignature(String content, String signature) {
-            return sign(content).equals(signature);
+            byte[] signedData;
+            try {
+                signedData = JWT.base64UrlDecode(signature, 0, signature.length());
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+            return MessageDigest.isEqual(signToBytes(content), signedData);
         }
     }
-	
-	static byte[] sign(String alg, SecretKey key, String data) {
-		try {
-	        Mac mac = Mac.getInstance(alg);
-	        mac.init(key);
-	        return mac.doFinal(data.getBytes());
-        } catch (Exception e) {
-        	throw new TokenSignatureException("Error signing data using algorithm '" + alg + ", " + e.getMessage(), e);
-        }
-	}
 
 }
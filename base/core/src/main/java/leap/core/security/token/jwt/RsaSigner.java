@@ -21,6 +21,7 @@ import java.security.interfaces.RSAPrivateKey;
 
 import leap.core.security.token.TokenSignatureException;
 import leap.lang.Args;
+import leap.lang.Strings;
 
 public class RsaSigner extends AbstractJwtSigner {
 	
@@ -29,6 +30,8 @@ public class RsaSigner extends AbstractJwtSigner {
 	protected final String        jwtAlgorithm;
 	protected final String        rsaAlgorithm;
 	protected final RSAPrivateKey privateKey;
+
+	private final ThreadLocal<Signature> signatures = new ThreadLocal<>();
 	
 	public RsaSigner(RSAPrivateKey privateKey) {
 		this(JWT.ALG_RS256, ALG_SHA256_WITH_RSA, privateKey);
@@ -55,18 +58,21 @@ public class RsaSigner extends AbstractJwtSigner {
 
 	@Override
 	protected byte[] signToBytes(String payload) {
-		return sign(rsaAlgorithm,privateKey,payload);
-	}
-	
-	static byte[] sign(String alg, RSAPrivateKey key, String data) {
-        try {
-            Signature signature = Signature.getInstance(alg);
-            signature.initSign(key);
-            signature.update(data.getBytes());
-            return signature.sign();
-        } catch (GeneralSecurityException e) {
-            throw new TokenSignatureException("Error signing data using algorithm '" + alg + ", " + e.getMessage(), e);
-        }
+		Signature signature = signatures.get();
+		try {
+			if(null == signature) {
+				signature = Signature.getInstance(rsaAlgorithm);
+				signature.initSign(privateKey);
+				signatures.set(signature);
+			}
+
+			//The signature object is reset to the state after initSign, so it can be reused by the thread.
+			signature.update(Strings.getBytesUtf8(payload));
+			return signature.sign();
+		} catch (GeneralSecurityException e) {
+			signatures.remove();
+			throw new TokenSignatureException("Error signing data using algorithm '" + rsaAlgorithm + ", " + e.getMessage(), e);
+		}
 	}
 
 }
\ No newline at end of file
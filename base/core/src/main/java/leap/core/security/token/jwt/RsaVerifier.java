@@ -20,11 +20,14 @@ import java.security.Signature;
 import java.security.interfaces.RSAPublicKey;
 
 import leap.lang.Args;
+import leap.lang.Strings;
 
 public class RsaVerifier extends AbstractJwtVerifier {
     
     protected RSAPublicKey publicKey;
     protected String       rsaAlgorithm;
+
+    private final ThreadLocal<Signature> signatures = new ThreadLocal<>();
     
     public RsaVerifier(RSAPublicKey publicKey) {
         this(publicKey, RsaSigner.ALG_SHA256_WITH_RSA);
@@ -39,16 +42,26 @@ public class RsaVerifier extends AbstractJwtVerifier {
 
     @Override
     protected boolean verifySignature(String content, String signed) {
+        byte[] signedData;
+        try {
+            signedData = JWT.base64UrlDecode(signed, 0, signed.length());
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+
+        Signature signature = signatures.get();
         try {
-            byte[] signedData  = JWT.base64UrlDeocode(signed);
-            byte[] contentData = content.getBytes();
-            
-            Signature signature = Signature.getInstance(rsaAlgorithm);
-            signature.initVerify(publicKey);
-            signature.update(contentData);
+            if(null == signature) {
+                signature = Signature.getInstance(rsaAlgorithm);
+                signature.initVerify(publicKey);
+                signatures.set(signature);
+            }
 
+            //The signature object is reset to the state after initVerify, so it can be reused by the thread.
+            signature.update(Strings.getBytesUtf8(content));
             return signature.verify(signedData);
         } catch (GeneralSecurityException e) {
+            signatures.remove();
             return false;
         }
     }
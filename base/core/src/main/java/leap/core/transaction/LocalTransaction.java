@@ -22,6 +22,8 @@ import leap.lang.logging.LogFactory;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 
 public class LocalTransaction implements Transaction, TransactionStatus {
     private static final Log log = LogFactory.get(LocalTransaction.class);
@@ -33,6 +35,8 @@ public class LocalTransaction implements Transaction, TransactionStatus {
     private Connection connection;
     private boolean    rollbackOnly;
 
+    private List<TransactionSynchronization> synchronizations;
+
     private int referenceCount = 0;
     private boolean originalAutoCommit;
     private int     originalIsolationLevel;
@@ -64,6 +68,16 @@ public class LocalTransaction implements Transaction, TransactionStatus {
         return connection == null;
     }
 
+    /**
+     * Adds a {@link TransactionSynchronization} invoked after this transaction completed.
+     */
+    public void addSynchronization(TransactionSynchronization sync) {
+        if(null == synchronizations) {
+            synchronizations = new ArrayList<>(2);
+        }
+        synchronizations.add(sync);
+    }
+
     public boolean hasConnection() {
         return null != connection;
     }
@@ -152,6 +166,7 @@ public class LocalTransaction implements Transaction, TransactionStatus {
         decrease();
 
         if (referenceCount == 0) {
+            boolean committed = false;
             try {
                 //Connection may be null if no database access in transaction.
                 if (null != connection) {
@@ -167,6 +182,7 @@ public class LocalTransaction implements Transaction, TransactionStatus {
                         try {
                             log.debug("Commit transaction, referencedCount={}", referenceCount);
                             connection.commit();
+                            committed = true;
                             connection.setAutoCommit(originalAutoCommit);
 
                             if (isolation != TransactionDefinition.Isolation.DEFAULT.getValue() &&
@@ -182,7 +198,11 @@ public class LocalTransaction implements Transaction, TransactionStatus {
                 try {
                     tp.removeActiveTransaction();
                 } finally {
-                    tp.closeConnection(connection);
+                    try {
+                        tp.closeConnection(connection);
+                    } finally {
+                        afterCompletion(null == connection ? !rollbackOnly : committed);
+                    }
                 }
             }
         } else {
@@ -190,6 +210,23 @@ public class LocalTransaction implements Transaction, TransactionStatus {
         }
     }
 
+    protected void afterCompletion(boolean committed) {
+        if(null == synchronizations) {
+            return;
+        }
+
+        List<TransactionSynchronization> list = synchronizations;
+        synchronizations = null;
+
+        for(TransactionSynchronization sync : list) {
+            try {
+                sync.afterCompletion(committed);
+            } catch (Throwable e) {
+                log.warn("Error invoking transaction synchronization, " + e.getMessage(), e);
+            }
+        }
+    }
+
     /**
      * Increase the reference count by one because the connection has been requested
      */
@@ -59,6 +59,22 @@ public class LocalTransactionProvider extends AbstractReadonlyBean implements Tr
         return getTransaction(null == td ? getRequiredDefinition() : td).begin();
     }
 
+    @Override
+    public boolean isTransactionActive() {
+        return null != peekActiveTransaction();
+    }
+
+    @Override
+    public boolean registerSynchronization(TransactionSynchronization sync) {
+        Args.notNull(sync, "synchronization");
+        LocalTransaction trans = peekActiveTransaction();
+        if(null == trans) {
+            return false;
+        }
+        trans.addSynchronization(sync);
+        return true;
+    }
+
     @Override
     public void execute(ConnectionCallback callback) {
         Connection connection = null;
@@ -30,6 +30,23 @@ public interface TransactionProvider {
      */
     Transaction beginTransaction(TransactionDefinition td);
 
+    /**
+     * Returns true if a transaction is active in the current thread.
+     */
+    default boolean isTransactionActive() {
+        return false;
+    }
+
+    /**
+     * Registers the {@link TransactionSynchronization} to the active transaction in the current thread.
+     *
+     * <p/>
+     * Returns false if no active transaction.
+     */
+    default boolean registerSynchronization(TransactionSynchronization sync) {
+        return false;
+    }
+
     /**
      * Executes the callback.
      *
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tested;
+
+import leap.core.cache.Cache;
+import leap.core.cache.ConcurrentLFUCache;
+import leap.core.cache.SimpleLRUCache;
+import leap.lang.time.StopWatch;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Supplier;
+
+/**
+ * Compares the read throughput of the caches under different number of threads.
+ */
+public class CachePerfMain {
+
+    private static final int SIZE  = 10000;
+    private static final int READS = 2000000;
+
+    public static void main(String[] args) throws Exception {
+        int maxThreads = Runtime.getRuntime().availableProcessors() * 2;
+
+        //warm up
+        for(int i=0;i<3;i++) {
+            runTest("", SimpleLRUCache::new, 4, true);
+            runTest("", ConcurrentLFUCache::new, 4, true);
+        }
+
+        System.out.println("\n\nWarm up done, Let's begin!\n");
+        System.out.println(READS + " reads / thread\n");
+
+        for(int threads=1;threads<=maxThreads;threads*=2) {
+            runTest("SimpleLRUCache     ", SimpleLRUCache::new, threads, false);
+            runTest("ConcurrentLFUCache ", ConcurrentLFUCache::new, threads, false);
+            System.out.println();
+        }
+    }
+
+    protected static void runTest(String name, Supplier<Cache<Integer,Integer>> supplier, int threads, boolean warmup) throws Exception {
+        final Cache<Integer,Integer> cache = supplier.get();
+        for(int i=0;i<SIZE;i++) {
+            cache.put(i, i);
+        }
+
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch done  = new CountDownLatch(threads);
+
+        for(int t=0;t<threads;t++) {
+            final int seed = t;
+            new Thread(() -> {
+                try {
+                    start.await();
+                    int key = seed * 7919;
+                    for(int i=0;i<READS;i++) {
+                        //a skewed access pattern, 80% of reads on 20% of keys.
+                        key = key * 1103515245 + 12345;
+                        int k = (key >>> 1) % 100 < 80 ? (key >>> 8) % (SIZE / 5) : (key >>> 8) % SIZE;
+                        cache.get(k);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+
+        StopWatch sw = StopWatch.startNew();
+        start.countDown();
+        done.await();
+
+        if(!warmup) {
+            long ms = Math.max(1, sw.getElapsedMilliseconds());
+            long ops = (long)READS * threads * 1000 / ms;
+            System.out.println(name + " : " + threads + " threads, " + ms + "ms, " + ops + " reads/s");
+        }
+    }
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tested;
+
+import leap.core.security.token.jwt.CachingJwtVerifier;
+import leap.core.security.token.jwt.JwtSigner;
+import leap.core.security.token.jwt.JwtVerifier;
+import leap.core.security.token.jwt.MacSigner;
+import leap.core.security.token.jwt.RsaSigner;
+import leap.core.security.token.jwt.RsaVerifier;
+import leap.lang.security.RSA;
+import leap.lang.security.RSA.RsaKeyPair;
+import leap.lang.time.StopWatch;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Measures the jwt verifications per second of a single thread (core).
+ */
+public class JwtVerifyPerfMain {
+
+    private static final int LOOPS = 200000;
+
+    public static void main(String[] args) {
+        RsaKeyPair kp  = RSA.generateKeyPair();
+        MacSigner  mac = new MacSigner("0123456789abcdef0123456789abcdef");
+
+        RsaSigner   rsaSigner   = new RsaSigner(kp.getPrivateKey());
+        RsaVerifier rsaVerifier = new RsaVerifier(kp.getPublicKey());
+
+        String rs256 = sign(rsaSigner);
+        String hs256 = sign(mac);
+
+        //warm up
+        for(int i=0;i<3;i++) {
+            run("", rsaVerifier, rs256, LOOPS / 4, true);
+            run("", mac, hs256, LOOPS, true);
+            run("", new CachingJwtVerifier(rsaVerifier), rs256, LOOPS, true);
+        }
+
+        System.out.println("\n\nWarm up done, Let's begin!\n");
+
+        run("RS256        ", rsaVerifier, rs256, LOOPS / 4, false);
+        run("HS256        ", mac, hs256, LOOPS, false);
+        run("RS256 cached ", new CachingJwtVerifier(rsaVerifier), rs256, LOOPS, false);
+        run("HS256 cached ", new CachingJwtVerifier(mac), hs256, LOOPS, false);
+    }
+
+    protected static String sign(JwtSigner signer) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("name", "admin");
+        claims.put("client_id", "app1");
+        claims.put("scope", "read write");
+        return signer.sign(claims, 3600);
+    }
+
+    protected static void run(String name, JwtVerifier verifier, String token, int loops, boolean warmup) {
+        StopWatch sw = StopWatch.startNew();
+
+        for(int i=0;i<loops;i++) {
+            verifier.verify(token);
+        }
+
+        if(!warmup) {
+            long ms = Math.max(1, sw.getElapsedMilliseconds());
+            System.out.println(name + " : " + ms + "ms, " + ((long)loops * 1000 / ms) + " verifications/s");
+        }
+    }
+}
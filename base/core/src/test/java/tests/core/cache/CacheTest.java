@@ -16,11 +16,15 @@
 package tests.core.cache;
 
 import leap.core.cache.Cache;
+import leap.core.cache.CacheManager;
+import leap.core.cache.CacheSpec;
 import org.junit.Test;
 
 import leap.core.AppContext;
 import leap.core.junit.AppTestBase;
 
+import java.util.concurrent.TimeUnit;
+
 public class CacheTest extends AppTestBase {
 
 	@Test
@@ -29,4 +33,20 @@ public class CacheTest extends AppTestBase {
 		assertNotNull(cache);
 	}
 	
+	@Test
+	public void testCacheStats() {
+		CacheManager cm = AppContext.factory().getBean(CacheManager.class);
+		
+		Cache<String,String> cache = cm.createCache("testCacheStats", 
+				new CacheSpec<String,String>().setMaxSize(100).setExpireAfterWrite(1, TimeUnit.MINUTES));
+		
+		cache.get("a");
+		cache.put("a", "1");
+		cache.get("a");
+		
+		assertEquals(1, cm.getCacheStats("testCacheStats").getHitCount());
+		assertEquals(1, cm.getCacheStats("testCacheStats").getMissCount());
+		assertTrue(cm.getAllCacheStats().containsKey("testCacheStats"));
+	}
+	
 }
@@ -0,0 +1,357 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tests.core.cache;
+
+import leap.core.cache.CacheSpec;
+import leap.core.cache.CacheStats;
+import leap.core.cache.ConcurrentLFUCache;
+import leap.junit.TestBase;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ConcurrentLFUCacheTest extends TestBase {
+
+	@Test
+	public void testGetPutRemove() {
+		ConcurrentLFUCache<String, String> cache = new ConcurrentLFUCache<>(10);
+		
+		assertNull(cache.get("a"));
+		
+		cache.put("a", "1");
+		assertEquals("1", cache.get("a"));
+		assertTrue(cache.containsKey("a"));
+		
+		cache.put("a", "2");
+		assertEquals("2", cache.get("a"));
+		assertEquals(1, cache.getAll().size());
+		
+		assertEquals("2", cache.getAndRemove("a"));
+		assertFalse(cache.remove("a"));
+		assertNull(cache.get("a"));
+		
+		cache.put("b", "1");
+		cache.put("c", "1");
+		cache.clear();
+		assertEquals(0, cache.size());
+	}
+	
+	@Test
+	public void testMaxSize() {
+		ConcurrentLFUCache<Integer, Integer> cache = new ConcurrentLFUCache<>(100);
+		
+		for(int i=0;i<1000;i++) {
+			cache.put(i, i);
+		}
+		cache.cleanUp();
+		
+		assertEquals(100, cache.size());
+	}
+	
+	@Test
+	public void testFrequentKeysRetained() {
+		ConcurrentLFUCache<Integer, Integer> cache = new ConcurrentLFUCache<>(100);
+		
+		//hot keys.
+		for(int i=0;i<50;i++) {
+			cache.put(i, i);
+		}
+		for(int n=0;n<10;n++) {
+			for(int i=0;i<50;i++) {
+				cache.get(i);
+			}
+			cache.cleanUp();
+		}
+		
+		//scan with one-hit keys.
+		for(int i=1000;i<10000;i++) {
+			cache.put(i, i);
+		}
+		cache.cleanUp();
+		
+		int retained = 0;
+		for(int i=0;i<50;i++) {
+			if(cache.containsKey(i)) {
+				retained++;
+			}
+		}
+		assertTrue("Hot keys should survive the scan, retained " + retained, retained >= 45);
+	}
+	
+	@Test
+	public void testConcurrentAccess() throws Exception {
+		final ConcurrentLFUCache<Integer, Integer> cache = new ConcurrentLFUCache<>(500);
+		final int threads = 8;
+		
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try{
+			Future<?>[] futures = new Future<?>[threads];
+			for(int t=0;t<threads;t++) {
+				futures[t] = executor.submit(() -> {
+					ThreadLocalRandom random = ThreadLocalRandom.current();
+					for(int i=0;i<100000;i++) {
+						int key = random.nextInt(2000);
+						Integer value = cache.get(key);
+						if(null == value) {
+							cache.put(key, key);
+						}else{
+							assertEquals(key, value.intValue());
+						}
+						if(i % 100 == 0) {
+							cache.remove(random.nextInt(2000));
+						}
+					}
+				});
+			}
+			for(Future<?> future : futures) {
+				future.get(60, TimeUnit.SECONDS);
+			}
+		}finally{
+			executor.shutdownNow();
+		}
+		
+		cache.cleanUp();
+		assertTrue(cache.size() <= 500);
+		assertEquals(cache.size(), cache.weight());
+	}
+	
+	@Test
+	public void testConcurrentPutAndRemove() throws Exception {
+		final ConcurrentLFUCache<Integer, Integer> cache = new ConcurrentLFUCache<>(100);
+		final int threads = 4;
+		final int keys    = 200;
+		
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try{
+			Future<?>[] futures = new Future<?>[threads];
+			for(int t=0;t<threads;t++) {
+				final boolean remover = t == 0;
+				futures[t] = executor.submit(() -> {
+					ThreadLocalRandom random = ThreadLocalRandom.current();
+					for(int i=0;i<200000;i++) {
+						int key = random.nextInt(keys);
+						if(remover) {
+							cache.remove(key);
+						}else{
+							cache.put(key, i);
+						}
+					}
+				});
+			}
+			for(Future<?> future : futures) {
+				future.get(60, TimeUnit.SECONDS);
+			}
+		}finally{
+			executor.shutdownNow();
+		}
+		
+		//the puts after all the removals and evictions must be visible.
+		for(int i=0;i<keys;i++) {
+			cache.put(i, -i);
+			assertEquals(Integer.valueOf(-i), cache.get(i));
+		}
+		
+		cache.cleanUp();
+		assertTrue(cache.size() <= 100);
+		assertEquals(cache.size(), cache.weight());
+	}
+	
+	@Test
+	public void testMaxWeight() {
+		ConcurrentLFUCache<Integer, String> cache = 
+				new ConcurrentLFUCache<>(new CacheSpec<Integer, String>().setMaxWeight(1000, (k, v) -> v.length()));
+		
+		for(int i=0;i<100;i++) {
+			cache.put(i, new String(new char[50]));
+		}
+		cache.cleanUp();
+		
+		assertTrue(cache.weight() <= 1000);
+		assertTrue(cache.size() >= 19 && cache.size() <= 20);
+		
+		//larger than the max weight.
+		cache.put(-1, new String(new char[2000]));
+		cache.cleanUp();
+		assertFalse(cache.containsKey(-1));
+	}
+	
+	@Test
+	public void testConcurrentWeightedPut() throws Exception {
+		final ConcurrentLFUCache<Integer, String> cache = 
+				new ConcurrentLFUCache<>(new CacheSpec<Integer, String>().setMaxWeight(Integer.MAX_VALUE, (k, v) -> v.length()));
+		final int threads = 4;
+		final int keys    = 5000;
+		final CyclicBarrier barrier = new CyclicBarrier(threads);
+		
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try{
+			Future<?>[] futures = new Future<?>[threads];
+			for(int t=0;t<threads;t++) {
+				final int length = t + 1;
+				futures[t] = executor.submit(() -> {
+					//puts the same key as the other threads at the same time with a different weight.
+					for(int i=0;i<keys;i++) {
+						barrier.await(10, TimeUnit.SECONDS);
+						cache.put(i, new String(new char[length]));
+					}
+					return null;
+				});
+			}
+			for(Future<?> future : futures) {
+				future.get(60, TimeUnit.SECONDS);
+			}
+		}finally{
+			executor.shutdownNow();
+		}
+		
+		cache.cleanUp();
+		
+		long weight = 0;
+		for(String value : cache.getAll().values()) {
+			weight += value.length();
+		}
+		assertEquals(keys, cache.size());
+		assertEquals(weight, cache.weight());
+	}
+	
+	@Test
+	public void testExpireAfterWrite() throws Exception {
+		ConcurrentLFUCache<String, String> cache = 
+				new ConcurrentLFUCache<>(new CacheSpec<String, String>().setExpireAfterWrite(100, TimeUnit.MILLISECONDS));
+		
+		cache.put("a", "1");
+		assertEquals("1", cache.get("a"));
+		
+		Thread.sleep(150);
+		assertNull(cache.get("a"));
+		assertFalse(cache.containsKey("a"));
+		
+		cache.put("b", "1");
+		Thread.sleep(150);
+		cache.cleanUp();
+		assertEquals(0, cache.size());
+		assertEquals(2, cache.getStats().getEvictionCount());
+	}
+	
+	@Test
+	public void testExpireAfterAccess() throws Exception {
+		ConcurrentLFUCache<String, String> cache = 
+				new ConcurrentLFUCache<>(new CacheSpec<String, String>().setExpireAfterAccess(200, TimeUnit.MILLISECONDS));
+		
+		cache.put("a", "1");
+		for(int i=0;i<4;i++) {
+			Thread.sleep(100);
+			assertEquals("1", cache.get("a"));
+		}
+		
+		Thread.sleep(250);
+		assertNull(cache.get("a"));
+	}
+	
+	@Test
+	public void testLoaderCoalescing() throws Exception {
+		final ConcurrentLFUCache<String, String> cache = new ConcurrentLFUCache<>(10);
+		final AtomicInteger loads   = new AtomicInteger();
+		final CountDownLatch start  = new CountDownLatch(1);
+		final int threads = 8;
+		
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try{
+			Future<?>[] futures = new Future<?>[threads];
+			for(int t=0;t<threads;t++) {
+				futures[t] = executor.submit(() -> {
+					start.await();
+					return cache.get("a", (k) -> {
+						loads.incrementAndGet();
+						try {
+							Thread.sleep(200);
+						} catch (InterruptedException e) {
+							throw new IllegalStateException(e);
+						}
+						return "1";
+					});
+				});
+			}
+			start.countDown();
+			for(Future<?> future : futures) {
+				assertEquals("1", future.get(10, TimeUnit.SECONDS));
+			}
+		}finally{
+			executor.shutdownNow();
+		}
+		
+		assertEquals(1, loads.get());
+		assertEquals(1, cache.getStats().getLoadSuccessCount());
+	}
+	
+	@Test
+	public void testLoaderException() {
+		ConcurrentLFUCache<String, String> cache = new ConcurrentLFUCache<>(10);
+		
+		try{
+			cache.get("a", (k) -> {throw new IllegalStateException("err");});
+			fail("Should throw IllegalStateException");
+		}catch(IllegalStateException e) {
+			assertEquals("err", e.getMessage());
+		}
+		
+		assertNull(cache.get("a", (k) -> null));
+		assertFalse(cache.containsKey("a"));
+		assertEquals(1, cache.getStats().getLoadFailureCount());
+	}
+	
+	@Test
+	public void testRefreshAfterWrite() throws Exception {
+		ConcurrentLFUCache<String, Integer> cache = 
+				new ConcurrentLFUCache<>(new CacheSpec<String, Integer>().setRefreshAfterWrite(100, TimeUnit.MILLISECONDS));
+		
+		final AtomicInteger version = new AtomicInteger();
+		
+		assertEquals(1, cache.get("a", (k) -> version.incrementAndGet()).intValue());
+		
+		Thread.sleep(150);
+		
+		//returns the stale value and refreshes it asynchronously.
+		assertEquals(1, cache.get("a", (k) -> version.incrementAndGet()).intValue());
+		
+		for(int i=0;i<50 && cache.get("a") == 1;i++) {
+			Thread.sleep(20);
+		}
+		assertEquals(2, cache.get("a").intValue());
+	}
+	
+	@Test
+	public void testStats() {
+		ConcurrentLFUCache<String, String> cache = new ConcurrentLFUCache<>(10);
+		
+		cache.get("a");
+		cache.put("a", "1");
+		cache.get("a");
+		cache.get("a");
+		
+		CacheStats stats = cache.getStats();
+		assertEquals(2, stats.getHitCount());
+		assertEquals(1, stats.getMissCount());
+		assertEquals(2.0 / 3, stats.getHitRate(), 0.0001);
+	}
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tests.core.security;
+
+import leap.core.security.token.TokenExpiredException;
+import leap.core.security.token.TokenVerifyException;
+import leap.core.security.token.TokenVerifyException.ErrorCode;
+import leap.core.security.token.jwt.CachingJwtVerifier;
+import leap.core.security.token.jwt.JWT;
+import leap.core.security.token.jwt.JwtVerifier;
+import leap.core.security.token.jwt.MacSigner;
+import leap.core.security.token.jwt.RsaSigner;
+import leap.core.security.token.jwt.RsaVerifier;
+import leap.junit.TestBase;
+import leap.lang.security.RSA;
+import leap.lang.security.RSA.RsaKeyPair;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class JwtVerifierTest extends TestBase {
+
+    @Test
+    public void testBase64UrlDecode() {
+        Random random = new Random(17);
+        for(int len=1;len<64;len++) {
+            byte[] data = new byte[len];
+            random.nextBytes(data);
+
+            String encoded = JWT.base64UrlEncode(data);
+            assertTrue(Arrays.equals(data, JWT.base64UrlDecode(encoded, 0, encoded.length())));
+            assertTrue(Arrays.equals(data, JWT.base64UrlDeocode(encoded)));
+
+            String padded = "." + encoded + "==".substring(0, (4 - encoded.length() % 4) % 4) + ".";
+            assertTrue(Arrays.equals(data, JWT.base64UrlDecode(padded, 1, padded.length() - 1)));
+        }
+
+        assertTrue(Arrays.equals(new byte[]{(byte)0xfb, (byte)0xff}, JWT.base64UrlDecode("+/8", 0, 3)));
+
+        try {
+            JWT.base64UrlDecode("ab*d", 0, 4);
+            fail("Should throw IllegalArgumentException");
+        }catch (IllegalArgumentException e) {
+
+        }
+
+        try {
+            JWT.base64UrlDecode("abcde", 0, 5);
+            fail("Should throw IllegalArgumentException");
+        }catch (IllegalArgumentException e) {
+
+        }
+    }
+
+    @Test
+    public void testRsaVerify() {
+        RsaKeyPair kp = RSA.generateKeyPair();
+
+        RsaSigner   signer   = new RsaSigner(kp.getPrivateKey());
+        RsaVerifier verifier = new RsaVerifier(kp.getPublicKey());
+
+        String token = signer.sign(claims("u1", System.currentTimeMillis() + 60000));
+
+        for(int i=0;i<3;i++) {
+            assertEquals("u1", verifier.verify(token).get("name"));
+        }
+
+        assertVerifyError(verifier, tamper(token), ErrorCode.INVALID_SIGNATURE);
+        assertVerifyError(verifier, token.substring(0, token.lastIndexOf('.') + 1) + "*", ErrorCode.INVALID_SIGNATURE);
+        assertVerifyError(verifier, token + ".a", ErrorCode.INVALID_TOKEN);
+
+        //the verifier still works after the failed verifications.
+        assertEquals("u1", verifier.verify(token).get("name"));
+
+        try {
+            verifier.verify(signer.sign(claims("u1", System.currentTimeMillis() - 1000)));
+            fail("Should throw TokenExpiredException");
+        }catch (TokenExpiredException e) {
+
+        }
+    }
+
+    @Test
+    public void testMacVerifyConcurrently() throws Exception {
+        MacSigner signer = new MacSigner("secret");
+
+        List<String> tokens = new ArrayList<>();
+        for(int i=0;i<10;i++) {
+            tokens.add(signer.sign(claims("u" + i, System.currentTimeMillis() + 60000)));
+        }
+
+        assertVerifyError(signer, tamper(tokens.get(0)), ErrorCode.INVALID_SIGNATURE);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for(int t=0;t<4;t++) {
+                futures.add(executor.submit(() -> {
+                    for(int i=0;i<1000;i++) {
+                        int n = i % tokens.size();
+                        assertEquals("u" + n, signer.verify(tokens.get(n)).get("name"));
+                    }
+                }));
+            }
+            for(Future<?> future : futures) {
+                future.get();
+            }
+        }finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testCachingVerifier() {
+        MacSigner     signer   = new MacSigner("secret");
+        AtomicInteger verifies = new AtomicInteger();
+
+        CachingJwtVerifier verifier = new CachingJwtVerifier(token -> {
+            verifies.incrementAndGet();
+            return signer.verify(token);
+        });
+
+        String token = signer.sign(claims("u1", System.currentTimeMillis() + 60000));
+
+        for(int i=0;i<10;i++) {
+            Map<String, Object> claims = verifier.verify(token);
+            assertEquals("u1", claims.remove("name"));
+        }
+        assertEquals(1, verifies.get());
+        assertEquals(9, verifier.getStats().getHitCount());
+
+        //same signature but different payload must be verified again.
+        String forged = signer.sign(claims("u2", System.currentTimeMillis() + 60000));
+        forged = forged.substring(0, forged.lastIndexOf('.')) + token.substring(token.lastIndexOf('.'));
+        assertVerifyError(verifier, forged, ErrorCode.INVALID_SIGNATURE);
+        assertEquals(2, verifies.get());
+
+        //expired tokens are not cached.
+        String expired = signer.sign(claims("u1", System.currentTimeMillis() - 1000));
+        for(int i=0;i<2;i++) {
+            try {
+                verifier.verify(expired);
+                fail("Should throw TokenExpiredException");
+            }catch (TokenExpiredException e) {
+
+            }
+        }
+        assertEquals(4, verifies.get());
+    }
+
+    @Test
+    public void testCachingVerifierExpiration() throws Exception {
+        MacSigner          signer   = new MacSigner("secret");
+        CachingJwtVerifier verifier = new CachingJwtVerifier(signer);
+
+        String token = signer.sign(claims("u1", System.currentTimeMillis() + 200));
+        assertEquals("u1", verifier.verify(token).get("name"));
+        assertEquals("u1", verifier.verify(token).get("name"));
+
+        Thread.sleep(300);
+        try {
+            verifier.verify(token);
+            fail("Should throw TokenExpiredException");
+        }catch (TokenExpiredException e) {
+
+        }
+    }
+
+    private static Map<String, Object> claims(String name, long exp) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("name", name);
+        claims.put(JWT.CLAIM_EXPIRATION_TIME, exp);
+        return claims;
+    }
+
+    private static String tamper(String token) {
+        int i = token.indexOf('.') + 2;
+        return token.substring(0, i) + (token.charAt(i) == 'A' ? 'B' : 'A') + token.substring(i + 1);
+    }
+
+    private static void assertVerifyError(JwtVerifier verifier, String token, ErrorCode code) {
+        try {
+            verifier.verify(token);
+            fail("Should throw TokenVerifyException");
+        }catch (TokenVerifyException e) {
+            assertEquals(code, e.getErrorCode());
+        }
+    }
+}
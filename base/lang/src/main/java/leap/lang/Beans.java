@@ -15,6 +15,7 @@
  */
 package leap.lang;
 
+import leap.lang.beans.BeanAccessor;
 import leap.lang.beans.BeanProperty;
 import leap.lang.beans.BeanType;
 import leap.lang.beans.DynaBean;
@@ -124,6 +125,14 @@ public class Beans {
         			}
         		}
         	}else{
+            	if(BeanAccessor.isEnabled() && from.getClass() == to.getClass()){
+            		BeanAccessor accessor = toBeanType.getAccessor();
+            		if(null != accessor && accessor.isCopyable()){
+            			accessor.copy(from, to);
+            			return;
+            		}
+            	}
+            	
             	BeanType fromBeanType = BeanType.of(from.getClass());
             	for(BeanProperty toBp : toBeanType.getProperties()){
             		if(toBp.isWritable()){
@@ -0,0 +1,579 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.beans;
+
+import static leap.lang.asm.Opcodes.ACC_PUBLIC;
+import static leap.lang.asm.Opcodes.ALOAD;
+import static leap.lang.asm.Opcodes.ARETURN;
+import static leap.lang.asm.Opcodes.ATHROW;
+import static leap.lang.asm.Opcodes.CHECKCAST;
+import static leap.lang.asm.Opcodes.DUP;
+import static leap.lang.asm.Opcodes.GETFIELD;
+import static leap.lang.asm.Opcodes.ILOAD;
+import static leap.lang.asm.Opcodes.INVOKEINTERFACE;
+import static leap.lang.asm.Opcodes.INVOKESPECIAL;
+import static leap.lang.asm.Opcodes.INVOKESTATIC;
+import static leap.lang.asm.Opcodes.INVOKEVIRTUAL;
+import static leap.lang.asm.Opcodes.IRETURN;
+import static leap.lang.asm.Opcodes.NEW;
+import static leap.lang.asm.Opcodes.POP;
+import static leap.lang.asm.Opcodes.POP2;
+import static leap.lang.asm.Opcodes.PUTFIELD;
+import static leap.lang.asm.Opcodes.RETURN;
+import static leap.lang.asm.Opcodes.V1_6;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+
+import leap.lang.Strings;
+import leap.lang.asm.ClassWriter;
+import leap.lang.asm.Label;
+import leap.lang.asm.MethodVisitor;
+import leap.lang.asm.Opcodes;
+import leap.lang.asm.Type;
+import leap.lang.reflect.ReflectException;
+
+/**
+ * A generated accessor of the properties of a {@link BeanType}, the property is identified by it's index in {@link BeanType#getProperties()}.
+ *
+ * <p>
+ * One accessor class is generated for a bean type, it invokes the public getters, setters and fields directly instead of reflection.
+ * The properties can not be accessed publicly are not covered by the accessor, see {@link #isReadable(int)} and {@link #isWritable(int)}.
+ *
+ * <p>
+ * The accessor is always available by {@link BeanType#getAccessor()},
+ * {@link BeanProperty}, {@link BeanType#toMap(Object)} and {@link leap.lang.Beans#copyProperties(Object, Object)} use it
+ * only if the system property <code>leap.beans.accessor</code> is <code>true</code>, see {@link #setEnabled(boolean)}.
+ */
+@SuppressWarnings("deprecation")
+public abstract class BeanAccessor {
+
+    public static final String ENABLED_PROPERTY = "leap.beans.accessor";
+
+    private static final String CLASS_NAME = BeanAccessor.class.getName().replace('.', '/');
+
+    private static volatile boolean enabled = Boolean.getBoolean(ENABLED_PROPERTY);
+
+    /**
+     * Returns <code>true</code> if the bean properties are accessed by the generated accessors.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables accessing the bean properties by the generated accessors.
+     */
+    public static void setEnabled(boolean enabled) {
+        BeanAccessor.enabled = enabled;
+    }
+
+    boolean[] readable;
+    boolean[] writable;
+    boolean   copyable;
+    boolean   mappable;
+
+    /**
+     * Returns <code>true</code> if the property at the given index can be read by this accessor.
+     */
+    public boolean isReadable(int index) {
+        return readable[index];
+    }
+
+    /**
+     * Returns <code>true</code> if the property at the given index can be written by this accessor.
+     */
+    public boolean isWritable(int index) {
+        return writable[index];
+    }
+
+    /**
+     * Returns <code>true</code> if {@link #copy(Object, Object)} copies all the writable properties.
+     */
+    public boolean isCopyable() {
+        return copyable;
+    }
+
+    /**
+     * Returns <code>true</code> if {@link #toMap(Object, Map)} puts all the readable properties.
+     */
+    public boolean isMappable() {
+        return mappable;
+    }
+
+    /**
+     * Returns the value of the property at the given index, the primitive value will be boxed.
+     *
+     * @throws IllegalArgumentException if the property is not readable by this accessor.
+     */
+    public abstract Object getValue(Object bean, int index);
+
+    /**
+     * Sets the value of the property at the given index, the value must be an instance of the property type.
+     *
+     * @throws IllegalArgumentException if the property is not writable by this accessor.
+     */
+    public abstract void setValue(Object bean, int index, Object value);
+
+    /**
+     * Returns the value of the <code>int</code> property at the given index.
+     *
+     * @throws IllegalArgumentException if the property is not an <code>int</code> property readable by this accessor.
+     */
+    public abstract int getInt(Object bean, int index);
+
+    /**
+     * Sets the value of the <code>int</code> property at the given index.
+     *
+     * @throws IllegalArgumentException if the property is not an <code>int</code> property writable by this accessor.
+     */
+    public abstract void setInt(Object bean, int index, int value);
+
+    /**
+     * Returns the value of the <code>long</code> property at the given index.
+     *
+     * @throws IllegalArgumentException if the property is not a <code>long</code> property readable by this accessor.
+     */
+    public abstract long getLong(Object bean, int index);
+
+    /**
+     * Sets the value of the <code>long</code> property at the given index.
+     *
+     * @throws IllegalArgumentException if the property is not a <code>long</code> property writable by this accessor.
+     */
+    public abstract void setLong(Object bean, int index, long value);
+
+    /**
+     * Returns the value of the <code>double</code> property at the given index.
+     *
+     * @throws IllegalArgumentException if the property is not a <code>double</code> property readable by this accessor.
+     */
+    public abstract double getDouble(Object bean, int index);
+
+    /**
+     * Sets the value of the <code>double</code> property at the given index.
+     *
+     * @throws IllegalArgumentException if the property is not a <code>double</code> property writable by this accessor.
+     */
+    public abstract void setDouble(Object bean, int index, double value);
+
+    /**
+     * Returns the value of the <code>boolean</code> property at the given index.
+     *
+     * @throws IllegalArgumentException if the property is not a <code>boolean</code> property readable by this accessor.
+     */
+    public abstract boolean getBoolean(Object bean, int index);
+
+    /**
+     * Sets the value of the <code>boolean</code> property at the given index.
+     *
+     * @throws IllegalArgumentException if the property is not a <code>boolean</code> property writable by this accessor.
+     */
+    public abstract void setBoolean(Object bean, int index, boolean value);
+
+    /**
+     * Copies the properties both readable and writable by this accessor from a bean to another bean of the same type.
+     */
+    public abstract void copy(Object from, Object to);
+
+    /**
+     * Puts the properties readable by this accessor to the map in the order of {@link BeanType#getProperties()}.
+     */
+    public abstract void toMap(Object bean, Map<String, Object> map);
+
+    /**
+     * Generates an accessor for the given bean type.
+     *
+     * <p>
+     * Returns <code>null</code> if the bean class is not public.
+     */
+    static BeanAccessor create(BeanType beanType) {
+        Class<?> beanClass = beanType.getBeanClass();
+        if(!isAccessible(beanClass)) {
+            return null;
+        }
+
+        BeanProperty[] properties = beanType.getProperties();
+
+        Getter[] getters = new Getter[properties.length];
+        Setter[] setters = new Setter[properties.length];
+
+        boolean copyable = true;
+        boolean mappable = true;
+        for(int i=0;i<properties.length;i++) {
+            BeanProperty bp = properties[i];
+
+            if(bp.isReadable()) {
+                getters[i] = Getter.of(bp);
+                mappable = mappable && null != getters[i];
+            }
+
+            if(bp.isWritable()) {
+                setters[i] = Setter.of(bp);
+                copyable = copyable && null != setters[i] && null != getters[i] && getters[i].type.equals(setters[i].type);
+            }
+        }
+
+        String beanClassName     = beanClass.getName();
+        String accessorClassName = (beanClassName.startsWith("java.") ? "leap." : "") + beanClassName + "$LeapBeanAccessor";
+        String beanInternalName  = beanClassName.replace('.', '/');
+
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(V1_6, ACC_PUBLIC, accessorClassName.replace('.', '/'), null, CLASS_NAME, null);
+
+        defineConstructor(cw);
+        defineGetValue(cw, beanInternalName, getters, null, "getValue", "(Ljava/lang/Object;I)Ljava/lang/Object;");
+        defineSetValue(cw, beanInternalName, setters, null, "setValue", "(Ljava/lang/Object;ILjava/lang/Object;)V");
+        defineGetValue(cw, beanInternalName, getters, int.class,     "getInt",     "(Ljava/lang/Object;I)I");
+        defineSetValue(cw, beanInternalName, setters, int.class,     "setInt",     "(Ljava/lang/Object;II)V");
+        defineGetValue(cw, beanInternalName, getters, long.class,    "getLong",    "(Ljava/lang/Object;I)J");
+        defineSetValue(cw, beanInternalName, setters, long.class,    "setLong",    "(Ljava/lang/Object;IJ)V");
+        defineGetValue(cw, beanInternalName, getters, double.class,  "getDouble",  "(Ljava/lang/Object;I)D");
+        defineSetValue(cw, beanInternalName, setters, double.class,  "setDouble",  "(Ljava/lang/Object;ID)V");
+        defineGetValue(cw, beanInternalName, getters, boolean.class, "getBoolean", "(Ljava/lang/Object;I)Z");
+        defineSetValue(cw, beanInternalName, setters, boolean.class, "setBoolean", "(Ljava/lang/Object;IZ)V");
+        defineCopy(cw, beanInternalName, getters, setters);
+        defineToMap(cw, beanInternalName, properties, getters);
+
+        cw.visitEnd();
+
+        try {
+            Class<?> accessorClass = new AccessorLoader(beanClass.getClassLoader()).defineClass(accessorClassName, cw.toByteArray());
+
+            BeanAccessor accessor = (BeanAccessor)accessorClass.newInstance();
+            accessor.readable = new boolean[properties.length];
+            accessor.writable = new boolean[properties.length];
+            accessor.copyable = copyable;
+            accessor.mappable = mappable;
+            for(int i=0;i<properties.length;i++) {
+                accessor.readable[i] = null != getters[i];
+                accessor.writable[i] = null != setters[i];
+            }
+            return accessor;
+        }catch (Throwable e) {
+            throw new ReflectException(Strings.format("Error creating bean accessor class '{0}'", accessorClassName), e);
+        }
+    }
+
+    private static boolean isAccessible(Class<?> c) {
+        if(c.isInterface() || c.isArray() || c.isPrimitive() || c.isAnonymousClass() || c.isLocalClass()) {
+            return false;
+        }
+
+        for(Class<?> t = c; null != t; t = t.getEnclosingClass()) {
+            if(!Modifier.isPublic(t.getModifiers())) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static void defineConstructor(ClassWriter cw) {
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKESPECIAL, CLASS_NAME, "<init>", "()V");
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private static void defineGetValue(ClassWriter cw, String beanInternalName, Getter[] getters, Class<?> primitive, String name, String desc) {
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, name, desc, null, null);
+        mv.visitCode();
+
+        if(getters.length > 0) {
+            Label   defaultLabel = new Label();
+            Label[] labels       = new Label[getters.length];
+            for(int i=0;i<labels.length;i++) {
+                Getter getter = getters[i];
+                labels[i] = null == getter || (null != primitive && getter.type != primitive) ? defaultLabel : new Label();
+            }
+
+            mv.visitVarInsn(ILOAD, 2);
+            mv.visitTableSwitchInsn(0, labels.length - 1, defaultLabel, labels);
+
+            for(int i=0;i<labels.length;i++) {
+                if(labels[i] == defaultLabel) {
+                    continue;
+                }
+
+                mv.visitLabel(labels[i]);
+                mv.visitFrame(Opcodes.F_SAME, 0, null, 0, null);
+                mv.visitVarInsn(ALOAD, 1);
+                mv.visitTypeInsn(CHECKCAST, beanInternalName);
+                getters[i].visit(mv, beanInternalName);
+
+                if(null == primitive) {
+                    box(mv, getters[i].type);
+                    mv.visitInsn(ARETURN);
+                }else{
+                    mv.visitInsn(Type.getType(primitive).getOpcode(IRETURN));
+                }
+            }
+
+            mv.visitLabel(defaultLabel);
+            mv.visitFrame(Opcodes.F_SAME, 0, null, 0, null);
+        }
+
+        throwIllegalArgument(mv, "Property not readable: ");
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private static void defineSetValue(ClassWriter cw, String beanInternalName, Setter[] setters, Class<?> primitive, String name, String desc) {
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, name, desc, null, null);
+        mv.visitCode();
+
+        if(setters.length > 0) {
+            Label   defaultLabel = new Label();
+            Label[] labels       = new Label[setters.length];
+            for(int i=0;i<labels.length;i++) {
+                Setter setter = setters[i];
+                labels[i] = null == setter || (null != primitive && setter.type != primitive) ? defaultLabel : new Label();
+            }
+
+            mv.visitVarInsn(ILOAD, 2);
+            mv.visitTableSwitchInsn(0, labels.length - 1, defaultLabel, labels);
+
+            for(int i=0;i<labels.length;i++) {
+                if(labels[i] == defaultLabel) {
+                    continue;
+                }
+
+                mv.visitLabel(labels[i]);
+                mv.visitFrame(Opcodes.F_SAME, 0, null, 0, null);
+                mv.visitVarInsn(ALOAD, 1);
+                mv.visitTypeInsn(CHECKCAST, beanInternalName);
+
+                if(null == primitive) {
+                    mv.visitVarInsn(ALOAD, 3);
+                    unbox(mv, setters[i].type);
+                }else{
+                    mv.visitVarInsn(Type.getType(primitive).getOpcode(ILOAD), 3);
+                }
+
+                setters[i].visit(mv, beanInternalName);
+                mv.visitInsn(RETURN);
+            }
+
+            mv.visitLabel(defaultLabel);
+            mv.visitFrame(Opcodes.F_SAME, 0, null, 0, null);
+        }
+
+        throwIllegalArgument(mv, "Property not writable: ");
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private static void defineCopy(ClassWriter cw, String beanInternalName, Getter[] getters, Setter[] setters) {
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "copy", "(Ljava/lang/Object;Ljava/lang/Object;)V", null, null);
+        mv.visitCode();
+
+        for(int i=0;i<getters.length;i++) {
+            Getter getter = getters[i];
+            Setter setter = setters[i];
+
+            if(null == getter || null == setter || !getter.type.equals(setter.type)) {
+                continue;
+            }
+
+            mv.visitVarInsn(ALOAD, 2);
+            mv.visitTypeInsn(CHECKCAST, beanInternalName);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitTypeInsn(CHECKCAST, beanInternalName);
+            getter.visit(mv, beanInternalName);
+            setter.visit(mv, beanInternalName);
+        }
+
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private static void defineToMap(ClassWriter cw, String beanInternalName, BeanProperty[] properties, Getter[] getters) {
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "toMap", "(Ljava/lang/Object;Ljava/util/Map;)V", null, null);
+        mv.visitCode();
+
+        for(int i=0;i<getters.length;i++) {
+            Getter getter = getters[i];
+            if(null == getter) {
+                continue;
+            }
+
+            mv.visitVarInsn(ALOAD, 2);
+            mv.visitLdcInsn(properties[i].getName());
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitTypeInsn(CHECKCAST, beanInternalName);
+            getter.visit(mv, beanInternalName);
+            box(mv, getter.type);
+            mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Map", "put", "(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;");
+            mv.visitInsn(POP);
+        }
+
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private static void throwIllegalArgument(MethodVisitor mv, String message) {
+        mv.visitTypeInsn(NEW, "java/lang/IllegalArgumentException");
+        mv.visitInsn(DUP);
+        mv.visitTypeInsn(NEW, "java/lang/StringBuilder");
+        mv.visitInsn(DUP);
+        mv.visitLdcInsn(message);
+        mv.visitMethodInsn(INVOKESPECIAL, "java/lang/StringBuilder", "<init>", "(Ljava/lang/String;)V");
+        mv.visitVarInsn(ILOAD, 2);
+        mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/StringBuilder", "append", "(I)Ljava/lang/StringBuilder;");
+        mv.visitMethodInsn(INVOKEVIRTUAL, "java/lang/StringBuilder", "toString", "()Ljava/lang/String;");
+        mv.visitMethodInsn(INVOKESPECIAL, "java/lang/IllegalArgumentException", "<init>", "(Ljava/lang/String;)V");
+        mv.visitInsn(ATHROW);
+    }
+
+    private static void box(MethodVisitor mv, Class<?> type) {
+        if(!type.isPrimitive()) {
+            return;
+        }
+        Type   t       = Type.getType(type);
+        String wrapper = wrapperInternalName(t);
+        mv.visitMethodInsn(INVOKESTATIC, wrapper, "valueOf", "(" + t.getDescriptor() + ")L" + wrapper + ";");
+    }
+
+    private static void unbox(MethodVisitor mv, Class<?> type) {
+        Type t = Type.getType(type);
+        if(!type.isPrimitive()) {
+            mv.visitTypeInsn(CHECKCAST, t.getSort() == Type.ARRAY ? t.getDescriptor() : t.getInternalName());
+            return;
+        }
+        String wrapper = wrapperInternalName(t);
+        mv.visitTypeInsn(CHECKCAST, wrapper);
+        mv.visitMethodInsn(INVOKEVIRTUAL, wrapper, t.getClassName() + "Value", "()" + t.getDescriptor());
+    }
+
+    private static String wrapperInternalName(Type t) {
+        switch (t.getSort()) {
+            case Type.BOOLEAN:
+                return "java/lang/Boolean";
+            case Type.BYTE:
+                return "java/lang/Byte";
+            case Type.CHAR:
+                return "java/lang/Character";
+            case Type.SHORT:
+                return "java/lang/Short";
+            case Type.INT:
+                return "java/lang/Integer";
+            case Type.FLOAT:
+                return "java/lang/Float";
+            case Type.LONG:
+                return "java/lang/Long";
+            case Type.DOUBLE:
+                return "java/lang/Double";
+            default:
+                throw new IllegalStateException("not a primitive type");
+        }
+    }
+
+    private static final class Getter {
+        final Class<?> type;
+        final Method   method;
+        final Field    field;
+
+        static Getter of(BeanProperty bp) {
+            Method m = bp.getGetter();
+            if(null != m) {
+                return Modifier.isPublic(m.getModifiers()) && !Modifier.isStatic(m.getModifiers()) ? new Getter(m, null) : null;
+            }
+            Field f = bp.getField();
+            return null != f && Modifier.isPublic(f.getModifiers()) && !Modifier.isStatic(f.getModifiers()) ? new Getter(null, f) : null;
+        }
+
+        Getter(Method method, Field field) {
+            this.type   = null != method ? method.getReturnType() : field.getType();
+            this.method = method;
+            this.field  = field;
+        }
+
+        void visit(MethodVisitor mv, String owner) {
+            if(null != method) {
+                mv.visitMethodInsn(INVOKEVIRTUAL, owner, method.getName(), Type.getMethodDescriptor(method));
+            }else{
+                mv.visitFieldInsn(GETFIELD, owner, field.getName(), Type.getDescriptor(field.getType()));
+            }
+        }
+    }
+
+    private static final class Setter {
+        final Class<?> type;
+        final Method   method;
+        final Field    field;
+
+        static Setter of(BeanProperty bp) {
+            Method m = bp.getSetter();
+            if(null != m) {
+                return Modifier.isPublic(m.getModifiers()) && !Modifier.isStatic(m.getModifiers()) ? new Setter(m, null) : null;
+            }
+            Field f = bp.getField();
+            return null != f && Modifier.isPublic(f.getModifiers()) && !Modifier.isStatic(f.getModifiers()) &&
+                   !Modifier.isFinal(f.getModifiers()) ? new Setter(null, f) : null;
+        }
+
+        Setter(Method method, Field field) {
+            this.type   = null != method ? method.getParameterTypes()[0] : field.getType();
+            this.method = method;
+            this.field  = field;
+        }
+
+        void visit(MethodVisitor mv, String owner) {
+            if(null != method) {
+                mv.visitMethodInsn(INVOKEVIRTUAL, owner, method.getName(), Type.getMethodDescriptor(method));
+
+                Class<?> returnType = method.getReturnType();
+                if(returnType == long.class || returnType == double.class) {
+                    mv.visitInsn(POP2);
+                }else if(returnType != void.class) {
+                    mv.visitInsn(POP);
+                }
+            }else{
+                mv.visitFieldInsn(PUTFIELD, owner, field.getName(), Type.getDescriptor(field.getType()));
+            }
+        }
+    }
+
+    /**
+     * Defines the accessor classes in a child class loader, so the generated classes access the public members only.
+     */
+    private static final class AccessorLoader extends ClassLoader {
+
+        AccessorLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        @Override
+        protected synchronized Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if(name.equals(BeanAccessor.class.getName())) {
+                return BeanAccessor.class;
+            }
+            return super.loadClass(name, resolve);
+        }
+
+        Class<?> defineClass(String name, byte[] bytes) throws ClassFormatError {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+}
@@ -16,6 +16,7 @@
 package leap.lang.beans;
 
 import leap.lang.Named;
+import leap.lang.Primitives;
 import leap.lang.TypeInfo;
 import leap.lang.accessor.AnnotationsGetter;
 import leap.lang.accessor.TypeInfoGetter;
@@ -37,6 +38,7 @@ public class BeanProperty implements Named,TypeInfoGetter,AnnotationsGetter,Refl
 	
 	private String   	  name;
 	private Class<?> 	  type;
+	private Class<?>      wrappedType;
 	private Type          genericType;
 	private TypeInfo	  typeInfo;
 	private ReflectField  field;
@@ -47,6 +49,7 @@ public class BeanProperty implements Named,TypeInfoGetter,AnnotationsGetter,Refl
 	private boolean       writable;
 	private boolean       _transient;
 	private Annotation[]  annotations = new Annotation[]{};
+	private int           index;
 	
 	protected BeanProperty(BeanType beanType,String name){
 		this.name     = name;
@@ -139,6 +142,13 @@ public class BeanProperty implements Named,TypeInfoGetter,AnnotationsGetter,Refl
 			throw new IllegalStateException("Property '" + name + "' of '" + beanType.getBeanClass().getName() + "' not readable");
 		}
 		
+		if(BeanAccessor.isEnabled()){
+			BeanAccessor accessor = beanType.getAccessor();
+			if(null != accessor && accessor.isReadable(index)){
+				return accessor.getValue(bean, index);
+			}
+		}
+		
 		return null != getter ? getter.invoke(bean) : field.getValue(bean,true);
 	}
 	
@@ -147,30 +157,21 @@ public class BeanProperty implements Named,TypeInfoGetter,AnnotationsGetter,Refl
 			throw new IllegalStateException("Property '" + name + "' of '" + beanType.getBeanClass().getName() + "' not writable");
 		}
 		
-		if(null != value && !type.isAssignableFrom(value.getClass())){
+		if(null != value && !wrappedType.isAssignableFrom(value.getClass())){
 			value = Converts.convert(value, type,genericType);
 		}
 		
-		if(null != setter){
-			setter.invoke(bean,value);
-		}else{
-			field.setValue(bean, value, true);
-		}
+		doSetValue(bean, value);
 	}
 	
 	public boolean trySetValue(Object bean,Object value) {
 		if(writable){
 			try {
-	            if(null != value && !type.isAssignableFrom(value.getClass())){
+	            if(null != value && !wrappedType.isAssignableFrom(value.getClass())){
 	            	value = Converts.convert(value, type,genericType);
 	            }
 	            
-	    		if(null != setter){
-	    			setter.invoke(bean,value);
-	    		}else{
-	    			field.setValue(bean, value, true);
-	    		}
-	    		
+	            doSetValue(bean, value);
 	    		return true;
             } catch (ConvertUnsupportedException e) {
             	log.debug("cannot set property '{}' of bean '{}' -> {}",name,beanType.getBeanClass().getSimpleName(),e.getMessage());
@@ -179,8 +180,29 @@ public class BeanProperty implements Named,TypeInfoGetter,AnnotationsGetter,Refl
 		return false;
 	}
 	
+	private void doSetValue(Object bean,Object value){
+		if(BeanAccessor.isEnabled() && (null != value || !type.isPrimitive())){
+			BeanAccessor accessor = beanType.getAccessor();
+			if(null != accessor && accessor.isWritable(index)){
+				accessor.setValue(bean, index, value);
+				return;
+			}
+		}
+		
+		if(null != setter){
+			setter.invoke(bean,value);
+		}else{
+			field.setValue(bean, value, true);
+		}
+	}
+	
+	protected void setIndex(int index){
+		this.index = index;
+	}
+	
 	protected void setType(Class<?> type){
-		this.type = type;
+		this.type        = type;
+		this.wrappedType = Primitives.wrap(type);
 	}
 	
 	protected void setGenericType(Type genericType){
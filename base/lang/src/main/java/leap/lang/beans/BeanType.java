@@ -33,6 +33,8 @@ import leap.lang.Args;
 import leap.lang.Arrays2;
 import leap.lang.Types;
 import leap.lang.exception.ObjectNotFoundException;
+import leap.lang.logging.Log;
+import leap.lang.logging.LogFactory;
 import leap.lang.reflect.ReflectClass;
 import leap.lang.reflect.ReflectException;
 import leap.lang.reflect.ReflectField;
@@ -40,6 +42,8 @@ import leap.lang.reflect.ReflectMethod;
 
 public class BeanType {
 	
+	private static final Log log = LogFactory.get(BeanType.class);
+	
 	//private static final Map<Class<?>, BeanType> cache = Collections.synchronizedMap(new WeakHashMap<Class<?>, BeanType>());
     private static final Map<Class<?>, BeanType> cache = new ConcurrentHashMap<Class<?>, BeanType>();
     
@@ -72,6 +76,9 @@ public class BeanType {
 	private final Map<String,BeanProperty> originalNamePropertyMap;
 	private final Map<String,BeanProperty> lowerCaseNamePropertyMap;
 	
+	private volatile boolean accessorCreated;
+	private BeanAccessor     accessor;
+	
 	protected BeanType(Class<?> beanClass){
 		this.attributes				  = Collections.synchronizedMap(new WeakHashMap<Object, Object>(1));
 		this.beanClass                = beanClass;
@@ -79,6 +86,10 @@ public class BeanType {
 		this.properties               = initProperties();
 		this.originalNamePropertyMap  = createPropertyMap(false);
 		this.lowerCaseNamePropertyMap = createPropertyMap(true);
+		
+		for(int i=0;i<properties.length;i++){
+			properties[i].setIndex(i);
+		}
 	}
 	
 	public Object getAttribute(Object key){
@@ -105,6 +116,28 @@ public class BeanType {
 		return properties;
 	}
 	
+	/**
+	 * Returns the generated {@link BeanAccessor} of this bean type, creates it at the first call.
+	 * 
+	 * <p>
+	 * Returns <code>null</code> if the accessor cannot be generated.
+	 */
+	public BeanAccessor getAccessor(){
+		if(!accessorCreated){
+			synchronized (this) {
+				if(!accessorCreated){
+					try {
+						accessor = BeanAccessor.create(this);
+					} catch (Throwable e) {
+						log.warn("Cannot create accessor of bean '{}', {}", beanClass.getName(), e.getMessage());
+					}
+					accessorCreated = true;
+				}
+			}
+		}
+		return accessor;
+	}
+	
 	public boolean hasProperty(String name){
 		return tryGetProperty(name) != null;
 	}
@@ -179,6 +212,14 @@ public class BeanType {
 	public Map<String, Object> toMap(Object bean){
 		Map<String, Object> map = new LinkedHashMap<String, Object>();
 		
+		if(BeanAccessor.isEnabled()){
+			BeanAccessor accessor = getAccessor();
+			if(null != accessor && accessor.isMappable()){
+				accessor.toMap(bean, map);
+				return map;
+			}
+		}
+		
 		for(BeanProperty p : properties){
 			if(p.isReadable()){
 				map.put(p.getName(),p.getValue(bean));
@@ -0,0 +1,339 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.convert;
+
+import leap.lang.Classes;
+import leap.lang.Enums;
+import leap.lang.Out;
+import leap.lang.Primitives;
+import leap.lang.Strings;
+import leap.lang.Valued;
+import leap.lang.value.Null;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A resolved conversion to a target type, returned by {@link Converts#plan(Class, Type)}.
+ *
+ * <p>
+ * The converters of a source type are looked up once and cached in the plan, the identity, string, enum and number conversions
+ * are done without looking up or allocating anything.
+ *
+ * <p>
+ * The result is the same as {@link Converts#convert(Object, Class, Type)}, the cached lookups will be discarded if any converter
+ * registered after.
+ */
+@SuppressWarnings({"unchecked", "rawtypes"})
+public final class ConversionPlan<T> {
+
+    private static final Integer ZERO = 0;
+    private static final Integer ONE  = 1;
+
+    private final Class<T>          targetType;
+    private final Type              genericType;
+    private final boolean           charSequence;
+    private final T                 defaultValue;
+    private final ConversionPlan<?> wrapped;
+
+    private volatile Routes routes = new Routes(-1);
+
+    ConversionPlan(Class<T> targetType, Type genericType) {
+        this.targetType   = targetType;
+        this.genericType  = genericType;
+        this.charSequence = CharSequence.class.isAssignableFrom(targetType);
+        this.defaultValue = (T)Classes.getDefaultValue(targetType);
+        this.wrapped      = targetType.isPrimitive() ? Converts.plan(Primitives.wrap(targetType)) : null;
+    }
+
+    public Class<T> getTargetType() {
+        return targetType;
+    }
+
+    public Type getGenericType() {
+        return genericType;
+    }
+
+    /**
+     * Converts the value to the target type.
+     *
+     * @throws ConvertUnsupportedException if the value can not be converted to the target type.
+     */
+    public T convert(Object value) throws ConvertException {
+        if(!charSequence) {
+            value = Converts.trimToNull(value);
+        }
+
+        if(null != wrapped) {
+            return null == value ? defaultValue : (T)wrapped.convert(value);
+        }
+
+        if(null == value || Null.is(value)) {
+            return defaultValue;
+        }
+
+        Object v = route(value.getClass()).convert(this, value);
+        if(Converts.NOT_CONVERTED == v) {
+            throw new ConvertUnsupportedException(Strings.format("Cannot convert '{0}' to '{1}', value : {2}",
+                                                                 value.getClass(), targetType.getName(), value.toString()));
+        }
+        return (T)v;
+    }
+
+    private Route route(Class<?> sourceType) {
+        Routes routes = this.routes;
+        int    version = Converts.version.get();
+        if(routes.version != version) {
+            routes = new Routes(version);
+            this.routes = routes;
+        }
+
+        Route route = routes.last;
+        if(null != route && route.sourceType == sourceType) {
+            return route;
+        }
+
+        route = routes.map.get(sourceType);
+        if(null == route) {
+            route = resolve(sourceType, false);
+            routes.map.put(sourceType, route);
+        }
+        routes.last = route;
+        return route;
+    }
+
+    private Route resolve(Class<?> sourceType, boolean enumValue) {
+        if(!enumValue) {
+            if(targetType.equals(sourceType)) {
+                return new IdentityRoute(sourceType);
+            }
+
+            if(targetType.equals(String.class)) {
+                return new StringRoute(sourceType);
+            }
+
+            if(sourceType.isEnum()) {
+                return new EnumValueRoute(sourceType);
+            }
+        }
+
+        if(targetType.isEnum()) {
+            return new EnumRoute(sourceType);
+        }
+
+        boolean   convertible     = ConvertibleTo.class.isAssignableFrom(sourceType);
+        Converter targetConverter = Converts.findConverter(targetType);
+
+        if(!convertible && targetConverter instanceof AbstractNumberConverter) {
+            return new NumberRoute(sourceType, (AbstractNumberConverter)targetConverter);
+        }
+
+        return new ConverterRoute(targetType, sourceType, convertible, targetConverter);
+    }
+
+    private ConvertException wrap(Class<?> sourceType, Object value, Throwable e) {
+        return new ConvertException(Strings.format("Error converting '{0}' to '{1}', value : {2}",
+                                                   sourceType.getName(), targetType.getName(), value), e);
+    }
+
+    private static final class Routes {
+        final int                  version;
+        final Map<Class<?>, Route> map = new ConcurrentHashMap<>();
+
+        Route last;
+
+        Routes(int version) {
+            this.version = version;
+        }
+    }
+
+    private static abstract class Route {
+        final Class<?> sourceType;
+
+        Route(Class<?> sourceType) {
+            this.sourceType = sourceType;
+        }
+
+        abstract Object convert(ConversionPlan<?> plan, Object value);
+    }
+
+    private static final class IdentityRoute extends Route {
+        IdentityRoute(Class<?> sourceType) {
+            super(sourceType);
+        }
+
+        @Override
+        Object convert(ConversionPlan<?> plan, Object value) {
+            return value;
+        }
+    }
+
+    private static final class StringRoute extends Route {
+        StringRoute(Class<?> sourceType) {
+            super(sourceType);
+        }
+
+        @Override
+        Object convert(ConversionPlan<?> plan, Object value) {
+            return Converts.toString(value);
+        }
+    }
+
+    private static final class EnumValueRoute extends Route {
+        EnumValueRoute(Class<?> sourceType) {
+            super(sourceType);
+        }
+
+        @Override
+        Object convert(ConversionPlan<?> plan, Object value) {
+            Object v = Enums.getValue((Enum<?>)value);
+            return plan.resolve(v.getClass(), true).convert(plan, v);
+        }
+    }
+
+    private static final class EnumRoute extends Route {
+        EnumRoute(Class<?> sourceType) {
+            super(sourceType);
+        }
+
+        @Override
+        Object convert(ConversionPlan<?> plan, Object value) {
+            return Enums.valueOf((Class<? extends Enum>)plan.targetType, value);
+        }
+    }
+
+    private static final class NumberRoute extends Route {
+        private final AbstractNumberConverter converter;
+
+        NumberRoute(Class<?> sourceType, AbstractNumberConverter converter) {
+            super(sourceType);
+            this.converter = converter;
+        }
+
+        @Override
+        Object convert(ConversionPlan<?> plan, Object value) {
+            try {
+                if(value instanceof Number) {
+                    return converter.toNumber(plan.targetType, (Number)value);
+                }else if(value instanceof Boolean) {
+                    return converter.toNumber(plan.targetType, ((Boolean)value) ? ONE : ZERO);
+                }else{
+                    return converter.toNumber(plan.targetType, value);
+                }
+            }catch(ConvertException e) {
+                throw e;
+            }catch(Throwable e) {
+                throw plan.wrap(sourceType, value, e);
+            }
+        }
+    }
+
+    private static final class ConverterRoute extends Route {
+        private final boolean     convertible;
+        private final Converter   targetConverter;
+        private final Converter   sourceConverter;
+        private final boolean     assignable;
+        private final Converter[] assignableFromConverters;
+        private final boolean[]   convertFrom; //true : the target type matched, false : the source type matched.
+        private final boolean     object;
+
+        ConverterRoute(Class<?> targetType, Class<?> sourceType, boolean convertible, Converter targetConverter) {
+            super(sourceType);
+            this.convertible     = convertible;
+            this.targetConverter = targetConverter;
+            this.sourceConverter = Converts.findConverter(sourceType);
+            this.assignable      = targetType.isAssignableFrom(sourceType);
+            this.object          = targetType.equals(Object.class);
+
+            List<Converter> converters = new ArrayList<>();
+            List<Boolean>   from       = new ArrayList<>();
+            for(Entry<Class<?>, Converter> entry : Converts.assignableFromConverters.entrySet()) {
+                Class<?> superType = entry.getKey();
+                if(superType.isAssignableFrom(targetType)) {
+                    converters.add(entry.getValue());
+                    from.add(true);
+                }
+                if(superType.isAssignableFrom(sourceType)) {
+                    converters.add(entry.getValue());
+                    from.add(false);
+                }
+            }
+            this.assignableFromConverters = converters.toArray(new Converter[converters.size()]);
+            this.convertFrom              = new boolean[from.size()];
+            for(int i=0;i<convertFrom.length;i++) {
+                convertFrom[i] = from.get(i);
+            }
+        }
+
+        @Override
+        Object convert(ConversionPlan<?> plan, Object value) {
+            Class<?> targetType  = plan.targetType;
+            Type     genericType = plan.genericType;
+            try {
+                Out<Object> out = new Out<>();
+
+                if(convertible && ((ConvertibleTo)value).convertTo(targetType, genericType, out)) {
+                    return out.getValue();
+                }
+
+                if(null != targetConverter && targetConverter.convertFrom(value, targetType, genericType, out)) {
+                    return out.getValue();
+                }
+
+                if(null != sourceConverter && sourceConverter.convertTo(value, targetType, genericType, out)) {
+                    return out.getValue();
+                }
+
+                if(assignable) {
+                    return value;
+                }
+
+                for(int i=0;i<assignableFromConverters.length;i++) {
+                    Converter converter = assignableFromConverters[i];
+                    if(convertFrom[i] ? converter.convertFrom(value, targetType, genericType, out) :
+                                        converter.convertTo(value, targetType, genericType, out)) {
+                        return out.getValue();
+                    }
+                }
+
+                if(object) {
+                    return value;
+                }
+
+                if(Converts.beanConverter.convertFrom(value, targetType, genericType, out)) {
+                    return out.getValue();
+                }
+
+                if(Converts.beanConverter.convertTo(value, targetType, genericType, out)) {
+                    return out.getValue();
+                }
+
+                if(value instanceof Valued) {
+                    return plan.convert(((Valued) value).getValue());
+                }
+            }catch(ConvertException e) {
+                throw e;
+            }catch(Throwable e) {
+                throw plan.wrap(sourceType, value, e);
+            }
+            return Converts.NOT_CONVERTED;
+        }
+    }
+}
@@ -33,6 +33,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import leap.lang.Args;
 import leap.lang.Classes;
@@ -48,12 +49,16 @@ import leap.lang.value.Null;
 @SuppressWarnings({"unchecked","rawtypes"})
 public class Converts {
 	
-	private static final Map<Class<?>, Converter<?>> converters               = new ConcurrentHashMap<Class<?>, Converter<?>>();
-	private static final Map<Class<?>, Converter>    assignableFromConverters = new ConcurrentHashMap<Class<?>, Converter>();
+	private static final Map<Class<?>, Converter<?>>  converters               = new ConcurrentHashMap<Class<?>, Converter<?>>();
+	static final Map<Class<?>, Converter>             assignableFromConverters = new ConcurrentHashMap<Class<?>, Converter>();
+	private static final Map<Object, ConversionPlan<?>> plans                   = new ConcurrentHashMap<Object, ConversionPlan<?>>();
 	
-	private static final Object NOT_CONVERTED = new Object();
+	static final Object NOT_CONVERTED = new Object();
 	
-	private static Converter     beanConverter  = new BeanConverter();
+	//increased when any converter registered, the cached lookups in the conversion plans will be discarded.
+	static final AtomicInteger version = new AtomicInteger();
+	
+	static Converter             beanConverter  = new BeanConverter();
 	private static Converter     arrayConverter = new ArrayConverter();
 	private static Converter     enumConverter  = new EnumConverter();
 	private static ListConverter listConverter  = new ListConverter();
@@ -115,10 +120,54 @@ public class Converts {
 	
 	public static void register(Class<?> clazz,Converter<?> converter){
 		converters.put(clazz,converter);
+		version.incrementAndGet();
 	}
 	
 	public static void registerAssignableFrom(Class<?> superType,Converter<?> converter){
 		assignableFromConverters.put(superType, converter);
+		version.incrementAndGet();
+	}
+	
+	/**
+	 * Returns the {@link ConversionPlan} for converting the values to the given target type.
+	 * 
+	 * @see #plan(Class, Type)
+	 */
+	public static <T> ConversionPlan<T> plan(Class<T> targetType) {
+		return plan(targetType, null);
+	}
+	
+	/**
+	 * Returns the {@link ConversionPlan} for converting the values to the given target type.
+	 * 
+	 * <p>
+	 * The plan resolves the conversion once per source type, the caller which converts many values 
+	 * to the same type (such as reading the column values of rows) should hold the plan instead of calling {@link #convert(Object, Class, Type)}.
+	 */
+	public static <T> ConversionPlan<T> plan(Class<T> targetType, Type genericType) {
+		Args.notNull(targetType,"targetType");
+		
+		Object key = null == genericType || targetType.equals(genericType) ? targetType : new PlanKey(targetType, genericType);
+		
+		ConversionPlan<T> plan = (ConversionPlan<T>)plans.get(key);
+		if(null == plan) {
+			plan = new ConversionPlan<T>(targetType, genericType);
+			ConversionPlan<T> old = (ConversionPlan<T>)plans.putIfAbsent(key, plan);
+			if(null != old) {
+				plan = old;
+			}
+		}
+		return plan;
+	}
+	
+	/**
+	 * Returns <code>true</code> if a {@link Converter} was registered for the given type (includes array and enum types).
+	 * 
+	 * <p>
+	 * The type without any converter will be converted as bean.
+	 */
+	public static boolean hasConverter(Class<?> type) {
+		return null != findConverter(type);
 	}
 	
 	public static <T> T convert(Object value,Class<T> targetType) throws ConvertUnsupportedException {
@@ -419,6 +468,33 @@ public class Converts {
 		return converter;
 	}
 	
+	private static final class PlanKey {
+		private final Class<?> targetType;
+		private final Type     genericType;
+		
+		PlanKey(Class<?> targetType, Type genericType) {
+			this.targetType  = targetType;
+			this.genericType = genericType;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * targetType.hashCode() + genericType.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(this == obj) {
+				return true;
+			}
+			if(!(obj instanceof PlanKey)) {
+				return false;
+			}
+			PlanKey o = (PlanKey)obj;
+			return targetType.equals(o.targetType) && genericType.equals(o.genericType);
+		}
+	}
+	
 	static Object trimToNull(Object value){
 		if(null == value){
 			return null;
@@ -25,6 +25,10 @@ public class ElInstanceField implements ElProperty {
 		this.field = field;
 	}
 
+	public ReflectField getField() {
+		return field;
+	}
+
 	@Override
 	public Object getValue(ElEvalContext context, Object instance) throws Throwable {
 		return field.getValue(instance);
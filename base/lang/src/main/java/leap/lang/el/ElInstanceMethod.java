@@ -46,6 +46,10 @@ public class ElInstanceMethod implements ElFunction,ElMethod {
 		this.instance = instance;
 	}
 
+	public ReflectMethod getMethod() {
+		return m;
+	}
+
 	@Override
     public int getArgumentSize() {
 	    return size;
@@ -19,12 +19,47 @@ import java.util.Map;
 
 import leap.lang.el.DefaultElEvalContext;
 import leap.lang.el.ElEvalContext;
+import leap.lang.el.spel.ast.AstCompiler;
 import leap.lang.el.spel.ast.AstExpr;
 import leap.lang.expression.AbstractExpression;
+import leap.lang.logging.Log;
+import leap.lang.logging.LogFactory;
 
 public class SpelExpression extends AbstractExpression {
 	
-	protected final AstExpr expr;
+	private static final Log log = LogFactory.get(SpelExpression.class);
+	
+	/**
+	 * The system property to enable the compilation of the expressions, default is <code>false</code>.
+	 */
+	public static final String COMPILE_PROPERTY = "leap.spel.compile";
+	
+	/**
+	 * The expression will be compiled after evaluated the times if the compilation enabled.
+	 */
+	public static final int COMPILE_THRESHOLD = 10;
+	
+	private static volatile boolean compileEnabled = Boolean.getBoolean(COMPILE_PROPERTY);
+	
+	/**
+	 * Returns <code>true</code> if the expressions will be compiled automatically after evaluated {@link #COMPILE_THRESHOLD} times.
+	 */
+	public static boolean isCompileEnabled() {
+		return compileEnabled;
+	}
+	
+	/**
+	 * Enables or disables the automatic compilation of the expressions.
+	 */
+	public static void setCompileEnabled(boolean enabled) {
+		SpelExpression.compileEnabled = enabled;
+	}
+	
+	protected volatile AstExpr expr;
+	
+	private int     evaluations;
+	private boolean compiled;
+	private boolean compiledAny;
 	
 	public SpelExpression(AstExpr expr) {
 		this.expr = expr;
@@ -32,12 +67,44 @@ public class SpelExpression extends AbstractExpression {
 
 	@Override
     protected Object eval(Object context, Map<String, Object> vars) {
+		if(compileEnabled && !compiled && ++evaluations >= COMPILE_THRESHOLD) {
+			compile();
+		}
 	    return expr.eval(new DefaultElEvalContext(context, vars));
     }
 
 	public Object eval(ElEvalContext context) {
+		if(compileEnabled && !compiled && ++evaluations >= COMPILE_THRESHOLD) {
+			compile();
+		}
 		return expr.eval(context);
 	}
+	
+	/**
+	 * Compiles the properties and methods in this expression by the {@link AstCompiler}.
+	 * 
+	 * <p>
+	 * The expression should be evaluated before compiling, see {@link AstCompiler}.
+	 * 
+	 * <p>
+	 * Returns <code>true</code> if any part of this expression compiled.
+	 */
+	public synchronized boolean compile() {
+		if(compiled) {
+			return compiledAny;
+		}
+		compiled = true;
+		
+		try {
+			AstCompiler compiler = new AstCompiler();
+			expr = compiler.compile(expr);
+			compiledAny = compiler.getCompiled() > 0;
+			return compiledAny;
+		}catch (Throwable e) {
+			log.warn("Error compiling expression '{}', {}", expr, e.getMessage(), e);
+			return false;
+		}
+    }
 
 	@Override
     public String toString() {
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.el.spel.ast;
+
+import leap.lang.el.ElEvalContext;
+import leap.lang.el.ElException;
+
+/**
+ * The base class of the expression nodes generated by {@link AstCompiler}.
+ *
+ * <p>
+ * A compiled node evaluates a chain of properties and methods, i.e. <code>user.getAddress().city</code>,
+ * the source chain is used for printing and visiting.
+ *
+ * <p>
+ * The {@link #nodes} are the interpreted nodes used by the generated code,
+ * the {@link #classes} are the owner classes cached by the inline caches of the generated code.
+ */
+public abstract class AstCompiled extends AstExpr {
+
+	protected final AstExpr    source;
+	protected final AstNode[]  nodes;
+	protected final Class<?>[] classes;
+
+	protected AstCompiled(AstExpr source, AstNode[] nodes, Class<?>[] classes) {
+		this.source     = source;
+		this.nodes      = nodes;
+		this.classes    = classes;
+		this.resultType = source.getResultType();
+		this.setParent(source.getParent());
+	}
+
+	/**
+	 * Returns the source (interpreted) expression of this node.
+	 */
+	public AstExpr getSource() {
+		return source;
+	}
+
+	@Override
+	public abstract Object eval(ElEvalContext context);
+
+	@Override
+	public void toString(StringBuilder buf) {
+		source.toString(buf);
+	}
+
+	@Override
+	protected void doAccept(AstVisitor visitor) {
+		source.doAccept(visitor);
+	}
+
+	protected static ElException getPropertyError(ElEvalContext context, AstProperty node, Object o, Throwable e) {
+		return new ElException(context.getMessage("el.errors.getPropertyError", node.getName(), o, e.getMessage()),e);
+	}
+
+	protected static ElException invokeMethodError(ElEvalContext context, AstMethod node, Object o, Throwable e) {
+		return new ElException(context.getMessage("el.errors.methodInvokeError", node.getName(), o, e.getMessage()),e);
+	}
+}
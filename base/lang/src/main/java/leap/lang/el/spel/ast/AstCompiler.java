@@ -0,0 +1,696 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.el.spel.ast;
+
+import static leap.lang.asm.Opcodes.AALOAD;
+import static leap.lang.asm.Opcodes.AASTORE;
+import static leap.lang.asm.Opcodes.ACC_PUBLIC;
+import static leap.lang.asm.Opcodes.ACONST_NULL;
+import static leap.lang.asm.Opcodes.ALOAD;
+import static leap.lang.asm.Opcodes.ANEWARRAY;
+import static leap.lang.asm.Opcodes.ARETURN;
+import static leap.lang.asm.Opcodes.ASTORE;
+import static leap.lang.asm.Opcodes.ATHROW;
+import static leap.lang.asm.Opcodes.BIPUSH;
+import static leap.lang.asm.Opcodes.CHECKCAST;
+import static leap.lang.asm.Opcodes.DUP;
+import static leap.lang.asm.Opcodes.GETFIELD;
+import static leap.lang.asm.Opcodes.GOTO;
+import static leap.lang.asm.Opcodes.ICONST_0;
+import static leap.lang.asm.Opcodes.IFEQ;
+import static leap.lang.asm.Opcodes.IFNONNULL;
+import static leap.lang.asm.Opcodes.IFNULL;
+import static leap.lang.asm.Opcodes.IF_ACMPNE;
+import static leap.lang.asm.Opcodes.INSTANCEOF;
+import static leap.lang.asm.Opcodes.INVOKEINTERFACE;
+import static leap.lang.asm.Opcodes.INVOKESPECIAL;
+import static leap.lang.asm.Opcodes.INVOKESTATIC;
+import static leap.lang.asm.Opcodes.INVOKEVIRTUAL;
+import static leap.lang.asm.Opcodes.POP;
+import static leap.lang.asm.Opcodes.RETURN;
+import static leap.lang.asm.Opcodes.SIPUSH;
+import static leap.lang.asm.Opcodes.V1_5;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import leap.lang.Classes;
+import leap.lang.Primitives;
+import leap.lang.asm.ClassWriter;
+import leap.lang.asm.Label;
+import leap.lang.asm.MethodVisitor;
+import leap.lang.asm.Type;
+import leap.lang.beans.BeanProperty;
+import leap.lang.el.ElBeanProperty;
+import leap.lang.el.ElEvalContext;
+import leap.lang.el.ElException;
+import leap.lang.el.ElInstanceField;
+import leap.lang.el.ElInstanceMethod;
+import leap.lang.el.ElMethod;
+import leap.lang.el.ElProperty;
+import leap.lang.logging.Log;
+import leap.lang.logging.LogFactory;
+
+/**
+ * Compiles the chains of properties and methods in an expression, i.e. <code>user.getAddress().city</code>,
+ * to the generated {@link AstCompiled} nodes.
+ *
+ * <p>
+ * The generated code reads the property or invokes the method directly if the class of the owner object is the same as the
+ * class cached by the interpreter (an inline cache), otherwise it falls back to the interpreter of the node.
+ * So the expression should be evaluated before compiling, the chains without any resolved public member are not compiled.
+ *
+ * <p>
+ * The compiled nodes replace the chains in the expression tree, other nodes are still interpreted.
+ */
+@SuppressWarnings("deprecation")
+public class AstCompiler {
+
+	private static final Log log = LogFactory.get(AstCompiler.class);
+
+	private static final String CLASS_NAME    = Type.getInternalName(AstCompiled.class);
+	private static final String NODE          = Type.getInternalName(AstNode.class);
+	private static final String PROPERTY      = Type.getInternalName(AstProperty.class);
+	private static final String METHOD        = Type.getInternalName(AstMethod.class);
+	private static final String CONTEXT       = Type.getInternalName(ElEvalContext.class);
+	private static final String CONTEXT_DESC  = Type.getDescriptor(ElEvalContext.class);
+	private static final String OBJECT        = Type.getInternalName(Object.class);
+	private static final String EXCEPTION     = Type.getDescriptor(ElException.class);
+	private static final String INIT_DESC     = "(" + Type.getDescriptor(AstExpr.class) + "[L" + NODE + ";[Ljava/lang/Class;)V";
+
+	private static final Method GET_MODULE;
+	private static final Method IS_EXPORTED;
+
+	static {
+		//The jdk 9+ modules, the generated class can access the exported packages only.
+		Method getModule  = null;
+		Method isExported = null;
+		try {
+			getModule  = Class.class.getMethod("getModule");
+			isExported = getModule.getReturnType().getMethod("isExported", String.class);
+		} catch (NoSuchMethodException e) {
+
+		}
+		GET_MODULE  = getModule;
+		IS_EXPORTED = isExported;
+	}
+
+	private static final AtomicInteger counter = new AtomicInteger();
+
+	private int compiled;
+
+	/**
+	 * Returns the number of the compiled chains.
+	 */
+	public int getCompiled() {
+		return compiled;
+	}
+
+	/**
+	 * Compiles the chains in the given expression and returns the compiled expression.
+	 *
+	 * <p>
+	 * The nodes in the given expression are replaced by the compiled nodes, returns the given expression itself
+	 * if it is not a chain.
+	 */
+	public AstExpr compile(AstExpr expr) {
+		if(isChain(expr)) {
+			prepareChain(expr);
+
+			AstExpr c = generate(expr);
+			if(null != c) {
+				compiled++;
+				return c;
+			}
+			return expr;
+		}
+
+		if(expr instanceof AstBinary) {
+			AstBinary b = (AstBinary)expr;
+			b.setLeft(compile(b.getLeft()));
+			b.setRight(compile(b.getRight()));
+		}else if(expr instanceof AstUnary) {
+			AstUnary u = (AstUnary)expr;
+			u.setExpr(compile(u.getExpr()));
+		}else if(expr instanceof AstChoice) {
+			AstChoice c = (AstChoice)expr;
+			c.setQuestion(compile(c.getQuestion()));
+			c.setYes(compile(c.getYes()));
+			c.setNo(compile(c.getNo()));
+		}else if(expr instanceof AstItem) {
+			AstItem i = (AstItem)expr;
+			if(null != i.getArray()) {
+				i.setArray(compile(i.getArray()));
+			}
+			i.setIndex(compile(i.getIndex()));
+		}else if(expr instanceof AstInvocable) {
+			compile(((AstInvocable) expr).getParameters());
+		}
+
+		return expr;
+	}
+
+	private void compile(AstExpr[] exprs) {
+		for(int i=0;i<exprs.length;i++) {
+			exprs[i] = compile(exprs[i]);
+		}
+	}
+
+	private void prepareChain(AstExpr expr) {
+		if(expr instanceof AstProperty) {
+			AstProperty p = (AstProperty)expr;
+			if(isChain(p.getOwner())) {
+				prepareChain(p.getOwner());
+			}else{
+				p.setOwner(compile(p.getOwner()));
+			}
+		}else{
+			AstMethod m = (AstMethod)expr;
+			if(isChain(m.getOwner())) {
+				prepareChain(m.getOwner());
+			}else{
+				m.setOwner(compile(m.getOwner()));
+			}
+			compile(m.getParameters());
+		}
+	}
+
+	private AstExpr generate(AstExpr chain) {
+		Generator g = new Generator();
+
+		String className = CLASS_NAME.replace('/', '.') + "$" + counter.incrementAndGet();
+
+		ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+
+		//No stack map frames are required for the java 5 class.
+		cw.visit(V1_5, ACC_PUBLIC, className.replace('.', '/'), null, CLASS_NAME, null);
+
+		MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", INIT_DESC, null, null);
+		mv.visitCode();
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitVarInsn(ALOAD, 1);
+		mv.visitVarInsn(ALOAD, 2);
+		mv.visitVarInsn(ALOAD, 3);
+		mv.visitMethodInsn(INVOKESPECIAL, CLASS_NAME, "<init>", INIT_DESC);
+		mv.visitInsn(RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		g.mv = cw.visitMethod(ACC_PUBLIC, "eval", "(" + CONTEXT_DESC + ")Ljava/lang/Object;", null, null);
+		g.mv.visitCode();
+		g.emit(chain);
+		g.mv.visitInsn(ARETURN);
+		g.mv.visitMaxs(0, 0);
+		g.mv.visitEnd();
+
+		cw.visitEnd();
+
+		if(g.fast == 0) {
+			return null;
+		}
+
+		ClassLoader parent = getClassLoader(g.types);
+		if(null == parent) {
+			log.debug("Cannot compile '{}', no class loader can load all the classes", chain);
+			return null;
+		}
+
+		try {
+			Class<?> c = new CompiledLoader(parent).defineClass(className, cw.toByteArray());
+
+			return (AstExpr)c.getConstructor(AstExpr.class, AstNode[].class, Class[].class)
+							 .newInstance(chain,
+									 	  g.nodes.toArray(new AstNode[g.nodes.size()]),
+									 	  g.classes.toArray(new Class<?>[g.classes.size()]));
+		} catch (Throwable e) {
+			log.warn("Error compiling expression '{}', {}", chain, e.getMessage(), e);
+			return null;
+		}
+	}
+
+	private static boolean isChain(AstExpr expr) {
+		return expr instanceof AstProperty || expr instanceof AstMethod;
+	}
+
+	/**
+	 * Returns the class loader which can load all the given classes.
+	 */
+	private static ClassLoader getClassLoader(Set<Class<?>> types) {
+		List<ClassLoader> loaders = new ArrayList<>();
+		for(Class<?> type : types) {
+			ClassLoader loader = type.getClassLoader();
+			if(null != loader && !loaders.contains(loader)) {
+				loaders.add(loader);
+			}
+		}
+
+		for(ClassLoader loader : loaders) {
+			boolean visible = true;
+			for(Class<?> type : types) {
+				if(!isVisible(loader, type)) {
+					visible = false;
+					break;
+				}
+			}
+			if(visible) {
+				return loader;
+			}
+		}
+
+		return null;
+	}
+
+	private static boolean isVisible(ClassLoader loader, Class<?> type) {
+		if(type.isPrimitive()) {
+			return true;
+		}
+		try {
+			return Class.forName(type.getName(), false, loader) == type;
+		} catch (ClassNotFoundException | LinkageError e) {
+			return false;
+		}
+	}
+
+	private static boolean isAccessible(Class<?> c) {
+		while(c.isArray()) {
+			c = c.getComponentType();
+		}
+
+		if(c.isPrimitive()) {
+			return true;
+		}
+
+		if(c.isAnonymousClass() || c.isLocalClass()) {
+			return false;
+		}
+
+		for(Class<?> t = c; null != t; t = t.getEnclosingClass()) {
+			if(!Modifier.isPublic(t.getModifiers())) {
+				return false;
+			}
+		}
+
+		if(null != GET_MODULE) {
+			try {
+				return (Boolean)IS_EXPORTED.invoke(GET_MODULE.invoke(c), Classes.getPackageName(c));
+			} catch (Exception e) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Returns the public method of the given method in an accessible class or interface of the given class.
+	 */
+	private static Target getAccessibleMethod(Class<?> c, Method m) {
+		if(!Modifier.isPublic(m.getModifiers()) || Modifier.isStatic(m.getModifiers()) || m.isVarArgs()) {
+			return null;
+		}
+
+		Set<Class<?>> types = new LinkedHashSet<>();
+		for(Class<?> t = c; null != t; t = t.getSuperclass()) {
+			types.add(t);
+		}
+		for(Class<?> t = c; null != t; t = t.getSuperclass()) {
+			addInterfaces(types, t);
+		}
+
+		for(Class<?> t : types) {
+			if(isAccessible(t)) {
+				try {
+					Method am = t.getMethod(m.getName(), m.getParameterTypes());
+					return Modifier.isStatic(am.getModifiers()) ? null : new Target(t, am);
+				} catch (NoSuchMethodException e) {
+
+				}
+			}
+		}
+
+		return null;
+	}
+
+	private static void addInterfaces(Set<Class<?>> types, Class<?> c) {
+		for(Class<?> i : c.getInterfaces()) {
+			if(types.add(i)) {
+				addInterfaces(types, i);
+			}
+		}
+	}
+
+	private static final class Target {
+		final Class<?> owner;
+		final Method   method;
+
+		Target(Class<?> owner, Method method) {
+			this.owner  = owner;
+			this.method = method;
+		}
+	}
+
+	private static final class Generator {
+		final List<AstNode>  nodes   = new ArrayList<>();
+		final List<Class<?>> classes = new ArrayList<>();
+		final Set<Class<?>>  types   = new LinkedHashSet<>();
+
+		MethodVisitor mv;
+		int           locals = 2;
+		int           fast;
+
+		Generator() {
+			types.add(AstCompiled.class);
+		}
+
+		void emit(AstExpr expr) {
+			if(expr instanceof AstProperty) {
+				emitProperty((AstProperty)expr);
+			}else if(expr instanceof AstMethod) {
+				emitMethod((AstMethod)expr);
+			}else{
+				loadNode(add(expr), null);
+				mv.visitVarInsn(ALOAD, 1);
+				mv.visitMethodInsn(INVOKEVIRTUAL, NODE, "eval", "(" + CONTEXT_DESC + ")Ljava/lang/Object;");
+			}
+		}
+
+		void emitProperty(AstProperty p) {
+			int   i    = add(p);
+			Label slow = new Label();
+			Label end  = new Label();
+
+			//The qualified name may be a variable, see AstProperty#eval.
+			mv.visitVarInsn(ALOAD, 1);
+			mv.visitLdcInsn(p.getQualifiedName());
+			mv.visitMethodInsn(INVOKEINTERFACE, CONTEXT, "resolveVariable", "(Ljava/lang/String;)Ljava/lang/Object;");
+			mv.visitInsn(DUP);
+			mv.visitJumpInsn(IFNONNULL, end);
+			mv.visitInsn(POP);
+
+			emit(p.getOwner());
+			mv.visitInsn(DUP);
+			mv.visitJumpInsn(IFNULL, end);
+
+			int o = locals++;
+			mv.visitVarInsn(ASTORE, o);
+
+			Object getter = getFastGetter(p);
+			if(null != getter) {
+				guard(o, p.getCachedClass(), slow);
+
+				Label start   = new Label();
+				Label stop    = new Label();
+				Label handler = new Label();
+				mv.visitTryCatchBlock(start, stop, handler, "java/lang/Throwable");
+
+				mv.visitLabel(start);
+				mv.visitVarInsn(ALOAD, o);
+				if(getter instanceof Target) {
+					invoke((Target)getter);
+				}else{
+					Field f = (Field)getter;
+					cast(f.getDeclaringClass());
+					mv.visitFieldInsn(GETFIELD, Type.getInternalName(f.getDeclaringClass()), f.getName(), Type.getDescriptor(f.getType()));
+					box(f.getType());
+				}
+				mv.visitLabel(stop);
+				mv.visitJumpInsn(GOTO, end);
+
+				mv.visitLabel(handler);
+				error(i, PROPERTY, "getPropertyError", o);
+				fast++;
+			}
+
+			mv.visitLabel(slow);
+			loadNode(i, PROPERTY);
+			mv.visitVarInsn(ALOAD, 1);
+			mv.visitVarInsn(ALOAD, o);
+			mv.visitMethodInsn(INVOKEVIRTUAL, PROPERTY, "getValue", "(" + CONTEXT_DESC + "Ljava/lang/Object;)Ljava/lang/Object;");
+			mv.visitLabel(end);
+		}
+
+		void emitMethod(AstMethod m) {
+			int   i    = add(m);
+			Label slow = new Label();
+			Label end  = new Label();
+
+			emit(m.getOwner());
+			mv.visitInsn(DUP);
+			mv.visitJumpInsn(IFNULL, end);
+
+			int o = locals++;
+			mv.visitVarInsn(ASTORE, o);
+
+			AstExpr[] parameters = m.getParameters();
+			int[]     args       = new int[parameters.length];
+			for(int j=0;j<args.length;j++) {
+				emit(parameters[j]);
+				args[j] = locals++;
+				mv.visitVarInsn(ASTORE, args[j]);
+			}
+
+			Target target = getFastMethod(m);
+			if(null != target) {
+				guard(o, m.getCachedClass(), slow);
+
+				//The arguments must be the instances of the parameter types.
+				Class<?>[] types = target.method.getParameterTypes();
+				for(int j=0;j<args.length;j++) {
+					Class<?> type = types[j];
+					if(type.isPrimitive()) {
+						mv.visitVarInsn(ALOAD, args[j]);
+						mv.visitTypeInsn(INSTANCEOF, Type.getInternalName(Primitives.wrap(type)));
+						mv.visitJumpInsn(IFEQ, slow);
+					}else if(type != Object.class) {
+						Label ok = new Label();
+						mv.visitVarInsn(ALOAD, args[j]);
+						mv.visitJumpInsn(IFNULL, ok);
+						mv.visitVarInsn(ALOAD, args[j]);
+						mv.visitTypeInsn(INSTANCEOF, Type.getInternalName(type));
+						mv.visitJumpInsn(IFEQ, slow);
+						mv.visitLabel(ok);
+					}
+				}
+
+				Label start   = new Label();
+				Label stop    = new Label();
+				Label handler = new Label();
+				mv.visitTryCatchBlock(start, stop, handler, "java/lang/Throwable");
+
+				mv.visitLabel(start);
+				mv.visitVarInsn(ALOAD, o);
+				invoke(target, args);
+				mv.visitLabel(stop);
+				mv.visitJumpInsn(GOTO, end);
+
+				mv.visitLabel(handler);
+				error(i, METHOD, "invokeMethodError", o);
+				fast++;
+			}
+
+			mv.visitLabel(slow);
+			loadNode(i, METHOD);
+			mv.visitVarInsn(ALOAD, 1);
+			mv.visitVarInsn(ALOAD, o);
+			push(args.length);
+			mv.visitTypeInsn(ANEWARRAY, OBJECT);
+			for(int j=0;j<args.length;j++) {
+				mv.visitInsn(DUP);
+				push(j);
+				mv.visitVarInsn(ALOAD, args[j]);
+				mv.visitInsn(AASTORE);
+			}
+			mv.visitMethodInsn(INVOKEVIRTUAL, METHOD, "invoke", "(" + CONTEXT_DESC + "Ljava/lang/Object;[Ljava/lang/Object;)Ljava/lang/Object;");
+			mv.visitLabel(end);
+		}
+
+		/**
+		 * Returns the {@link Target} of the getter or the {@link Field}.
+		 */
+		Object getFastGetter(AstProperty p) {
+			Class<?>   c  = p.getCachedClass();
+			ElProperty ep = p.getCachedProperty();
+			if(null == c || null == ep) {
+				return null;
+			}
+
+			Field f = null;
+			if(ep.getClass() == ElBeanProperty.class) {
+				BeanProperty bp = ((ElBeanProperty)ep).getBeanProperty();
+				if(!bp.isReadable()) {
+					return null;
+				}
+
+				Method m = bp.getGetter();
+				if(null != m) {
+					Target t = getAccessibleMethod(c, m);
+					return null != t && use(t) ? t : null;
+				}
+
+				f = bp.getField();
+			}else if(ep.getClass() == ElInstanceField.class) {
+				f = ((ElInstanceField)ep).getField().getReflectedField();
+			}
+
+			if(null != f && Modifier.isPublic(f.getModifiers()) && !Modifier.isStatic(f.getModifiers()) &&
+			   isAccessible(f.getDeclaringClass()) && isAccessible(f.getType())) {
+				types.add(f.getDeclaringClass());
+				types.add(f.getType());
+				return f;
+			}
+
+			return null;
+		}
+
+		Target getFastMethod(AstMethod m) {
+			Class<?> c  = m.getCachedClass();
+			ElMethod em = m.getCachedMethod();
+			if(null == c || null == em || em.getClass() != ElInstanceMethod.class) {
+				return null;
+			}
+
+			Target t = getAccessibleMethod(c, ((ElInstanceMethod)em).getMethod().getReflectedMethod());
+			return null != t && use(t) ? t : null;
+		}
+
+		boolean use(Target t) {
+			Method m = t.method;
+			if(!isAccessible(m.getReturnType())) {
+				return false;
+			}
+			for(Class<?> type : m.getParameterTypes()) {
+				if(!isAccessible(type)) {
+					return false;
+				}
+			}
+
+			types.add(t.owner);
+			types.add(m.getReturnType());
+			for(Class<?> type : m.getParameterTypes()) {
+				types.add(type);
+			}
+			return true;
+		}
+
+		int add(AstNode node) {
+			nodes.add(node);
+			return nodes.size() - 1;
+		}
+
+		void loadNode(int i, String type) {
+			mv.visitVarInsn(ALOAD, 0);
+			mv.visitFieldInsn(GETFIELD, CLASS_NAME, "nodes", "[L" + NODE + ";");
+			push(i);
+			mv.visitInsn(AALOAD);
+			if(null != type) {
+				mv.visitTypeInsn(CHECKCAST, type);
+			}
+		}
+
+		void guard(int o, Class<?> c, Label slow) {
+			classes.add(c);
+			mv.visitVarInsn(ALOAD, o);
+			mv.visitMethodInsn(INVOKEVIRTUAL, OBJECT, "getClass", "()Ljava/lang/Class;");
+			mv.visitVarInsn(ALOAD, 0);
+			mv.visitFieldInsn(GETFIELD, CLASS_NAME, "classes", "[Ljava/lang/Class;");
+			push(classes.size() - 1);
+			mv.visitInsn(AALOAD);
+			mv.visitJumpInsn(IF_ACMPNE, slow);
+		}
+
+		void invoke(Target t, int... args) {
+			Class<?> owner = t.owner;
+			Method   m     = t.method;
+			cast(owner);
+
+			Class<?>[] types = m.getParameterTypes();
+			for(int j=0;j<args.length;j++) {
+				mv.visitVarInsn(ALOAD, args[j]);
+				unbox(types[j]);
+			}
+
+			mv.visitMethodInsn(owner.isInterface() ? INVOKEINTERFACE : INVOKEVIRTUAL,
+							   Type.getInternalName(owner), m.getName(), Type.getMethodDescriptor(m));
+
+			if(m.getReturnType() == void.class) {
+				mv.visitInsn(ACONST_NULL);
+			}else{
+				box(m.getReturnType());
+			}
+		}
+
+		void error(int i, String type, String method, int o) {
+			int e = locals++;
+			mv.visitVarInsn(ASTORE, e);
+			mv.visitVarInsn(ALOAD, 1);
+			loadNode(i, type);
+			mv.visitVarInsn(ALOAD, o);
+			mv.visitVarInsn(ALOAD, e);
+			mv.visitMethodInsn(INVOKESTATIC, CLASS_NAME, method, "(" + CONTEXT_DESC + "L" + type + ";Ljava/lang/Object;Ljava/lang/Throwable;)" + EXCEPTION);
+			mv.visitInsn(ATHROW);
+		}
+
+		void cast(Class<?> c) {
+			Type t = Type.getType(c);
+			mv.visitTypeInsn(CHECKCAST, t.getSort() == Type.ARRAY ? t.getDescriptor() : t.getInternalName());
+		}
+
+		void box(Class<?> type) {
+			if(type.isPrimitive()) {
+				Type   t       = Type.getType(type);
+				String wrapper = Type.getInternalName(Primitives.wrap(type));
+				mv.visitMethodInsn(INVOKESTATIC, wrapper, "valueOf", "(" + t.getDescriptor() + ")L" + wrapper + ";");
+			}
+		}
+
+		void unbox(Class<?> type) {
+			if(type.isPrimitive()) {
+				String wrapper = Type.getInternalName(Primitives.wrap(type));
+				mv.visitTypeInsn(CHECKCAST, wrapper);
+				mv.visitMethodInsn(INVOKEVIRTUAL, wrapper, type.getName() + "Value", "()" + Type.getDescriptor(type));
+			}else if(type != Object.class) {
+				cast(type);
+			}
+		}
+
+		void push(int i) {
+			if(i <= 5) {
+				mv.visitInsn(ICONST_0 + i);
+			}else if(i <= Byte.MAX_VALUE) {
+				mv.visitIntInsn(BIPUSH, i);
+			}else{
+				mv.visitIntInsn(SIPUSH, i);
+			}
+		}
+	}
+
+	private static final class CompiledLoader extends ClassLoader {
+
+		CompiledLoader(ClassLoader parent) {
+	        super(parent);
+        }
+
+		Class<?> defineClass(String name, byte[] bytes) throws ClassFormatError {
+			return defineClass(name, bytes, 0, bytes.length);
+		}
+	}
+}
@@ -56,16 +56,21 @@ public class AstMethod extends AstInvocable implements Serializable {
     		return null;
     	}
     	
+    	return invoke(context, o, evalParameters(context));
+    }
+    
+    /**
+     * Invokes this method of the given owner object, the owner object and the arguments are evaluated by the caller.
+     */
+    public Object invoke(ElEvalContext context, Object o, Object[] args) {
     	if(o instanceof ElMethodInvocable){
     		try {
-	            return ((ElMethodInvocable) o).invokeMethod(context, name, evalParameters(context));
+	            return ((ElMethodInvocable) o).invokeMethod(context, name, args);
             } catch (Throwable e) {
             	throw new ElException(context.getMessage("el.errors.methodInvokeError", name, o, e.getMessage()),e);
             }
     	}
     	
-    	Object[] args = evalParameters(context);
-    	
     	if(null == m){
     		synchronized (this) {
 	            if(null == m){
@@ -97,6 +102,14 @@ public class AstMethod extends AstInvocable implements Serializable {
         }
     }
     
+    Class<?> getCachedClass() {
+    	return c;
+    }
+    
+    ElMethod getCachedMethod() {
+    	return m;
+    }
+    
     protected ElMethod resolveMethod(ElEvalContext ctx,Class<?> c,Object[] args) {
     	ElMethod m = ctx.resolveMethod(c, name, args);
     	if(null == m){
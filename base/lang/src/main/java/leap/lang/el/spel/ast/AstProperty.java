@@ -65,7 +65,6 @@ public class AstProperty extends AstExpr implements Named {
     }
 
     @Override
-    @SuppressWarnings("rawtypes")
     public Object eval(ElEvalContext context) {
         if(null == qName) {
             qName = owner.toString() + "." + name;
@@ -80,8 +79,14 @@ public class AstProperty extends AstExpr implements Named {
             }
         }
         
-    	Object o = owner.eval(context);
-    	
+    	return getValue(context, owner.eval(context));
+    }
+    
+    /**
+     * Returns the value of this property in the given owner object, the owner object is evaluated by the caller.
+     */
+    @SuppressWarnings("rawtypes")
+    public Object getValue(ElEvalContext context, Object o) {
     	if(null == o){
     		return null;
     	}
@@ -129,6 +134,21 @@ public class AstProperty extends AstExpr implements Named {
         }
     }
     
+    String getQualifiedName() {
+    	if(null == qName) {
+    		qName = owner.toString() + "." + name;
+    	}
+    	return qName;
+    }
+    
+    Class<?> getCachedClass() {
+    	return c;
+    }
+    
+    ElProperty getCachedProperty() {
+    	return p;
+    }
+    
     protected ElProperty resolveProperty(ElEvalContext ctx, Class<?> c) {
     	ElProperty p = ctx.resolveProperty(c, name);
     	if(null == p){
@@ -0,0 +1,255 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.io;
+
+import leap.lang.Args;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.function.Supplier;
+
+/**
+ * A {@link Writer} encodes the chars as UTF-8 bytes directly into a byte buffer and writes the buffer
+ * to the underlying {@link OutputStream} when it is full.
+ *
+ * <p>
+ * The byte buffer is borrowed from a per thread pool and must be returned by calling {@link #release()} or {@link #close()}.
+ *
+ * <p>
+ * The underlying stream can be opened lazily by a {@link Supplier}, it will not be opened until the first buffer written.
+ *
+ * <p>
+ * Not thread safe.
+ */
+public class Utf8OutputStreamWriter extends Writer {
+
+    public static final int BUFFER_SIZE = 8192;
+
+    private static final int REPLACEMENT_CHAR = '?';
+
+    private static final ThreadLocal<byte[]> POOL = new ThreadLocal<>();
+
+    private final Supplier<OutputStream> supplier;
+
+    private OutputStream out;
+    private byte[]       buf;
+    private int          pos;
+    private int          end; //keeps 4 bytes free before encoding a char (a replacement char and a 3 bytes char at most).
+    private char         highSurrogate;
+
+    public Utf8OutputStreamWriter(OutputStream out) {
+        Args.notNull(out, "out");
+        this.supplier = null;
+        this.out      = out;
+        this.buf      = borrow();
+        this.end      = buf.length - 4;
+    }
+
+    public Utf8OutputStreamWriter(Supplier<OutputStream> supplier) {
+        Args.notNull(supplier, "supplier");
+        this.supplier = supplier;
+        this.buf      = borrow();
+        this.end      = buf.length - 4;
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        ensureOpen();
+        if(pos > end) {
+            flushBuffer();
+        }
+        encode((char)c);
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        ensureOpen();
+        final int last = off + len;
+        for(int i=off;i<last;i++) {
+            if(pos > end) {
+                flushBuffer();
+            }
+            char c = cbuf[i];
+            if(c < 0x80 && highSurrogate == 0) {
+                buf[pos++] = (byte)c;
+            }else{
+                encode(c);
+            }
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        ensureOpen();
+        final int last = off + len;
+        for(int i=off;i<last;i++) {
+            if(pos > end) {
+                flushBuffer();
+            }
+            char c = str.charAt(i);
+            if(c < 0x80 && highSurrogate == 0) {
+                buf[pos++] = (byte)c;
+            }else{
+                encode(c);
+            }
+        }
+    }
+
+    @Override
+    public Writer append(CharSequence csq) throws IOException {
+        String s = String.valueOf(csq);
+        write(s, 0, s.length());
+        return this;
+    }
+
+    @Override
+    public Writer append(CharSequence csq, int start, int end) throws IOException {
+        String s = String.valueOf(null == csq ? "null" : csq.subSequence(start, end));
+        write(s, 0, s.length());
+        return this;
+    }
+
+    /**
+     * Writes the buffered bytes to the underlying stream and flushes the stream.
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        flushBuffer();
+        out().flush();
+    }
+
+    /**
+     * Writes the buffered bytes to the underlying stream and returns the byte buffer to the pool.
+     *
+     * <p>
+     * The underlying stream will not be flushed or closed, this writer can not be used after released.
+     */
+    public void release() throws IOException {
+        if(null == buf) {
+            return;
+        }
+        try {
+            if(highSurrogate != 0) {
+                highSurrogate = 0;
+                buf[pos++] = REPLACEMENT_CHAR;
+            }
+            flushBuffer();
+        }finally{
+            POOL.set(buf);
+            buf = null;
+        }
+    }
+
+    /**
+     * Discards the buffered bytes and returns the byte buffer to the pool.
+     *
+     * <p>
+     * The underlying stream will not be opened if no buffer written before.
+     */
+    public void discard() {
+        if(null == buf) {
+            return;
+        }
+        POOL.set(buf);
+        buf = null;
+        pos = 0;
+        highSurrogate = 0;
+    }
+
+    /**
+     * Returns <code>true</code> if the underlying stream was opened.
+     */
+    public boolean isOpened() {
+        return null != out;
+    }
+
+    /**
+     * Releases the byte buffer and closes the underlying stream.
+     */
+    @Override
+    public void close() throws IOException {
+        if(null == buf) {
+            return;
+        }
+        try {
+            release();
+        }finally{
+            out().close();
+        }
+    }
+
+    private void encode(char c) {
+        if(highSurrogate != 0) {
+            char high = highSurrogate;
+            highSurrogate = 0;
+            if(Character.isLowSurrogate(c)) {
+                int cp = Character.toCodePoint(high, c);
+                buf[pos++] = (byte)(0xF0 | (cp >> 18));
+                buf[pos++] = (byte)(0x80 | ((cp >> 12) & 0x3F));
+                buf[pos++] = (byte)(0x80 | ((cp >> 6) & 0x3F));
+                buf[pos++] = (byte)(0x80 | (cp & 0x3F));
+                return;
+            }
+            buf[pos++] = REPLACEMENT_CHAR;
+        }
+
+        if(c < 0x80) {
+            buf[pos++] = (byte)c;
+        }else if(c < 0x800) {
+            buf[pos++] = (byte)(0xC0 | (c >> 6));
+            buf[pos++] = (byte)(0x80 | (c & 0x3F));
+        }else if(Character.isHighSurrogate(c)) {
+            highSurrogate = c;
+        }else if(Character.isLowSurrogate(c)) {
+            buf[pos++] = REPLACEMENT_CHAR;
+        }else{
+            buf[pos++] = (byte)(0xE0 | (c >> 12));
+            buf[pos++] = (byte)(0x80 | ((c >> 6) & 0x3F));
+            buf[pos++] = (byte)(0x80 | (c & 0x3F));
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if(pos > 0) {
+            out().write(buf, 0, pos);
+            pos = 0;
+        }
+    }
+
+    private OutputStream out() {
+        if(null == out) {
+            out = supplier.get();
+        }
+        return out;
+    }
+
+    private void ensureOpen() throws IOException {
+        if(null == buf) {
+            throw new IOException("Writer already released");
+        }
+    }
+
+    private static byte[] borrow() {
+        byte[] buf = POOL.get();
+        if(null == buf) {
+            return new byte[BUFFER_SIZE];
+        }
+        POOL.set(null);
+        return buf;
+    }
+}
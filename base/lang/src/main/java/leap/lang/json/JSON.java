@@ -17,6 +17,7 @@ package leap.lang.json;
 
 import java.io.Reader;
 import java.lang.reflect.Array;
+import java.lang.reflect.Type;
 import java.util.Map;
 
 import leap.lang.convert.Converts;
@@ -103,17 +104,39 @@ public class JSON {
 	}
 	
 	/**
-	 * Parse the json string and converts the raw value to the target type.
+	 * Parse the json string and binds the value to the target type.
 	 */
 	public static <T> T decode(String json,Class<? extends T> targetType){
-	    return Converts.convert(decoder.decode(json),targetType);
+	    return decode(json, targetType, null);
 	}
 	
     /**
-     * Parse the json string and converts the raw value to the target type.
+     * Parse the json string and binds the value to the target type.
      */
     public static <T> T decode(Reader json,Class<? extends T> targetType){
-        return Converts.convert(decoder.decode(json),targetType);
+        return decode(json, targetType, null);
+    }
+    
+    /**
+     * Parse the json string and binds the value to the target type.
+     * 
+     * <p>
+     * The beans, collections and maps are created while parsing, the result is the same as converting the raw value by {@link Converts}.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T decode(String json,Class<? extends T> targetType,Type genericType){
+        return (T)decoder.decode(json, targetType, genericType);
+    }
+    
+    /**
+     * Parse the json string and binds the value to the target type.
+     * 
+     * <p>
+     * The beans, collections and maps are created while parsing, the result is the same as converting the raw value by {@link Converts}.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T decode(Reader json,Class<? extends T> targetType,Type genericType){
+        return (T)decoder.decode(json, targetType, genericType);
     }
     
     /**
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2010 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.json;
+
+import leap.lang.beans.BeanProperty;
+import leap.lang.beans.BeanType;
+import leap.lang.naming.NamingStyle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The pre-resolved serialization plan of a bean class, contains the serializable properties and their json names.
+ *
+ * <p>
+ * The names with naming style applied are resolved once per {@link NamingStyle}.
+ */
+final class JsonBeanPlan {
+
+    private static final int MAX_CACHED_NAMING_STYLES = 8;
+
+    private static final Map<Class<?>, JsonBeanPlan> FIELD_PLANS    = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, JsonBeanPlan> PROPERTY_PLANS = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the plan of the readable and non transient fields, which used by the {@link JsonEncoder}.
+     *
+     * <p>
+     * The field annotated by {@link JsonIgnore} is excluded unless it also annotated by {@link JsonField}.
+     */
+    static JsonBeanPlan fields(Class<?> beanClass) {
+        JsonBeanPlan plan = FIELD_PLANS.get(beanClass);
+        if(null == plan) {
+            plan = FIELD_PLANS.computeIfAbsent(beanClass, (c) -> new JsonBeanPlan(c, true));
+        }
+        return plan;
+    }
+
+    /**
+     * Returns the plan of all the readable properties, which used by the {@link JsonWriter}.
+     *
+     * <p>
+     * The property annotated by {@link JsonIgnore} is excluded unless it also annotated by {@link JsonField}.
+     */
+    static JsonBeanPlan properties(Class<?> beanClass) {
+        JsonBeanPlan plan = PROPERTY_PLANS.get(beanClass);
+        if(null == plan) {
+            plan = PROPERTY_PLANS.computeIfAbsent(beanClass, (c) -> new JsonBeanPlan(c, false));
+        }
+        return plan;
+    }
+
+    private final BeanProperty[]             properties;
+    private final String[]                   names;
+    private final Map<NamingStyle, String[]> keys = new ConcurrentHashMap<>(2);
+
+    private JsonBeanPlan(Class<?> beanClass, boolean fieldsOnly) {
+        List<BeanProperty> properties = new ArrayList<>();
+        List<String>       names      = new ArrayList<>();
+
+        for(BeanProperty prop : BeanType.of(beanClass).getProperties()) {
+            if(!prop.isReadable()) {
+                continue;
+            }
+
+            if(fieldsOnly && (prop.isTransient() || !prop.isField())) {
+                continue;
+            }
+
+            if(null == prop.getAnnotation(JsonField.class) && prop.isAnnotationPresent(JsonIgnore.class)) {
+                continue;
+            }
+
+            JsonName named = prop.getAnnotation(JsonName.class);
+
+            properties.add(prop);
+            names.add(null != named ? named.value() : prop.getName());
+        }
+
+        this.properties = properties.toArray(new BeanProperty[properties.size()]);
+        this.names      = names.toArray(new String[names.size()]);
+    }
+
+    BeanProperty[] properties() {
+        return properties;
+    }
+
+    /**
+     * Returns the json keys of the properties with the given naming style applied.
+     */
+    String[] keys(NamingStyle ns) {
+        String[] a = keys.get(ns);
+        if(null == a) {
+            a = new String[names.length];
+            for(int i=0;i<a.length;i++) {
+                a[i] = ns.of(names[i]);
+            }
+            if(keys.size() < MAX_CACHED_NAMING_STYLES) {
+                keys.put(ns, a);
+            }
+        }
+        return a;
+    }
+}
@@ -0,0 +1,564 @@
+/*
+ * Copyright 2010 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.json;
+
+import leap.lang.Types;
+import leap.lang.annotation.Name;
+import leap.lang.beans.BeanProperty;
+import leap.lang.beans.BeanType;
+import leap.lang.convert.Converts;
+import leap.lang.reflect.ReflectClass;
+import leap.lang.reflect.Reflection;
+import leap.lang.serialize.Serialize;
+import leap.lang.serialize.Serializer;
+import leap.lang.serialize.Serializes;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Binds the parsed json values to the target type directly while parsing, without the intermediate {@link Map} and {@link List}.
+ *
+ * <p>
+ * The json object or array is bound by the {@link ObjectBinder} or {@link ArrayBinder} returned by {@link #objectBinder()} or {@link #arrayBinder()},
+ * otherwise it will be parsed as raw value and converted by {@link #convert(Object)}, the scalar values are always converted.
+ *
+ * <p>
+ * The binders are resolved once per target type, see {@link #of(Class, Type)}.
+ * The result is the same as converting the parsed raw value by {@link Converts}.
+ */
+abstract class JsonBinder {
+
+    /**
+     * Binds the json object to {@link LinkedHashMap}, the json array to {@link ArrayList}.
+     */
+    static final ObjectBinder RAW = new RawBinder();
+
+    /**
+     * The array binder of {@link #RAW}.
+     */
+    static final ArrayBinder RAW_ARRAY = new RawArrayBinder();
+
+    private static final Map<Type, JsonBinder> BINDERS = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the binder of the given type.
+     */
+    static JsonBinder of(Class<?> type, Type genericType) {
+        if(Object.class.equals(type)) {
+            return RAW;
+        }
+
+        Type key = genericType instanceof ParameterizedType || genericType instanceof GenericArrayType ? genericType : type;
+
+        JsonBinder binder = BINDERS.get(key);
+        if(null == binder) {
+            //the nested binders are resolved lazily, so a recursive type can not cause recursive creation.
+            binder = create(type, genericType);
+            JsonBinder old = BINDERS.putIfAbsent(key, binder);
+            if(null != old) {
+                binder = old;
+            }
+        }
+        return binder;
+    }
+
+    private static JsonBinder create(Class<?> type, Type genericType) {
+        if(type.isArray()) {
+            Type componentType = genericType instanceof GenericArrayType ?
+                                    ((GenericArrayType) genericType).getGenericComponentType() : type.getComponentType();
+            return new ArrayTypeBinder(type, genericType, type.getComponentType(), componentType);
+        }
+
+        if(type.equals(List.class) || type.equals(Collection.class) || type.equals(Iterable.class) || type.equals(ArrayList.class) ||
+           type.equals(Set.class) || type.equals(HashSet.class) || type.equals(LinkedHashSet.class)) {
+            Type elementType = null == genericType ? Object.class : Types.getTypeArgument(genericType);
+            if(elementType instanceof WildcardType) {
+                elementType = Types.getActualTypeArgument(genericType);
+            }
+            return new CollectionBinder(type, genericType, Types.getActualType(elementType), elementType);
+        }
+
+        if((type.equals(Map.class) || type.equals(LinkedHashMap.class) || type.equals(HashMap.class)) &&
+           genericType instanceof ParameterizedType) {
+            Type[] args = ((ParameterizedType) genericType).getActualTypeArguments();
+            return new MapBinder(type, genericType, Types.getActualType(args[0]), Types.getActualType(args[1]), args[1]);
+        }
+
+        if(isBean(type)) {
+            return new BeanBinder(type, genericType);
+        }
+
+        return new ScalarBinder(type, genericType);
+    }
+
+    private static boolean isBean(Class<?> type) {
+        if(type.isPrimitive() || type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+            return false;
+        }
+
+        if(type.getName().startsWith("java.") || Map.class.isAssignableFrom(type) || Iterable.class.isAssignableFrom(type)) {
+            return false;
+        }
+
+        return !Converts.hasConverter(type) && ReflectClass.of(type).hasDefaultConstructor();
+    }
+
+    /**
+     * Converts the scalar value or the raw {@link Map} or {@link List} to the target type.
+     */
+    abstract Object convert(Object raw);
+
+    /**
+     * Returns the binder of the json object, or null if the json object can not be bound by this binder.
+     */
+    ObjectBinder objectBinder() {
+        return null;
+    }
+
+    /**
+     * Returns the binder of the json array, or null if the json array can not be bound by this binder.
+     */
+    ArrayBinder arrayBinder() {
+        return null;
+    }
+
+    /**
+     * Binds the json object.
+     */
+    static abstract class ObjectBinder extends JsonBinder {
+
+        @Override
+        final ObjectBinder objectBinder() {
+            return this;
+        }
+
+        abstract Object newObject();
+
+        /**
+         * Returns the field of the json key, the returned field will be passed to {@link #fieldBinder(Object)} and {@link #setField(Object, String, Object, Object)}.
+         */
+        abstract Object field(String key);
+
+        abstract JsonBinder fieldBinder(Object field);
+
+        /**
+         * Returns true if the json key is duplicated.
+         */
+        abstract boolean setField(Object object, String key, Object field, Object value);
+
+        Object endObject(Object object) {
+            return object;
+        }
+    }
+
+    /**
+     * Binds the json array.
+     */
+    static abstract class ArrayBinder extends JsonBinder {
+
+        @Override
+        final ArrayBinder arrayBinder() {
+            return this;
+        }
+
+        abstract Object newArray();
+
+        abstract JsonBinder elementBinder();
+
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        void addElement(Object array, Object element) {
+            ((Collection)array).add(element);
+        }
+
+        Object endArray(Object array) {
+            return array;
+        }
+    }
+
+    private static final class RawBinder extends ObjectBinder {
+
+        @Override
+        Object convert(Object raw) {
+            return raw;
+        }
+
+        @Override
+        ArrayBinder arrayBinder() {
+            return RAW_ARRAY;
+        }
+
+        @Override
+        Object newObject() {
+            return new LinkedHashMap<String, Object>();
+        }
+
+        @Override
+        Object field(String key) {
+            return key;
+        }
+
+        @Override
+        JsonBinder fieldBinder(Object field) {
+            return this;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        boolean setField(Object object, String key, Object field, Object value) {
+            return null != ((Map<String, Object>)object).put((String)field, value);
+        }
+    }
+
+    private static final class RawArrayBinder extends ArrayBinder {
+
+        @Override
+        Object convert(Object raw) {
+            return raw;
+        }
+
+        @Override
+        ObjectBinder objectBinder() {
+            return RAW;
+        }
+
+        @Override
+        Object newArray() {
+            return new ArrayList<Object>();
+        }
+
+        @Override
+        JsonBinder elementBinder() {
+            return RAW;
+        }
+    }
+
+    private static class ScalarBinder extends JsonBinder {
+        protected final Class<?> type;
+        protected final Type     genericType;
+
+        ScalarBinder(Class<?> type, Type genericType) {
+            this.type = type;
+            this.genericType = genericType;
+        }
+
+        @Override
+        Object convert(Object raw) {
+            return Converts.convert(raw, type, genericType);
+        }
+    }
+
+    private static final class ArrayTypeBinder extends ArrayBinder {
+        private final Class<?> type;
+        private final Type     genericType;
+        private final Class<?> componentType;
+        private final Type     genericComponentType;
+
+        private JsonBinder elementBinder;
+
+        ArrayTypeBinder(Class<?> type, Type genericType, Class<?> componentType, Type genericComponentType) {
+            this.type = type;
+            this.genericType = genericType;
+            this.componentType = componentType;
+            this.genericComponentType = genericComponentType;
+        }
+
+        @Override
+        Object convert(Object raw) {
+            return Converts.convert(raw, type, genericType);
+        }
+
+        @Override
+        Object newArray() {
+            return new ArrayList<Object>();
+        }
+
+        @Override
+        JsonBinder elementBinder() {
+            if(null == elementBinder) {
+                elementBinder = of(componentType, genericComponentType);
+            }
+            return elementBinder;
+        }
+
+        @Override
+        Object endArray(Object array) {
+            List<?> list = (List<?>)array;
+            Object a = Array.newInstance(componentType, list.size());
+            for(int i=0;i<list.size();i++) {
+                Array.set(a, i, list.get(i));
+            }
+            return a;
+        }
+    }
+
+    private static final class CollectionBinder extends ArrayBinder {
+        private final Class<?> type;
+        private final Type     genericType;
+        private final Class<?> elementType;
+        private final Type     genericElementType;
+        private final boolean  set;
+
+        private JsonBinder elementBinder;
+
+        CollectionBinder(Class<?> type, Type genericType, Class<?> elementType, Type genericElementType) {
+            this.type = type;
+            this.genericType = genericType;
+            this.elementType = null == elementType ? Object.class : elementType;
+            this.genericElementType = genericElementType;
+            this.set = Set.class.isAssignableFrom(type);
+        }
+
+        @Override
+        Object convert(Object raw) {
+            return Converts.convert(raw, type, genericType);
+        }
+
+        @Override
+        Object newArray() {
+            if(set) {
+                return type.equals(LinkedHashSet.class) ? new LinkedHashSet<Object>() : new HashSet<Object>();
+            }
+            return new ArrayList<Object>();
+        }
+
+        @Override
+        JsonBinder elementBinder() {
+            if(null == elementBinder) {
+                elementBinder = of(elementType, genericElementType);
+            }
+            return elementBinder;
+        }
+    }
+
+    private static final class MapBinder extends ObjectBinder {
+        private final Class<?> type;
+        private final Type     genericType;
+        private final Class<?> keyType;
+        private final Class<?> valueType;
+        private final Type     genericValueType;
+
+        private JsonBinder valueBinder;
+
+        MapBinder(Class<?> type, Type genericType, Class<?> keyType, Class<?> valueType, Type genericValueType) {
+            this.type = type;
+            this.genericType = genericType;
+            this.keyType = null == keyType ? Object.class : keyType;
+            this.valueType = null == valueType ? Object.class : valueType;
+            this.genericValueType = genericValueType;
+        }
+
+        @Override
+        Object convert(Object raw) {
+            return Converts.convert(raw, type, genericType);
+        }
+
+        @Override
+        Object newObject() {
+            return type.equals(Map.class) ? new LinkedHashMap<Object, Object>() : Reflection.newInstance(type);
+        }
+
+        @Override
+        Object field(String key) {
+            return Converts.convert(key, keyType);
+        }
+
+        @Override
+        JsonBinder fieldBinder(Object field) {
+            if(null == valueBinder) {
+                valueBinder = of(valueType, genericValueType);
+            }
+            return valueBinder;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        boolean setField(Object object, String key, Object field, Object value) {
+            return null != ((Map<Object, Object>)object).put(field, value);
+        }
+    }
+
+    /**
+     * The first json key of a field wins if the field matches several keys (case variants or names),
+     * the same as converting the raw {@link Map} by {@link leap.lang.convert.BeanConverter}.
+     */
+    private static final class BeanBinder extends ObjectBinder {
+        private final Class<?>               type;
+        private final Type                   genericType;
+        private final BeanType               beanType;
+        private final Map<String, BeanField> fields      = new HashMap<>();
+        private final Map<String, BeanField> lowerFields = new HashMap<>();
+
+        private int fieldCount;
+
+        BeanBinder(Class<?> type, Type genericType) {
+            this.type = type;
+            this.genericType = genericType;
+            this.beanType = BeanType.of(type);
+
+            for(BeanProperty prop : beanType.getProperties()) {
+                if(!prop.isWritable()) {
+                    continue;
+                }
+
+                BeanField field = new BeanField(prop, fieldCount++);
+
+                String name = prop.getName();
+                for(Annotation a : prop.getAnnotations()) {
+                    Name nameAnnotation = a.annotationType().getAnnotation(Name.class);
+                    if(null != nameAnnotation) {
+                        name = (String)ReflectClass.of(a.getClass()).getMethod(nameAnnotation.value()).invoke(a);
+                        addField(prop.getName(), field, false);
+                        break;
+                    }
+                }
+                addField(name, field, true);
+            }
+        }
+
+        private void addField(String name, BeanField field, boolean override) {
+            if(override) {
+                fields.put(name, field);
+                lowerFields.put(name.toLowerCase(Locale.ROOT), field);
+            }else{
+                fields.putIfAbsent(name, field);
+                lowerFields.putIfAbsent(name.toLowerCase(Locale.ROOT), field);
+            }
+        }
+
+        @Override
+        Object convert(Object raw) {
+            return Converts.convert(raw, type, genericType);
+        }
+
+        @Override
+        Object newObject() {
+            return new BeanObject(beanType.newInstance(), fieldCount);
+        }
+
+        @Override
+        Object field(String key) {
+            BeanField field = fields.get(key);
+            return null != field ? field : lowerFields.get(key.toLowerCase(Locale.ROOT));
+        }
+
+        @Override
+        JsonBinder fieldBinder(Object field) {
+            return null == field ? RAW : ((BeanField)field).binder();
+        }
+
+        @Override
+        boolean setField(Object object, String key, Object field, Object value) {
+            BeanObject o = (BeanObject)object;
+
+            if(null == field) {
+                if(null == o.unknownKeys) {
+                    o.unknownKeys = new HashSet<>();
+                }
+                return !o.unknownKeys.add(key);
+            }
+
+            BeanField f = (BeanField)field;
+
+            String first = o.keys[f.index];
+            if(null != first) {
+                return first.equals(key);
+            }
+
+            o.keys[f.index] = key;
+            f.prop.setValue(o.bean, value);
+            return false;
+        }
+
+        @Override
+        Object endObject(Object object) {
+            return ((BeanObject)object).bean;
+        }
+    }
+
+    /**
+     * The bean being bound and the json keys of the fields already set.
+     */
+    private static final class BeanObject {
+        final Object   bean;
+        final String[] keys;
+
+        Set<String> unknownKeys;
+
+        BeanObject(Object bean, int fieldCount) {
+            this.bean = bean;
+            this.keys = new String[fieldCount];
+        }
+    }
+
+    private static final class BeanField {
+        final BeanProperty prop;
+        final int          index;
+        final Serializer   serializer;
+
+        private JsonBinder binder;
+
+        BeanField(BeanProperty prop, int index) {
+            this.prop = prop;
+            this.index = index;
+            this.serializer = Serializes.getSerializer(prop.getAnnotation(Serialize.class));
+        }
+
+        JsonBinder binder() {
+            if(null == binder) {
+                if(null != serializer) {
+                    binder = new SerializedBinder(prop.getType(), prop.getGenericType(), serializer);
+                }else{
+                    binder = of(prop.getType(), prop.getGenericType());
+                }
+            }
+            return binder;
+        }
+    }
+
+    private static final class SerializedBinder extends ScalarBinder {
+        private final Serializer serializer;
+
+        SerializedBinder(Class<?> type, Type genericType, Serializer serializer) {
+            super(type, genericType);
+            this.serializer = serializer;
+        }
+
+        @Override
+        Object convert(Object raw) {
+            if(raw instanceof String) {
+                raw = serializer.tryDeserialize((String)raw);
+            }
+            return super.convert(raw);
+        }
+    }
+}
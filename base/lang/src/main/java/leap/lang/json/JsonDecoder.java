@@ -16,6 +16,7 @@
 package leap.lang.json;
 
 import java.io.Reader;
+import java.lang.reflect.Type;
 
 class JsonDecoder {
     
@@ -24,10 +25,44 @@ class JsonDecoder {
     }
 
     public Object decode(String string){
-        return new JsonParser(JsonParser.MODE_PERMISSIVE).parse(string);
+        JsonParser parser = JsonParser.acquire();
+        try {
+            return parser.parse(string);
+        } finally {
+            parser.release();
+        }
     }
     
     public Object decode(Reader reader){
-        return new JsonParser(JsonParser.MODE_PERMISSIVE).parse(reader);
+        JsonParser parser = JsonParser.acquire();
+        try {
+            return parser.parse(reader);
+        } finally {
+            parser.release();
+        }
+    }
+
+    /**
+     * Parses the json and binds the value to the target type directly.
+     */
+    public Object decode(String string, Class<?> targetType, Type genericType) {
+        JsonParser parser = JsonParser.acquire();
+        try {
+            return parser.parse(string, JsonBinder.of(targetType, genericType));
+        } finally {
+            parser.release();
+        }
+    }
+
+    /**
+     * Parses the json and binds the value to the target type directly.
+     */
+    public Object decode(Reader reader, Class<?> targetType, Type genericType) {
+        JsonParser parser = JsonParser.acquire();
+        try {
+            return parser.parse(reader, JsonBinder.of(targetType, genericType));
+        } finally {
+            parser.release();
+        }
     }
 }
\ No newline at end of file
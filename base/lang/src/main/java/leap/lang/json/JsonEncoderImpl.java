@@ -26,7 +26,6 @@ import leap.lang.Enums;
 import leap.lang.Exceptions;
 import leap.lang.Strings;
 import leap.lang.beans.BeanProperty;
-import leap.lang.beans.BeanType;
 import leap.lang.beans.DynaBean;
 import leap.lang.exception.NestedIOException;
 import leap.lang.reflect.ReflectClass;
@@ -258,45 +257,23 @@ class JsonEncoderImpl implements JsonEncoder {
         writer.startObject();
         
         try {
-        	BeanType beanType = BeanType.of(bean.getClass());
+        	JsonBeanPlan   plan  = JsonBeanPlan.fields(bean.getClass());
+        	BeanProperty[] props = plan.properties();
+        	String[]       keys  = plan.keys(writer.getNamingStyle());
 
-            for(BeanProperty prop : beanType.getProperties()){
-            	if(prop.isTransient()){
-            		continue;
-            	}
-            	
-            	if(!prop.isReadable() || !prop.isField()){
-            		continue;
-            	}
-            	
-            	JsonField jsonField = prop.getAnnotation(JsonField.class);
-            	
-                if(null != jsonField || !prop.isAnnotationPresent(JsonIgnore.class)){
-                    String propName = prop.getName();
-                    
-                    JsonName named = prop.getAnnotation(JsonName.class);
-                    
-                    if(null != named){
-                    	propName = named.value();
-                    }
-                    
-                    Object propValue = prop.getValue(bean);
-                    
-                    if(null == propValue && settings.isIgnoreNull()){
-                        continue;
-                    }
-                    
-                    if(settings.isIgnoreEmpty() && Strings.isNullOrBlank(propValue)){
-                        continue;
-                    }
-                    
-                    //detect cyclic references
-//                    if(references.containsKey(propValue)){
-//                    	continue;
-//                    }                    
-                    
-                    encodeNamedValue(propName, propValue, writer);
+            for(int i=0;i<props.length;i++){
+                Object propValue = props[i].getValue(bean);
+                
+                if(null == propValue && settings.isIgnoreNull()){
+                    continue;
                 }
+                
+                if(settings.isIgnoreEmpty() && Strings.isNullOrBlank(propValue)){
+                    continue;
+                }
+                
+                writer.key(keys[i]);
+                encode(keys[i], propValue, writer);
             }
         } catch (JsonException e){
         	throw e;
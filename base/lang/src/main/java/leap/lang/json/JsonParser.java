@@ -105,6 +105,27 @@ class JsonParser {
 	public static int DEFAULT_PERMISSIVE_MODE = (System.getProperty("JSON_SMART_SIMPLE") != null) ? MODE_JSON_SIMPLE
 			: MODE_PERMISSIVE;
 
+	/*
+	 * The recycled permissive parser of current thread, the parser is removed from the pool while using, so the nested
+	 * parsing (i.e. parsing in a binder) creates a new parser.
+	 */
+	private static final ThreadLocal<JsonParser> POOL = new ThreadLocal<JsonParser>();
+
+	/**
+	 * Returns the recycled permissive parser of current thread or a new one if no recycled parser.
+	 * 
+	 * <p>
+	 * The parser must be returned by {@link #release()} after parsing, the scratch buffers and the symbol table of
+	 * object keys will be reused by the next parsing of current thread.
+	 */
+	static JsonParser acquire() {
+		JsonParser parser = POOL.get();
+		if (null == parser)
+			return new JsonParser(MODE_PERMISSIVE);
+		POOL.set(null);
+		return parser;
+	}
+
 	/*
 	 * internal fields
 	 */
@@ -132,6 +153,15 @@ class JsonParser {
 		return pString.parse(in);
 	}
 
+	/**
+	 * returns the value bound by the given {@link JsonBinder}.
+	 */
+	public Object parse(String in, JsonBinder binder) throws JsonParserException {
+		if (pString == null)
+			pString = new JsonParserString(mode);
+		return pString.parse(in, binder);
+	}
+
 	/**
 	 * use to return Primitive Type, or String, Or JsonObject or JsonArray
 	 * generated by a ContainerFactory
@@ -142,6 +172,15 @@ class JsonParser {
 		return pBytes.parse(in);
 	}
 
+	/**
+	 * returns the value bound by the given {@link JsonBinder}.
+	 */
+	public Object parse(byte[] in, JsonBinder binder) throws JsonParserException {
+		if (pBytes == null)
+			pBytes = new JsonParserByteArray(mode);
+		return pBytes.parse(in, binder);
+	}
+
 	/**
 	 * use to return Primitive Type, or String, Or JsonObject or JsonArray
 	 * generated by a ContainerFactory
@@ -152,6 +191,15 @@ class JsonParser {
 		return pStream.parse(in);
 	}
 
+	/**
+	 * returns the value bound by the given {@link JsonBinder}.
+	 */
+	public Object parse(Reader in, JsonBinder binder) throws JsonParserException {
+		if (pStream == null)
+			pStream = new JsonParserReader(mode);
+		return pStream.parse(in, binder);
+	}
+
 	/**
 	 * use to return Primitive Type, or String, Or JsonObject or JsonArray
 	 * generated by a ContainerFactory
@@ -161,4 +209,32 @@ class JsonParser {
 			pSBintream = new JsonParserInputStream(mode);
 		return pSBintream.parse(in);
 	}
+
+	/**
+	 * returns the value bound by the given {@link JsonBinder}.
+	 */
+	public Object parse(InputStream in, JsonBinder binder) throws JsonParserException {
+		if (pSBintream == null)
+			pSBintream = new JsonParserInputStream(mode);
+		return pSBintream.parse(in, binder);
+	}
+
+	/**
+	 * Recycles the scratch buffers and returns this parser to the pool of current thread.
+	 * 
+	 * @see #acquire()
+	 */
+	void release() {
+		if (mode != MODE_PERMISSIVE)
+			return;
+		if (pString != null)
+			pString.recycle();
+		if (pBytes != null)
+			pBytes.recycle();
+		if (pStream != null)
+			pStream.recycle();
+		if (pSBintream != null)
+			pSBintream.recycle();
+		POOL.set(this);
+	}
 }
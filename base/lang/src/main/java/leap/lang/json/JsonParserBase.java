@@ -25,10 +25,6 @@ import static leap.lang.json.JsonParserException.ERROR_UNEXPECTED_UNICODE;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
-import java.util.List;
-import java.util.Map;
 
 /**
  * JSONParserBase is the common code between {@link JsonParserString} and
@@ -63,7 +59,32 @@ abstract class JsonParserBase {
 	/*
 	 * End of static declaration
 	 */
+	/*
+	 * The symbol table of the object keys, the repeated keys are returned as the same string instance.
+	 */
+	protected static final int SYMBOLS = 256;
+	protected static final int MAX_SYMBOL_LENGTH = 64;
+
+	/*
+	 * The max capacity of the scratch buffer kept by a recycled parser.
+	 */
+	protected static final int MAX_RECYCLED_BUFFER = 8192;
+
+	/*
+	 * The max long value can be converted to double exactly, and the exact powers of ten.
+	 */
+	private static final long     MAX_EXACT_LONG = 1L << 53;
+	private static final double[] POW10 = new double[18];
+
+	static {
+		POW10[0] = 1d;
+		for (int i = 1; i < POW10.length; i++) {
+			POW10[i] = POW10[i - 1] * 10d;
+		}
+	}
+
 	protected final MSB sb = new MSB(15);
+	protected final String[] symbols = new String[SYMBOLS];
 	protected Object xo;
 	protected String xs;
 	protected int pos;
@@ -139,16 +160,140 @@ abstract class JsonParserBase {
 		return Double.parseDouble(xs);
 	}
 
+	/**
+	 * Returns the floating point number in the given range without creating an intermediate string if possible.
+	 * 
+	 * <p>
+	 * The range must be a valid floating point number without exponent, a decimal of at most 17 digits is computed
+	 * directly if the digits can be converted to double exactly.
+	 */
+	protected Number extractFloat(int start, int end) throws JsonParserException {
+		if (useHiPrecisionFloat && end - start <= 18) {
+			int p = start;
+			boolean neg = charAt(p) == '-';
+			if (neg)
+				p++;
+			if (acceptLeadinZero || end - p < 2 || charAt(p) != '0' || charAt(p + 1) == '.') {
+				long m = 0;
+				int digits = 0;
+				int scale = 0;
+				boolean fraction = false;
+				for (; p < end; p++) {
+					char ch = charAt(p);
+					if (ch == '.') {
+						fraction = true;
+						continue;
+					}
+					m = m * 10L + (ch - '0');
+					digits++;
+					if (fraction)
+						scale++;
+				}
+				if (digits > 0 && m <= MAX_EXACT_LONG) {
+					// both the digits and the power of ten are exact, so the division is correctly rounded.
+					double d = m / POW10[scale];
+					return neg ? -d : d;
+				}
+			}
+		}
+		extractString(start, end);
+		return extractFloat();
+	}
+
+	/**
+	 * Returns the integer number in the given range without creating an intermediate string if possible.
+	 * 
+	 * <p>
+	 * The range must be a valid integer number, i.e. an optional '-' followed by digits.
+	 */
+	protected Number extractNumber(int start, int end) throws JsonParserException {
+		int p = start;
+		boolean neg = p < end && charAt(p) == '-';
+		if (neg)
+			p++;
+		int digits = end - p;
+		if (digits == 0 || digits > 18) {
+			extractString(start, end);
+			return parseNumber(xs);
+		}
+		if (!acceptLeadinZero && digits > 1 && charAt(p) == '0') {
+			extractString(start, end);
+			throw new JsonParserException(pos, ERROR_UNEXPECTED_LEADING_0, xs);
+		}
+		long r = 0;
+		for (; p < end; p++) {
+			r = r * 10L + (charAt(p) - '0');
+		}
+		if (neg)
+			r = -r;
+		if (this.useIntegerStorage && r >= Integer.MIN_VALUE && r <= Integer.MAX_VALUE)
+			return (int) r;
+		return r;
+	}
+
+	/**
+	 * Returns the char at the given index of the extractable text.
+	 * 
+	 * @see #extractString(int, int)
+	 */
+	abstract protected char charAt(int index);
+
+	/**
+	 * Extracts the string in the given range to {@link #xs}.
+	 * 
+	 * <p>
+	 * The range is the position of the input in memory parsing, or the position of the scratch buffer in stream
+	 * parsing.
+	 */
+	abstract protected void extractString(int start, int stop);
+
+	/**
+	 * Returns the interned string of the given range and hash code, the string will be extracted and stored in the
+	 * symbol table if not found.
+	 */
+	protected String symbol(int start, int end, int hash) {
+		int i = (hash ^ (hash >>> 16)) & (SYMBOLS - 1);
+		String s = symbols[i];
+		if (null != s && s.hashCode() == hash && s.length() == end - start) {
+			int j = 0;
+			for (int k = start; k < end; k++, j++) {
+				if (s.charAt(j) != charAt(k))
+					break;
+			}
+			if (j == s.length())
+				return s;
+		}
+		extractString(start, end);
+		symbols[i] = xs;
+		return xs;
+	}
+
+	/**
+	 * Releases the scratch buffer if it grows too large, the symbol table is kept for the next parsing.
+	 */
+	protected void recycle() {
+		xs = null;
+		xo = null;
+		sb.trim(MAX_RECYCLED_BUFFER);
+	}
+
 	/**
 	 * use to return Primitive Type, or String, Or JsonObject or JsonArray
 	 * generated by a ContainerFactory
 	 */
 	public Object parse() throws JsonParserException {
+		return parse(JsonBinder.RAW);
+	}
+
+	/**
+	 * returns the value bound by the given {@link JsonBinder}.
+	 */
+	public Object parse(JsonBinder binder) throws JsonParserException {
 		this.pos = -1;
 		Object result;
 		try {
 			read();
-			result = readMain(stopX);
+			result = readMain(stopX, binder);
 			if (checkTaillingData) {
 				skipSpace();
 				if (c != EOI)
@@ -227,8 +372,9 @@ abstract class JsonParserBase {
 
 	abstract protected void read() throws IOException;
 
-	protected List<Object> readArray() throws JsonParserException, IOException {
-		List<Object> obj = new ArrayList<Object>();
+	protected Object readArray(JsonBinder.ArrayBinder binder) throws JsonParserException, IOException {
+		Object obj = binder.newArray();
+		JsonBinder elementBinder = binder.elementBinder();
 		if (c != '[')
 			throw new RuntimeException("Internal Error");
 		read();
@@ -245,7 +391,7 @@ abstract class JsonParserBase {
 				if (needData && !acceptUselessComma)
 					throw new JsonParserException(pos, ERROR_UNEXPECTED_CHAR, (char) c);
 				read(); /* unstack */
-				return obj;
+				return binder.endArray(obj);
 			case ':':
 			case '}':
 				throw new JsonParserException(pos, ERROR_UNEXPECTED_CHAR, (char) c);
@@ -258,7 +404,7 @@ abstract class JsonParserBase {
 			case EOI:
 				throw new JsonParserException(pos - 1, ERROR_UNEXPECTED_EOF, "EOF");
 			default:
-				obj.add(readMain(stopArray));
+				binder.addElement(obj, readMain(stopArray, elementBinder));
 				needData = false;
 				continue;
 			}
@@ -278,6 +424,14 @@ abstract class JsonParserBase {
 	 * generated by a ContainerFactory
 	 */
 	protected Object readMain(boolean stop[]) throws JsonParserException, IOException {
+		return readMain(stop, JsonBinder.RAW);
+	}
+
+	/**
+	 * returns the value bound by the given {@link JsonBinder}, the json object or array will be parsed as raw value
+	 * and converted if the binder can not bind it.
+	 */
+	protected Object readMain(boolean stop[], JsonBinder binder) throws JsonParserException, IOException {
 		for (;;) {
 			switch (c) {
 			// skip spaces
@@ -293,54 +447,58 @@ abstract class JsonParserBase {
 			case ']':
 				throw new JsonParserException(pos, ERROR_UNEXPECTED_CHAR, c);
 				// start object
-			case '{':
-				return readObject();
+			case '{': {
+				JsonBinder.ObjectBinder objectBinder = binder.objectBinder();
+				return null != objectBinder ? readObject(objectBinder) : binder.convert(readObject(JsonBinder.RAW));
+			}
 				// start Array
-			case '[':
-				return readArray();
+			case '[': {
+				JsonBinder.ArrayBinder arrayBinder = binder.arrayBinder();
+				return null != arrayBinder ? readArray(arrayBinder) : binder.convert(readArray(JsonBinder.RAW_ARRAY));
+			}
 				// start string
 			case '"':
 			case '\'':
 				readString();
-				return xs;
+				return binder.convert(xs);
 				// string or null
 			case 'n':
 				readNQString(stop);
 				if ("null".equals(xs)) {
-					return null;
+					return binder.convert(null);
 				}
 				if (!acceptNonQuote)
 					throw new JsonParserException(pos, ERROR_UNEXPECTED_TOKEN, xs);
-				return xs;
+				return binder.convert(xs);
 				// string or false
 			case 'f':
 				readNQString(stop);
 				if ("false".equals(xs)) {
-					return Boolean.FALSE;
+					return binder.convert(Boolean.FALSE);
 				}
 				if (!acceptNonQuote)
 					throw new JsonParserException(pos, ERROR_UNEXPECTED_TOKEN, xs);
-				return xs;
+				return binder.convert(xs);
 				// string or true
 			case 't':
 				readNQString(stop);
 				if ("true".equals(xs)) {
-					return Boolean.TRUE;
+					return binder.convert(Boolean.TRUE);
 				}
 				if (!acceptNonQuote)
 					throw new JsonParserException(pos, ERROR_UNEXPECTED_TOKEN, xs);
-				return xs;
+				return binder.convert(xs);
 				// string or NaN
 			case 'N':
 				readNQString(stop);
 				if (!acceptNaN)
 					throw new JsonParserException(pos, ERROR_UNEXPECTED_TOKEN, xs);
 				if ("NaN".equals(xs)) {
-					return Float.valueOf(Float.NaN);
+					return binder.convert(Float.valueOf(Float.NaN));
 				}
 				if (!acceptNonQuote)
 					throw new JsonParserException(pos, ERROR_UNEXPECTED_TOKEN, xs);
-				return xs;
+				return binder.convert(xs);
 				// digits
 			case '0':
 			case '1':
@@ -354,12 +512,12 @@ abstract class JsonParserBase {
 			case '9':
 			case '-':
 				xo = readNumber(stop);
-				return xo;
+				return binder.convert(xo);
 			default:
 				readNQString(stop);
 				if (!acceptNonQuote)
 					throw new JsonParserException(pos, ERROR_UNEXPECTED_TOKEN, xs);
-				return xs;
+				return binder.convert(xs);
 			}
 		}
 	}
@@ -370,8 +528,8 @@ abstract class JsonParserBase {
 
 	abstract protected Object readNumber(boolean[] stop) throws JsonParserException, IOException;
 
-	protected Map<String, Object> readObject() throws JsonParserException, IOException {
-		Map<String, Object> obj = new LinkedHashMap<String, Object>();
+	protected Object readObject(JsonBinder.ObjectBinder binder) throws JsonParserException, IOException {
+		Object obj = binder.newObject();
 		
 //		if (c != '{')
 //			throw new RuntimeException("Internal Error");
@@ -395,7 +553,7 @@ abstract class JsonParserBase {
 				if (needData && !acceptUselessComma)
 					throw new JsonParserException(pos, ERROR_UNEXPECTED_CHAR, (char) c);
 				read(); /* unstack */
-				return obj;
+				return binder.endObject(obj);
 			case ',':
 				if (needData && !acceptUselessComma)
 					throw new JsonParserException(pos, ERROR_UNEXPECTED_CHAR, (char) c);
@@ -406,7 +564,7 @@ abstract class JsonParserBase {
 			default:
 				int keyStart = pos;
 				if (c == '\"' || c == '\'') {
-					readString();
+					readKey();
 				} else {
 					readNQString(stopKey);
 					if (!acceptNonQuote)
@@ -421,8 +579,8 @@ abstract class JsonParserBase {
 				if (c == EOI)
 					throw new JsonParserException(pos - 1, ERROR_UNEXPECTED_EOF, null);
 				readNoEnd(); /* skip : */
-				Object duplicate = obj.put(key, readMain(stopValue));
-				if (duplicate != null)
+				Object field = binder.field(key);
+				if (binder.setField(obj, key, field, readMain(stopValue, binder.fieldBinder(field))))
 					throw new JsonParserException(keyStart, ERROR_UNEXPECTED_DUPLICATE_KEY, key);
 				// should loop skipping read step
 				//
@@ -432,7 +590,7 @@ abstract class JsonParserBase {
 				//
 				if (c == '}') {
 					read(); /* unstack */
-					return obj;
+					return binder.endObject(obj);
 				}
 				if (c == EOI) // Fixed on 18/10/2011 reported by vladimir
 					throw new JsonParserException(pos - 1, ERROR_UNEXPECTED_EOF, null);
@@ -446,6 +604,13 @@ abstract class JsonParserBase {
 		}
 	}
 
+	/**
+	 * Reads a quoted object key to {@link #xs}, the key may be returned from the symbol table.
+	 */
+	protected void readKey() throws JsonParserException, IOException {
+		readString();
+	}
+
 	/**
 	 * store and read
 	 */
@@ -454,6 +619,14 @@ abstract class JsonParserBase {
 	abstract protected void readString() throws JsonParserException, IOException;
 
 	protected void readString2() throws JsonParserException, IOException {
+		readStringChars();
+		xs = sb.toString();
+	}
+
+	/**
+	 * Reads the chars of a quoted string to the scratch buffer.
+	 */
+	protected void readStringChars() throws JsonParserException, IOException {
 		/* assert (c == '\"' || c == '\'') */
 		char sep = c;
 		for (;;) {
@@ -465,7 +638,6 @@ abstract class JsonParserBase {
 			case '\'':
 				if (sep == c) {
 					read();
-					xs = sb.toString();
 					return;
 				}
 				sb.append(c);
@@ -628,5 +800,11 @@ abstract class JsonParserBase {
 		public void clear() {
 			p = -1;
 		}
+
+		public void trim(int max) {
+			if (b.length > max)
+				b = new char[15];
+			p = -1;
+		}
 	}
 }
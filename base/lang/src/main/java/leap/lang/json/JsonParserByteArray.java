@@ -34,9 +34,24 @@ class JsonParserByteArray extends JsonParserMemory {
 	 * generated by a ContainerFactory
 	 */
 	public Object parse(byte[] in) throws JsonParserException {
+		return parse(in, JsonBinder.RAW);
+	}
+
+	/**
+	 * returns the value bound by the given {@link JsonBinder}.
+	 */
+	public Object parse(byte[] in, JsonBinder binder) throws JsonParserException {
 		this.in = in;
 		this.len = in.length;
-		return parse();
+		try {
+			return parse(binder);
+		} finally {
+			this.in = null;
+		}
+	}
+
+	protected char charAt(int index) {
+		return (char) in[index];
 	}
 
 	protected void extractString(int beginIndex, int endIndex) {
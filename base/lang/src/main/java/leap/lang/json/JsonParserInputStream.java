@@ -39,9 +39,20 @@ class JsonParserInputStream extends JsonParserStream {
 	 */
 	public Object parse(InputStream in)
 			throws JsonParserException {
+		return parse(in, JsonBinder.RAW);
+	}
+
+	/**
+	 * returns the value bound by the given {@link JsonBinder}.
+	 */
+	public Object parse(InputStream in, JsonBinder binder) throws JsonParserException {
 		//
 		this.in = in;
-		return super.parse();
+		try {
+			return super.parse(binder);
+		} finally {
+			this.in = null;
+		}
 	}
 
 	protected void read() throws IOException {
@@ -49,6 +49,7 @@ abstract class JsonParserMemory extends JsonParserBase {
 
 		// Integer digit
 		if (c != '.' && c != 'E' && c != 'e') {
+			int end = pos;
 			skipSpace();
 			if (c >= 0 && c < MAX_STOP && !stop[c] && c != EOI) {
 				// convert string
@@ -58,8 +59,7 @@ abstract class JsonParserMemory extends JsonParserBase {
 					throw new JsonParserException(pos, ERROR_UNEXPECTED_TOKEN, xs);
 				return xs;
 			}
-			extractStringTrim(start, pos);
-			return parseNumber(xs);
+			return extractNumber(start, end);
 		}
 		// floating point
 		if (c == '.') {
@@ -68,6 +68,7 @@ abstract class JsonParserMemory extends JsonParserBase {
 			skipDigits();
 		}
 		if (c != 'E' && c != 'e') {
+			int end = pos;
 			skipSpace();
 			if (c >= 0 && c < MAX_STOP && !stop[c] && c != EOI) {
 				// convert string
@@ -77,13 +78,10 @@ abstract class JsonParserMemory extends JsonParserBase {
 					throw new JsonParserException(pos, ERROR_UNEXPECTED_TOKEN, xs);
 				return xs;
 			}
-			extractStringTrim(start, pos);
-			return extractFloat();
+			return extractFloat(start, end);
 		}
-		sb.append('E');
 		read();
 		if (c == '+' || c == '-' || c >= '0' && c <= '9') {
-			sb.append(c);
 			read(); // skip first char
 			skipDigits();
 			skipSpace();
@@ -109,6 +107,34 @@ abstract class JsonParserMemory extends JsonParserBase {
 		// throw new ParseException(pos - 1, ERROR_UNEXPECTED_CHAR, null);
 	}
 
+	protected void readKey() throws JsonParserException, IOException {
+		if (!acceptSimpleQuote && c == '\'') {
+			readString();
+			return;
+		}
+		int start = pos + 1;
+		int end = start;
+		int h = 0;
+		for (;; end++) {
+			if (end >= len) {
+				readString();
+				return;
+			}
+			char ch = charAt(end);
+			if (ch == c)
+				break;
+			// escaped, control, non ascii chars and long keys are handled by readString
+			if (ch < ' ' || ch > '~' || ch == '\\' || end - start == MAX_SYMBOL_LENGTH) {
+				readString();
+				return;
+			}
+			h = 31 * h + ch;
+		}
+		xs = symbol(start, end, h);
+		pos = end;
+		read();
+	}
+
 	protected void readString() throws JsonParserException, IOException {
 		if (!acceptSimpleQuote && c == '\'') {
 			if (acceptNonQuote) {
@@ -132,8 +158,6 @@ abstract class JsonParserMemory extends JsonParserBase {
 		readString2();
 	}
 
-	abstract protected void extractString(int start, int stop);
-
 	abstract protected int indexOf(char c, int pos);
 
 	protected void extractStringTrim(int start, int stop) {
@@ -38,9 +38,20 @@ class JsonParserReader extends JsonParserStream {
 	 * generated by a ContainerFactory
 	 */
 	public Object parse(Reader in) throws JsonParserException {
+		return parse(in, JsonBinder.RAW);
+	}
+
+	/**
+	 * returns the value bound by the given {@link JsonBinder}.
+	 */
+	public Object parse(Reader in, JsonBinder binder) throws JsonParserException {
 		//
 		this.in = in;
-		return super.parse();
+		try {
+			return super.parse(binder);
+		} finally {
+			this.in = null;
+		}
 	}
 
 	protected void read() throws IOException {
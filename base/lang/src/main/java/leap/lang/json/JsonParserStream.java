@@ -48,6 +48,7 @@ abstract class JsonParserStream extends JsonParserBase {
 
 		// Integer digit
 		if (c != '.' && c != 'E' && c != 'e') {
+			int end = sb.p + 1;
 			skipSpace();
 			if (c >= 0 && c < MAX_STOP && !stop[c] && c != EOI) {
 				// convert string
@@ -57,8 +58,7 @@ abstract class JsonParserStream extends JsonParserBase {
 					throw new JsonParserException(pos, ERROR_UNEXPECTED_TOKEN, xs);
 				return xs;
 			}
-			xs = sb.toString().trim();
-			return parseNumber(xs);
+			return extractNumber(0, end);
 		}
 		// floating point
 		if (c == '.') {
@@ -67,6 +67,7 @@ abstract class JsonParserStream extends JsonParserBase {
 			skipDigits();
 		}
 		if (c != 'E' && c != 'e') {
+			int end = sb.p + 1;
 			skipSpace();
 			if (c >= 0 && c < MAX_STOP && !stop[c] && c != EOI) {
 				// convert string
@@ -76,8 +77,7 @@ abstract class JsonParserStream extends JsonParserBase {
 					throw new JsonParserException(pos, ERROR_UNEXPECTED_TOKEN, xs);
 				return xs;
 			}
-			xs = sb.toString().trim();
-			return extractFloat();
+			return extractFloat(0, end);
 		}
 		sb.append('E');
 		read();
@@ -108,6 +108,26 @@ abstract class JsonParserStream extends JsonParserBase {
 		// throw new ParseException(pos - 1, ERROR_UNEXPECTED_CHAR, null);
 	}
 
+	protected void readKey() throws JsonParserException, IOException {
+		if (!acceptSimpleQuote && c == '\'') {
+			readString();
+			return;
+		}
+		sb.clear();
+		readStringChars();
+		int len = sb.p + 1;
+		if (len > MAX_SYMBOL_LENGTH) {
+			xs = sb.toString();
+			return;
+		}
+		char[] b = sb.b;
+		int h = 0;
+		for (int i = 0; i < len; i++) {
+			h = 31 * h + b[i];
+		}
+		xs = symbol(0, len, h);
+	}
+
 	protected void readString() throws JsonParserException, IOException {
 		if (!acceptSimpleQuote && c == '\'') {
 			if (acceptNonQuote) {
@@ -131,12 +151,17 @@ abstract class JsonParserStream extends JsonParserBase {
 		readString2();
 	}
 
-	//
-	//
-	//
-	//
-	//
-	//
-	//
-	//
+	/**
+	 * Returns the char of the scratch buffer.
+	 */
+	protected char charAt(int index) {
+		return sb.b[index];
+	}
+
+	/**
+	 * Extracts the string of the scratch buffer.
+	 */
+	protected void extractString(int start, int stop) {
+		xs = new String(sb.b, start, stop - start);
+	}
 }
@@ -16,9 +16,10 @@ package leap.lang.json;
  */
 
 
-import leap.lang.Beans;
 import leap.lang.Enums;
 import leap.lang.Strings;
+import leap.lang.beans.BeanProperty;
+import leap.lang.beans.DynaBean;
 import leap.lang.codec.Base64;
 import leap.lang.naming.NamingStyle;
 import leap.lang.naming.NamingStyles;
@@ -138,8 +139,8 @@ public class JsonWriterImpl implements JsonWriter {
 	
 	@Override
     public JsonWriter propertyIgnorable(String key, Object v) {
-		if(ignoreNull && null == v) {
-			return this;
+		if(null == v) {
+			return ignoreNull ? this : key(key).null_();
 		}
 		
 		if(ignoreEmptyString){
@@ -770,11 +771,26 @@ public class JsonWriterImpl implements JsonWriter {
     }
 	
 	@Override
+	@SuppressWarnings("rawtypes")
     public JsonWriter bean(Object bean) {
 		if(null == bean) {
 			return null_();
+		}else if(bean instanceof Map) {
+			return map((Map)bean);
+		}else if(bean instanceof DynaBean) {
+			return map(((DynaBean) bean).getProperties());
 		}else{
-			return map(Beans.toMap(bean));
+			JsonBeanPlan   plan  = JsonBeanPlan.properties(bean.getClass());
+			BeanProperty[] props = plan.properties();
+			String[]       keys  = plan.keys(namingStyle);
+			
+			startObject();
+			for(int i=0;i<props.length;i++) {
+				propertyIgnorable(keys[i], props[i].getValue(bean));
+			}
+			endObject();
+			
+			return this;
 		}
     }
 
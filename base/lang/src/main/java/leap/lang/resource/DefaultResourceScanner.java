@@ -40,7 +40,9 @@ import java.net.URLConnection;
 import java.util.*;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveTask;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 
@@ -321,6 +323,10 @@ class DefaultResourceScanner implements ResourceScanner {
 		
 	protected Resource[] findPathMatchingResources(final String rootDirPath,final String subPattern,Resource[] rootDirResources) throws IOException {
 		
+		if(null == executorService && Resources.isParallel()){
+			return findPathMatchingResourcesParallel(rootDirPath, subPattern, rootDirResources);
+		}
+		
 		final Set<Resource> result = null == executorService ? new LinkedHashSet<Resource>() : new CopyOnWriteArraySet<Resource>();
 		
 		List<Future<?>> futures = New.arrayList();
@@ -370,6 +376,48 @@ class DefaultResourceScanner implements ResourceScanner {
 		return result.toArray(new Resource[result.size()]);
 	}
 	
+	/**
+	 * Scans the root resources (jars and directories) in the fork-join pool, the directories will be walked in parallel too.
+	 * 
+	 * <p>
+	 * The order of the result is the same as the sequential scanning.
+	 */
+	protected Resource[] findPathMatchingResourcesParallel(final String rootDirPath,final String subPattern,Resource[] rootDirResources) throws IOException {
+		List<ForkJoinTask<Set<Resource>>> tasks = new ArrayList<>(rootDirResources.length);
+		
+		for (Resource rootDirResource : rootDirResources) {
+			final Resource rootResourceToScan = rootDirResource;
+			
+			tasks.add(Resources.fork(() -> {
+				if(isQuietly() && !rootResourceToScan.exists()){
+					return Collections.<Resource>emptySet();
+				}
+				
+				Set<Resource> set = new LinkedHashSet<>();
+				scan(set,resolveRootDirResource(rootResourceToScan),rootDirPath,subPattern);
+				return set;
+			}));
+		}
+		
+		Set<Resource> result = new LinkedHashSet<>();
+		for(ForkJoinTask<Set<Resource>> task : tasks){
+			try {
+				result.addAll(task.join());
+			} catch (RuntimeException e) {
+				if(e.getCause() instanceof IOException){
+					throw (IOException)e.getCause();
+				}
+				throw e;
+			}
+		}
+		
+		if (logger.isTraceEnabled()) {
+			logger.trace("Resolved location pattern [" + subPattern + "] to resources " + result);
+		}
+		
+		return result.toArray(new Resource[result.size()]);
+	}
+	
 	protected void scan(Set<Resource> result,Resource rootDirResource,String rootDirPath,String subPattern) throws IOException{
 		if (isJarResource(rootDirResource)) {
 			result.addAll(doFindPathMatchingJarResources(rootDirResource, subPattern));
@@ -401,6 +449,7 @@ class DefaultResourceScanner implements ResourceScanner {
 		String jarFileUrl;
 		String rootEntryPath;
 		boolean newJarFile = false;
+		ResourceIndex index = null;
 
 		if (con instanceof JarURLConnection) {
 			// Should usually be the case for traditional JAR files.
@@ -410,6 +459,10 @@ class DefaultResourceScanner implements ResourceScanner {
 			jarFileUrl = jarCon.getJarFileURL().toExternalForm();
 			JarEntry jarEntry = jarCon.getJarEntry();
 			rootEntryPath = (jarEntry != null ? jarEntry.getName() : "");
+			
+			if(Resources.isIndexEnabled()){
+				index = ResourceIndex.forRoot(new URL(Urls.PROTOCOL_JAR + ":" + jarFileUrl + Urls.JAR_URL_SEPARATOR));
+			}
 		} else {
 			// No JarURLConnection -> need to resort to URL file parsing.
 			// We'll assume URLs of the format "jar:path!/entry", with the protocol
@@ -439,14 +492,14 @@ class DefaultResourceScanner implements ResourceScanner {
 				rootEntryPath = rootEntryPath + "/";
 			}
 			Set<Resource> result = new LinkedHashSet<Resource>(8);
-			for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements();) {
-				JarEntry entry = entries.nextElement();
-				String entryPath = entry.getName();
-				if (entryPath.startsWith(rootEntryPath)) {
-					String relativePath = entryPath.substring(rootEntryPath.length());
-					if (getPathMatcher().match(subPattern, relativePath)) {
-						result.add(rootDirResource.createRelative(relativePath));
-					}
+			if(null != index){
+				// Matches the paths in the index instead of the entries of jar.
+				for(String entryPath : index.getPaths()){
+					addMatchingJarResource(result, rootDirResource, rootEntryPath, subPattern, entryPath);
+				}
+			}else{
+				for (Enumeration<JarEntry> entries = jarFile.entries(); entries.hasMoreElements();) {
+					addMatchingJarResource(result, rootDirResource, rootEntryPath, subPattern, entries.nextElement().getName());
 				}
 			}
 			return result;
@@ -460,6 +513,15 @@ class DefaultResourceScanner implements ResourceScanner {
 		}
 	}
 
+	private void addMatchingJarResource(Set<Resource> result, Resource rootDirResource, String rootEntryPath, String subPattern, String entryPath) throws IOException {
+		if (entryPath.startsWith(rootEntryPath)) {
+			String relativePath = entryPath.substring(rootEntryPath.length());
+			if (getPathMatcher().match(subPattern, relativePath)) {
+				result.add(rootDirResource.createRelative(relativePath));
+			}
+		}
+	}
+
 	/**
 	 * Resolve the given jar file URL into a JarFile object.
 	 */
@@ -501,9 +563,6 @@ class DefaultResourceScanner implements ResourceScanner {
 		if (logger.isTraceEnabled()) {
 			logger.trace("Looking for matching resources in directory tree [" + rootDir.getPath() + "]");
 		}
-		Set<File> matchingFiles = retrieveMatchingFiles(rootDir, subPattern);
-		Set<Resource> result = new LinkedHashSet<Resource>(matchingFiles.size());
-		
 		boolean isClasspath   = rootDirPath.startsWith(Urls.CLASSPATH_ALL_URL_PREFIX) || rootDirPath.startsWith(Urls.CLASSPATH_ONE_URL_PREFIX);
 		int rootDirPathLength = rootDir.getAbsolutePath().length();
 		String classpathRoot  = isClasspath ? rootDirPath.substring(rootDirPath.indexOf(":") + 1) : null; 
@@ -512,6 +571,16 @@ class DefaultResourceScanner implements ResourceScanner {
 			classpathRoot = classpathRoot.substring(1);
 		}
 		
+		Set<File> matchingFiles = null;
+		if(isClasspath && Resources.isIndexEnabled()){
+			matchingFiles = retrieveIndexedFiles(rootDir, classpathRoot, subPattern);
+		}
+		if(null == matchingFiles){
+			matchingFiles = retrieveMatchingFiles(rootDir, subPattern);
+		}
+		
+		Set<Resource> result = new LinkedHashSet<Resource>(matchingFiles.size());
+		
 		for (File file : matchingFiles) {
 			if(isClasspath){
 				String classpath = classpathRoot + Paths.normalize(file.getAbsolutePath().substring(rootDirPathLength+1));
@@ -548,14 +617,66 @@ class DefaultResourceScanner implements ResourceScanner {
 			}
 			return Collections.emptySet();
 		}
+		String fullPattern = getFullPattern(rootDir, pattern);
+		Set<File> result = new LinkedHashSet<File>(8);
+		if(Resources.isParallel()){
+			result.addAll(new MatchingFilesTask(fullPattern, rootDir).invoke());
+		}else{
+			doRetrieveMatchingFiles(fullPattern, rootDir, result);
+		}
+		return result;
+	}
+	
+	/**
+	 * Retrieve files that match the given path pattern by the {@link ResourceIndex} of the classpath root directory.
+	 * 
+	 * <p>
+	 * Returns <code>null</code> if no index in the classpath root directory.
+	 */
+	protected Set<File> retrieveIndexedFiles(File rootDir, String classpathRoot, String pattern) throws IOException {
+		String dirPath = Strings.replace(rootDir.getAbsolutePath(), File.separator, "/");
+		String prefix  = classpathRoot.endsWith("/") || classpathRoot.isEmpty() ? classpathRoot : classpathRoot + "/";
+		
+		String rootPath;
+		if(prefix.isEmpty()){
+			rootPath = dirPath;
+		}else if(dirPath.endsWith("/" + prefix.substring(0, prefix.length() - 1))){
+			rootPath = dirPath.substring(0, dirPath.length() - prefix.length());
+		}else{
+			return null;
+		}
+		
+		ResourceIndex index = ResourceIndex.forRoot(new File(rootPath).toURI().toURL());
+		if(null == index){
+			return null;
+		}
+		
+		if (logger.isTraceEnabled()) {
+			logger.trace("Looking for matching resources in the index of directory [" + rootPath + "]");
+		}
+		
+		String fullPattern = getFullPattern(rootDir, pattern);
+		Set<File> result = new LinkedHashSet<File>(8);
+		for(String path : index.getPaths()){
+			if(path.length() > prefix.length() && path.startsWith(prefix)){
+				String relativePath = path.substring(prefix.length());
+				if(relativePath.endsWith("/")){
+					relativePath = relativePath.substring(0, relativePath.length() - 1);
+				}
+				if(getPathMatcher().match(fullPattern, dirPath + "/" + relativePath)){
+					result.add(new File(rootDir, relativePath));
+				}
+			}
+		}
+		return result;
+	}
+	
+	private static String getFullPattern(File rootDir, String pattern) {
 		String fullPattern = Strings.replace(rootDir.getAbsolutePath(), File.separator, "/");
 		if (!pattern.startsWith("/")) {
 			fullPattern += "/";
 		}
-		fullPattern = fullPattern + Strings.replace(pattern, File.separator, "/");
-		Set<File> result = new LinkedHashSet<File>(8);
-		doRetrieveMatchingFiles(fullPattern, rootDir, result);
-		return result;
+		return fullPattern + Strings.replace(pattern, File.separator, "/");
 	}
 
 	/**
@@ -592,6 +713,65 @@ class DefaultResourceScanner implements ResourceScanner {
 		}
 	}
 
+	/**
+	 * Retrieves the matching files of a directory, the sub directories will be retrieved in parallel.
+	 * 
+	 * <p>
+	 * The order of the result is the same as {@link DefaultResourceScanner#doRetrieveMatchingFiles(String, File, Set)}.
+	 */
+	protected class MatchingFilesTask extends RecursiveTask<List<File>> {
+		private static final long serialVersionUID = 1L;
+		
+		private final String fullPattern;
+		private final File   dir;
+		
+		public MatchingFilesTask(String fullPattern, File dir) {
+			this.fullPattern = fullPattern;
+			this.dir         = dir;
+		}
+
+		@Override
+		protected List<File> compute() {
+			File[] dirContents = dir.listFiles();
+			if (dirContents == null) {
+				if (logger.isWarnEnabled()) {
+					logger.warn("Could not retrieve contents of directory [" + dir.getAbsolutePath() + "]");
+				}
+				return Collections.emptyList();
+			}
+			
+			//The forked tasks of the sub directories or the matched files.
+			List<Object> parts = new ArrayList<>(dirContents.length);
+			for (File content : dirContents) {
+				String currPath = Strings.replace(content.getAbsolutePath(), File.separator, "/");
+				if (content.isDirectory() && getPathMatcher().matchStart(fullPattern, currPath + "/")) {
+					if (!content.canRead()) {
+						if (logger.isTraceEnabled()) {
+							logger.trace("Skipping subdirectory [" + dir.getAbsolutePath() +
+									"] because the application is not allowed to read the directory");
+						}
+					}
+					else {
+						parts.add(new MatchingFilesTask(fullPattern, content).fork());
+					}
+				}
+				if (getPathMatcher().match(fullPattern, currPath)) {
+					parts.add(content);
+				}
+			}
+			
+			List<File> result = new ArrayList<>();
+			for(Object part : parts){
+				if(part instanceof MatchingFilesTask){
+					result.addAll(((MatchingFilesTask)part).join());
+				}else{
+					result.add((File)part);
+				}
+			}
+			return result;
+		}
+	}
+
 	/**
 	 * Inner delegate class, avoiding a hard JBoss VFS API dependency at runtime.
 	 */
@@ -0,0 +1,370 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.resource;
+
+import leap.lang.Args;
+import leap.lang.Classes;
+import leap.lang.Strings;
+import leap.lang.asm.AnnotationVisitor;
+import leap.lang.asm.ClassReader;
+import leap.lang.asm.ClassVisitor;
+import leap.lang.asm.Opcodes;
+import leap.lang.asm.Type;
+import leap.lang.logging.Log;
+import leap.lang.logging.LogFactory;
+import leap.lang.net.Urls;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A precomputed index of the resources in a classpath root (a classes directory or a jar file),
+ * the index file is generated at build time and located at {@link #LOCATION} of the classpath root.
+ *
+ * <p>
+ * The index lists the path of all the files and directories (ends with '/') in the classpath root,
+ * and the class-level runtime annotations of the classes, the scanner matches the paths in the index instead of walking
+ * the classpath root if the index exists, see {@link Resources#setIndexEnabled(boolean)}.
+ *
+ * <p>
+ * The index can be generated by the {@link #main(String[])} method after compiling, i.e. the <code>exec-maven-plugin</code>
+ * in the <code>process-classes</code> phase :
+ *
+ * <pre>
+ *     java leap.lang.resource.ResourceIndex target/classes
+ * </pre>
+ *
+ * <p>
+ * The index must be regenerated after the classes or resources changed, it is not validated against the indexed files,
+ * so it is disabled by default. A loaded index will be reloaded if the index file (or the jar file) was modified.
+ */
+public final class ResourceIndex {
+
+    private static final Log log = LogFactory.get(ResourceIndex.class);
+
+    public static final String LOCATION = "META-INF/leap/resources.idx";
+
+    private static final String HEADER = "#leap resources index";
+
+    private static final String[]                   NO_ANNOTATIONS = new String[0];
+    private static final ResourceIndex              NONE           = new ResourceIndex(Collections.emptyList(), Collections.emptyMap());
+    private static final Map<String, Loaded>        indexes        = new ConcurrentHashMap<>();
+    private static final Map<String, String[]>      classes        = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the index of the given classpath root url, i.e. <code>file:/app/classes/</code> or <code>jar:file:/app/lib/a.jar!/</code>.
+     *
+     * <p>
+     * Returns <code>null</code> if no index in the classpath root.
+     */
+    public static ResourceIndex forRoot(URL rootUrl) {
+        String key          = rootUrl.toExternalForm();
+        long   lastModified = lastModified(rootUrl);
+
+        Loaded loaded = indexes.get(key);
+        if(null == loaded || loaded.lastModified != lastModified) {
+            synchronized (indexes) {
+                loaded = indexes.get(key);
+                if(null == loaded || loaded.lastModified != lastModified) {
+                    if(null != loaded) {
+                        log.debug("Reload the modified resources index of '{}'", rootUrl);
+                        classes.keySet().removeAll(loaded.index.annotations.keySet());
+                    }
+
+                    ResourceIndex index = load(rootUrl);
+                    classes.putAll(index.annotations);
+
+                    loaded = new Loaded(index, lastModified);
+                    indexes.put(key, loaded);
+                }
+            }
+        }
+
+        return loaded.index == NONE ? null : loaded.index;
+    }
+
+    /**
+     * Clears all the loaded indexes.
+     */
+    public static void clear() {
+        synchronized (indexes) {
+            indexes.clear();
+            classes.clear();
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if the class of the given classpath, i.e. <code>leap/lang/Strings.class</code>,
+     * is listed in a loaded index.
+     *
+     * <p>
+     * The class name of an indexed class is always the classpath without the <code>.class</code> suffix.
+     */
+    public static boolean isIndexedClass(String classpath) {
+        return classes.containsKey(classpath);
+    }
+
+    /**
+     * Returns the class-level runtime annotation names of the class of the given classpath in the loaded indexes.
+     *
+     * <p>
+     * Returns <code>null</code> if the class not listed in a loaded index.
+     */
+    public static String[] getIndexedClassAnnotations(String classpath) {
+        return classes.get(classpath);
+    }
+
+    /**
+     * Creates the index of the given classpath directory.
+     */
+    public static ResourceIndex create(File dir) throws IOException {
+        Args.notNull(dir, "dir");
+        Args.assertTrue(dir.isDirectory(), "'" + dir.getAbsolutePath() + "' is not a directory");
+
+        List<String>          paths       = new ArrayList<>();
+        Map<String, String[]> annotations = new LinkedHashMap<>();
+
+        collect(dir, "", paths, annotations);
+
+        return new ResourceIndex(paths, annotations);
+    }
+
+    /**
+     * Creates the index of the directory in the first argument and writes to the {@link #LOCATION} of the directory.
+     */
+    public static void main(String[] args) throws IOException {
+        if(args.length < 1) {
+            System.err.println("Usage : java " + ResourceIndex.class.getName() + " <classes dir>");
+            return;
+        }
+
+        File dir  = new File(args[0]);
+        File file = new File(dir, LOCATION);
+
+        //Excludes the old index file.
+        Files.deleteIfExists(file.toPath());
+
+        ResourceIndex index = create(dir);
+
+        file.getParentFile().mkdirs();
+        try(OutputStream out = new FileOutputStream(file)) {
+            index.write(out);
+        }
+
+        System.out.println("Index of " + index.paths.size() + " resources written to " + file.getAbsolutePath());
+    }
+
+    /**
+     * Reads the index from the given input stream.
+     */
+    public static ResourceIndex read(InputStream in) throws IOException {
+        List<String>          paths       = new ArrayList<>();
+        Map<String, String[]> annotations = new LinkedHashMap<>();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+
+        String line;
+        while((line = reader.readLine()) != null) {
+            if(line.isEmpty() || line.charAt(0) == '#') {
+                continue;
+            }
+
+            //The indexed class : {path}\t{annotation},{annotation}
+            int tab = line.indexOf('\t');
+            if(tab < 0) {
+                paths.add(line);
+            }else{
+                String path  = line.substring(0, tab);
+                String names = line.substring(tab + 1);
+                paths.add(path);
+                annotations.put(path, names.isEmpty() ? NO_ANNOTATIONS : Strings.split(names, ','));
+            }
+        }
+
+        return new ResourceIndex(paths, annotations);
+    }
+
+    private static ResourceIndex load(URL rootUrl) {
+        try {
+            ResourceIndex index;
+            try(InputStream in = new URL(rootUrl, LOCATION).openStream()) {
+                index = read(in);
+            }
+
+            log.debug("Loaded resources index of '{}', {} resources", rootUrl, index.paths.size());
+            return index;
+        }catch (FileNotFoundException e) {
+            return NONE;
+        }catch (IOException e) {
+            log.warn("Cannot load resources index of '{}', {}", rootUrl, e.getMessage());
+            return NONE;
+        }
+    }
+
+    /**
+     * Returns the last modified time of the index file in a directory or the jar file, returns 0 if unknown.
+     */
+    private static long lastModified(URL rootUrl) {
+        try {
+            if(Urls.PROTOCOL_FILE.equals(rootUrl.getProtocol())) {
+                return new File(new File(rootUrl.toURI()), LOCATION).lastModified();
+            }
+
+            if(Urls.PROTOCOL_JAR.equals(rootUrl.getProtocol())) {
+                String path = rootUrl.getPath();
+                int    sep  = path.indexOf(Urls.JAR_URL_SEPARATOR);
+                URL    jar  = new URL(sep > 0 ? path.substring(0, sep) : path);
+                if(Urls.PROTOCOL_FILE.equals(jar.getProtocol())) {
+                    return new File(jar.toURI()).lastModified();
+                }
+            }
+        }catch (Exception e) {
+            log.debug("Cannot resolve the last modified time of '{}', {}", rootUrl, e.getMessage());
+        }
+        return 0;
+    }
+
+    private static void collect(File dir, String prefix, List<String> paths, Map<String, String[]> annotations) throws IOException {
+        File[] files = dir.listFiles();
+        if(null == files) {
+            return;
+        }
+
+        Arrays.sort(files);
+
+        for(File file : files) {
+            String path = prefix + file.getName();
+
+            if(file.isDirectory()) {
+                paths.add(path + "/");
+                collect(file, path + "/", paths, annotations);
+                continue;
+            }
+
+            paths.add(path);
+
+            if(path.endsWith(Classes.CLASS_FILE_SUFFIX)) {
+                String[] names = readClassAnnotations(file, path);
+                if(null != names) {
+                    annotations.put(path, names);
+                }
+            }
+        }
+    }
+
+    private static String[] readClassAnnotations(File file, String path) throws IOException {
+        ClassReader cr;
+        try(InputStream in = new FileInputStream(file)) {
+            cr = new ClassReader(in);
+        }
+
+        //The class name must be the same as the path, i.e. not a multi-release class.
+        if(!path.equals(cr.getClassName() + Classes.CLASS_FILE_SUFFIX)) {
+            return null;
+        }
+
+        List<String> names = new ArrayList<>();
+        cr.accept(new ClassVisitor(Opcodes.ASM5) {
+            @Override
+            public AnnotationVisitor visitAnnotation(String desc, boolean visible) {
+                if(visible) {
+                    names.add(Type.getType(desc).getClassName());
+                }
+                return null;
+            }
+        }, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+
+        return names.toArray(new String[names.size()]);
+    }
+
+    private static final class Loaded {
+        final ResourceIndex index;
+        final long          lastModified;
+
+        Loaded(ResourceIndex index, long lastModified) {
+            this.index        = index;
+            this.lastModified = lastModified;
+        }
+    }
+
+    private final List<String>          paths;
+    private final Map<String, String[]> annotations;
+
+    private ResourceIndex(List<String> paths, Map<String, String[]> annotations) {
+        this.paths       = paths;
+        this.annotations = annotations;
+    }
+
+    /**
+     * Returns the paths of the files and directories (ends with '/') in the classpath root.
+     */
+    public List<String> getPaths() {
+        return paths;
+    }
+
+    /**
+     * Returns the class-level runtime annotation names of the class of the given path.
+     *
+     * <p>
+     * Returns <code>null</code> if the class not exists in this index.
+     */
+    public String[] getClassAnnotations(String path) {
+        return annotations.get(path);
+    }
+
+    /**
+     * Writes this index to the given output stream.
+     */
+    public void write(OutputStream out) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+
+        writer.write(HEADER);
+        writer.write('\n');
+
+        for(String path : paths) {
+            writer.write(path);
+
+            String[] names = annotations.get(path);
+            if(null != names) {
+                writer.write('\t');
+                writer.write(Strings.join(names, ','));
+            }
+
+            writer.write('\n');
+        }
+
+        writer.flush();
+    }
+}
@@ -17,6 +17,8 @@ package leap.lang.resource;
 
 import leap.lang.Enumerable;
 
+import java.lang.annotation.Annotation;
+
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
@@ -46,6 +48,14 @@ public interface ResourceSet extends Enumerable<Resource> {
 	
 	Class<?>[] searchClasses(Predicate<Class<?>> predicate);
 	
+	/**
+	 * Search all the classes in this resource collection which annotated by the given annotation.
+	 * 
+	 * <p>
+	 * The classes listed in the {@link ResourceIndex} without the annotation will not be loaded.
+	 */
+	Class<?>[] searchAnnotatedClasses(Class<? extends Annotation> annotationType);
+	
 	void process(Consumer<Resource> processor);
 	
 	void processClasses(Consumer<Class<?>> processor);
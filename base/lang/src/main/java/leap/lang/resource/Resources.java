@@ -24,18 +24,29 @@ import leap.lang.path.PathMatcher;
 import java.io.File;
 import java.io.IOException;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * spring style resource utils.
  */
 public class Resources {
 	
+	/**
+	 * The system property to enable the parallel scanning, default is <code>false</code>.
+	 */
+	public static final String PARALLEL_PROPERTY = "leap.resources.parallel";
+	
+	/**
+	 * The system property to enable the {@link ResourceIndex}, default is <code>false</code>.
+	 */
+	public static final String INDEX_PROPERTY    = "leap.resources.index";
+	
 	static final PathMatcher matcher = new AntPathMatcher();
 	
+	private static volatile boolean parallel     = Boolean.getBoolean(PARALLEL_PROPERTY);
+	private static volatile boolean indexEnabled = Boolean.getBoolean(INDEX_PROPERTY);
+	
 	static ResourceLoader  loader  = new DefaultResourceLoader();
 	static ResourceScanner scanner = new DefaultResourceScanner(loader);
 	
@@ -45,6 +56,31 @@ public class Resources {
 		userDir = Resources.createFileResource(System.getProperty("user.dir"));
 	}
 	
+	/**
+	 * Returns <code>true</code> if the scanner scans the jars and directories in the fork-join pool.
+	 */
+	public static boolean isParallel() {
+		return parallel;
+	}
+	
+	public static void setParallel(boolean parallel) {
+		Resources.parallel = parallel;
+	}
+	
+	/**
+	 * Returns <code>true</code> if the scanner matches the paths in the {@link ResourceIndex} of classpath root if exists.
+	 * 
+	 * <p>
+	 * The index is not validated against the indexed files, enable it only if the index is regenerated on every build.
+	 */
+	public static boolean isIndexEnabled() {
+		return indexEnabled;
+	}
+	
+	public static void setIndexEnabled(boolean enabled) {
+		Resources.indexEnabled = enabled;
+	}
+	
 	public static PathMatcher getPathMatcher(){
 		return matcher;
 	}
@@ -154,44 +190,55 @@ public class Resources {
 			return new SimpleResourceSet(new Resource[]{});
 		}
         if(locationPatterns.length > 1){
-        	final ExecutorService executorService = Executors.newFixedThreadPool(locationPatterns.length);
-        	
-        	final List<Resource>  result  = new CopyOnWriteArrayList<Resource>();
-        	final List<Future<?>> futures = New.arrayList();
+        	//Scans the patterns in the fork-join pool and merges the results in the order of patterns.
+        	final List<ForkJoinTask<Resource[]>> tasks = New.arrayList();
         	
         	for(int i=0;i<locationPatterns.length;i++){
         		final String locationPattern = locationPatterns[i];
-        		futures.add(executorService.submit(new Runnable() {
-					@Override
-					public void run() {
-						try {
-			            	final DefaultResourceScanner resourceScanner = new DefaultResourceScanner(loader);
-			            	resourceScanner.setExecutorService(Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors()));							
-                            Collections2.addAll(result, resourceScanner.scan(locationPattern));
-                            resourceScanner.getExecutorService().shutdownNow();
-                        } catch (IOException e) {
-                        	throw new NestedIOException(e);
-                        }
-					}
-				}));
+        		tasks.add(fork(() -> scanner.scan(locationPattern)));
         	}
         	
-        	for(Future<?> future : futures){
+        	final List<Resource> result = New.arrayList();
+        	for(ForkJoinTask<Resource[]> task : tasks){
         		try {
-	                future.get();
-                } catch (Exception e) {
-                	Exceptions.uncheckAndThrow(e);
+	                Collections2.addAll(result, task.join());
+                } catch (RuntimeException e) {
+                	if(e.getCause() instanceof IOException) {
+                		throw new NestedIOException((IOException)e.getCause());
+                	}
+                	throw e;
                 }
         	}
         	
-        	executorService.shutdownNow();
-        	
         	return new SimpleResourceSet(result.toArray(new Resource[result.size()]));
         }else{
         	return scan(locationPatterns[0]);
         }
 	}
 	
+	/**
+	 * Forks the task in the fork-join pool, the task runs with the context class loader of the caller thread,
+	 * which is required by the <code>classpath*:</code> resolution.
+	 */
+	static <T> ForkJoinTask<T> fork(Callable<T> task) {
+		final ClassLoader cl = Thread.currentThread().getContextClassLoader();
+		
+		return ForkJoinTask.adapt(() -> {
+			Thread      thread = Thread.currentThread();
+			ClassLoader old    = thread.getContextClassLoader();
+			if(old == cl) {
+				return task.call();
+			}
+			
+			thread.setContextClassLoader(cl);
+			try {
+				return task.call();
+			}finally{
+				thread.setContextClassLoader(old);
+			}
+		}).fork();
+	}
+	
 	public static ResourceSet scan(Resource rootDirResource,String subPattern) throws NestedIOException{
 		Args.notNull(rootDirResource,"rootDirResource");
 		Args.notEmpty(subPattern, "subPattern");
@@ -17,6 +17,8 @@ package leap.lang.resource;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Inherited;
 import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.function.Consumer;
@@ -189,6 +191,45 @@ public class SimpleResourceSet extends ArrayIterable<Resource> implements Resour
 	    return classes.toArray(new Class<?>[classes.size()]);
     }
 	
+	@Override
+    public Class<?>[] searchAnnotatedClasses(Class<? extends Annotation> annotationType) {
+		Args.notNull(annotationType, "annotation type");
+		
+		Set<Class<?>> classes = new LinkedHashSet<Class<?>>(16);
+		
+		if(null != this.classes) {
+			for(Class<?> clazz : this.classes){
+				if(clazz.isAnnotationPresent(annotationType)){
+					classes.add(clazz);
+				}
+			}
+		}else{
+			//The index lists the declared annotations only.
+			boolean indexed = Resources.isIndexEnabled() && !annotationType.isAnnotationPresent(Inherited.class);
+			String  name    = annotationType.getName();
+			
+			for(Resource resource : values){
+				if(!isClassResource(resource)){
+					continue;
+				}
+				
+				if(indexed){
+					String[] names = ResourceIndex.getIndexedClassAnnotations(resource.getClasspath());
+					if(null != names && !Arrays2.contains(names, name)){
+						continue;
+					}
+				}
+				
+				Class<?> clazz = loadClass(resource);
+				if(clazz.isAnnotationPresent(annotationType)){
+					classes.add(clazz);
+				}
+			}
+		}
+		
+	    return classes.toArray(new Class<?>[classes.size()]);
+    }
+
 	@Override
     public void process(Consumer<Resource> action) {
 		Args.notNull(action);
@@ -216,26 +257,42 @@ public class SimpleResourceSet extends ArrayIterable<Resource> implements Resour
 	        for(int i=0;i<values.length;i++){
 	        	Resource resource = values[i];
 	        	
-	        	if(null != resource.getClasspath() && Strings.endsWith(resource.getFilename(),Classes.CLASS_FILE_SUFFIX)){
-	        		InputStream is  = null;
-	        		try{
-	        			is = resource.getInputStream();
-	        			
-	        			ClassReader classReader = new ClassReader(is);
-	        			
-	        			String internalClassName = classReader.getClassName();
-	        			String className         = internalClassName.replace('/','.');
-	        			
-	        			classes.add(Class.forName(className, false, Classes.getClassLoader()));
-	        		}catch(IOException e){
-	        			throw new NestedIOException("Error loading .class file " + resource.getDescription() + "' : " + e.getMessage(),e);
-	        		}catch(ClassNotFoundException e){
-	        			throw new NestedClassNotFoundException(e.getMessage(), e);
-	        		}finally{
-	        			IO.close(is);
-	        		}
+	        	if(isClassResource(resource)){
+	        		classes.add(loadClass(resource));
 	        	}
 	        }
 		}
 	}
+	
+	protected boolean isClassResource(Resource resource) {
+		return null != resource.getClasspath() && Strings.endsWith(resource.getFilename(),Classes.CLASS_FILE_SUFFIX);
+	}
+	
+	protected Class<?> loadClass(Resource resource) {
+		InputStream is  = null;
+		try{
+			String internalClassName;
+			
+			if(Resources.isIndexEnabled() && ResourceIndex.isIndexedClass(resource.getClasspath())){
+				//The class name of an indexed class is the classpath, no need to read the class file.
+				internalClassName = Strings.removeEnd(resource.getClasspath(), Classes.CLASS_FILE_SUFFIX);
+			}else{
+    			is = resource.getInputStream();
+    			
+    			ClassReader classReader = new ClassReader(is);
+    			
+    			internalClassName = classReader.getClassName();
+			}
+			
+			String className = internalClassName.replace('/','.');
+			
+			return Class.forName(className, false, Classes.getClassLoader());
+		}catch(IOException e){
+			throw new NestedIOException("Error loading .class file " + resource.getDescription() + "' : " + e.getMessage(),e);
+		}catch(ClassNotFoundException e){
+			throw new NestedClassNotFoundException(e.getMessage(), e);
+		}finally{
+			IO.close(is);
+		}
+	}
 }
\ No newline at end of file
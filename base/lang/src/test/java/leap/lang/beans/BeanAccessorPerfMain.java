@@ -0,0 +1,150 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.beans;
+
+import leap.lang.Beans;
+import leap.lang.time.StopWatch;
+
+/**
+ * Compares the reflective property access of {@link BeanProperty} with the generated {@link BeanAccessor}.
+ *
+ * <p>
+ * Run it on jdk 8 and the newer jdk to compare the reflection of the different jdk versions.
+ */
+public class BeanAccessorPerfMain {
+
+    private static final int LOOPS = 1000000;
+
+    public static void main(String[] args) {
+        System.out.println("Java version : " + System.getProperty("java.version"));
+
+        boolean enabled = BeanAccessor.isEnabled();
+        try {
+            //warm up
+            for(int i=0;i<5;i++) {
+                for(int mode=0;mode<3;mode++) {
+                    runGetSet("", mode, true);
+                }
+                runCopyAndToMap("", false, true);
+                runCopyAndToMap("", true,  true);
+            }
+
+            System.out.println("\n\nWarm up done, Let's begin!\n");
+
+            runGetSet("get/set, reflection        ", 0, false);
+            runGetSet("get/set, BeanProperty + asm", 1, false);
+            runGetSet("get/set, indexed accessor  ", 2, false);
+            runCopyAndToMap("copy + toMap, reflection  ", false, false);
+            runCopyAndToMap("copy + toMap, asm         ", true,  false);
+        }finally {
+            BeanAccessor.setEnabled(enabled);
+        }
+    }
+
+    protected static void runGetSet(String name, int mode, boolean warmup) {
+        BeanAccessor.setEnabled(mode == 1);
+
+        BeanType       bt       = BeanType.of(Row.class);
+        BeanAccessor   accessor = bt.getAccessor();
+        BeanProperty[] props    = bt.getProperties();
+
+        Row row = new Row();
+        row.setName("name");
+
+        StopWatch sw = StopWatch.startNew();
+
+        long count = 0;
+        for(int i=0;i<LOOPS * 10;i++) {
+            for(int j=0;j<props.length;j++) {
+                BeanProperty p = props[j];
+                if(mode == 2) {
+                    accessor.setValue(row, j, accessor.getValue(row, j));
+                }else{
+                    p.setValue(row, p.getValue(row));
+                }
+                count++;
+            }
+        }
+
+        if(!warmup) {
+            long ms = Math.max(1, sw.getElapsedMilliseconds());
+            System.out.println(name + " : " + ms + "ms, " + (count * 1000 / ms) + " get+set/s");
+        }
+    }
+
+    protected static void runCopyAndToMap(String name, boolean asm, boolean warmup) {
+        BeanAccessor.setEnabled(asm);
+
+        Row from = new Row();
+        from.setId(1);
+        from.setName("name");
+        from.setAmount(1.5d);
+        from.setActive(true);
+
+        StopWatch sw = StopWatch.startNew();
+
+        long count = 0;
+        for(int i=0;i<LOOPS;i++) {
+            Row to = new Row();
+            Beans.copyProperties(from, to);
+            count += Beans.toMap(to).size();
+        }
+
+        if(!warmup) {
+            long ms = Math.max(1, sw.getElapsedMilliseconds());
+            System.out.println(name + " : " + ms + "ms, " + ((long)LOOPS * 1000 / ms) + " beans/s");
+        }
+    }
+
+    public static final class Row {
+        private long    id;
+        private String  name;
+        private double  amount;
+        private boolean active;
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public double getAmount() {
+            return amount;
+        }
+
+        public void setAmount(double amount) {
+            this.amount = amount;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public void setActive(boolean active) {
+            this.active = active;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.beans;
+
+import leap.junit.TestBase;
+import leap.lang.Beans;
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class BeanAccessorTest extends TestBase {
+
+    @Test
+    public void testIndexedAccess() {
+        BeanType     bt       = BeanType.of(Bean.class);
+        BeanAccessor accessor = bt.getAccessor();
+        assertNotNull(accessor);
+        assertSame(accessor, bt.getAccessor());
+
+        int id     = index(bt, "id");
+        int name   = index(bt, "name");
+        int amount = index(bt, "amount");
+        int active = index(bt, "active");
+        int count  = index(bt, "count");
+        int tags   = index(bt, "tags");
+
+        Bean bean = new Bean();
+        accessor.setValue(bean, id, 100L);
+        accessor.setValue(bean, name, "n");
+        accessor.setValue(bean, amount, 1.5d);
+        accessor.setValue(bean, active, true);
+        accessor.setValue(bean, count, 3);
+        accessor.setValue(bean, tags, new String[]{"a"});
+
+        assertEquals(100L, bean.getId());
+        assertEquals("n", bean.getName());
+        assertEquals(1.5d, bean.getAmount(), 0);
+        assertTrue(bean.isActive());
+        assertEquals(3, bean.count);
+        assertArrayEquals(new String[]{"a"}, bean.getTags());
+
+        assertEquals(100L, accessor.getValue(bean, id));
+        assertEquals("n", accessor.getValue(bean, name));
+        assertEquals(3, accessor.getValue(bean, count));
+
+        accessor.setLong(bean, id, 200L);
+        accessor.setDouble(bean, amount, 2.5d);
+        accessor.setBoolean(bean, active, false);
+        accessor.setInt(bean, count, 4);
+        assertEquals(200L, accessor.getLong(bean, id));
+        assertEquals(2.5d, accessor.getDouble(bean, amount), 0);
+        assertFalse(accessor.getBoolean(bean, active));
+        assertEquals(4, accessor.getInt(bean, count));
+
+        try {
+            accessor.getInt(bean, id);
+            fail("Should throw IllegalArgumentException");
+        }catch(IllegalArgumentException e) {
+
+        }
+    }
+
+    @Test
+    public void testNotAccessible() {
+        BeanType     bt       = BeanType.of(Bean.class);
+        BeanAccessor accessor = bt.getAccessor();
+
+        int hidden = index(bt, "hidden");
+        assertFalse(accessor.isReadable(hidden));
+        assertTrue(accessor.isWritable(hidden));
+        assertTrue(accessor.isMappable());
+        assertFalse(accessor.isCopyable());
+
+        try {
+            accessor.getValue(new Bean(), hidden);
+            fail("Should throw IllegalArgumentException");
+        }catch(IllegalArgumentException e) {
+
+        }
+
+        assertNull(BeanType.of(PackageBean.class).getAccessor());
+    }
+
+    @Test
+    public void testCopyAndToMap() {
+        BeanAccessor accessor = BeanType.of(SimpleBean.class).getAccessor();
+        assertTrue(accessor.isCopyable());
+        assertTrue(accessor.isMappable());
+
+        SimpleBean from = new SimpleBean();
+        from.setId(1);
+        from.setName("a");
+        from.value = 1.5d;
+
+        SimpleBean to = new SimpleBean();
+        accessor.copy(from, to);
+        assertEquals(1, to.getId());
+        assertEquals("a", to.getName());
+        assertEquals(1.5d, to.value, 0);
+
+        Map<String, Object> map = new LinkedHashMap<>();
+        accessor.toMap(from, map);
+        assertEquals(BeanType.of(SimpleBean.class).toMap(from), map);
+    }
+
+    @Test
+    public void testEnabled() {
+        boolean enabled = BeanAccessor.isEnabled();
+        BeanAccessor.setEnabled(true);
+        try {
+            BeanType bt = BeanType.of(Bean.class);
+
+            Bean bean = new Bean();
+            bt.getProperty("id").setValue(bean, "10");
+            bt.getProperty("count").setValue(bean, 2);
+            bt.getProperty("hidden").setValue(bean, "h");
+            assertEquals(10L, bean.getId());
+            assertEquals(10L, bt.getProperty("id").getValue(bean));
+            assertEquals(2, bt.getProperty("count").getValue(bean));
+            assertEquals("h", bean.hidden);
+
+            SimpleBean from = new SimpleBean();
+            from.setId(2);
+            from.setName("b");
+
+            SimpleBean to = new SimpleBean();
+            Beans.copyProperties(from, to);
+            assertEquals(2, to.getId());
+            assertEquals("b", to.getName());
+
+            Map<String, Object> map = Beans.toMap(from);
+            assertEquals(2, map.get("id"));
+            assertEquals("b", map.get("name"));
+        }finally {
+            BeanAccessor.setEnabled(enabled);
+        }
+    }
+
+    private static int index(BeanType bt, String name) {
+        BeanProperty[] properties = bt.getProperties();
+        for(int i=0;i<properties.length;i++) {
+            if(properties[i].getName().equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("No property '" + name + "'");
+    }
+
+    public static class Bean {
+        private long     id;
+        private String   name;
+        private double   amount;
+        private boolean  active;
+        private String[] tags;
+        public  int      count;
+        private String   hidden;
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public double getAmount() {
+            return amount;
+        }
+
+        public void setAmount(double amount) {
+            this.amount = amount;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public void setActive(boolean active) {
+            this.active = active;
+        }
+
+        public String[] getTags() {
+            return tags;
+        }
+
+        public void setTags(String[] tags) {
+            this.tags = tags;
+        }
+
+        String getHidden() {
+            return hidden;
+        }
+
+        public void setHidden(String hidden) {
+            this.hidden = hidden;
+        }
+    }
+
+    public static class SimpleBean {
+        private int    id;
+        private String name;
+        public  double value;
+
+        public int getId() {
+            return id;
+        }
+
+        public void setId(int id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public SimpleBean setName(String name) {
+            this.name = name;
+            return this;
+        }
+    }
+
+    static class PackageBean {
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.convert;
+
+import leap.junit.TestBase;
+import leap.lang.Out;
+import leap.lang.value.Null;
+import org.junit.Test;
+
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+
+public class ConversionPlanTest extends TestBase {
+
+    private static List<Integer> integers;
+
+    public enum Color {
+        RED, GREEN
+    }
+
+    @Test
+    public void testSameAsConverts() throws Exception {
+        Type listType = ConversionPlanTest.class.getDeclaredField("integers").getGenericType();
+
+        Object[][] targets = new Object[][]{
+                {int.class, null}, {Integer.class, null}, {long.class, null}, {Long.class, null}, {short.class, null},
+                {double.class, null}, {BigDecimal.class, null}, {String.class, null}, {boolean.class, null},
+                {Boolean.class, null}, {Date.class, null}, {Timestamp.class, null}, {Color.class, null},
+                {List.class, listType}, {Object.class, null}, {Integer[].class, null}, {CharSequence.class, null}
+        };
+
+        Object[] values = new Object[]{
+                null, Null.VALUE, "", " 1 ", "abc", "true", 1, 1L, 300000L, 1.5d, new BigDecimal("1"), Boolean.TRUE,
+                Color.GREEN, new Timestamp(1000L), new Date(1000L), new String[]{"1", "2"}, Arrays.asList("3", "4"), "RED"
+        };
+
+        for(Object[] target : targets) {
+            Class<?> targetType  = (Class<?>)target[0];
+            Type     genericType = (Type)target[1];
+
+            ConversionPlan<?> plan = Converts.plan(targetType, genericType);
+            assertSame(plan, Converts.plan(targetType, genericType));
+
+            //twice for the cached routes.
+            for(int i=0;i<2;i++) {
+                for(Object value : values) {
+                    Object expected;
+                    try {
+                        expected = Converts.convert(value, targetType, genericType);
+                    }catch(RuntimeException e) {
+                        expected = e.getClass();
+                    }
+
+                    Object actual;
+                    try {
+                        actual = plan.convert(value);
+                    }catch(RuntimeException e) {
+                        actual = e.getClass();
+                    }
+
+                    String message = "convert '" + value + "' to '" + targetType.getSimpleName() + "'";
+                    if(null != expected && expected.getClass().isArray()) {
+                        assertTrue(message, Objects.deepEquals(expected, actual));
+                    }else{
+                        assertEquals(message, expected, actual);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRegisterConverter() {
+        ConversionPlan<Money> plan = Converts.plan(Money.class);
+
+        assertEquals(1L, plan.convert(new Money(1L)).cents);
+        try {
+            plan.convert(100L);
+            fail("Should throw ConvertUnsupportedException");
+        }catch(ConvertUnsupportedException e) {
+
+        }
+
+        Converts.register(Money.class, new AbstractConverter<Money>() {
+            @Override
+            public boolean convertFrom(Object value, Class<?> targetType, Type genericType, Out<Object> out) throws Throwable {
+                if(value instanceof Number) {
+                    out.set(new Money(((Number) value).longValue()));
+                    return true;
+                }
+                return false;
+            }
+        });
+
+        assertEquals(100L, plan.convert(100L).cents);
+    }
+
+    public static final class Money {
+        final long cents;
+
+        Money(long cents) {
+            this.cents = cents;
+        }
+    }
+}
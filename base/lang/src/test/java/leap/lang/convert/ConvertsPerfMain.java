@@ -0,0 +1,77 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.convert;
+
+import leap.lang.time.StopWatch;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Date;
+
+/**
+ * Compares {@link Converts#convert(Object, Class)} with the cached {@link ConversionPlan}.
+ */
+public class ConvertsPerfMain {
+
+    private static final int LOOPS = 1000000;
+
+    private static final Class<?>[] TARGETS = new Class<?>[]{Integer.class, int.class, Long.class, Date.class, Boolean.class};
+    private static final Object[][] VALUES  = new Object[][]{
+            {"100", 100L, new BigDecimal("100")},
+            {"100", 100L, new BigDecimal("100")},
+            {"100", 100,  new BigDecimal("100")},
+            {new Timestamp(1000L), 1000L, new Date(1000L)},
+            {"true", Boolean.TRUE, 1}
+    };
+
+    public static void main(String[] args) {
+        //warm up
+        for(int i=0;i<5;i++) {
+            runTest("", false, true);
+            runTest("", true,  true);
+        }
+
+        System.out.println("\n\nWarm up done, Let's begin!\n");
+
+        runTest("Converts.convert ", false, false);
+        runTest("ConversionPlan   ", true,  false);
+    }
+
+    protected static void runTest(String name, boolean plan, boolean warmup) {
+        ConversionPlan<?>[] plans = new ConversionPlan<?>[TARGETS.length];
+        for(int i=0;i<plans.length;i++) {
+            plans[i] = Converts.plan(TARGETS[i]);
+        }
+
+        StopWatch sw = StopWatch.startNew();
+
+        int count = 0;
+        for(int i=0;i<LOOPS;i++) {
+            for(int j=0;j<TARGETS.length;j++) {
+                Object value = VALUES[j][i % 3];
+                Object v = plan ? plans[j].convert(value) : Converts.convert(value, TARGETS[j]);
+                if(null != v) {
+                    count++;
+                }
+            }
+        }
+
+        if(!warmup) {
+            long ms = Math.max(1, sw.getElapsedMilliseconds());
+            System.out.println(name + " : " + ms + "ms, " + ((long)count * 1000 / ms) + " conversions/s");
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.el.spel;
+
+import leap.lang.el.DefaultElEvalContext;
+import leap.lang.time.StopWatch;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compares the interpreted and the compiled {@link SpelExpression}.
+ */
+public class SpelCompilePerfMain {
+
+    private static final int LOOPS = 1000000;
+
+    private static final String[] EXPRS = new String[]{
+            "user.name",
+            "user.address.city",
+            "user.getAddress().getCity().length()",
+            "user.age > 18 && user.address.city == \"beijing\"",
+            "user.greet(user.name)"
+    };
+
+    public static void main(String[] args) {
+        Map<String, Object> vars = new HashMap<>();
+        vars.put("user", new User());
+
+        //warm up
+        for(int i=0;i<3;i++) {
+            for(String expr : EXPRS) {
+                run("", expr, vars, false, true);
+                run("", expr, vars, true,  true);
+            }
+        }
+
+        System.out.println("\n\nWarm up done, Let's begin!\n");
+
+        for(String expr : EXPRS) {
+            System.out.println("-- " + expr + " --");
+            run("interpreted", expr, vars, false, false);
+            run("compiled   ", expr, vars, true,  false);
+        }
+    }
+
+    protected static void run(String name, String s, Map<String, Object> vars, boolean compile, boolean warmup) {
+        SpelExpression expr = SPEL.createExpression(s);
+        expr.eval(new DefaultElEvalContext(vars));
+        if(compile) {
+            expr.compile();
+        }
+
+        StopWatch sw = StopWatch.startNew();
+
+        Object result = null;
+        for(int i=0;i<LOOPS;i++) {
+            result = expr.eval(new DefaultElEvalContext(vars));
+        }
+
+        if(!warmup) {
+            long ms = Math.max(1, sw.getElapsedMilliseconds());
+            System.out.println(name + " : " + ms + "ms, " + ((long)LOOPS * 1000 / ms) + " evals/s, value : " + result);
+        }
+    }
+
+    public static final class User {
+        private final Address address = new Address();
+
+        public String getName() {
+            return "tom";
+        }
+
+        public Integer getAge() {
+            return 20;
+        }
+
+        public Address getAddress() {
+            return address;
+        }
+
+        public String greet(String name) {
+            return "hello " + name;
+        }
+    }
+
+    public static final class Address {
+        public String getCity() {
+            return "beijing";
+        }
+    }
+}
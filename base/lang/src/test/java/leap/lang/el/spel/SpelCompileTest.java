@@ -0,0 +1,198 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.el.spel;
+
+import leap.lang.el.DefaultElEvalContext;
+import leap.lang.el.ElException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+public class SpelCompileTest extends SpelTestCase {
+
+	@Test
+	public void testPropertyAndMethod() {
+		Map<String, Object> vars = vars(new Bean("hello", 10));
+
+		assertCompiled("bean.str", vars, "hello");
+		assertCompiled("bean.num", vars, 10);
+		assertCompiled("bean.count", vars, 3);
+		assertCompiled("bean.str.length()", vars, 5);
+		assertCompiled("bean.getStr().concat(\"!\")", vars, "hello!");
+		assertCompiled("bean.add(bean.num, 2)", vars, 12);
+		assertCompiled("bean.ok && bean.num > 5 ? bean.str : \"no\"", vars, "hello");
+		assertCompiled("bean.inner.str", vars, "inner");
+	}
+
+	@Test
+	public void testJdkClass() {
+		Map<String, Object> vars = new HashMap<>();
+		vars.put("list", new ArrayList<>(Arrays.asList("a", "b")));
+		vars.put("s", "hello");
+
+		assertCompiled("list.size()", vars, 2);
+		assertCompiled("list.contains(s)", vars, false);
+		assertCompiled("s.indexOf(\"l\")", vars, 2);
+	}
+
+	@Test
+	public void testFallback() {
+		SpelExpression expr = compile("bean.str", vars(new Bean("a", 1)));
+
+		assertEquals("b", eval(expr, vars(new Bean("b", 1))));
+		assertNull(eval(expr, vars(null)));
+
+		Map<String, Object> map = new HashMap<>();
+		map.put("str", "map");
+		assertEquals("map", eval(expr, vars(map)));
+
+		//Other class has the same property.
+		assertEquals("other", eval(expr, vars(new OtherBean())));
+
+		//The qualified name is a variable.
+		Map<String, Object> vars = vars(new Bean("c", 1));
+		vars.put("bean.str", "var");
+		assertEquals("var", eval(expr, vars));
+	}
+
+	@Test
+	public void testMethodArgumentFallback() {
+		SpelExpression expr = compile("bean.echo(s)", vars(new Bean("a", 1), "x"));
+
+		assertEquals("y", eval(expr, vars(new Bean("a", 1), "y")));
+		assertNull(eval(expr, vars(new Bean("a", 1), null)));
+	}
+
+	@Test
+	public void testError() {
+		SpelExpression expr = compile("bean.error", vars(new Bean("a", 1)));
+
+		Bean bean = new Bean("a", 1);
+		bean.error = true;
+		try {
+			eval(expr, vars(bean));
+			fail("Should throw ElException");
+		}catch(ElException e) {
+			assertTrue(e.getMessage().contains("'error'"));
+			assertTrue(e.getCause() instanceof IllegalStateException);
+		}
+	}
+
+	@Test
+	public void testNotCompiled() {
+		Map<String, Object> vars = new HashMap<>();
+		vars.put("bean", new PackageBean());
+
+		SpelExpression expr = SPEL.createExpression("bean.str");
+		assertEquals("p", expr.eval(new DefaultElEvalContext(vars)));
+		assertFalse(expr.compile());
+		assertEquals("p", expr.eval(new DefaultElEvalContext(vars)));
+
+		expr = SPEL.createExpression("1 + 2");
+		expr.eval(new DefaultElEvalContext(vars));
+		assertFalse(expr.compile());
+	}
+
+	private static void assertCompiled(String s, Map<String, Object> vars, Object expected) {
+		String         str  = SPEL.createExpression(s).toString();
+		SpelExpression expr = compile(s, vars);
+		assertEquals(str, expr.toString());
+		assertEquals(expected, eval(expr, vars));
+		assertEquals(expected, eval(expr, vars));
+	}
+
+	private static SpelExpression compile(String s, Map<String, Object> vars) {
+		SpelExpression expr = SPEL.createExpression(s);
+		Object value = eval(expr, vars);
+		assertTrue("'" + s + "' should be compiled", expr.compile());
+		assertEquals(value, eval(expr, vars));
+		return expr;
+	}
+
+	private static Object eval(SpelExpression expr, Map<String, Object> vars) {
+		return expr.eval(new DefaultElEvalContext(vars));
+	}
+
+	private static Map<String, Object> vars(Object bean) {
+		Map<String, Object> vars = new HashMap<>();
+		vars.put("bean", bean);
+		return vars;
+	}
+
+	private static Map<String, Object> vars(Object bean, String s) {
+		Map<String, Object> vars = vars(bean);
+		vars.put("s", s);
+		return vars;
+	}
+
+	public static class Bean {
+		public  int     count = 3;
+		public  Bean    inner;
+		private String  str;
+		private int     num;
+		private boolean error;
+
+		public Bean(String str, int num) {
+			this.str = str;
+			this.num = num;
+			if(!"inner".equals(str)) {
+				this.inner = new Bean("inner", 0);
+			}
+		}
+
+		public String getStr() {
+			return str;
+		}
+
+		public int getNum() {
+			return num;
+		}
+
+		public boolean isOk() {
+			return true;
+		}
+
+		public boolean getError() {
+			if(error) {
+				throw new IllegalStateException("error");
+			}
+			return false;
+		}
+
+		public Integer add(Integer i, Integer j) {
+			return i + j;
+		}
+
+		public String echo(String s) {
+			return s;
+		}
+	}
+
+	public static class OtherBean {
+		public String getStr() {
+			return "other";
+		}
+	}
+
+	static class PackageBean {
+		public String getStr() {
+			return "p";
+		}
+	}
+}
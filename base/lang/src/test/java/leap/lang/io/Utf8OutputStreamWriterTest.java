@@ -0,0 +1,110 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.io;
+
+import leap.junit.concurrent.ConcurrentTestCase;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+public class Utf8OutputStreamWriterTest extends ConcurrentTestCase {
+
+    @Test
+    public void testEncode() throws IOException {
+        assertEncoded("");
+        assertEncoded("hello");
+        assertEncoded("\u00e9\u4e2d\u6587");
+        assertEncoded("a\ud83d\ude00b");
+    }
+
+    @Test
+    public void testLargeContent() throws IOException {
+        Random r = new Random(1);
+        StringBuilder s = new StringBuilder();
+        while(s.length() < Utf8OutputStreamWriter.BUFFER_SIZE * 3) {
+            switch (r.nextInt(4)) {
+                case 0:
+                    s.append((char)('a' + r.nextInt(26)));
+                    break;
+                case 1:
+                    s.append((char)(0x80 + r.nextInt(0x780)));
+                    break;
+                case 2:
+                    s.append((char)(0x4e00 + r.nextInt(0x100)));
+                    break;
+                default:
+                    s.appendCodePoint(0x1f600 + r.nextInt(0x40));
+            }
+        }
+        assertEncoded(s.toString());
+
+        //writes char by char.
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Utf8OutputStreamWriter w = new Utf8OutputStreamWriter(out);
+        for(int i=0;i<s.length();i++) {
+            w.write(s.charAt(i));
+        }
+        w.release();
+        assertArrayEquals(s.toString().getBytes(StandardCharsets.UTF_8), out.toByteArray());
+    }
+
+    @Test
+    public void testMalformedSurrogates() throws IOException {
+        assertEquals("?a", encode("\ude00a"));
+        assertEquals("?a", encode("\ud83da"));
+        assertEquals("a?", encode("a\ud83d"));
+    }
+
+    @Test
+    public void testLazyOpen() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Utf8OutputStreamWriter w = new Utf8OutputStreamWriter(() -> out);
+
+        w.write("hello");
+        assertFalse(w.isOpened());
+        w.discard();
+        assertFalse(w.isOpened());
+        assertEquals(0, out.size());
+
+        w = new Utf8OutputStreamWriter(() -> out);
+        w.write("hello");
+        w.release();
+        assertTrue(w.isOpened());
+        assertEquals("hello", new String(out.toByteArray(), StandardCharsets.UTF_8));
+
+        try {
+            w.write("a");
+            fail("Should throw IOException");
+        }catch(IOException e) {
+
+        }
+    }
+
+    private static void assertEncoded(String s) throws IOException {
+        assertEquals(s, encode(s));
+    }
+
+    private static String encode(String s) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Utf8OutputStreamWriter w = new Utf8OutputStreamWriter(out);
+        w.write(s);
+        w.release();
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -16,14 +16,22 @@
  */
 package leap.lang.json;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
 import leap.junit.concurrent.ConcurrentTestCase;
+import leap.lang.convert.Converts;
 import leap.lang.io.IO;
 import leap.lang.resource.Resource;
 import leap.lang.resource.ResourceSet;
@@ -33,6 +41,8 @@ import org.junit.Test;
 
 @SuppressWarnings("unchecked")
 public class JSONDecodeTest extends ConcurrentTestCase {
+
+    private static List<Map<String, Node>> nodeMaps;
     
     @Test
     public void testDecodeLarge() throws Exception {
@@ -167,6 +177,139 @@ public class JSONDecodeTest extends ConcurrentTestCase {
     	assertEquals("xxx",bean1.name);
     }
 
+    @Test
+    public void testDecodeBinding() {
+        String json = "{\"id\":1,\"NAME\":\"a\",\"unknown\":{\"x\":[1,2]},\"tags\":[\"x\",\"y\"],\"scores\":[1,2,3]," +
+                      "\"child\":{\"id\":\"2\",\"name\":null},\"children\":[{\"id\":3},{\"id\":4}]," +
+                      "\"named\":{\"k\":{\"id\":5}},\"raw\":{\"a\":[1,{\"b\":true}]},\"ids\":\"1,2\"}";
+
+        Node node = JSON.decode(json, Node.class);
+        assertNode(node);
+        assertEquals(Converts.convert(JSON.decode(json), Node.class).toString(), node.toString());
+
+        JsonParser parser = new JsonParser(JsonParser.MODE_PERMISSIVE);
+        JsonBinder binder = JsonBinder.of(Node.class, null);
+        assertNode((Node)parser.parse(json.getBytes(StandardCharsets.UTF_8), binder));
+        assertNode((Node)parser.parse(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), binder));
+        assertNode((Node)parser.parse(new StringReader(json), binder));
+    }
+
+    @Test
+    public void testDecodeBindingKeys() {
+        //the first one of the case variants wins, the same as converting the raw map.
+        String json = "{\"NAME\":\"a\",\"name\":\"b\",\"Id\":1,\"id\":2}";
+        Node node = JSON.decode(json, Node.class);
+        assertEquals("a", node.name);
+        assertEquals(1, node.id);
+        assertEquals(Converts.convert(JSON.decode(json), Node.class).toString(), node.toString());
+
+        //the duplicated keys are rejected as parsing a raw map.
+        for(String dup : new String[]{"{\"name\":\"a\",\"name\":\"b\"}",
+                                      "{\"NAME\":\"a\",\"name\":\"b\",\"NAME\":\"c\"}",
+                                      "{\"unknown\":1,\"unknown\":2}"}) {
+            try {
+                JSON.decode(dup, Node.class);
+                fail("Should throw JsonParserException : " + dup);
+            } catch (JsonParserException e) {
+                assertEquals(JsonParserException.ERROR_UNEXPECTED_DUPLICATE_KEY, e.getErrorType());
+            }
+        }
+    }
+
+    @Test
+    public void testDecodeGenericBinding() throws Exception {
+        Type type = JSONDecodeTest.class.getDeclaredField("nodeMaps").getGenericType();
+
+        List<Map<String, Node>> list = JSON.decode("[{\"a\":{\"id\":1}},{\"b\":{\"id\":\"2\"}}]", List.class, type);
+        assertEquals(2, list.size());
+        assertEquals(1, list.get(0).get("a").id);
+        assertEquals(2, list.get(1).get("b").id);
+
+        assertNull(JSON.decode("null", Node.class));
+        assertEquals(3, JSON.decode("\"3\"", int.class).intValue());
+        assertArrayEquals(new Integer[]{1, 2}, JSON.decode("[1, \"2\"]", Integer[].class));
+    }
+
+    @Test
+    public void testDecodeNumbers() {
+        String json = "[0, -1, 123 , 2147483647, 2147483648, -2147483648, -2147483649, 9223372036854775807, " +
+                      "9223372036854775808, 0.5, -0.0, 1.25 , 12.345, 3.141592653589793, 0.1, 1e3, -2.5E-3, " +
+                      "9007199254740993.5, 12345678901234567.8]";
+
+        List<Object> expected = Arrays.asList(0, -1, 123, Integer.MAX_VALUE, 2147483648L, Integer.MIN_VALUE,
+                                              -2147483649L, Long.MAX_VALUE, new BigInteger("9223372036854775808"),
+                                              0.5d, -0.0d, 1.25d, 12.345d, 3.141592653589793d, 0.1d, 1000d, -0.0025d,
+                                              9007199254740993.5d, new BigDecimal("12345678901234567.8"));
+
+        JsonParser parser = new JsonParser(JsonParser.MODE_PERMISSIVE);
+        assertEquals(expected, JSON.decode(json));
+        assertEquals(expected, parser.parse(json.getBytes(StandardCharsets.UTF_8)));
+        assertEquals(expected, parser.parse(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))));
+        assertEquals(expected, parser.parse(new StringReader(json)));
+
+        parser = new JsonParser(JsonParser.MODE_RFC4627);
+        for(String s : new String[]{"01", "-01", "00.5", "-01.5"}) {
+            try {
+                parser.parse(s);
+                fail("Should throw JsonParserException");
+            }catch (JsonParserException e) {
+                assertEquals(JsonParserException.ERROR_UNEXPECTED_LEADING_0, e.getErrorType());
+            }
+        }
+        assertEquals(0.5d, parser.parse("0.5"));
+        assertEquals(-0.5d, parser.parse("-0.5"));
+    }
+
+    @Test
+    public void testDecodeRecycled() {
+        Map<String, Object> m1 = (Map<String, Object>)JSON.decode("{\"name\":1, \"a\\u0062\":2}");
+        Map<String, Object> m2 = (Map<String, Object>)JSON.decode("{\"name\":3}");
+
+        assertSame(m1.keySet().iterator().next(), m2.keySet().iterator().next());
+        assertEquals(2, m1.get("ab"));
+
+        StringBuilder s = new StringBuilder();
+        for(int i=0;i<10000;i++) {
+            s.append("abcdefghij");
+        }
+        assertEquals(s.toString(), JSON.decode("\"x\\n" + s + "\"").toString().substring(2));
+        assertEquals(3, JSON.decode("{\"name\":3}", Map.class).get("name"));
+    }
+
+    private static void assertNode(Node node) {
+        assertEquals(1, node.id);
+        assertEquals("a", node.name);
+        assertEquals(2, node.tags.size());
+        assertEquals("y", node.tags.get(1));
+        assertArrayEquals(new int[]{1, 2, 3}, node.scores);
+        assertEquals(2, node.child.id);
+        assertNull(node.child.name);
+        assertEquals(2, node.children.size());
+        assertEquals(4, node.children.get(1).id);
+        assertEquals(5, node.named.get("k").id);
+        assertEquals(Boolean.TRUE, ((Map<String, Object>)((List<Object>)node.raw.get("a")).get(1)).get("b"));
+        assertEquals(2, node.ids.size());
+        assertEquals(Long.valueOf(2), node.ids.get(1));
+    }
+
+    public static class Node {
+        public int                 id;
+        public String              name;
+        public List<String>        tags;
+        public int[]               scores;
+        public Node                child;
+        public List<Node>          children;
+        public Map<String, Node>   named;
+        public Map<String, Object> raw;
+        public List<Long>          ids;
+
+        @Override
+        public String toString() {
+            return id + ":" + name + ":" + tags + ":" + Arrays.toString(scores) + ":" + child + ":" + children + ":" +
+                   (null == named ? null : named.keySet()) + ":" + raw + ":" + ids;
+        }
+    }
+
     private static class Bean {
     	public String name = UUID.randomUUID().toString();
     }
@@ -162,6 +162,25 @@ public class JSONEncodeTest extends ConcurrentTestCase {
 		assertEquals(json, encodeUpperCamelSytle(new NamingStyleBean("1","xx")));
 	}
 	
+	@Test
+	public void testWriterBean() {
+		StringBuilder out = new StringBuilder();
+		JSON.writer(out).create().value(new NamedBean("1","xx"));
+		assertEquals("{\"id\":\"1\",\"name1\":\"xx\"}", out.toString());
+		
+		out = new StringBuilder();
+		JSON.writer(out).create().value(new ParentBean("xiaoming",100));
+		assertEquals("{\"transientField\":100,\"name\":\"xiaoming\",\"age\":100}", out.toString());
+		
+		out = new StringBuilder();
+		JSON.writer(out).setIgnoreNull(true).setNamingStyle(NamingStyles.LOWER_UNDERSCORE).create().value(new NamingStyleBean("1",null));
+		assertEquals("{\"user_id\":\"1\"}", out.toString());
+		
+		out = new StringBuilder();
+		JSON.writer(out).create().value(new NamingStyleBean("1",null));
+		assertEquals("{\"userId\":\"1\",\"userName\":null}", out.toString());
+	}
+	
 	private static String encode(Object value){
 		return JSON.encode(value);
 	}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2010 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.json;
+
+import leap.lang.convert.Converts;
+import leap.lang.time.StopWatch;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Compares decoding a json array to beans by converting the parsed {@link java.util.Map} tree with binding the beans while parsing.
+ */
+public class JsonDecodePerfMain {
+
+    private static final int ROWS  = 10000;
+    private static final int LOOPS = 20;
+
+    public static void main(String[] args) {
+        List<Row> rows = new ArrayList<>();
+        for(int i=0;i<ROWS;i++) {
+            Row row = new Row();
+            row.setId(i);
+            row.setName("name" + i);
+            row.setDescription(i % 3 == 0 ? null : "desc" + i);
+            row.setCreatedAt(new Date());
+            row.setAmount(i * 1.5d);
+            row.setTags(new String[]{"a" + i, "b" + i});
+            rows.add(row);
+        }
+
+        String json  = JSON.encode(rows);
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+
+        //warm up
+        for(int i=0;i<5;i++) {
+            for(int mode=0;mode<4;mode++) {
+                runTest("", json, bytes, mode, true);
+            }
+        }
+
+        System.out.println("\n\nWarm up done, Let's begin!\n");
+
+        runTest("String, Map tree + Converts  ", json, bytes, 0, false);
+        runTest("String, binding              ", json, bytes, 1, false);
+        runTest("byte[], binding              ", json, bytes, 2, false);
+        runTest("InputStream, binding         ", json, bytes, 3, false);
+    }
+
+    protected static void runTest(String name, String json, byte[] bytes, int mode, boolean warmup) {
+        JsonBinder binder = JsonBinder.of(Row[].class, null);
+
+        StopWatch sw = StopWatch.startNew();
+
+        int count = 0;
+        for(int i=0;i<LOOPS;i++) {
+            Row[] rows;
+            switch (mode) {
+                case 0:
+                    rows = Converts.convert(JSON.decode(json), Row[].class);
+                    break;
+                case 1:
+                    rows = JSON.decode(json, Row[].class);
+                    break;
+                case 2:
+                    rows = (Row[])new JsonParser(JsonParser.MODE_PERMISSIVE).parse(bytes, binder);
+                    break;
+                default:
+                    rows = (Row[])new JsonParser(JsonParser.MODE_PERMISSIVE).parse(new ByteArrayInputStream(bytes), binder);
+            }
+            count += rows.length;
+        }
+
+        if(!warmup) {
+            long ms = Math.max(1, sw.getElapsedMilliseconds());
+            System.out.println(name + " : " + ms + "ms, " + ((long)count * 1000 / ms) + " beans/s");
+        }
+    }
+
+    public static final class Row {
+        private int      id;
+        private String   name;
+        private String   description;
+        private Date     createdAt;
+        private double   amount;
+        private String[] tags;
+
+        public int getId() {
+            return id;
+        }
+
+        public void setId(int id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public void setDescription(String description) {
+            this.description = description;
+        }
+
+        public Date getCreatedAt() {
+            return createdAt;
+        }
+
+        public void setCreatedAt(Date createdAt) {
+            this.createdAt = createdAt;
+        }
+
+        public double getAmount() {
+            return amount;
+        }
+
+        public void setAmount(double amount) {
+            this.amount = amount;
+        }
+
+        public String[] getTags() {
+            return tags;
+        }
+
+        public void setTags(String[] tags) {
+            this.tags = tags;
+        }
+    }
+}
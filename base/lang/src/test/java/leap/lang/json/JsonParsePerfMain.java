@@ -0,0 +1,86 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.json;
+
+import leap.lang.time.StopWatch;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares parsing with a new parser and with the recycled parser of current thread,
+ * on a large (about 1MB) payload and on many small payloads.
+ */
+public class JsonParsePerfMain {
+
+    private static final int LARGE_LOOPS = 200;
+    private static final int SMALL_LOOPS = 1000000;
+
+    public static void main(String[] args) {
+        List<Object> rows = new ArrayList<>();
+        for(int i=0;i<10000;i++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", i);
+            row.put("name", "name" + i);
+            row.put("description", i % 3 == 0 ? null : "desc" + i);
+            row.put("amount", i * 1.25d);
+            row.put("enabled", i % 2 == 0);
+            row.put("tags", new String[]{"a" + i, "b" + i});
+            rows.add(row);
+        }
+
+        String large = JSON.encode(rows);
+        String small = JSON.encode(rows.get(1));
+
+        //warm up
+        for(int i=0;i<5;i++) {
+            run("", large, LARGE_LOOPS, false, true);
+            run("", large, LARGE_LOOPS, true,  true);
+            run("", small, SMALL_LOOPS, false, true);
+            run("", small, SMALL_LOOPS, true,  true);
+        }
+
+        System.out.println("\n\nWarm up done, Let's begin!\n");
+
+        System.out.println("-- large payload, " + large.length() / 1024 + "KB --");
+        run("new parser", large, LARGE_LOOPS, false, false);
+        run("recycled  ", large, LARGE_LOOPS, true,  false);
+
+        System.out.println("-- small payload, " + small.length() + " chars --");
+        run("new parser", small, SMALL_LOOPS, false, false);
+        run("recycled  ", small, SMALL_LOOPS, true,  false);
+    }
+
+    protected static void run(String name, String json, int loops, boolean recycled, boolean warmup) {
+        StopWatch sw = StopWatch.startNew();
+
+        for(int i=0;i<loops;i++) {
+            if(recycled) {
+                JSON.decode(json);
+            }else{
+                new JsonParser(JsonParser.MODE_PERMISSIVE).parse(json);
+            }
+        }
+
+        if(!warmup) {
+            long ms = Math.max(1, sw.getElapsedMilliseconds());
+            System.out.println(name + " : " + ms + "ms, " + ((long)loops * 1000 / ms) + " parses/s, " +
+                               ((long)json.length() * loops / 1024 / 1024 * 1000 / ms) + " MB/s");
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2010 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.json;
+
+import leap.lang.Beans;
+import leap.lang.time.StopWatch;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Compares writing a list of beans by the compiled bean plans with writing the beans through {@link Beans#toMap(Object)}.
+ */
+public class JsonWriterPerfMain {
+
+    private static final int ROWS  = 10000;
+    private static final int LOOPS = 50;
+
+    public static void main(String[] args) {
+        List<Row> rows = new ArrayList<>();
+        for(int i=0;i<ROWS;i++) {
+            rows.add(new Row(i, "name" + i, i % 3 == 0 ? null : "desc" + i, new Date(), i * 1.5d));
+        }
+
+        //warm up
+        for(int i=0;i<5;i++) {
+            runTest("", rows, false, true);
+            runTest("", rows, true, true);
+        }
+
+        System.out.println("\n\nWarm up done, Let's begin!\n");
+
+        runTest("Beans.toMap ", rows, false, false);
+        runTest("Bean plan   ", rows, true,  false);
+    }
+
+    protected static void runTest(String name, List<Row> rows, boolean plan, boolean warmup) {
+        StopWatch sw = StopWatch.startNew();
+
+        int length = 0;
+        for(int i=0;i<LOOPS;i++) {
+            StringBuilder out    = new StringBuilder(ROWS * 100);
+            JsonWriter    writer = JSON.writer(out).create();
+
+            writer.startArray();
+            for(int j=0;j<rows.size();j++) {
+                if(j > 0) {
+                    writer.separator();
+                }
+                if(plan) {
+                    writer.bean(rows.get(j));
+                }else{
+                    writer.map(Beans.toMap(rows.get(j)));
+                }
+            }
+            writer.endArray();
+
+            length += out.length();
+        }
+
+        if(!warmup) {
+            long ms = Math.max(1, sw.getElapsedMilliseconds());
+            System.out.println(name + " : " + ms + "ms, " + ((long)ROWS * LOOPS * 1000 / ms) + " beans/s, " + length + " chars");
+        }
+    }
+
+    public static final class Row {
+        private int    id;
+        private String name;
+        private String description;
+        private Date   createdAt;
+        private double amount;
+
+        public Row(int id, String name, String description, Date createdAt, double amount) {
+            this.id = id;
+            this.name = name;
+            this.description = description;
+            this.createdAt = createdAt;
+            this.amount = amount;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public Date getCreatedAt() {
+            return createdAt;
+        }
+
+        public double getAmount() {
+            return amount;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.resource;
+
+import leap.junit.TestBase;
+import leap.lang.io.Files;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class ResourceIndexTest extends TestBase {
+
+    @Test
+    public void testCreateWriteAndRead() throws Exception {
+        File dir = new File(ResourceIndexTest.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+
+        ResourceIndex index = ResourceIndex.create(dir);
+        assertTrue(index.getPaths().contains("leap/lang/resource/"));
+        assertTrue(index.getPaths().contains("leap/lang/resource/ResourceIndexTest.class"));
+        assertArrayEquals(new String[0], index.getClassAnnotations("leap/lang/resource/ResourceIndexTest.class"));
+        assertNull(index.getClassAnnotations("leap/lang/resource/"));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        index.write(out);
+
+        ResourceIndex read = ResourceIndex.read(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(index.getPaths(), read.getPaths());
+        for(String path : index.getPaths()) {
+            assertArrayEquals(index.getClassAnnotations(path), read.getClassAnnotations(path));
+        }
+    }
+
+    @Test
+    public void testIndexedFiles() throws Exception {
+        File root = java.nio.file.Files.createTempDirectory("resources").toFile();
+        try {
+            File dir = new File(root, "a");
+            write(new File(dir, "1.txt"));
+            write(new File(dir, "b/2.txt"));
+            write(new File(dir, "b/c/3.txt"));
+            write(new File(dir, "b/4.xml"));
+
+            ResourceIndex.main(new String[]{root.getAbsolutePath()});
+            assertTrue(new File(root, ResourceIndex.LOCATION).exists());
+
+            DefaultResourceScanner scanner = new DefaultResourceScanner();
+
+            Set<File> indexed = scanner.retrieveIndexedFiles(dir, "a/", "**/*.txt");
+            assertEquals(new HashSet<>(scanner.retrieveMatchingFiles(dir, "**/*.txt")), new HashSet<>(indexed));
+            assertEquals(3, indexed.size());
+
+            assertEquals(1, scanner.retrieveIndexedFiles(new File(dir, "b"), "a/b/", "*.txt").size());
+            assertNull(scanner.retrieveIndexedFiles(dir, "x/", "*.txt"));
+
+            //The new file not exists in index.
+            write(new File(dir, "5.txt"));
+            assertEquals(3, scanner.retrieveIndexedFiles(dir, "a/", "**/*.txt").size());
+
+            //The modified index will be reloaded.
+            File file = new File(root, ResourceIndex.LOCATION);
+            ResourceIndex.main(new String[]{root.getAbsolutePath()});
+            file.setLastModified(file.lastModified() + 2000);
+            assertEquals(4, scanner.retrieveIndexedFiles(dir, "a/", "**/*.txt").size());
+        }finally {
+            Files.deleteDirectory(root);
+        }
+    }
+
+    @Test
+    public void testParallelScan() {
+        String[] patterns = new String[]{"classpath*:/leap/test/**/*.*", "classpath*:/junit/textui/*.class"};
+
+        boolean parallel = Resources.isParallel();
+        try {
+            Resources.setParallel(false);
+            List<Resource> sequential = Arrays.asList(Resources.scan(patterns).toResourceArray());
+
+            Resources.setParallel(true);
+            List<Resource> result = Arrays.asList(Resources.scan(patterns).toResourceArray());
+
+            assertFalse(result.isEmpty());
+            assertEquals(sequential, result);
+        }finally {
+            Resources.setParallel(parallel);
+        }
+    }
+
+    @Test
+    public void testParallelScanWithContextClassLoader() throws Exception {
+        File root = java.nio.file.Files.createTempDirectory("resources").toFile();
+
+        boolean     parallel = Resources.isParallel();
+        ClassLoader cl       = Thread.currentThread().getContextClassLoader();
+        try {
+            write(new File(root, "tccl/1.txt"));
+            write(new File(root, "tccl/2.xml"));
+
+            //The resources can be found by the context class loader of the caller only.
+            Thread.currentThread().setContextClassLoader(new URLClassLoader(new URL[]{root.toURI().toURL()}, cl));
+            Resources.setParallel(true);
+
+            Resource[] resources = Resources.scan("classpath*:tccl/*.txt", "classpath*:tccl/*.xml").toResourceArray();
+            assertEquals(2, resources.length);
+        }finally {
+            Resources.setParallel(parallel);
+            Thread.currentThread().setContextClassLoader(cl);
+            Files.deleteDirectory(root);
+        }
+    }
+
+    @Test
+    public void testSearchAnnotatedClasses() {
+        ResourceSet rs = Resources.scan("classpath*:leap/lang/resource/ResourceIndexTest*.class");
+
+        assertArrayEquals(new Class<?>[]{Annotated.class}, rs.searchAnnotatedClasses(Deprecated.class));
+
+        //The loaded classes.
+        rs.searchClasses();
+        assertArrayEquals(new Class<?>[]{Annotated.class}, rs.searchAnnotatedClasses(Deprecated.class));
+    }
+
+    @Deprecated
+    static final class Annotated {
+
+    }
+
+    private static void write(File file) throws Exception {
+        file.getParentFile().mkdirs();
+        java.nio.file.Files.write(file.toPath(), file.getName().getBytes());
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.lang.resource;
+
+import leap.lang.Strings;
+import leap.lang.time.StopWatch;
+
+import java.io.File;
+
+/**
+ * Compares the sequential, parallel and indexed scanning of the classes directory of <code>leap-lang</code>.
+ */
+public class ResourceScanPerfMain {
+
+    private static final int LOOPS = 20;
+
+    private static final String PATTERN = "classpath*:leap/**/*";
+
+    public static void main(String[] args) throws Exception {
+        File dir   = new File(Strings.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        File index = new File(dir, ResourceIndex.LOCATION);
+
+        boolean parallel     = Resources.isParallel();
+        boolean indexEnabled = Resources.isIndexEnabled();
+        try {
+            ResourceIndex.main(new String[]{dir.getAbsolutePath()});
+
+            //warm up
+            for(int i=0;i<3;i++) {
+                run("", false, false, true);
+                run("", true,  false, true);
+                run("", false, true,  true);
+            }
+
+            System.out.println("\n\nWarm up done, Let's begin!\n");
+
+            run("sequential", false, false, false);
+            run("parallel  ", true,  false, false);
+            run("indexed   ", false, true,  false);
+        }finally {
+            Resources.setParallel(parallel);
+            Resources.setIndexEnabled(indexEnabled);
+            index.delete();
+        }
+    }
+
+    protected static void run(String name, boolean parallel, boolean indexed, boolean warmup) {
+        Resources.setParallel(parallel);
+        Resources.setIndexEnabled(indexed);
+
+        StopWatch sw = StopWatch.startNew();
+
+        int resources = 0;
+        int classes   = 0;
+        for(int i=0;i<LOOPS;i++) {
+            ResourceSet rs = Resources.scan(PATTERN);
+            resources += rs.size();
+            classes   += rs.searchClasses("leap.lang").length;
+        }
+
+        if(!warmup) {
+            long ms = Math.max(1, sw.getElapsedMilliseconds());
+            System.out.println(name + " : " + ms / LOOPS + "ms per scan, " +
+                               resources / LOOPS + " resources, " + classes / LOOPS + " classes");
+        }
+    }
+}
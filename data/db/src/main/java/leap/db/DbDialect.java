@@ -337,6 +337,30 @@ public interface DbDialect {
 	 */
 	PreparedStatement createPreparedStatement(Connection connection,String sql, int autoGeneratedKeys) throws SQLException;
 	
+	/**
+	 * Applies the given fetch size to the {@link PreparedStatement} for reading the results row by row.
+	 * 
+	 * <p>
+	 * Some jdbc drivers need a special value instead of the fetch size to stream the results.
+	 * 
+	 * @see PreparedStatement#setFetchSize(int)
+	 */
+	default void setStreamingFetchSize(PreparedStatement ps, int fetchSize) throws SQLException {
+		ps.setFetchSize(fetchSize);
+	}
+	
+	/**
+	 * Returns <code>true</code> if the jdbc driver ignores the streaming fetch size when the connection is in auto-commit mode.
+	 * 
+	 * <p>
+	 * The auto-commit mode of the connection will be turned off while streaming the results and restored after that.
+	 * 
+	 * @see #setStreamingFetchSize(PreparedStatement, int)
+	 */
+	default boolean isStreamingRequiresTransaction() {
+		return false;
+	}
+	
 	/**
 	 * Returns a {@link String} as the page query sql for the underlying db.
 	 * 
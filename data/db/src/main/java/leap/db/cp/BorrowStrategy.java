@@ -0,0 +1,34 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.db.cp;
+
+/**
+ * The strategy used by the pool for borrowing connections.
+ */
+public enum BorrowStrategy {
+
+	/**
+	 * Scans all the pooled connections for an idle one, waits for a returned connection if no one is idle.
+	 */
+	SCAN,
+
+	/**
+	 * Tries the connection last used by the current thread first, and hands the returned connections
+	 * directly to the longest-waiting borrower.
+	 */
+	THREAD_AFFINE;
+
+}
@@ -23,6 +23,7 @@ import leap.lang.logging.LogFactory;
 import leap.lang.logging.StackTraceStringBuilder;
 
 import javax.sql.DataSource;
+import java.lang.ref.WeakReference;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.SQLTimeoutException;
@@ -30,7 +31,9 @@ import java.util.List;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.AbstractQueuedLongSynchronizer;
+import java.util.concurrent.locks.LockSupport;
 
 import static leap.db.cp.PooledConnection.*;
 
@@ -149,6 +152,32 @@ class Pool {
 	public boolean isClose() {
 		return closed;
 	}
+	
+	/**
+	 * Returns the total number of prepared statements served from the statement cache.
+	 */
+	public long getStatementCacheHitCount() {
+		long count = 0;
+		for(PooledConnection conn : connectionPool.connections()) {
+			if(null != conn.getStatementCache()) {
+				count += conn.getStatementCache().getHitCount();
+			}
+		}
+		return count;
+	}
+	
+	/**
+	 * Returns the total number of prepared statements not found in the statement cache.
+	 */
+	public long getStatementCacheMissCount() {
+		long count = 0;
+		for(PooledConnection conn : connectionPool.connections()) {
+			if(null != conn.getStatementCache()) {
+				count += conn.getStatementCache().getMissCount();
+			}
+		}
+		return count;
+	}
 
 	/**
 	 * Close this pool, release all the underlying resources.
@@ -339,11 +368,18 @@ class Pool {
 		private final CopyOnWriteArrayList<PooledConnection> list;
 		private final AbstractQueuedLongSynchronizer         synchronizer;
 		private final AtomicLong 							 syncState;
+		private final boolean								 threadAffine;
+		//weak, a long-lived thread must not keep a closed pool and its real connections reachable.
+		private final ThreadLocal<WeakReference<PooledConnection>> lastUsed;
+		private final ConcurrentLinkedQueue<Waiter>		 	 waiters;
 
 		ConnectionPool() {
 			this.list 		  = new CopyOnWriteArrayList<>();
 			this.synchronizer = new Synchronizer();
 			this.syncState    = new AtomicLong(1); 
+			this.threadAffine = config.isThreadAffineBorrow();
+			this.lastUsed	  = threadAffine ? new ThreadLocal<>() : null;
+			this.waiters	  = threadAffine ? new ConcurrentLinkedQueue<>() : null;
 			this.init();
 		}
 		
@@ -389,6 +425,17 @@ class Pool {
 		 * Borrow a connection from pool.
 		 */
 		public PooledConnection borrowConnection(long maxWait) throws InterruptedException{
+			if(threadAffine) {
+				return borrowThreadAffine(maxWait);
+			}else{
+				return borrowScan(maxWait);
+			}
+		}
+		
+		/**
+		 * Borrow a connection by scanning all the connections, see {@link BorrowStrategy#SCAN}.
+		 */
+		private PooledConnection borrowScan(long maxWait) throws InterruptedException {
 			
 			long timeout = maxWait;
 			final long start = System.currentTimeMillis();
@@ -432,6 +479,109 @@ class Pool {
 			return null;
 		}
 
+		/**
+		 * Borrow a connection by trying the last used one of current thread first, 
+		 * and waits in a fifo queue for a returned connection, see {@link BorrowStrategy#THREAD_AFFINE}.
+		 */
+		private PooledConnection borrowThreadAffine(long maxWait) throws InterruptedException {
+			//fast path : the connection last used by current thread.
+			PooledConnection conn = lastUsed();
+			if(null != conn && conn.compareStateAndSet(STATE_IDLE, STATE_BUSY)) {
+				return conn;
+			}
+			
+			conn = tryBorrowIdle();
+			if(null != conn) {
+				setLastUsed(conn);
+				return conn;
+			}
+			
+			if(maxWait <= 0L) {
+				return null;
+			}
+			
+			final Waiter waiter = new Waiter();
+			waiters.offer(waiter);
+			
+			//scan again, a connection may be returned before the waiter was enqueued.
+			conn = tryBorrowIdle();
+			if(null != conn) {
+				if(!waiter.cancel()) {
+					//a connection has been handed to the waiter at the same time, returns it.
+					updateToIdleState(waiter.connection(), STATE_BUSY);
+				}else{
+					waiters.remove(waiter);
+				}
+				setLastUsed(conn);
+				return conn;
+			}
+			
+			final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWait);
+			
+			boolean interrupted = false;
+			for(;;) {
+				conn = waiter.connection();
+				if(null != conn) {
+					if(interrupted) {
+						//handed before cancelled, keeps the interrupt status for the caller.
+						Thread.currentThread().interrupt();
+					}
+					setLastUsed(conn);
+					return conn;
+				}
+				
+				final long nanos = deadline - System.nanoTime();
+				if(!interrupted) {
+					interrupted = Thread.interrupted();
+				}
+				if(nanos <= 0L || interrupted) {
+					if(waiter.cancel()) {
+						waiters.remove(waiter);
+						if(interrupted) {
+							throw new InterruptedException();
+						}
+						//time out
+						return null;
+					}
+					//handed before cancelled.
+					continue;
+				}
+				
+				LockSupport.parkNanos(this, nanos);
+			}
+		}
+		
+		private PooledConnection tryBorrowIdle() {
+			for (final PooledConnection conn : list) {
+				if (conn.compareStateAndSet(STATE_IDLE, STATE_BUSY)){
+					return conn;
+				}
+			}
+			return null;
+		}
+		
+		/**
+		 * Hands the idle connection to the longest-waiting borrower if any.
+		 */
+		private void handoff(PooledConnection conn) {
+			while(!waiters.isEmpty()) {
+				if(!conn.compareStateAndSet(STATE_IDLE, STATE_BUSY)) {
+					//borrowed by others.
+					return;
+				}
+				
+				Waiter waiter;
+				while(null != (waiter = waiters.poll())) {
+					if(waiter.handoff(conn)) {
+						return;
+					}
+				}
+				
+				//no waiter, make it idle again and re-check the waiters enqueued concurrently.
+				conn.compareStateAndSet(STATE_BUSY, STATE_IDLE);
+			}
+		}
+
         /**
          * Removes the connection from list and realease all the underlying resources.
          */
@@ -454,14 +604,43 @@ class Pool {
 		
 		public void updateToIdleState(PooledConnection conn, int fromState) {
 			if(conn.compareStateAndSet(fromState, STATE_IDLE)) {
-				//increase the state,see PoolSynchronizer
-				synchronizer.releaseShared(syncState.incrementAndGet());
+				if(threadAffine) {
+					handoff(conn);
+				}else{
+					//increase the state,see PoolSynchronizer
+					synchronizer.releaseShared(syncState.incrementAndGet());
+				}
 			}else{
 				log.error("Failed to update connection's to 'IDLE', expected {}, but {}",fromState,conn.getState().get());
 			}
 		}
 		
+		private PooledConnection lastUsed() {
+			WeakReference<PooledConnection> ref = lastUsed.get();
+			if(null == ref) {
+				return null;
+			}
+			
+			PooledConnection conn = ref.get();
+			if(null == conn || closed) {
+				lastUsed.remove();
+				return null;
+			}
+			return conn;
+		}
+		
+		private void setLastUsed(PooledConnection conn) {
+			WeakReference<PooledConnection> ref = lastUsed.get();
+			if(null == ref || ref.get() != conn) {
+				lastUsed.set(new WeakReference<>(conn));
+			}
+		}
+		
 		void close() {
+			if(threadAffine) {
+				//the references of other threads are cleared at their next borrowing or by the gc.
+				lastUsed.remove();
+			}
 			for(final PooledConnection conn : list) {
 				try {
 		            conn.closeReal();
@@ -477,6 +656,29 @@ class Pool {
 			}
 		}
 		
+		private final class Waiter {
+			
+			private final Thread 				  thread = Thread.currentThread();
+			private final AtomicReference<Object> slot   = new AtomicReference<>();
+			
+			PooledConnection connection() {
+				Object o = slot.get();
+				return o instanceof PooledConnection ? (PooledConnection)o : null;
+			}
+			
+			boolean handoff(PooledConnection conn) {
+				if(slot.compareAndSet(null, conn)) {
+					LockSupport.unpark(thread);
+					return true;
+				}
+				return false;
+			}
+			
+			boolean cancel() {
+				return slot.compareAndSet(null, this);
+			}
+		}
+		
 		private final class Synchronizer extends AbstractQueuedLongSynchronizer {
 
 			private static final long serialVersionUID = -5101833107186489746L;
@@ -39,6 +39,8 @@ class PoolConfig {
 	private final long				   idleTimeoutMs;	
 	private final int				   statementTimeout;
 	private final long				   connectionLeakTimeoutMs;
+	private final BorrowStrategy	   borrowStrategy;
+	private final int				   statementCacheSize;
 	
 	
 	PoolConfig(PoolProperties props) {
@@ -60,6 +62,8 @@ class PoolConfig {
 		this.idleTimeoutMs					  = props.getIdleTimeout() * 1000;
 		this.statementTimeout				  = props.getStatementTimeout();
 		this.connectionLeakTimeoutMs          = props.getConnectionLeakTimeout() * 1000;
+		this.borrowStrategy					  = props.getBorrowStrategy();
+		this.statementCacheSize				  = props.getStatementCacheSize();
 	}
 	
 	public boolean isTestOnBorrow() {
@@ -157,4 +161,20 @@ class PoolConfig {
 	public boolean isHealthCheck() {
 		return healthCheck;
 	}
+
+	public boolean isStatementCacheEnabled() {
+		return statementCacheSize > 0;
+	}
+	
+	public int getStatementCacheSize() {
+		return statementCacheSize;
+	}
+	
+	public BorrowStrategy getBorrowStrategy() {
+		return borrowStrategy;
+	}
+	
+	public boolean isThreadAffineBorrow() {
+		return borrowStrategy == BorrowStrategy.THREAD_AFFINE;
+	}
 }
\ No newline at end of file
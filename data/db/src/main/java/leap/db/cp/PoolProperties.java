@@ -31,6 +31,8 @@ public class PoolProperties {
 	public static final int DEFAULT_IDLE_TIMEOUT 	        = 180; //3 minutes
 	public static final int DEFAULT_STATEMENT_TIMEOUT       = -1;
 	public static final int DEFAULT_CONNECTION_LEAK_TIMEOUT = -1;
+	public static final int DEFAULT_STATEMENT_CACHE_SIZE    = 0;   //disabled
+	public static final BorrowStrategy DEFAULT_BORROW_STRATEGY = BorrowStrategy.SCAN;
 	
 	public static final int MAX_MAX_WAIT		      = 10 * 60 * 1000; //10 minutes 
 	public static final int MIN_MAX_WAIT		      = 0;
@@ -42,6 +44,7 @@ public class PoolProperties {
 	public static final int MAX_VALIDATION_TIMEOUT    = 60; 	 //60 seconds
 	public static final int MAX_IDLE_TIMEOUT          = 10 * 60; //10 minutes
 	public static final int MIN_STATEMENT_TIMEOUT     = 1; 		 //1  second
+	public static final int MAX_STATEMENT_CACHE_SIZE  = 1000;
 	
 	protected String  dataSourceClassName;
 	
@@ -68,6 +71,7 @@ public class PoolProperties {
 	protected int statementTimeout	    = DEFAULT_STATEMENT_TIMEOUT;
 	protected int idleTimeout	        = DEFAULT_IDLE_TIMEOUT;
 	protected int connectionLeakTimeout = DEFAULT_CONNECTION_LEAK_TIMEOUT;
+	protected int statementCacheSize    = DEFAULT_STATEMENT_CACHE_SIZE;
 	
 	protected int maxWait		      = DEFAULT_MAX_WAIT;
 	protected int maxActive 		  = DEFAULT_MAX_ACTIVE;
@@ -77,6 +81,8 @@ public class PoolProperties {
 	
 	protected boolean healthCheck = true;
 	
+	protected BorrowStrategy borrowStrategy = DEFAULT_BORROW_STRATEGY;
+	
 	protected DataSource dataSource;
 	
 	protected Properties dataSourceProperties = new Properties();
@@ -287,6 +293,18 @@ public class PoolProperties {
 		this.connectionLeakTimeout = connectionLeakTimeout;
 	}
 
+	public int getStatementCacheSize() {
+		return statementCacheSize;
+	}
+
+	/**
+	 * The maximum number of prepared statements cached by each connection. 
+	 * Default value is 0 (the statement cache is disabled).
+	 */
+	public void setStatementCacheSize(int statementCacheSize) {
+		this.statementCacheSize = statementCacheSize;
+	}
+
 	public int getHealthCheckInterval() {
 		return healthCheckInterval;
 	}
@@ -303,6 +321,17 @@ public class PoolProperties {
 		this.healthCheck = healthCheck;
 	}
 
+	public BorrowStrategy getBorrowStrategy() {
+		return borrowStrategy;
+	}
+
+	/**
+	 * The strategy for borrowing connections from pool. Default is {@link BorrowStrategy#SCAN}.
+	 */
+	public void setBorrowStrategy(BorrowStrategy borrowStrategy) {
+		this.borrowStrategy = borrowStrategy;
+	}
+
 	public DataSource getDataSource() {
 		return dataSource;
 	}
@@ -342,6 +371,8 @@ public class PoolProperties {
 			
 			this.maxWait = props.maxWait;
 			this.maxActive = props.maxActive;
+			this.borrowStrategy = props.borrowStrategy;
+			this.statementCacheSize = props.statementCacheSize;
 		}
 	}
 	
@@ -350,12 +381,17 @@ public class PoolProperties {
 			maxIdle = DEFAULT_MAX_IDLE;
 		}
 		
+		if(null == borrowStrategy) {
+			borrowStrategy = DEFAULT_BORROW_STRATEGY;
+		}
+		
 		validateRange("maxWait",maxWait,MIN_MAX_WAIT,MAX_MAX_WAIT);
 		validateRange("maxActive",maxActive,MIN_MAX_ACTIVE,MAX_MAX_ACTIVE);
 		
 		validateRange("healthCheckInterval",healthCheckInterval,MIN_HEALTH_CHECK_INTERVAL,MAX_HEALTH_CHECK_INTERVAL);
 		validateRange("validationTimeout", validationTimeout, MIN_VALIDATION_TIMEOUT, MAX_VALIDATION_TIMEOUT);
 		validateRange("idleTimeout", idleTimeout, healthCheckInterval, MAX_IDLE_TIMEOUT);
+		validateRange("statementCacheSize", statementCacheSize, 0, MAX_STATEMENT_CACHE_SIZE);
 		
 		if(maxIdle >= 0) {
 			validateRange("maxIdle", maxIdle, 1, maxActive);
@@ -41,6 +41,7 @@ public class PooledConnection extends ConnectionWrapper implements Connection {
 	private final AtomicInteger  state;
 	private final PoolUtils 	 utils;
 	private final StatementList	 statements = new StatementList();
+	private final StatementCache statementCache;
 	
 	private boolean   			  newCreatedConnection;
 	private int		  			  transactionState = TRANSACTION_STATE_INIT;
@@ -57,6 +58,12 @@ public class PooledConnection extends ConnectionWrapper implements Connection {
 		this.poolConfig = pool.getConfig();
 		this.state      = new AtomicInteger(STATE_IDLE);
 		this.utils      = pool.utils();
+		
+		if(poolConfig.isStatementCacheEnabled()) {
+			this.statementCache = new StatementCache(poolConfig.getStatementCacheSize());
+		}else{
+			this.statementCache = null;
+		}
 	}
 	
 	void setupBeforeOnBorrow() {
@@ -135,6 +142,10 @@ public class PooledConnection extends ConnectionWrapper implements Connection {
 	void setReal(Connection conn) {
 		this.conn = conn;
 	}
+	
+	StatementCache getStatementCache() {
+		return statementCache;
+	}
 
 	public boolean isNewCreatedConnection() {
 		return newCreatedConnection;
@@ -212,16 +223,35 @@ public class PooledConnection extends ConnectionWrapper implements Connection {
 	void abandonReal() {
 		if(null != conn) {
 			log.debug("Abandon the real connection");
-			JDBC.closeConnection(conn);
+			Connection real = conn;
 			conn = null;
+			clearStatementCache();
+			JDBC.closeConnection(real);
 		}
 	}
 	
 	void closeReal() {
 		if(null != conn) {
 			log.debug("Close the real connection");
-			JDBC.closeConnection(conn);
+			Connection real = conn;
 			conn = null;
+			clearStatementCache();
+			JDBC.closeConnection(real);
+		}
+	}
+	
+	/**
+	 * Clears the statement cache after the real connection was set to <code>null</code>.
+	 * 
+	 * <p>
+	 * May be invoked by the health worker (abandon), so a statement returned concurrently by the borrower 
+	 * either be cleared here or be rejected by {@link #returnToStatementCache(Statement, Statement)}.
+	 */
+	private void clearStatementCache() {
+		if(null != statementCache) {
+			synchronized (statementCache) {
+				statementCache.clear();
+			}
 		}
 	}
 	
@@ -239,7 +269,9 @@ public class PooledConnection extends ConnectionWrapper implements Connection {
         }
 
 		try{
-			real.close();	
+			if(!returnToStatementCache(proxy, real)) {
+				real.close();
+			}
 			successCloseStatement(proxy);
 		}catch(SQLException e) {
 			errorCloseStatement(proxy, e);
@@ -266,6 +298,36 @@ public class PooledConnection extends ConnectionWrapper implements Connection {
 		}
 	}
 	
+	/**
+	 * Returns the real statement to cache instead of closing it if the statement is cacheable.
+	 */
+	private boolean returnToStatementCache(Statement proxy, Statement real) {
+		if(null == statementCache || null == conn || !(proxy instanceof ProxyPreparedStatement)) {
+			return false;
+		}
+		
+		StatementCache.Key key = ((ProxyPreparedStatement)proxy).getCacheKey();
+		if(null == key) {
+			return false;
+		}
+		
+		try {
+			((ProxyPreparedStatement)proxy).resetForCache();
+		} catch (SQLException e) {
+			log.debug("Cannot reset the statement for caching, close it : {}", e.getMessage());
+			return false;
+		}
+		
+		synchronized (statementCache) {
+			//the real connection may be closed by other thread.
+			if(null == conn) {
+				return false;
+			}
+			statementCache.put(key, (PreparedStatement)real);
+		}
+		return true;
+	}
+	
 	private void successCloseStatement(Statement stmt) {
 		//do nothing.
 	}
@@ -328,11 +390,21 @@ public class PooledConnection extends ConnectionWrapper implements Connection {
 
 	@Override
 	public PreparedStatement prepareStatement(String sql) throws SQLException {
+		if(null != statementCache) {
+			StatementCache.Key key = new StatementCache.Key(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY, -1, -1);
+			PreparedStatement  ps  = takeFromStatementCache(key);
+			return createPreparedStatementProxy(null != ps ? ps : conn.prepareStatement(sql), sql, key);
+		}
 		return createPreparedStatementProxy(conn.prepareStatement(sql), sql);
 	}
 	
 	@Override
 	public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
+		if(null != statementCache) {
+			StatementCache.Key key = new StatementCache.Key(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY, -1, autoGeneratedKeys);
+			PreparedStatement  ps  = takeFromStatementCache(key);
+			return createPreparedStatementProxy(null != ps ? ps : conn.prepareStatement(sql, autoGeneratedKeys), sql, key);
+		}
 		return createPreparedStatementProxy(conn.prepareStatement(sql, autoGeneratedKeys), sql);
 	}
 
@@ -348,11 +420,21 @@ public class PooledConnection extends ConnectionWrapper implements Connection {
 	
 	@Override
 	public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+		if(null != statementCache) {
+			StatementCache.Key key = new StatementCache.Key(sql, resultSetType, resultSetConcurrency, -1, -1);
+			PreparedStatement  ps  = takeFromStatementCache(key);
+			return createPreparedStatementProxy(null != ps ? ps : conn.prepareStatement(sql, resultSetType, resultSetConcurrency), sql, key);
+		}
 		return createPreparedStatementProxy(conn.prepareStatement(sql, resultSetType, resultSetConcurrency), sql);
 	}
 	
 	@Override
 	public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+		if(null != statementCache) {
+			StatementCache.Key key = new StatementCache.Key(sql, resultSetType, resultSetConcurrency, resultSetHoldability, -1);
+			PreparedStatement  ps  = takeFromStatementCache(key);
+			return createPreparedStatementProxy(null != ps ? ps : conn.prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability), sql, key);
+		}
 		return createPreparedStatementProxy(conn.prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability), sql);
 	}
 	
@@ -371,6 +453,12 @@ public class PooledConnection extends ConnectionWrapper implements Connection {
 		return createCallableStatementProxy(conn.prepareCall(sql, resultSetType, resultSetConcurrency, resultSetHoldability), sql);
 	}
 	
+	private PreparedStatement takeFromStatementCache(StatementCache.Key key) {
+		synchronized (statementCache) {
+			return statementCache.take(key);
+		}
+	}
+	
 	ProxyStatement createProxy(Statement stmt) {
 		if(stmt instanceof PreparedStatement) {
 			return createPreparedStatementProxy((PreparedStatement)stmt, null);
@@ -397,8 +485,20 @@ public class PooledConnection extends ConnectionWrapper implements Connection {
 	}
 	
 	private ProxyPreparedStatement createPreparedStatementProxy(PreparedStatement ps, String sql) {
+		return createPreparedStatementProxy(ps, sql, null);
+	}
+	
+	private ProxyPreparedStatement createPreparedStatementProxy(PreparedStatement ps, String sql, StatementCache.Key cacheKey) {
 		setupStatement(ps);
-		ProxyPreparedStatement proxy = new ProxyPreparedStatement(this, ps, sql);
+		ProxyPreparedStatement proxy = new ProxyPreparedStatement(this, ps, sql, cacheKey);
+		if(null != cacheKey) {
+			try {
+				proxy.recordDefaults();
+			} catch (SQLException e) {
+				log.debug("Cannot record the state of the statement, do not cache it : {}", e.getMessage());
+				proxy = new ProxyPreparedStatement(this, ps, sql, null);
+			}
+		}
 		statements.add(proxy);
 		return proxy;
 	}
@@ -70,6 +70,24 @@ public class PooledDataSource extends PoolProperties implements DataSource, Clos
 		return pool().getDataSource();
 	}
 	
+	/**
+	 * Returns the total number of prepared statements served from the statement cache.
+	 * 
+	 * @see #setStatementCacheSize(int)
+	 */
+	public long getStatementCacheHitCount() {
+		return null == pool ? 0 : pool.getStatementCacheHitCount();
+	}
+	
+	/**
+	 * Returns the total number of prepared statements not found in the statement cache.
+	 * 
+	 * @see #setStatementCacheSize(int)
+	 */
+	public long getStatementCacheMissCount() {
+		return null == pool ? 0 : pool.getStatementCacheMissCount();
+	}
+	
 	@Override
 	public Connection getConnection() throws SQLException {
 		return pool().getConnection();
@@ -38,12 +38,71 @@ import java.util.Calendar;
 
 public class ProxyPreparedStatement extends ProxyStatement implements PreparedStatement {
 	
-	private final PreparedStatement ps;
+	private final PreparedStatement  ps;
+	private final StatementCache.Key cacheKey;
+	
+	private int defaultFetchSize;
+	private int defaultFetchDirection;
+	private int defaultMaxRows;
+	private int defaultQueryTimeout;
 
 	public ProxyPreparedStatement(PooledConnection conn, PreparedStatement ps, String sql) {
+		this(conn, ps, sql, null);
+	}
+	
+	ProxyPreparedStatement(PooledConnection conn, PreparedStatement ps, String sql, StatementCache.Key cacheKey) {
 		super(conn, ps);
 		this.ps 			  = ps;
 		this.lastExecutingSql = sql;
+		this.cacheKey		  = cacheKey;
+	}
+	
+	/**
+	 * Returns the key in the statement cache of the connection.
+	 * 
+	 * <p>
+	 * Returns <code>null</code> if the statement is not cacheable, 
+	 * a cacheable statement will be returned to the cache on close (logical close).
+	 */
+	StatementCache.Key getCacheKey() {
+		return cacheKey;
+	}
+	
+	/**
+	 * Records the state of the real statement on prepared, which will be restored by {@link #resetForCache()}.
+	 */
+	void recordDefaults() throws SQLException {
+		defaultFetchSize      = ps.getFetchSize();
+		defaultFetchDirection = ps.getFetchDirection();
+		defaultMaxRows        = ps.getMaxRows();
+		defaultQueryTimeout   = ps.getQueryTimeout();
+	}
+	
+	/**
+	 * Resets the real statement to the recorded state before returning it to the statement cache.
+	 * 
+	 * <p>
+	 * The settings changed by the borrower (i.e. the streaming fetch size of mysql) must not be leaked to the next one.
+	 */
+	void resetForCache() throws SQLException {
+		closeOpenResultSet();
+		
+		ps.clearParameters();
+		ps.clearBatch();
+		ps.clearWarnings();
+		
+		if(ps.getFetchSize() != defaultFetchSize) {
+			ps.setFetchSize(defaultFetchSize);
+		}
+		if(ps.getFetchDirection() != defaultFetchDirection) {
+			ps.setFetchDirection(defaultFetchDirection);
+		}
+		if(ps.getMaxRows() != defaultMaxRows) {
+			ps.setMaxRows(defaultMaxRows);
+		}
+		if(ps.getQueryTimeout() != defaultQueryTimeout) {
+			ps.setQueryTimeout(defaultQueryTimeout);
+		}
 	}
 
 	@Override
@@ -15,6 +15,7 @@
  */
 package leap.db.cp;
 
+import leap.lang.jdbc.JDBC;
 import leap.lang.jdbc.StatementWrapper;
 
 import java.sql.Connection;
@@ -32,7 +33,8 @@ public class ProxyStatement extends StatementWrapper {
 	protected long   lastExecutingDurationMs;
 	protected String lastExecutingSql;
 
-    private boolean closed;
+    private boolean   closed;
+    private ResultSet openResultSet;
 
 	ProxyStatement(PooledConnection conn, Statement stmt) {
 		super(stmt);
@@ -63,9 +65,22 @@ public class ProxyStatement extends StatementWrapper {
 	}
 	
 	protected ProxyResultSet createResultSetProxy(ResultSet rs) {
+		if(null != rs) {
+			openResultSet = rs;
+		}
 		return new ProxyResultSet(this,rs);
 	}
 	
+	/**
+	 * Closes the last opened result set of the real statement if it is not closed by the user.
+	 */
+	void closeOpenResultSet() {
+		if(null != openResultSet) {
+			JDBC.closeResultSetOnly(openResultSet);
+			openResultSet = null;
+		}
+	}
+	
 	public String getLastExecutingSql() {
 		return lastExecutingSql;
 	}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.db.cp;
+
+import leap.lang.jdbc.JDBC;
+import leap.lang.logging.Log;
+import leap.lang.logging.LogFactory;
+
+import java.sql.PreparedStatement;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A lru cache of the real {@link PreparedStatement}s opened by a {@link PooledConnection}.
+ * 
+ * <p>
+ * The cache is owned by the borrower of the connection and is not thread safe, 
+ * the {@link PooledConnection} guards the accesses with the monitor of the cache 
+ * because it may be cleared by the health worker when abandoning the connection.
+ */
+final class StatementCache {
+	private static final Log log = LogFactory.get(StatementCache.class);
+	
+	private final int 								  capacity;
+	private final LinkedHashMap<Key, PreparedStatement> statements;
+	
+	private volatile long hitCount;
+	private volatile long missCount;
+	
+	StatementCache(int capacity) {
+		this.capacity   = capacity;
+		this.statements = new LinkedHashMap<>(16, 0.75f, true);
+	}
+	
+	int size() {
+		return statements.size();
+	}
+	
+	long getHitCount() {
+		return hitCount;
+	}
+	
+	long getMissCount() {
+		return missCount;
+	}
+	
+	/**
+	 * Removes and returns the cached statement of the key, returns <code>null</code> if not cached.
+	 */
+	PreparedStatement take(Key key) {
+		PreparedStatement ps = statements.remove(key);
+		if(null == ps) {
+			missCount++;
+		}else{
+			hitCount++;
+		}
+		return ps;
+	}
+	
+	/**
+	 * Puts the statement to cache, closes the evicted statements.
+	 */
+	void put(Key key, PreparedStatement ps) {
+		PreparedStatement old = statements.put(key, ps);
+		if(null != old && old != ps) {
+			JDBC.closeStatementOnly(old);
+		}
+		
+		if(statements.size() > capacity) {
+			Iterator<Map.Entry<Key, PreparedStatement>> it = statements.entrySet().iterator();
+			Map.Entry<Key, PreparedStatement> eldest = it.next();
+			it.remove();
+			
+			log.trace("Evict cached statement : {}", eldest.getKey().sql);
+			JDBC.closeStatementOnly(eldest.getValue());
+		}
+	}
+	
+	/**
+	 * Closes and removes all the cached statements.
+	 */
+	void clear() {
+		if(statements.isEmpty()) {
+			return;
+		}
+		
+		log.trace("Close {} cached statements", statements.size());
+		for(PreparedStatement ps : statements.values()) {
+			JDBC.closeStatementOnly(ps);
+		}
+		statements.clear();
+	}
+	
+	static final class Key {
+		
+		final String sql;
+		final int	 resultSetType;
+		final int	 resultSetConcurrency;
+		final int	 resultSetHoldability;
+		final int	 autoGeneratedKeys;
+		final int	 hash;
+		
+		Key(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability, int autoGeneratedKeys) {
+			this.sql 				  = sql;
+			this.resultSetType 		  = resultSetType;
+			this.resultSetConcurrency = resultSetConcurrency;
+			this.resultSetHoldability = resultSetHoldability;
+			this.autoGeneratedKeys    = autoGeneratedKeys;
+			
+			int h = sql.hashCode();
+			h = 31 * h + resultSetType;
+			h = 31 * h + resultSetConcurrency;
+			h = 31 * h + resultSetHoldability;
+			h = 31 * h + autoGeneratedKeys;
+			this.hash = h;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(this == obj) {
+				return true;
+			}
+			if(!(obj instanceof Key)) {
+				return false;
+			}
+			Key o = (Key)obj;
+			return hash == o.hash &&
+				   resultSetType == o.resultSetType && 
+				   resultSetConcurrency == o.resultSetConcurrency &&
+				   resultSetHoldability == o.resultSetHoldability &&
+				   autoGeneratedKeys == o.autoGeneratedKeys &&
+				   sql.equals(o.sql);
+		}
+	}
+}
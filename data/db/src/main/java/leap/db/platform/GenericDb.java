@@ -363,6 +363,7 @@ public class GenericDb extends DbBase {
 	protected <T> T doExecuteQuery(Connection connection, String sql, Object[] args, int[] types,ResultSetReader<T> reader) throws NestedSQLException {
 		PreparedStatement ps = null;
 		ResultSet rs = null;
+		boolean autoCommit = false;
 		try{
 			if(log.isDebugEnabled()){
 				log.debug("Executing Sql Query -> \n\n SQL  : {}\n ARGS : {}\n",sql,getDisplayString(args, types));
@@ -371,6 +372,15 @@ public class GenericDb extends DbBase {
 			StopWatch sw = StopWatch.startNew();
 			
 			ps = dialect.createPreparedStatement(connection, sql);
+			
+			if(reader.getFetchSize() > 0) {
+				dialect.setStreamingFetchSize(ps, reader.getFetchSize());
+				
+				if(dialect.isStreamingRequiresTransaction() && connection.getAutoCommit()) {
+					autoCommit = true;
+					connection.setAutoCommit(false);
+				}
+			}
 
 			if(null != args){
 				if(null != types && types.length > 0){
@@ -394,6 +404,15 @@ public class GenericDb extends DbBase {
 		}finally{
 			JDBC.closeResultSetOnly(rs);
 			JDBC.closeStatementOnly(ps);
+			
+			if(autoCommit) {
+				try {
+					//commits the transaction opened for streaming.
+					connection.setAutoCommit(true);
+				} catch (Exception e) {
+					log.warn("Error restoring the auto commit property of connection : " + e.getMessage(),e);
+				}
+			}
 		}
 	}
 
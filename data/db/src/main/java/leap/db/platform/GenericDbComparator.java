@@ -549,27 +549,27 @@ public class GenericDbComparator implements DbComparator,DbAware {
 	protected void checkForSequenceDefinitionChange(GenericSchemaChanges changes,DbSequence source,DbSequence target){
 		List<SequencePropertyChange> propertyChanges = New.arrayList();
 		
-		if(null != source.getMinValue() && source.getMinValue() != target.getMinValue()){
+		if(null != source.getMinValue() && null != target.getMinValue() && !Objects.equals(source.getMinValue(), target.getMinValue())){
 			propertyChanges.add(new SequencePropertyChange(target, SequencePropertyChange.MIN_VALUE, target.getMinValue(), source.getMinValue()));
 		}
 		
-		if(null != source.getMaxValue() && source.getMaxValue() != target.getMaxValue()){
+		if(null != source.getMaxValue() && null != target.getMaxValue() && !Objects.equals(source.getMaxValue(), target.getMaxValue())){
 			propertyChanges.add(new SequencePropertyChange(target, SequencePropertyChange.MAX_VALUE, target.getMaxValue(), source.getMaxValue()));
 		}
 		
-		if(null != source.getIncrement() && source.getIncrement() != target.getIncrement()){
+		if(null != source.getIncrement() && null != target.getIncrement() && !Objects.equals(source.getIncrement(), target.getIncrement())){
 			propertyChanges.add(new SequencePropertyChange(target, SequencePropertyChange.INCREMENT, target.getIncrement(), source.getIncrement()));
 		}
 		
-		if(null != source.getStart() && source.getStart() != target.getStart()){
+		if(null != source.getStart() && null != target.getStart() && !Objects.equals(source.getStart(), target.getStart())){
 			propertyChanges.add(new SequencePropertyChange(target, SequencePropertyChange.START, target.getStart(), source.getStart()));
 		}
 		
-		if(null != source.getCache() && source.getCache() != target.getCache()){
+		if(null != source.getCache() && null != target.getCache() && !Objects.equals(source.getCache(), target.getCache())){
 			propertyChanges.add(new SequencePropertyChange(target, SequencePropertyChange.CACHE, target.getCache(), source.getCache()));
 		}
 		
-		if(null != source.getCycle() && source.getCycle() != target.getCycle()){
+		if(null != source.getCycle() && null != target.getCycle() && !Objects.equals(source.getCycle(), target.getCycle())){
 			propertyChanges.add(new SequencePropertyChange(target, SequencePropertyChange.CYCLE, target.getCycle(), source.getCycle()));
 		}
 		
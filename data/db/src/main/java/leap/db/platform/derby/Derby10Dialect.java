@@ -173,6 +173,11 @@ public class Derby10Dialect extends GenericDbDialect {
     public String getNextSequenceValueSqlString(String sequenceName) throws IllegalStateException {
 		return "next value for " + sequenceName;
     }
+
+	@Override
+    public String getSelectNextSequenceValueSql(String sequenceName) throws IllegalStateException {
+		return "values " + getNextSequenceValueSqlString(sequenceName);
+    }
 	
 	@Override
     protected List<String> createSafeAlterColumnSqlsForChange(SchemaChangeContext context, ColumnDefinitionChange change) {
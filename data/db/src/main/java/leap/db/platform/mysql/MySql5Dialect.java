@@ -18,6 +18,7 @@ package leap.db.platform.mysql;
 import java.io.BufferedReader;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Types;
 import java.util.ArrayList;
@@ -76,6 +77,14 @@ public class MySql5Dialect extends GenericDbDialect {
 	    return "select 1 from dual where 1 = ?";
     }
 
+	/**
+	 * MySQL driver loads all the rows into memory unless the fetch size is {@link Integer#MIN_VALUE}.
+	 */
+	@Override
+    public void setStreamingFetchSize(PreparedStatement ps, int fetchSize) throws SQLException {
+	    ps.setFetchSize(Integer.MIN_VALUE);
+    }
+
 	@Override
     public String getDefaultSchemaName(Connection connection, DatabaseMetaData dm) throws SQLException {
 		return connection.getCatalog();
@@ -72,6 +72,14 @@ public class PostgreSQL9Dialect extends GenericDbDialect {
         return "'0'";
     }
 
+    /**
+     * PostgreSQL driver loads all the rows into memory if the connection is in auto-commit mode.
+     */
+    @Override
+    public boolean isStreamingRequiresTransaction() {
+        return true;
+    }
+
     @Override
     public boolean supportsAutoIncrement() {
 	    return false;
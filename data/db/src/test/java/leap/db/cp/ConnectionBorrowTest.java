@@ -15,9 +15,21 @@
  */
 package leap.db.cp;
 
+import java.lang.ref.WeakReference;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.sql.SQLTimeoutException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import leap.db.mock.MockConnection;
 import leap.db.mock.MockStatement;
@@ -87,4 +99,206 @@ public class ConnectionBorrowTest extends ConnPoolTestBase {
 		}
 	}
 	
+	@Test
+	public void testThreadAffineWaitTimeout() throws SQLException {
+		final int maxWait = 1000;
+		
+		poolds.setBorrowStrategy(BorrowStrategy.THREAD_AFFINE);
+		poolds.setMaxActive(1);
+		poolds.setMaxWait(maxWait);
+		
+		try(Connection conn1 = poolds.getConnection()) {
+			long start = System.currentTimeMillis();
+			try{
+				poolds.getConnection();
+				fail("Should throw a SQLTimeoutException");
+			}catch(SQLException e) {
+				long wait = System.currentTimeMillis() - start;
+				assertTrue("Connection should have been borrowed within +/- 1 second", wait - maxWait <= 1000);
+				assertTrue(e instanceof SQLTimeoutException);
+			}
+		}
+	}
+	
+	@Test
+	public void testThreadAffineReuseLastUsed() throws SQLException {
+		poolds.setBorrowStrategy(BorrowStrategy.THREAD_AFFINE);
+		poolds.setMaxActive(5);
+		
+		PooledConnection last;
+		try(ProxyConnection conn = getConnection()) {
+			last = conn.getPooledConnection();
+		}
+		
+		for(int i=0;i<3;i++) {
+			try(ProxyConnection conn = getConnection()) {
+				assertSame(last, conn.getPooledConnection());
+			}
+		}
+	}
+	
+	@Test
+	public void testThreadAffineHandoff() throws Exception {
+		poolds.setBorrowStrategy(BorrowStrategy.THREAD_AFFINE);
+		poolds.setMaxActive(3);
+		poolds.setMaxWait(5000);
+		
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try{
+			final CountDownLatch waiting = new CountDownLatch(1);
+			
+			ProxyConnection c1 = getConnection();
+			ProxyConnection c2 = getConnection();
+			ProxyConnection c3 = getConnection();
+			
+			PooledConnection handed = c2.getPooledConnection();
+			
+			Future<PooledConnection[]> future = executor.submit(() -> {
+				PooledConnection[] borrowed = new PooledConnection[2];
+				waiting.countDown();
+				try(ProxyConnection c = getConnection()) {
+					borrowed[0] = c.getPooledConnection();
+				}
+				//all the connections are idle now, the last used one must be borrowed.
+				try(ProxyConnection c = getConnection()) {
+					borrowed[1] = c.getPooledConnection();
+				}
+				return borrowed;
+			});
+			
+			assertTrue(waiting.await(1, TimeUnit.SECONDS));
+			Thread.sleep(100);
+			
+			//the returned connection is handed to the waiter, not the other idle ones.
+			c2.close();
+			PooledConnection[] borrowed;
+			try{
+				borrowed = future.get(5, TimeUnit.SECONDS);
+			}finally{
+				c1.close();
+				c3.close();
+			}
+			
+			assertSame(handed, borrowed[0]);
+			assertSame(handed, borrowed[1]);
+		}finally{
+			executor.shutdownNow();
+		}
+	}
+	
+	@Test
+	public void testThreadAffinity() throws Exception {
+		final int threads = 3;
+		final int loops   = 100;
+		
+		poolds.setBorrowStrategy(BorrowStrategy.THREAD_AFFINE);
+		poolds.setMaxActive(threads + 1);
+		poolds.setMaxWait(5000);
+		
+		final CyclicBarrier barrier = new CyclicBarrier(threads);
+		
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try{
+			List<Future<Set<PooledConnection>>> futures = new ArrayList<>();
+			for(int i=0;i<threads;i++) {
+				futures.add(executor.submit(() -> {
+					Set<PooledConnection> used = new HashSet<>();
+					
+					//holds a connection until all the threads borrowed one, so each thread uses a different one.
+					try(ProxyConnection c = getConnection()) {
+						used.add(c.getPooledConnection());
+						barrier.await(5, TimeUnit.SECONDS);
+					}
+					
+					for(int j=0;j<loops;j++) {
+						try(ProxyConnection c = getConnection()) {
+							used.add(c.getPooledConnection());
+						}
+					}
+					return used;
+				}));
+			}
+			
+			Set<PooledConnection> all = new HashSet<>();
+			for(Future<Set<PooledConnection>> future : futures) {
+				Set<PooledConnection> used = future.get(10, TimeUnit.SECONDS);
+				assertEquals("Each thread must always borrow its last used connection", 1, used.size());
+				all.addAll(used);
+			}
+			assertEquals(threads, all.size());
+		}finally{
+			executor.shutdownNow();
+		}
+	}
+	
+	@Test
+	public void testThreadAffineClosedPoolNotPinned() throws Exception {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try{
+			WeakReference<PooledConnection> ref = borrowAndClose(executor);
+			
+			for(int i=0;i<50 && null != ref.get();i++) {
+				System.gc();
+				Thread.sleep(20);
+			}
+			assertNull("The closed pool must not be pinned by the thread", ref.get());
+		}finally{
+			executor.shutdownNow();
+		}
+	}
+	
+	private WeakReference<PooledConnection> borrowAndClose(ExecutorService executor) throws Exception {
+		final PooledDataSource ds = createDefaultDataSource();
+		ds.setBorrowStrategy(BorrowStrategy.THREAD_AFFINE);
+		
+		//the long-lived thread remembers its last used connection.
+		WeakReference<PooledConnection> ref = executor.submit(() -> {
+			try(Connection conn = ds.getConnection()) {
+				return new WeakReference<>(((ProxyConnection)conn).getPooledConnection());
+			}
+		}).get(5, TimeUnit.SECONDS);
+		
+		ds.close();
+		return ref;
+	}
+	
+	@Test
+	public void testThreadAffineContention() throws Exception {
+		final int threads = 32;
+		final int loops   = 200;
+		
+		poolds.setBorrowStrategy(BorrowStrategy.THREAD_AFFINE);
+		poolds.setMaxActive(4);
+		poolds.setMaxWait(10000);
+		
+		final AtomicInteger active = new AtomicInteger();
+		final AtomicInteger errors = new AtomicInteger();
+		
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try{
+			Future<?>[] futures = new Future<?>[threads];
+			for(int i=0;i<threads;i++) {
+				futures[i] = executor.submit(() -> {
+					for(int j=0;j<loops;j++) {
+						try(Connection conn = poolds.getConnection()) {
+							if(active.incrementAndGet() > 4) {
+								errors.incrementAndGet();
+							}
+							active.decrementAndGet();
+						}catch(SQLException e) {
+							errors.incrementAndGet();
+						}
+					}
+				});
+			}
+			for(Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		}finally{
+			executor.shutdownNow();
+		}
+		
+		assertEquals(0, errors.get());
+	}
+	
 }
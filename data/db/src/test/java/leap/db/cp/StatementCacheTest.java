@@ -0,0 +1,165 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.db.cp;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import leap.db.mock.MockPreparedStatement;
+
+import org.junit.Test;
+
+public class StatementCacheTest extends ConnPoolTestBase {
+	
+	@Test
+	public void testCacheDisabledByDefault() throws Exception {
+		MockPreparedStatement real;
+		try(ProxyConnection conn = getConnection()) {
+			PreparedStatement ps = conn.prepareStatement("select 1");
+			real = (MockPreparedStatement)proxy(ps).getReal();
+			ps.close();
+			
+			assertNull(conn.getPooledConnection().getStatementCache());
+		}
+		assertTrue(real.isClosed());
+	}
+
+	@Test
+	public void testLogicalClose() throws Exception {
+		poolds.setStatementCacheSize(10);
+		
+		try(ProxyConnection conn = getConnection()) {
+			PreparedStatement ps1 = conn.prepareStatement("select 1");
+			Statement real1 = proxy(ps1).getReal();
+			ps1.close();
+			
+			assertTrue(proxy(ps1).isClosed());
+			assertFalse(real1.isClosed());
+			assertEquals(1, ((MockPreparedStatement)real1).getClearParametersCount());
+			
+			PreparedStatement ps2 = conn.prepareStatement("select 1");
+			assertNotSame(ps1, ps2);
+			assertSame(real1, proxy(ps2).getReal());
+			
+			//the cached statement is in use, should prepare a new one.
+			PreparedStatement ps3 = conn.prepareStatement("select 1");
+			assertNotSame(real1, proxy(ps3).getReal());
+			
+			ps2.close();
+			ps3.close();
+		}
+		
+		assertEquals(1, poolds.getStatementCacheHitCount());
+		assertEquals(2, poolds.getStatementCacheMissCount());
+	}
+	
+	@Test
+	public void testResetOnLogicalClose() throws Exception {
+		poolds.setStatementCacheSize(10);
+		
+		try(ProxyConnection conn = getConnection()) {
+			PreparedStatement ps1 = conn.prepareStatement("select 1");
+			MockPreparedStatement real1 = (MockPreparedStatement)proxy(ps1).getReal();
+			
+			//i.e. the streaming fetch size of mysql.
+			ps1.setFetchSize(Integer.MIN_VALUE);
+			ps1.setFetchDirection(ResultSet.FETCH_REVERSE);
+			ps1.setMaxRows(10);
+			ps1.setQueryTimeout(30);
+			ResultSet rs = ps1.executeQuery();
+			ps1.close();
+			
+			assertTrue(rs.isClosed());
+			assertEquals(1, real1.getClearBatchCount());
+			
+			PreparedStatement ps2 = conn.prepareStatement("select 1");
+			assertSame(real1, proxy(ps2).getReal());
+			assertEquals(0, ps2.getFetchSize());
+			assertEquals(ResultSet.FETCH_FORWARD, ps2.getFetchDirection());
+			assertEquals(0, ps2.getMaxRows());
+			assertEquals(0, ps2.getQueryTimeout());
+			ps2.close();
+		}
+	}
+	
+	@Test
+	public void testCacheKey() throws Exception {
+		poolds.setStatementCacheSize(10);
+		
+		try(ProxyConnection conn = getConnection()) {
+			PreparedStatement ps1 = conn.prepareStatement("select 1");
+			Statement real1 = proxy(ps1).getReal();
+			ps1.close();
+			
+			PreparedStatement ps2 = conn.prepareStatement("select 1", Statement.RETURN_GENERATED_KEYS);
+			assertNotSame(real1, proxy(ps2).getReal());
+			ps2.close();
+			
+			PreparedStatement ps3 = conn.prepareStatement("select 1", ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+			assertNotSame(real1, proxy(ps3).getReal());
+			ps3.close();
+			
+			PreparedStatement ps4 = conn.prepareStatement("select 1", ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+			assertSame(real1, proxy(ps4).getReal());
+			ps4.close();
+		}
+	}
+	
+	@Test
+	public void testLruEviction() throws Exception {
+		poolds.setStatementCacheSize(2);
+		
+		try(ProxyConnection conn = getConnection()) {
+			Statement real1 = prepareAndClose(conn, "select 1");
+			Statement real2 = prepareAndClose(conn, "select 2");
+			
+			//touch 'select 1'
+			assertSame(real1, prepareAndClose(conn, "select 1"));
+			
+			Statement real3 = prepareAndClose(conn, "select 3");
+			
+			assertFalse(real1.isClosed());
+			assertTrue(real2.isClosed());
+			assertFalse(real3.isClosed());
+			assertEquals(2, conn.getPooledConnection().getStatementCache().size());
+		}
+	}
+	
+	@Test
+	public void testClearOnCloseReal() throws Exception {
+		poolds.setStatementCacheSize(10);
+		
+		Statement real;
+		PooledConnection pooled;
+		try(ProxyConnection conn = getConnection()) {
+			pooled = conn.getPooledConnection();
+			real   = prepareAndClose(conn, "select 1");
+		}
+		assertFalse(real.isClosed());
+		
+		pooled.closeReal();
+		assertTrue(real.isClosed());
+		assertEquals(0, pooled.getStatementCache().size());
+	}
+	
+	private static Statement prepareAndClose(ProxyConnection conn, String sql) throws Exception {
+		PreparedStatement ps = conn.prepareStatement(sql);
+		Statement real = proxy(ps).getReal();
+		ps.close();
+		return real;
+	}
+}
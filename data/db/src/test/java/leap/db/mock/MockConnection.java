@@ -16,6 +16,7 @@
 package leap.db.mock;
 
 import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Statement;
 
@@ -97,6 +98,21 @@ public class MockConnection extends ConnectionAdapter {
 		return lastStatement;
     }
 
+	@Override
+    public PreparedStatement prepareStatement(String sql) throws SQLException {
+		return new MockPreparedStatement(this, sql);
+    }
+
+	@Override
+    public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
+		return new MockPreparedStatement(this, sql);
+    }
+
+	@Override
+    public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+		return new MockPreparedStatement(this, sql);
+    }
+
 	@Override
     public DatabaseMetaData getMetaData() throws SQLException {
 		return new MockDatabaseMetaData(this);
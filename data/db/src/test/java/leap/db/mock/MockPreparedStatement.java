@@ -0,0 +1,124 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.db.mock;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import leap.lang.jdbc.PreparedStatementAdapter;
+
+public class MockPreparedStatement extends PreparedStatementAdapter {
+
+	private final MockConnection connection;
+	private final String		 sql;
+	
+	private boolean closed;
+	private int		clearParametersCount;
+	private int		clearBatchCount;
+	private int		fetchSize;
+	private int		fetchDirection = ResultSet.FETCH_FORWARD;
+	private int		maxRows;
+	private int		queryTimeout;
+
+	public MockPreparedStatement(MockConnection connection, String sql) {
+		this.connection = connection;
+		this.sql		= sql;
+	}
+	
+	public String getSql() {
+		return sql;
+	}
+	
+	public int getClearParametersCount() {
+		return clearParametersCount;
+	}
+	
+	public int getClearBatchCount() {
+		return clearBatchCount;
+	}
+
+	@Override
+    public Connection getConnection() throws SQLException {
+		return connection;
+	}
+
+	@Override
+    public ResultSet executeQuery() throws SQLException {
+		return new MockResultSet(connection);
+    }
+
+	@Override
+    public void clearParameters() throws SQLException {
+		clearParametersCount++;
+    }
+
+	@Override
+    public void clearBatch() throws SQLException {
+		clearBatchCount++;
+    }
+
+	@Override
+    public int getFetchSize() throws SQLException {
+		return fetchSize;
+    }
+
+	@Override
+    public void setFetchSize(int rows) throws SQLException {
+		this.fetchSize = rows;
+    }
+
+	@Override
+    public int getFetchDirection() throws SQLException {
+		return fetchDirection;
+    }
+
+	@Override
+    public void setFetchDirection(int direction) throws SQLException {
+		this.fetchDirection = direction;
+    }
+
+	@Override
+    public int getMaxRows() throws SQLException {
+		return maxRows;
+    }
+
+	@Override
+    public void setMaxRows(int max) throws SQLException {
+		this.maxRows = max;
+    }
+
+	@Override
+    public int getQueryTimeout() throws SQLException {
+		return queryTimeout;
+    }
+
+	@Override
+    public void setQueryTimeout(int seconds) throws SQLException {
+		this.queryTimeout = seconds;
+    }
+
+	@Override
+    public void close() throws SQLException {
+		closed = true;
+    }
+
+	@Override
+    public boolean isClosed() throws SQLException {
+		return closed;
+    }
+	
+}
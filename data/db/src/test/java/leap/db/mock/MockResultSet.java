@@ -20,6 +20,8 @@ import leap.lang.jdbc.ResultSetAdapter;
 public class MockResultSet extends ResultSetAdapter {
 	
 	private final MockConnection connection;
+	
+	private boolean closed;
 
 	public MockResultSet(MockConnection connection) {
 		this.connection = connection;
@@ -29,4 +31,14 @@ public class MockResultSet extends ResultSetAdapter {
 		return connection;
 	}
 
+	@Override
+	public void close() {
+		closed = true;
+	}
+
+	@Override
+	public boolean isClosed() {
+		return closed;
+	}
+
 }
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tested;
+
+import leap.db.cp.BorrowStrategy;
+import leap.db.cp.PooledDataSource;
+import leap.db.mock.MockDataSource;
+import leap.lang.time.StopWatch;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares the borrows per second of the {@link BorrowStrategy}s with 8, 64 and 512 threads.
+ */
+public class BorrowStrategyPerfMain {
+
+    private static final int   MAX_ACTIVE = 16;
+    private static final int   BORROWS    = 2000000;
+    private static final int[] THREADS    = {8, 64, 512};
+
+    public static void main(String[] args) throws Exception {
+        //the trace logging of the pool (see logback-test.xml) costs much more than the borrowing.
+        ((ch.qos.logback.classic.Logger)LoggerFactory.getLogger("leap.db")).setLevel(ch.qos.logback.classic.Level.WARN);
+
+        //warm up
+        for(int i=0;i<3;i++) {
+            for(BorrowStrategy strategy : BorrowStrategy.values()) {
+                run(strategy, 8, BORROWS / 10, true);
+            }
+        }
+
+        System.out.println("\n\nWarm up done, Let's begin!\n");
+        System.out.println("Total " + BORROWS + " borrows / round, max active " + MAX_ACTIVE + "\n");
+
+        for(int threads : THREADS) {
+            for(BorrowStrategy strategy : BorrowStrategy.values()) {
+                run(strategy, threads, BORROWS, false);
+            }
+            System.out.println();
+        }
+    }
+
+    protected static void run(BorrowStrategy strategy, int threads, int borrows, boolean warmup) throws Exception {
+        PooledDataSource ds = new PooledDataSource(new MockDataSource());
+        ds.setBorrowStrategy(strategy);
+        ds.setMaxActive(MAX_ACTIVE);
+        ds.setMaxWait(60000);
+
+        final AtomicInteger  remaining = new AtomicInteger(borrows);
+        final AtomicInteger  errors    = new AtomicInteger();
+        final CountDownLatch start     = new CountDownLatch(1);
+        final CountDownLatch done      = new CountDownLatch(threads);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for(int i=0;i<threads;i++) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                        while(remaining.getAndDecrement() > 0) {
+                            try(Connection conn = ds.getConnection()) {
+                                conn.getAutoCommit();
+                            }
+                        }
+                    }catch(Exception e) {
+                        errors.incrementAndGet();
+                    }finally {
+                        done.countDown();
+                    }
+                });
+            }
+
+            StopWatch sw = StopWatch.startNew();
+            start.countDown();
+            done.await(5, TimeUnit.MINUTES);
+
+            if(!warmup) {
+                long ms = Math.max(1, sw.getElapsedMilliseconds());
+                System.out.println(String.format("%-13s %3d threads : %5dms, %8d borrows/s, %d errors",
+                                                 strategy, threads, ms, (long)borrows * 1000 / ms, errors.get()));
+            }
+        }finally {
+            executor.shutdownNow();
+            ds.close();
+        }
+    }
+}
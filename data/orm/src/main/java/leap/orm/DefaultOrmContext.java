@@ -27,6 +27,8 @@ import leap.db.Db;
 import leap.db.DbFactory;
 import leap.lang.Assert;
 import leap.lang.Readonly;
+import leap.orm.cache.EntityCacheManager;
+import leap.orm.cache.QueryCacheManager;
 import leap.orm.command.CommandFactory;
 import leap.orm.linq.ConditionParser;
 import leap.orm.mapping.MappingStrategy;
@@ -58,6 +60,8 @@ public class DefaultOrmContext implements OrmContext,PostCreateBean,PreInjectBea
     protected @Inject @M QueryFactory       queryFactory;
     protected @Inject @M EntityReader       entityReader;
     protected @Inject @M RowReader          rowReader;
+    protected @Inject @M EntityCacheManager entityCacheManager;
+    protected @Inject @M QueryCacheManager  queryCacheManager;
     protected @Inject @M ConditionParser    conditionParser;
     protected @Inject @M OrmConfig          config;
     
@@ -171,6 +175,16 @@ public class DefaultOrmContext implements OrmContext,PostCreateBean,PreInjectBea
 	    return rowReader;
     }
 	
+	@Override
+    public EntityCacheManager getEntityCacheManager() {
+	    return entityCacheManager;
+    }
+	
+	@Override
+    public QueryCacheManager getQueryCacheManager() {
+	    return queryCacheManager;
+    }
+	
 	@Override
     public void preInject(BeanFactory factory) {
 		Assert.notNull(db,"The 'db' field must not be null");
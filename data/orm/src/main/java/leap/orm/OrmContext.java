@@ -18,6 +18,8 @@ package leap.orm;
 import javax.sql.DataSource;
 
 import leap.lang.Named;
+import leap.orm.cache.EntityCacheManager;
+import leap.orm.cache.QueryCacheManager;
 import leap.orm.command.CommandFactory;
 import leap.orm.linq.ConditionParser;
 import leap.orm.metadata.MetadataContext;
@@ -46,5 +48,9 @@ public interface OrmContext extends MetadataContext, Named {
 	EntityReader getEntityReader();
 	
 	RowReader getRowReader();
+	
+	EntityCacheManager getEntityCacheManager();
+	
+	QueryCacheManager getQueryCacheManager();
 
 }
\ No newline at end of file
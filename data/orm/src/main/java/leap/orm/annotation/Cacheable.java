@@ -0,0 +1,52 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.orm.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Enables the second-level cache of the entity.
+ * 
+ * <p>
+ * The cached entities are looked up by primary key in {@code Dao.find} and {@code Dao.findList}, 
+ * and are evicted by the update and delete operations of the dao.
+ */
+@Target({ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Cacheable {
+
+    /**
+     * Enables the cache or not.
+     */
+    boolean value() default true;
+
+    /**
+     * The max number of cached entities.
+     */
+    int maxSize() default 1000;
+
+    /**
+     * The seconds to expire the cached entity after loaded.
+     *
+     * <p>
+     * Zero means the default (300 seconds), negative means never expires.
+     */
+    int expires() default 0;
+
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.orm.cache;
+
+import leap.core.cache.Cache;
+import leap.core.cache.CacheManager;
+import leap.core.cache.CacheSpec;
+import leap.core.cache.CacheStats;
+import leap.core.transaction.TransactionProvider;
+import leap.lang.beans.BeanProperty;
+import leap.lang.beans.BeanType;
+import leap.lang.convert.Converts;
+import leap.lang.params.Params;
+import leap.lang.reflect.Reflection;
+import leap.orm.OrmContext;
+import leap.orm.mapping.EntityMapping;
+import leap.orm.mapping.FieldMapping;
+import leap.orm.model.Model;
+import leap.orm.value.Entity;
+import leap.orm.value.EntityBase;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class DefaultEntityCache implements EntityCache {
+
+    protected final OrmContext                         context;
+    protected final EntityMapping                      em;
+    protected final FieldMapping[]                     keys;
+    protected final Cache<Object, Map<String, Object>> cache;
+    protected final TransactionProvider                tp;
+    protected final AtomicLong                         version = new AtomicLong();
+
+    public DefaultEntityCache(OrmContext context, EntityMapping em, CacheManager cacheManager, TransactionProvider tp,
+                              int maxSize, int expires) {
+        this.context = context;
+        this.em      = em;
+        this.keys    = em.getKeyFieldMappings();
+        this.tp      = tp;
+
+        CacheSpec<Object, Map<String, Object>> spec = new CacheSpec<Object, Map<String, Object>>().setMaxSize(maxSize);
+        if(expires > 0) {
+            spec.setExpireAfterWrite(expires, TimeUnit.SECONDS);
+        }
+        this.cache = cacheManager.createCache(spec);
+    }
+
+    @Override
+    public EntityMapping getEntityMapping() {
+        return em;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        //the records read in a transaction may be uncommitted.
+        return null == tp || !tp.isTransactionActive();
+    }
+
+    @Override
+    public long getVersion() {
+        return version.get();
+    }
+
+    @Override
+    public Map<String, Object> get(Object id) {
+        Object key = getIdKey(id);
+        return null == key ? null : cache.get(key);
+    }
+
+    @Override
+    public void put(Map<String, Object> record, long version) {
+        Object key = getRecordKey(record);
+        if(null != key && version == this.version.get()) {
+            cache.put(key, Collections.unmodifiableMap(record));
+
+            //evicted while putting.
+            if(version != this.version.get()) {
+                cache.remove(key);
+            }
+        }
+    }
+
+    @Override
+    public void remove(Object id) {
+        Object key = getIdKey(id);
+        if(null == key) {
+            clear();
+            return;
+        }
+
+        evict(key);
+        if(null != tp) {
+            tp.registerSynchronization((committed) -> evict(key));
+        }
+    }
+
+    @Override
+    public void clear() {
+        evictAll();
+        if(null != tp) {
+            tp.registerSynchronization((committed) -> evictAll());
+        }
+    }
+
+    protected void evict(Object key) {
+        version.incrementAndGet();
+        cache.remove(key);
+    }
+
+    protected void evictAll() {
+        version.incrementAndGet();
+        cache.clear();
+    }
+
+    @Override
+    public CacheStats getStats() {
+        return cache.getStats();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T toResult(Map<String, Object> record, Class<T> resultClass) {
+        if(Map.class.equals(resultClass)) {
+            return (T)new LinkedHashMap<>(record);
+        }
+
+        if(Entity.class.equals(resultClass) || EntityBase.class.equals(resultClass)) {
+            return (T)new Entity(em.getEntityName(), record);
+        }
+
+        if(Model.class.isAssignableFrom(resultClass)) {
+            Model model = (Model)Reflection.newInstance(resultClass);
+            model.setAll(record);
+            return (T)model;
+        }
+
+        BeanType beanType    = BeanType.of(resultClass);
+        boolean  entityClass = resultClass.equals(em.getEntityClass());
+
+        T bean = beanType.newInstance();
+
+        for(Map.Entry<String, Object> entry : record.entrySet()) {
+            BeanProperty bp = null;
+
+            if(entityClass) {
+                FieldMapping fm = em.tryGetFieldMapping(entry.getKey());
+                if(null != fm) {
+                    bp = fm.getBeanProperty();
+                }
+            }
+
+            if(null == bp) {
+                bp = beanType.tryGetProperty(entry.getKey());
+            }
+
+            if(null != bp && bp.isWritable()) {
+                bp.setValue(bean, entry.getValue());
+            }
+        }
+
+        return bean;
+    }
+
+    @Override
+    public Object getIdKey(Object id) {
+        if(null == id || keys.length == 0) {
+            return null;
+        }
+
+        Params params = context.getParameterStrategy().createIdParameters(context, em, id);
+
+        if(keys.length == 1) {
+            return keyValue(keys[0], params.isIndexed() ? params.get(0) : params.get(keys[0].getFieldName()));
+        }
+
+        Object[] values = new Object[keys.length];
+        for(int i=0;i<keys.length;i++) {
+            Object value = keyValue(keys[i], params.isIndexed() ? params.get(i) : params.get(keys[i].getFieldName()));
+            if(null == value) {
+                return null;
+            }
+            values[i] = value;
+        }
+        return Arrays.asList(values);
+    }
+
+    @Override
+    public Object getRecordKey(Map<String, Object> record) {
+        if(keys.length == 0) {
+            return null;
+        }
+
+        if(keys.length == 1) {
+            return keyValue(keys[0], record.get(keys[0].getFieldName()));
+        }
+
+        Object[] values = new Object[keys.length];
+        for(int i=0;i<keys.length;i++) {
+            Object value = keyValue(keys[i], record.get(keys[i].getFieldName()));
+            if(null == value) {
+                return null;
+            }
+            values[i] = value;
+        }
+        return Arrays.asList(values);
+    }
+
+    protected Object keyValue(FieldMapping key, Object value) {
+        return null == value ? null : Converts.convert(value, key.getJavaType());
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.orm.cache;
+
+import leap.core.annotation.Inject;
+import leap.core.annotation.M;
+import leap.core.cache.CacheManager;
+import leap.core.cache.CacheStats;
+import leap.core.transaction.TransactionManager;
+import leap.orm.OrmContext;
+import leap.orm.mapping.EntityMapping;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class DefaultEntityCacheManager implements EntityCacheManager {
+
+    public static final int DEFAULT_MAX_SIZE = 1000;
+    public static final int DEFAULT_EXPIRES  = 300;
+
+    protected @Inject @M CacheManager       cacheManager;
+    protected @Inject @M TransactionManager transactionManager;
+
+    protected final Map<String, EntityCache> caches = new ConcurrentHashMap<>();
+
+    @Override
+    public EntityCache getEntityCache(OrmContext context, EntityMapping em) {
+        if(!em.isCacheable()) {
+            return null;
+        }
+
+        String key = key(context, em);
+
+        EntityCache cache = caches.computeIfAbsent(key, (k) -> createEntityCache(context, em));
+        if(cache.getEntityMapping() != em) {
+            //the mapping may be replaced, i.e. recreated by the entity command.
+            cache = caches.compute(key, (k, c) -> null == c || c.getEntityMapping() != em ? createEntityCache(context, em) : c);
+        }
+        return cache;
+    }
+
+    @Override
+    public Map<String, CacheStats> getAllCacheStats() {
+        Map<String, CacheStats> stats = new TreeMap<>();
+        caches.forEach((key, cache) -> stats.put(key, cache.getStats()));
+        return stats;
+    }
+
+    @Override
+    public void clearAll() {
+        caches.values().forEach(EntityCache::clear);
+    }
+
+    protected EntityCache createEntityCache(OrmContext context, EntityMapping em) {
+        int maxSize = em.getCacheMaxSize() > 0 ? em.getCacheMaxSize() : DEFAULT_MAX_SIZE;
+        int expires = em.getCacheExpires() == 0 ? DEFAULT_EXPIRES : em.getCacheExpires();
+        return new DefaultEntityCache(context, em, cacheManager,
+                                      transactionManager.getProvider(context.getDataSource()), maxSize, expires);
+    }
+
+    protected String key(OrmContext context, EntityMapping em) {
+        return context.getName() + ":" + em.getEntityName();
+    }
+}
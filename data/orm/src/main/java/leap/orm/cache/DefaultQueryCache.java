@@ -0,0 +1,117 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.orm.cache;
+
+import leap.core.cache.Cache;
+import leap.core.cache.CacheManager;
+import leap.core.cache.CacheSpec;
+import leap.core.cache.CacheStats;
+import leap.core.transaction.TransactionProvider;
+import leap.orm.sql.SqlCommand;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+public class DefaultQueryCache implements QueryCache {
+
+    protected final SqlCommand            command;
+    protected final Cache<Object, Object> cache;
+    protected final TransactionProvider   tp;
+
+    //increased on every invalidation, guards against caching the results loaded before the invalidation.
+    protected final AtomicLong version = new AtomicLong();
+
+    public DefaultQueryCache(SqlCommand command, CacheManager cacheManager, TransactionProvider tp, int maxSize, int expires) {
+        this.command = command;
+        this.tp      = tp;
+
+        CacheSpec<Object, Object> spec = new CacheSpec<>().setMaxSize(maxSize);
+        if(expires > 0) {
+            spec.setExpireAfterWrite(expires, TimeUnit.SECONDS);
+        }
+        this.cache = cacheManager.createCache(spec);
+    }
+
+    @Override
+    public SqlCommand getCommand() {
+        return command;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        //the results read in a transaction may be uncommitted.
+        return null == tp || !tp.isTransactionActive();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Supplier<T> loader) {
+        Object value = cache.get(key);
+        if(null != value) {
+            return (T)value;
+        }
+
+        long v = version.get();
+
+        T result = loader.get();
+        if(null != result && v == version.get()) {
+            cache.put(key, result);
+
+            //invalidated while putting.
+            if(v != version.get()) {
+                cache.remove(key);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean references(Collection<String> names) {
+        Set<String> tableNames = command.getTableNames();
+        if(null == names || null == tableNames) {
+            return true;
+        }
+
+        for(String name : names) {
+            if(tableNames.contains(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void invalidate() {
+        evictAll();
+        if(null != tp) {
+            tp.registerSynchronization((committed) -> evictAll());
+        }
+    }
+
+    protected void evictAll() {
+        version.incrementAndGet();
+        cache.clear();
+    }
+
+    @Override
+    public CacheStats getStats() {
+        return cache.getStats();
+    }
+
+}
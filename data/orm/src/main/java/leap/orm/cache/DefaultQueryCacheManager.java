@@ -0,0 +1,82 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.orm.cache;
+
+import leap.core.annotation.Inject;
+import leap.core.annotation.M;
+import leap.core.cache.CacheManager;
+import leap.core.cache.CacheStats;
+import leap.core.transaction.TransactionManager;
+import leap.orm.OrmContext;
+import leap.orm.sql.SqlCommand;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class DefaultQueryCacheManager implements QueryCacheManager {
+
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    protected @Inject @M CacheManager       cacheManager;
+    protected @Inject @M TransactionManager transactionManager;
+
+    protected final Map<String, Map<SqlCommand, QueryCache>> caches = new ConcurrentHashMap<>();
+
+    @Override
+    public QueryCache getQueryCache(OrmContext context, SqlCommand command) {
+        if(command.getCacheExpires() <= 0) {
+            return null;
+        }
+
+        return caches.computeIfAbsent(context.getName(), (name) -> new ConcurrentHashMap<>())
+                     .computeIfAbsent(command, (c) -> createQueryCache(context, c));
+    }
+
+    @Override
+    public void invalidate(OrmContext context, Collection<String> tableNames) {
+        Map<SqlCommand, QueryCache> contextCaches = caches.get(context.getName());
+        if(null == contextCaches || contextCaches.isEmpty()) {
+            return;
+        }
+
+        for(QueryCache cache : contextCaches.values()) {
+            if(cache.references(tableNames)) {
+                cache.invalidate();
+            }
+        }
+    }
+
+    @Override
+    public Map<String, CacheStats> getAllCacheStats() {
+        Map<String, CacheStats> stats = new TreeMap<>();
+        caches.forEach((name, contextCaches) -> {
+            contextCaches.forEach((command, cache) -> stats.put(name + ":" + command, cache.getStats()));
+        });
+        return stats;
+    }
+
+    @Override
+    public void clearAll() {
+        caches.values().forEach((contextCaches) -> contextCaches.values().forEach(QueryCache::invalidate));
+    }
+
+    protected QueryCache createQueryCache(OrmContext context, SqlCommand command) {
+        return new DefaultQueryCache(command, cacheManager, transactionManager.getProvider(context.getDataSource()),
+                                     DEFAULT_MAX_SIZE, command.getCacheExpires());
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.orm.cache;
+
+import leap.core.cache.CacheStats;
+import leap.orm.mapping.EntityMapping;
+
+import java.util.Map;
+
+/**
+ * The second-level cache of an entity, caches the records of the entity by primary key.
+ * 
+ * <p>
+ * The cached record is a map contains the values of the fields, 
+ * a new result object will be created from the record for every lookup.
+ *
+ * <p>
+ * The cache is bypassed in an active transaction, the evictions in a transaction are done again after the transaction completed.
+ */
+public interface EntityCache {
+
+    /**
+     * Returns the mapping of the cached entity.
+     */
+    EntityMapping getEntityMapping();
+
+    /**
+     * Returns false if the cache must not be used now, i.e. in an active transaction.
+     */
+    boolean isAvailable();
+
+    /**
+     * Returns the current version of this cache, the version changes after every eviction.
+     *
+     * <p>
+     * Gets the version before loading the records from db and passes it to {@link #put(Map, long)}.
+     */
+    long getVersion();
+
+    /**
+     * Returns the cache key of the given id or <code>null</code> if the id is not supported.
+     */
+    Object getIdKey(Object id);
+
+    /**
+     * Returns the cache key of the given record or <code>null</code> if the id of the record is absent.
+     */
+    Object getRecordKey(Map<String, Object> record);
+
+    /**
+     * Returns the cached record of the given id or <code>null</code> if not cached.
+     *
+     * <p>
+     * The returned record must not be modified.
+     */
+    Map<String, Object> get(Object id);
+
+    /**
+     * Caches the given record loaded at the given version, the id of the record is resolved from the key fields.
+     *
+     * <p>
+     * The record will not be cached if evicted after the version, it may be stale.
+     */
+    void put(Map<String, Object> record, long version);
+
+    /**
+     * Evicts the cached record of the given id.
+     *
+     * <p>
+     * Evicts it again after the active transaction completed if any.
+     */
+    void remove(Object id);
+
+    /**
+     * Evicts all the cached records.
+     *
+     * <p>
+     * Evicts them again after the active transaction completed if any.
+     */
+    void clear();
+
+    /**
+     * Returns the statistics of this cache.
+     */
+    CacheStats getStats();
+
+    /**
+     * Creates a new result object of the given result class from the given cached record.
+     */
+    <T> T toResult(Map<String, Object> record, Class<T> resultClass);
+
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.orm.cache;
+
+import leap.core.cache.CacheStats;
+import leap.orm.OrmContext;
+import leap.orm.mapping.EntityMapping;
+
+import java.util.Map;
+
+public interface EntityCacheManager {
+
+    /**
+     * Returns the {@link EntityCache} of the given entity in the given context.
+     *
+     * <p>
+     * Returns <code>null</code> if the entity is not cacheable.
+     */
+    EntityCache getEntityCache(OrmContext context, EntityMapping em);
+
+    /**
+     * Returns the statistics of all the entity caches, the key of the returned map is "{context}:{entity}".
+     */
+    Map<String, CacheStats> getAllCacheStats();
+
+    /**
+     * Evicts all the cached records in all the entity caches.
+     */
+    void clearAll();
+
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.orm.cache;
+
+import leap.core.cache.CacheStats;
+import leap.orm.sql.SqlCommand;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * The cache of the query results of a {@link SqlCommand}.
+ */
+public interface QueryCache {
+
+    /**
+     * Returns the cached {@link SqlCommand}.
+     */
+    SqlCommand getCommand();
+
+    /**
+     * Returns <code>false</code> if the cache can not be used now, i.e. in an active transaction which may read uncommitted data.
+     */
+    boolean isAvailable();
+
+    /**
+     * Returns the cached result of the given key.
+     *
+     * <p>
+     * Loads the result by the given loader if not cached, the loaded result will not be cached if this cache was invalidated while loading.
+     */
+    <T> T get(Object key, Supplier<T> loader);
+
+    /**
+     * Returns <code>true</code> if the cached command references any of the given tables.
+     *
+     * <p>
+     * Returns <code>true</code> if the given table names or the tables referenced by the command are unknown.
+     */
+    boolean references(Collection<String> tableNames);
+
+    /**
+     * Evicts all the cached results.
+     *
+     * <p>
+     * Evicts again after the active transaction completed.
+     */
+    void invalidate();
+
+    /**
+     * Returns the statistics of this cache.
+     */
+    CacheStats getStats();
+
+}
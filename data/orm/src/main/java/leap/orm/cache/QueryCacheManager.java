@@ -0,0 +1,54 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.orm.cache;
+
+import leap.core.cache.CacheStats;
+import leap.lang.annotation.Nullable;
+import leap.orm.OrmContext;
+import leap.orm.sql.SqlCommand;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface QueryCacheManager {
+
+    /**
+     * Returns the {@link QueryCache} of the given command in the given context.
+     *
+     * <p>
+     * Returns <code>null</code> if the results of the command will not be cached.
+     */
+    QueryCache getQueryCache(OrmContext context, SqlCommand command);
+
+    /**
+     * Invalidates all the query caches in the given context which reference any of the given tables.
+     *
+     * <p>
+     * Invalidates all the query caches in the given context if the table names is <code>null</code>.
+     */
+    void invalidate(OrmContext context, @Nullable Collection<String> tableNames);
+
+    /**
+     * Returns the statistics of all the query caches, the key of the returned map is "{context}:{command}".
+     */
+    Map<String, CacheStats> getAllCacheStats();
+
+    /**
+     * Evicts all the cached results in all the query caches.
+     */
+    void clearAll();
+
+}
@@ -15,6 +15,7 @@
  */
 package leap.orm.command;
 
+import leap.orm.cache.EntityCache;
 import leap.orm.dao.Dao;
 import leap.orm.mapping.EntityMapping;
 
@@ -31,4 +32,20 @@ public abstract class AbstractEntityDaoCommand extends AbstractDaoCommand {
     public EntityMapping getPrimaryEntityMapping() {
 	    return em;
     }
+	
+	/**
+	 * Returns the {@link EntityCache} of the entity or <code>null</code> if the entity is not cacheable.
+	 */
+	protected EntityCache entityCache() {
+		return context.getEntityCacheManager().getEntityCache(context, em);
+	}
+	
+	/**
+	 * Returns the {@link EntityCache} for loading the entity or <code>null</code> if the entity is not cacheable
+	 * or the cache is not available now, i.e. in an active transaction.
+	 */
+	protected EntityCache availableEntityCache() {
+		EntityCache cache = entityCache();
+		return null == cache || !cache.isAvailable() ? null : cache;
+	}
 }
@@ -16,6 +16,7 @@
 package leap.orm.command;
 
 import leap.lang.params.Params;
+import leap.orm.cache.EntityCache;
 import leap.orm.dao.Dao;
 import leap.orm.mapping.EntityMapping;
 import leap.orm.sql.SqlCommand;
@@ -39,7 +40,16 @@ public class DefaultBatchDeleteCommand extends AbstractEntityDaoCommand implemen
 
 	@Override
 	public int[] execute() {
-		return sqlCommand.executeBatchUpdate(this, idParameters);
+		int[] result = sqlCommand.executeBatchUpdate(this, idParameters);
+		
+		EntityCache cache = entityCache();
+		if(null != cache) {
+			for(Object id : idObjectArray) {
+				cache.remove(id);
+			}
+		}
+		
+		return result;
 	}
 	
 	/*
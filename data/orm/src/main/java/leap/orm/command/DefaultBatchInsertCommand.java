@@ -17,15 +17,23 @@ package leap.orm.command;
 
 import java.util.List;
 
+import leap.lang.Strings;
+import leap.lang.expression.Expression;
+import leap.lang.params.Params;
 import leap.orm.dao.Dao;
+import leap.orm.generator.ValueGeneratorContext;
 import leap.orm.mapping.EntityMapping;
+import leap.orm.mapping.FieldMapping;
 import leap.orm.sql.SqlCommand;
 
-public class DefaultBatchInsertCommand extends AbstractEntityDaoCommand implements BatchInsertCommand {
+public class DefaultBatchInsertCommand extends AbstractEntityDaoCommand implements BatchInsertCommand,ValueGeneratorContext {
 	
 	protected final Object[]	  records;
 	protected final SqlCommand    sqlCommand;
 	
+	protected FieldMapping fm;
+	protected Params       parameters;
+	
 	public DefaultBatchInsertCommand(Dao dao,EntityMapping em,List<?> records) {
 		this(dao,em,records.toArray());
 	}
@@ -36,9 +44,52 @@ public class DefaultBatchInsertCommand extends AbstractEntityDaoCommand implemen
 	    this.sqlCommand = metadata.getSqlCommand(em.getEntityName(), SqlCommand.INSERT_COMMAND_NAME);
     }
 
+	@Override
+    public EntityMapping getEntityMapping() {
+	    return em;
+    }
+
+	@Override
+    public FieldMapping getFieldMapping() {
+	    return fm;
+    }
+
+	@Override
+    public Params getParameters() {
+	    return parameters;
+    }
+
 	@Override
 	public int[] execute() {
+		prepare();
 		return sqlCommand.executeBatchUpdate(this, records);
 	}
+	
+	/**
+	 * Generates the key values before executing, so the generated ids are written back to the records
+	 * and all the records can be sent in one jdbc batch.
+	 */
+	protected void prepare() {
+		for(FieldMapping key : em.getKeyFieldMappings()){
+			Expression expression = key.getInsertValue();
+			if(null == expression || !Strings.isEmpty(key.getSequenceName())){
+				continue;
+			}
+			
+			this.fm = key;
+			for(Object record : records){
+				if(null == record){
+					continue;
+				}
+				
+				this.parameters = context.getParameterStrategy().createParams(record);
+				if(null == parameters.get(key.getFieldName())){
+					parameters.set(key.getFieldName(), expression.getValue(this, parameters.map()));
+				}
+			}
+		}
+		this.fm         = null;
+		this.parameters = null;
+	}
 
 }
\ No newline at end of file
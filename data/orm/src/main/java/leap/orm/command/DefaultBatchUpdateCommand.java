@@ -15,6 +15,7 @@
  */
 package leap.orm.command;
 
+import leap.orm.cache.EntityCache;
 import leap.orm.dao.Dao;
 import leap.orm.mapping.EntityMapping;
 import leap.orm.sql.SqlCommand;
@@ -35,6 +36,13 @@ public class DefaultBatchUpdateCommand extends AbstractEntityDaoCommand implemen
 
     @Override
     public int[] execute() {
-        return updateCommand.executeBatchUpdate(this, records);
+        int[] result = updateCommand.executeBatchUpdate(this, records);
+
+        EntityCache cache = entityCache();
+        if(null != cache) {
+            cache.clear();
+        }
+
+        return result;
     }
 }
@@ -15,6 +15,7 @@
  */
 package leap.orm.command;
 
+import leap.orm.cache.EntityCache;
 import leap.orm.dao.Dao;
 import leap.orm.mapping.EntityMapping;
 import leap.orm.sql.SqlCommand;
@@ -31,7 +32,14 @@ public class DefaultDeleteAllCommand extends AbstractEntityDaoCommand implements
 	@Override
 	public int execute() {
 	    //Confirm.checkConfirmed("deleteAll", "The deleteAll command will clear all the datas in table.");
-		return sqlCommand.executeUpdate(this,null);
+		int result = sqlCommand.executeUpdate(this,null);
+		
+		EntityCache cache = entityCache();
+		if(null != cache) {
+			cache.clear();
+		}
+		
+		return result;
 	}
 
 }
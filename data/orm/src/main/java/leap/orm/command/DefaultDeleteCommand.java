@@ -16,6 +16,7 @@
 package leap.orm.command;
 
 import leap.lang.params.Params;
+import leap.orm.cache.EntityCache;
 import leap.orm.dao.Dao;
 import leap.orm.mapping.EntityMapping;
 import leap.orm.sql.SqlCommand;
@@ -36,7 +37,14 @@ public class DefaultDeleteCommand extends AbstractEntityDaoCommand implements De
 
 	@Override
 	public int execute() {
-		return sqlCommand.executeUpdate(this, idParameter);
+		int result = sqlCommand.executeUpdate(this, idParameter);
+		
+		EntityCache cache = entityCache();
+		if(null != cache) {
+			cache.remove(id);
+		}
+		
+		return result;
 	}
 
 }
@@ -20,6 +20,7 @@ import leap.core.exception.TooManyRecordsException;
 import leap.core.jdbc.ResultSetReader;
 import leap.lang.params.Params;
 import leap.lang.value.Limit;
+import leap.orm.cache.EntityCache;
 import leap.orm.dao.Dao;
 import leap.orm.listener.PostLoadEntity;
 import leap.orm.mapping.EntityMapping;
@@ -27,6 +28,8 @@ import leap.orm.query.QueryContext;
 import leap.orm.reader.ResultSetReaders;
 import leap.orm.sql.SqlCommand;
 
+import java.util.Map;
+
 public class DefaultFindCommand<T> extends AbstractEntityDaoCommand implements FindCommand<T>,QueryContext {
 	
     protected final Class<T>   resultClass;
@@ -57,9 +60,9 @@ public class DefaultFindCommand<T> extends AbstractEntityDaoCommand implements F
 
 	@Override
     public T execute() throws TooManyRecordsException {
-		ResultSetReader<T> reader = ResultSetReaders.forSingleEntity(context, em, resultClass);
+		EntityCache cache = availableEntityCache();
 		
-	    T result = sqlCommand.executeQuery(this, idParameters, reader);
+	    T result = null == cache ? executeQuery() : executeWithCache(cache);
 	    
 	    if(null == result && checkNotFound) {
 	        throw new RecordNotFoundException("Record not found for the id '" + id + "'");
@@ -71,4 +74,30 @@ public class DefaultFindCommand<T> extends AbstractEntityDaoCommand implements F
 	    
 	    return result;
     }
+	
+	protected T executeQuery() {
+		ResultSetReader<T> reader = ResultSetReaders.forSingleEntity(context, em, resultClass);
+		
+		return sqlCommand.executeQuery(this, idParameters, reader);
+	}
+	
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+    protected T executeWithCache(EntityCache cache) {
+		Map<String, Object> record = cache.get(id);
+		
+		if(null == record) {
+			long version = cache.getVersion();
+			
+			ResultSetReader<Map> reader = ResultSetReaders.forSingleEntity(context, em, Map.class);
+			
+			record = sqlCommand.executeQuery(this, idParameters, reader);
+			if(null == record) {
+				return null;
+			}
+			
+			cache.put(record, version);
+		}
+		
+		return cache.toResult(record, resultClass);
+	}
 }
\ No newline at end of file
@@ -16,7 +16,9 @@
 package leap.orm.command;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import leap.core.exception.RecordNotFoundException;
 import leap.core.exception.TooManyRecordsException;
@@ -26,6 +28,7 @@ import leap.db.model.DbTable;
 import leap.lang.params.MapParams;
 import leap.lang.params.Params;
 import leap.lang.value.Limit;
+import leap.orm.cache.EntityCache;
 import leap.orm.dao.Dao;
 import leap.orm.mapping.EntityMapping;
 import leap.orm.mapping.FieldMapping;
@@ -71,8 +74,9 @@ public class DefaultFindListCommand<T> extends AbstractEntityDaoCommand implemen
 
 	@Override
     public List<T> execute() throws TooManyRecordsException,RecordNotFoundException {
-		ResultSetReader<List<T>> reader = ResultSetReaders.forListEntity(context, em, elementType, resultClass);
-	    List<T> list = sqlCommand.executeQuery(this, idParameters, reader);
+		EntityCache cache = em.isCompositeKey() ? null : availableEntityCache();
+		
+	    List<T> list = null == cache ? executeQuery() : executeWithCache(cache);
 	    
 	    if(list.size() > ids.length) {
 	        throw new TooManyRecordsException("Returns " + list.size() + " records, exceeds the given id array's size " + ids.length);
@@ -85,6 +89,56 @@ public class DefaultFindListCommand<T> extends AbstractEntityDaoCommand implemen
 	    return list;
     }
 	
+	protected List<T> executeQuery() {
+		ResultSetReader<List<T>> reader = ResultSetReaders.forListEntity(context, em, elementType, resultClass);
+		
+		return sqlCommand.executeQuery(this, idParameters, reader);
+	}
+	
+	/**
+	 * Returns the records in the order of the given ids, only the ids not cached will be queried from db.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+    protected List<T> executeWithCache(EntityCache cache) {
+		Map<Object, Map<String,Object>> records = new LinkedHashMap<>();
+		List<Object>                    missing = new ArrayList<>();
+		
+		for(Object id : ids) {
+			Object key = cache.getIdKey(id);
+			if(records.containsKey(key)) {
+				continue;
+			}
+			
+			Map<String, Object> record = cache.get(id);
+			if(null == record) {
+				missing.add(id);
+			}
+			records.put(key, record);
+		}
+		
+		if(!missing.isEmpty()) {
+			long version = cache.getVersion();
+			
+			MapParams p = new MapParams();
+			p.set(em.getKeyColumnNames()[0], missing.toArray());
+			
+			ResultSetReader<List<Map>> reader = ResultSetReaders.forListEntity(context, em, Map.class);
+			
+			for(Map record : sqlCommand.executeQuery(this, p, reader)) {
+				cache.put(record, version);
+				records.put(cache.getRecordKey(record), record);
+			}
+		}
+		
+		List<T> list = new ArrayList<>(records.size());
+		for(Map<String, Object> record : records.values()) {
+			if(null != record) {
+				list.add(cache.toResult(record, resultClass));
+			}
+		}
+		return list;
+	}
+	
 	/*
 	 
 	 select * from t where (k1 = :k1_0 and k2 = :k2_0) or (k1 = :k1_1 and k2 = :k2_1) ...
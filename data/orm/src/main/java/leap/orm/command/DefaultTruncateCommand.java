@@ -16,10 +16,12 @@
 package leap.orm.command;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import leap.db.DbExecution;
 import leap.lang.Error;
+import leap.orm.cache.EntityCache;
 import leap.orm.dmo.Dmo;
 import leap.orm.mapping.EntityMapping;
 
@@ -46,7 +48,15 @@ public class DefaultTruncateCommand extends AbstractDmoCommand implements Trunca
 		
 		execution.addAll(db.getDialect().getTruncateTableSqls(em.getTable()));
 		
-		return execution.setRefreshSchema(false).execute();
+		boolean success = execution.setRefreshSchema(false).execute();
+		
+		EntityCache cache = context.getEntityCacheManager().getEntityCache(context, em);
+		if(null != cache) {
+			cache.clear();
+		}
+		context.getQueryCacheManager().invalidate(context, Collections.singleton(em.getTableName().toLowerCase()));
+		
+		return success;
 	}
 
 }
\ No newline at end of file
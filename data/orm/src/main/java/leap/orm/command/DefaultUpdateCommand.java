@@ -23,6 +23,7 @@ import leap.lang.Args;
 import leap.lang.convert.Converts;
 import leap.lang.expression.Expression;
 import leap.lang.params.Params;
+import leap.orm.cache.EntityCache;
 import leap.orm.dao.Dao;
 import leap.orm.generator.ValueGeneratorContext;
 import leap.orm.mapping.EntityMapping;
@@ -142,6 +143,11 @@ public class DefaultUpdateCommand extends AbstractEntityDaoCommand implements Up
 		
 	    int result = command.executeUpdate(this, entity);
 	    
+	    EntityCache cache = entityCache();
+	    if(null != cache) {
+	    	cache.remove(Mappings.getId(em, entity));
+	    }
+	    
 	    if(em.hasOptimisticLock()){
 		    if(result < 1){
 		    	String id  = Mappings.getIdToString(em, entity);
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.orm.generator;
+
+import leap.lang.Args;
+import leap.lang.convert.Converts;
+import leap.lang.expression.AbstractExpression;
+import leap.orm.OrmContext;
+import leap.orm.dao.Dao;
+import leap.orm.mapping.EntityMapping;
+import leap.orm.mapping.EntityMappingBuilder;
+import leap.orm.mapping.FieldMapping;
+import leap.orm.mapping.FieldMappingBuilder;
+import leap.orm.metadata.MetadataContext;
+import leap.orm.sql.SqlContext;
+
+import java.sql.Types;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Base class of the integer id generators which reserve a block of ids from the database in one round trip
+ * and hand them out from memory until the block is exhausted.
+ *
+ * <p>
+ * The generated ids are assigned before the insert statement is executed,
+ * so the batch inserting can send the records in real jdbc batches.
+ */
+public abstract class AbstractBlockIdGenerator extends AbstractExpression implements IdGenerator, ValueGenerator {
+
+    public static final int DEFAULT_BLOCK_SIZE = 100;
+
+    protected final Map<String, String> sources = new ConcurrentHashMap<>();
+    protected final Map<String, Block>  blocks  = new ConcurrentHashMap<>();
+
+    protected int blockSize = DEFAULT_BLOCK_SIZE;
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Sets the number of ids reserved in one round trip, default is {@link #DEFAULT_BLOCK_SIZE}.
+     */
+    public void setBlockSize(int blockSize) {
+        Args.assertTrue(blockSize > 0, "The block size must be positive");
+        this.blockSize = blockSize;
+    }
+
+    @Override
+    public void mapping(MetadataContext context, EntityMappingBuilder emb, FieldMappingBuilder fmb) {
+        int typeCode = fmb.getColumn().getTypeCode();
+        if(Types.SMALLINT != typeCode && Types.INTEGER != typeCode && Types.BIGINT != typeCode) {
+            throw new IllegalStateException("The id generator '" + getClass().getSimpleName() +
+                                            "' only supports integer column, check the field '" +
+                                            fmb.getFieldName() + "' of entity '" + emb.getEntityName() + "'");
+        }
+
+        String source = mappingSource(context, emb, fmb);
+
+        sources.put(key(context.getName(), emb.getEntityName(), fmb.getFieldName()), source);
+
+        fmb.getColumn().setAutoIncrement(false);
+        fmb.setInsertValue(this);
+    }
+
+    @Override
+    protected Object eval(Object context, Map<String, Object> vars) {
+        OrmContext    oc;
+        EntityMapping em;
+        FieldMapping  fm;
+
+        if(context instanceof ValueGeneratorContext) {
+            ValueGeneratorContext vc = (ValueGeneratorContext)context;
+            oc = vc.getOrmContext();
+            em = vc.getEntityMapping();
+            fm = vc.getFieldMapping();
+        }else if(context instanceof SqlContext) {
+            SqlContext sc = (SqlContext)context;
+            oc = sc.getOrmContext();
+            em = sc.getPrimaryEntityMapping();
+            fm = null == em || em.getKeyFieldMappings().length != 1 ? null : em.getKeyFieldMappings()[0];
+        }else{
+            throw new IllegalStateException("Unsupported generator context '" + context + "'");
+        }
+
+        if(null == em || null == fm) {
+            throw new IllegalStateException("Cannot resolve the generated field from context '" + context + "'");
+        }
+
+        return Converts.convert(next(oc, em, fm), fm.getJavaType());
+    }
+
+    /**
+     * Returns the next id of the given field.
+     */
+    public long next(OrmContext context, EntityMapping em, FieldMapping fm) {
+        String key = key(context.getName(), em.getEntityName(), fm.getFieldName());
+
+        Block block = blocks.get(key);
+        if(null == block) {
+            String source = sources.get(key);
+            if(null == source) {
+                throw new IllegalStateException("The field '" + fm.getFieldName() + "' of entity '" +
+                                                em.getEntityName() + "' is not mapped by this generator");
+            }
+            block = blocks.computeIfAbsent(key, (k) -> new Block(source));
+        }
+
+        return block.next(this, context);
+    }
+
+    /**
+     * Resolves the name of the database object (sequence or table row) the ids of the field are reserved from.
+     */
+    protected abstract String mappingSource(MetadataContext context, EntityMappingBuilder emb, FieldMappingBuilder fmb);
+
+    /**
+     * Reserves a block of {@link #blockSize} ids from the given source and returns the first id of the block.
+     */
+    protected abstract long allocate(OrmContext context, String source);
+
+    protected Dao dao(OrmContext context) {
+        return context.getAppContext().getBeanFactory().getBean(Dao.class, context.getName());
+    }
+
+    private static String key(String contextName, String entityName, String fieldName) {
+        return contextName + ":" + entityName + ":" + fieldName;
+    }
+
+    protected static final class Block {
+
+        private final String source;
+
+        private long next;
+        private long limit;
+
+        Block(String source) {
+            this.source = source;
+        }
+
+        synchronized long next(AbstractBlockIdGenerator generator, OrmContext context) {
+            if(next >= limit) {
+                next  = generator.allocate(context, source);
+                limit = next + generator.blockSize;
+            }
+            return next++;
+        }
+    }
+}
@@ -38,6 +38,7 @@ public class AutoIdGenerator implements IdGenerator {
 	private static final Log log = LogFactory.get(AutoIdGenerator.class);
 	
 	protected @NotNull ValueGenerator uuidGenerator;
+	protected @NotNull IdGenerator    tableIdGenerator;
 	
 	protected int uuidLength = 38;
 	
@@ -46,6 +47,11 @@ public class AutoIdGenerator implements IdGenerator {
 		this.uuidGenerator = uuidGenerator;
 	}
 	
+	@Inject(name="table")
+	public void setTableIdGenerator(IdGenerator tableIdGenerator) {
+		this.tableIdGenerator = tableIdGenerator;
+	}
+	
 	public void setUuidLength(int uuidLength) {
 		this.uuidLength = uuidLength;
 	}
@@ -62,8 +68,7 @@ public class AutoIdGenerator implements IdGenerator {
 			}else if(db.getDialect().supportsSequence()){
 				mappingSequence(context, emb, fmb);
 			}else{
-				//TODO : table sequence generator
-				throw new IllegalStateException("db '" + db.getDescription() + "' not supports identity and sequence, can not use autoid");
+				tableIdGenerator.mapping(context, emb, fmb);
 			}
 			
 			return ;
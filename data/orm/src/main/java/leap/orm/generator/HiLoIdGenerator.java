@@ -0,0 +1,44 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.orm.generator;
+
+import leap.orm.OrmContext;
+
+/**
+ * The hi/lo id generator, reads a 'hi' value from a sequence (or a table if sequence not supported)
+ * which increments by one and generates the ids <code>(hi - 1) * blockSize + 1</code> to <code>hi * blockSize</code> in memory.
+ *
+ * <p>
+ * The block size must not be changed after ids generated.
+ */
+public class HiLoIdGenerator extends PooledIdGenerator {
+
+    @Override
+    protected long allocate(OrmContext context, String source) {
+        long hi;
+        if(context.getDb().getDialect().supportsSequence()) {
+            hi = nextSequenceValue(context, source);
+        }else{
+            hi = allocateFromTable(context, source, 1);
+        }
+        return (hi - 1) * blockSize + 1;
+    }
+
+    @Override
+    protected int getSequenceIncrement() {
+        return 1;
+    }
+}
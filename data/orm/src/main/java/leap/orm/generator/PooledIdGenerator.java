@@ -0,0 +1,96 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.orm.generator;
+
+import leap.lang.Strings;
+import leap.lang.logging.Log;
+import leap.lang.logging.LogFactory;
+import leap.orm.OrmContext;
+import leap.orm.annotation.Sequence;
+import leap.orm.mapping.EntityMappingBuilder;
+import leap.orm.mapping.FieldMappingBuilder;
+import leap.orm.mapping.SequenceMapping;
+import leap.orm.mapping.SequenceMappingBuilder;
+import leap.orm.metadata.MetadataContext;
+
+/**
+ * An id generator reserves the blocks of ids from a sequence which increments by the block size,
+ * the value returned by the sequence is the first id of the reserved block.
+ *
+ * <p>
+ * Falls back to the {@link TableIdGenerator} if the database not supports sequence.
+ */
+public class PooledIdGenerator extends TableIdGenerator {
+
+    private static final Log log = LogFactory.get(PooledIdGenerator.class);
+
+    @Override
+    protected String mappingSource(MetadataContext context, EntityMappingBuilder emb, FieldMappingBuilder fmb) {
+        if(!context.getDb().getDialect().supportsSequence()) {
+            return super.mappingSource(context, emb, fmb);
+        }
+
+        SequenceMappingBuilder seq = new SequenceMappingBuilder();
+
+        Sequence a = fmb.getBeanProperty() != null ? fmb.getBeanProperty().getAnnotation(Sequence.class) : null;
+        if(null != a) {
+            seq.setName(Strings.firstNotEmpty(a.name(), a.value()));
+        }
+        if(Strings.isEmpty(seq.getName())) {
+            seq.setName(context.getNamingStrategy().generateSequenceName(emb.getTableName(), fmb.getColumn().getName()));
+        }
+
+        seq.setSchema(emb.getTableSchema());
+        seq.setStart(1L);
+        seq.setIncrement(getSequenceIncrement());
+
+        SequenceMapping exists = context.getMetadata().tryGetSequenceMapping(seq.getName());
+        if(null == exists){
+            context.getMetadata().addSequenceMapping(seq.build());
+        }else{
+            //the first value of a reserved block is read from the sequence, the increment must be the block size.
+            Integer increment = exists.getSequence().getIncrement();
+            if(null == increment || increment != getSequenceIncrement()) {
+                throw new IllegalStateException("The increment '" + increment + "' of the existing sequence '" + seq.getName() +
+                                                "' must be " + getSequenceIncrement() + " for the id generator '" +
+                                                getClass().getSimpleName() + "', check the field '" + fmb.getFieldName() +
+                                                "' of entity '" + emb.getEntityName() + "'");
+            }
+            log.info("Sequence '{}' aleady exists, skip adding it into the metadata", seq.getName());
+        }
+
+        return seq.getName();
+    }
+
+    @Override
+    protected long allocate(OrmContext context, String source) {
+        if(!context.getDb().getDialect().supportsSequence()) {
+            return super.allocate(context, source);
+        }
+        return nextSequenceValue(context, source);
+    }
+
+    /**
+     * Returns the increment of the mapping sequence.
+     */
+    protected int getSequenceIncrement() {
+        return blockSize;
+    }
+
+    protected long nextSequenceValue(OrmContext context, String sequenceName) {
+        return dao(context).queryForLong(context.getDb().getDialect().getSelectNextSequenceValueSql(sequenceName));
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.orm.generator;
+
+import leap.core.annotation.ConfigProperty;
+import leap.core.annotation.Configurable;
+import leap.lang.Args;
+import leap.lang.convert.Converts;
+import leap.lang.expression.AbstractExpression;
+import leap.orm.mapping.EntityMappingBuilder;
+import leap.orm.mapping.FieldMappingBuilder;
+import leap.orm.metadata.MetadataContext;
+
+import java.sql.Types;
+import java.util.Map;
+
+/**
+ * A 64-bit time ordered id generator (snowflake), generates the ids without any database round trip.
+ *
+ * <p>
+ * The id is composed of 41 bits milliseconds since {@link #EPOCH}, 10 bits worker id and 12 bits sequence in the same millisecond.
+ *
+ * <p>
+ * The worker id must be unique among the processes which inserting into the same table,
+ * it must be configured by the property <code>orm.snowflake.workerId</code> explicitly.
+ */
+@Configurable(prefix="orm.snowflake")
+public class SnowflakeIdGenerator extends AbstractExpression implements IdGenerator, ValueGenerator {
+
+    /**
+     * 2016-01-01T00:00:00Z
+     */
+    public static final long EPOCH = 1451606400000L;
+
+    public static final int WORKER_ID_BITS = 10;
+    public static final int SEQUENCE_BITS  = 12;
+
+    public static final long MAX_WORKER_ID = (1L << WORKER_ID_BITS) - 1;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    /**
+     * The max milliseconds to wait if the clock moved backwards.
+     */
+    private static final long MAX_BACKWARDS_MILLIS = 5;
+
+    protected long workerId = -1;
+
+    private long lastTimestamp = -1L;
+    private long sequence      = 0L;
+
+    /**
+     * Returns the configured worker id or -1 if not configured.
+     */
+    public long getWorkerId() {
+        return workerId;
+    }
+
+    @ConfigProperty
+    public void setWorkerId(long workerId) {
+        Args.assertTrue(workerId >= 0 && workerId <= MAX_WORKER_ID, "The worker id must between 0 and " + MAX_WORKER_ID);
+        this.workerId = workerId;
+    }
+
+    @Override
+    public void mapping(MetadataContext context, EntityMappingBuilder emb, FieldMappingBuilder fmb) {
+        if(Types.BIGINT != fmb.getColumn().getTypeCode()) {
+            throw new IllegalStateException("The snowflake id generator only supports bigint column, check the field '" +
+                                            fmb.getFieldName() + "' of entity '" + emb.getEntityName() + "'");
+        }
+
+        if(workerId < 0) {
+            throw new IllegalStateException("The worker id of snowflake id generator must be configured by property " +
+                                            "'orm.snowflake.workerId', check the field '" +
+                                            fmb.getFieldName() + "' of entity '" + emb.getEntityName() + "'");
+        }
+
+        fmb.getColumn().setAutoIncrement(false);
+        fmb.setInsertValue(this);
+    }
+
+    @Override
+    protected Object eval(Object context, Map<String, Object> vars) {
+        if(context instanceof ValueGeneratorContext && null != ((ValueGeneratorContext) context).getFieldMapping()) {
+            return Converts.convert(next(), ((ValueGeneratorContext) context).getFieldMapping().getJavaType());
+        }
+        return next();
+    }
+
+    /**
+     * Returns the next id.
+     */
+    public synchronized long next() {
+        if(workerId < 0) {
+            throw new IllegalStateException("The worker id of snowflake id generator must be configured");
+        }
+
+        long timestamp = System.currentTimeMillis();
+
+        if(timestamp < lastTimestamp) {
+            long offset = lastTimestamp - timestamp;
+            if(offset > MAX_BACKWARDS_MILLIS) {
+                throw new IllegalStateException("Clock moved backwards " + offset + "ms, refusing to generate id");
+            }
+            timestamp = waitUntil(lastTimestamp);
+        }
+
+        if(timestamp == lastTimestamp) {
+            sequence = (sequence + 1) & SEQUENCE_MASK;
+            if(sequence == 0) {
+                timestamp = waitUntil(lastTimestamp + 1);
+            }
+        }else{
+            sequence = 0L;
+        }
+
+        lastTimestamp = timestamp;
+
+        return ((timestamp - EPOCH) << (WORKER_ID_BITS + SEQUENCE_BITS)) | (workerId << SEQUENCE_BITS) | sequence;
+    }
+
+    private static long waitUntil(long timestamp) {
+        long now = System.currentTimeMillis();
+        while (now < timestamp) {
+            Thread.yield();
+            now = System.currentTimeMillis();
+        }
+        return now;
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.orm.generator;
+
+import leap.db.Db;
+import leap.db.model.DbColumnBuilder;
+import leap.db.model.DbTableBuilder;
+import leap.lang.Args;
+import leap.lang.logging.Log;
+import leap.lang.logging.LogFactory;
+import leap.orm.OrmContext;
+import leap.orm.dao.Dao;
+import leap.orm.mapping.EntityMappingBuilder;
+import leap.orm.mapping.FieldMappingBuilder;
+import leap.orm.metadata.MetadataContext;
+
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An id generator reserves the blocks of ids from a table, one row per entity table.
+ *
+ * <p>
+ * Use it for the databases which not supports sequence.
+ */
+public class TableIdGenerator extends AbstractBlockIdGenerator {
+
+    private static final Log log = LogFactory.get(TableIdGenerator.class);
+
+    public static final String DEFAULT_TABLE_NAME = "leap_id_blocks";
+
+    protected static final String NAME_COLUMN  = "block_name";
+    protected static final String VALUE_COLUMN = "next_value";
+
+    protected final Set<String> checkedContexts = ConcurrentHashMap.newKeySet();
+
+    protected String tableName = DEFAULT_TABLE_NAME;
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * Sets the name of table which stores the next values, default is {@link #DEFAULT_TABLE_NAME}.
+     */
+    public void setTableName(String tableName) {
+        Args.notEmpty(tableName, "tableName");
+        this.tableName = tableName;
+    }
+
+    @Override
+    protected String mappingSource(MetadataContext context, EntityMappingBuilder emb, FieldMappingBuilder fmb) {
+        return emb.getTableName().toLowerCase();
+    }
+
+    @Override
+    protected long allocate(OrmContext context, String source) {
+        return allocateFromTable(context, source, blockSize);
+    }
+
+    /**
+     * Increments the value of the given row by the given increment and returns the value before incrementing.
+     *
+     * <p>
+     * The row is updated in a new transaction, so the reserved values never be reused even if the
+     * current transaction rolled back.
+     *
+     * <p>
+     * If the row was inserted by other process concurrently (duplicate key), retries the updating.
+     */
+    protected long allocateFromTable(OrmContext context, String name, int increment) {
+        ensureTable(context);
+
+        final Dao    dao    = dao(context);
+        final String update = "update " + tableName + " set " + VALUE_COLUMN + " = " + VALUE_COLUMN + " + ? where " + NAME_COLUMN + " = ?";
+        final String select = "select " + VALUE_COLUMN + " from " + tableName + " where " + NAME_COLUMN + " = ?";
+        final String insert = "insert into " + tableName + " (" + NAME_COLUMN + "," + VALUE_COLUMN + ") values (?,?)";
+
+        for(int i=0;;i++) {
+            try {
+                return dao.doTransaction((s) -> {
+                    if(dao.executeUpdate(update, new Object[]{increment, name}) == 0) {
+                        dao.executeUpdate(insert, new Object[]{name, 1L + increment});
+                        return 1L;
+                    }
+                    return dao.queryForLong(select, new Object[]{name}) - increment;
+                }, true);
+            }catch (RuntimeException e) {
+                if(i > 0 || !isIntegrityViolation(e)) {
+                    throw e;
+                }
+                log.debug("The row '{}' of id table was inserted concurrently, retry updating : {}", name, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Returns true if the exception is caused by an integrity constraint violation (sql state class '23').
+     */
+    protected static boolean isIntegrityViolation(Throwable e) {
+        for(Throwable t = e; null != t; t = t.getCause()) {
+            if(t instanceof SQLException) {
+                String state = ((SQLException) t).getSQLState();
+                if(null != state && state.startsWith("23")) {
+                    return true;
+                }
+            }
+            if(t.getCause() == t) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    protected void ensureTable(OrmContext context) {
+        if(checkedContexts.contains(context.getName())) {
+            return;
+        }
+
+        synchronized (checkedContexts) {
+            if(checkedContexts.contains(context.getName())) {
+                return;
+            }
+
+            Db db = context.getDb();
+            if(!db.checkTableExists(tableName)) {
+                log.info("Creating id table '{}' in db '{}'", tableName, db.getName());
+
+                DbTableBuilder table = new DbTableBuilder(tableName);
+                table.addColumn(DbColumnBuilder.varchar(NAME_COLUMN, 200).primaryKey().notNull().build());
+                table.addColumn(DbColumnBuilder.bigint(VALUE_COLUMN).notNull().build());
+
+                db.cmdCreateTable(table.build()).execute();
+            }
+
+            checkedContexts.add(context.getName());
+        }
+    }
+}
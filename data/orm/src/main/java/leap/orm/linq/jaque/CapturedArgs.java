@@ -0,0 +1,132 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.orm.linq.jaque;
+
+import java.lang.invoke.SerializedLambda;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * Reads the captured arguments of the lambda objects of a lambda class.
+ *
+ * <p>
+ * The captured arguments are stored in the synthetic fields <code>arg$1, arg$2, ...</code> of the lambda class,
+ * the fields are read directly if they match the captured arguments of the {@link SerializedLambda}, otherwise
+ * the arguments are read from a {@link SerializedLambda} created on every call.
+ */
+abstract class CapturedArgs {
+
+	private static final Object[] EMPTY = new Object[0];
+
+	/**
+	 * Returns the {@link CapturedArgs} of the lambda class of the given lambda object.
+	 */
+	static CapturedArgs of(Object lambda, SerializedLambda sl) {
+		int count = sl.getCapturedArgCount();
+		if(count == 0) {
+			return FieldArgs.NONE;
+		}
+
+		Field[] fields = resolveFields(lambda, sl);
+		if(null == fields) {
+			return SerializedArgs.INSTANCE;
+		}
+		return new FieldArgs(fields);
+	}
+
+	/**
+	 * Returns the captured arguments of the given lambda object.
+	 */
+	abstract Object[] read(Object lambda);
+
+	private static Field[] resolveFields(Object lambda, SerializedLambda sl) {
+		Class<?> c = lambda.getClass();
+		int count = sl.getCapturedArgCount();
+
+		int instanceFields = 0;
+		for(Field f : c.getDeclaredFields()) {
+			if(!Modifier.isStatic(f.getModifiers())) {
+				instanceFields++;
+			}
+		}
+		if(instanceFields != count) {
+			return null;
+		}
+
+		Field[] fields = new Field[count];
+		try {
+			for(int i=0;i<count;i++) {
+				Field f = c.getDeclaredField("arg$" + (i + 1));
+				f.setAccessible(true);
+
+				Object v = f.get(lambda);
+				Object a = sl.getCapturedArg(i);
+				if(v != a && !(f.getType().isPrimitive() && null != v && v.equals(a))) {
+					return null;
+				}
+
+				fields[i] = f;
+			}
+		} catch (Exception e) {
+			return null;
+		}
+		return fields;
+	}
+
+	private static final class FieldArgs extends CapturedArgs {
+
+		static final FieldArgs NONE = new FieldArgs(new Field[0]);
+
+		private final Field[] fields;
+
+		FieldArgs(Field[] fields) {
+			this.fields = fields;
+		}
+
+		@Override
+		Object[] read(Object lambda) {
+			if(fields.length == 0) {
+				return EMPTY;
+			}
+
+			Object[] args = new Object[fields.length];
+			try {
+				for(int i=0;i<fields.length;i++) {
+					args[i] = fields[i].get(lambda);
+				}
+			} catch (IllegalAccessException e) {
+				throw new IllegalStateException("Error reading captured args of the lambda object, " + e.getMessage(), e);
+			}
+			return args;
+		}
+	}
+
+	private static final class SerializedArgs extends CapturedArgs {
+
+		static final SerializedArgs INSTANCE = new SerializedArgs();
+
+		@Override
+		Object[] read(Object lambda) {
+			SerializedLambda sl = JaqueConditionParser.getSerializedLambda(lambda);
+
+			Object[] args = new Object[sl.getCapturedArgCount()];
+			for(int i=0;i<args.length;i++) {
+				args[i] = sl.getCapturedArg(i);
+			}
+			return args;
+		}
+	}
+}
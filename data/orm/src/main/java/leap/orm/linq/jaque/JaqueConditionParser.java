@@ -17,9 +17,6 @@ package leap.orm.linq.jaque;
 
 import java.lang.invoke.SerializedLambda;
 import java.lang.reflect.Method;
-import java.util.Collections;
-import java.util.Map;
-import java.util.WeakHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import leap.lang.asm.ASM;
@@ -30,41 +27,42 @@ import leap.lang.params.Params;
 import leap.orm.linq.Condition;
 import leap.orm.linq.ConditionParser;
 
+/**
+ * Translates the serializable lambda conditions to sql.
+ * 
+ * <p>
+ * The translated sql and the reader of captured arguments are cached per lambda class, the {@link SerializedLambda}
+ * is only created at the first translation of a lambda class.
+ */
 @SuppressWarnings("rawtypes")
 public class JaqueConditionParser implements ConditionParser {
 	
-	private final Map<Object, SqlCondition> objectCache = Collections.synchronizedMap(new WeakHashMap<Object, SqlCondition>());
-    private final Map<Class,  SqlCondition> classCache  = Collections.synchronizedMap(new WeakHashMap<Class, SqlCondition>());
+	private final ClassValue<Cached> cache = new ClassValue<Cached>() {
+		@Override
+		protected Cached computeValue(Class<?> type) {
+			return new Cached();
+		}
+	};
 	
 	@Override
     public String parse(Condition condition, Params params, AtomicInteger paramsCounter) {
-		SerializedLambda sl = null;
-		SqlCondition     sc = getSqlConditionFromCache(condition);
+		Cached c = cache.get(condition.getClass());
+		Parsed p = c.parsed;
 		
-		if(null == sc) {
-			sl = getSerializedLambda(condition);
-			sc = parseCondition(sl, condition);
-			
-			if(sl.getCapturedArgCount() == 0) {
-				objectCache.put(condition, sc);
-			}else{
-				classCache.put(condition.getClass(), sc);
-			}
+		if(null == p) {
+			SerializedLambda sl = getSerializedLambda(condition);
+			p = new Parsed(parseCondition(sl, condition), CapturedArgs.of(condition, sl));
+			c.parsed = p;
 		}
 		
-		if(sc.hasCapturedParameters() && null == sl) {
-			sl = getSerializedLambda(condition);
-		}
+		Object[] capturedArgs = p.condition.hasCapturedParameters() ? p.capturedArgs.read(condition) : null;
 		
-		return sc.toSql(sl, params, paramsCounter);
+		return p.condition.toSql(capturedArgs, params, paramsCounter);
     }
 	
 	protected SqlCondition getSqlConditionFromCache(Condition condition) {
-		SqlCondition c = objectCache.get(condition);
-		if(null == c){
-			c = classCache.get(condition.getClass());
-		}
-		return c;
+		Parsed p = cache.get(condition.getClass()).parsed;
+		return null == p ? null : p.condition;
 	}
 	
 	protected static String sql(Condition condition) {
@@ -121,7 +119,7 @@ public class JaqueConditionParser implements ConditionParser {
 		return m;
 	}
 
-	private static SerializedLambda getSerializedLambda(Object lambda) {
+	static SerializedLambda getSerializedLambda(Object lambda) {
 		try {
 			//The lambda interface must implements java.io.Serializable
 			Method m = lambda.getClass().getDeclaredMethod("writeReplace");
@@ -134,4 +132,18 @@ public class JaqueConditionParser implements ConditionParser {
 			throw new IllegalStateException("Error resolve 'SerializedLambda' from the lambda oject, " + e.getMessage(), e);
 		}
 	}
-}
+
+	private static final class Cached {
+		volatile Parsed parsed;
+	}
+	
+	private static final class Parsed {
+		final SqlCondition condition;
+		final CapturedArgs capturedArgs;
+		
+		Parsed(SqlCondition condition, CapturedArgs capturedArgs) {
+			this.condition    = condition;
+			this.capturedArgs = capturedArgs;
+		}
+	}
+}
\ No newline at end of file
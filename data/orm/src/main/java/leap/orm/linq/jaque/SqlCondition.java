@@ -16,7 +16,6 @@
 package leap.orm.linq.jaque;
 
 import java.io.IOException;
-import java.lang.invoke.SerializedLambda;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import leap.lang.params.Params;
@@ -42,10 +41,10 @@ final class SqlCondition {
 		return sb.toString();
 	}
 	
-	public final String toSql(SerializedLambda sl,Params params,AtomicInteger paramsCounter) {
+	public final String toSql(Object[] capturedArgs,Params params,AtomicInteger paramsCounter) {
 		StringBuilder sb = new StringBuilder();
 		for(Node node : nodes) {
-			node.toSql(sb, sl, params, paramsCounter);
+			node.toSql(sb, capturedArgs, params, paramsCounter);
 		}
 		return sb.toString();
 	}
@@ -69,15 +68,15 @@ final class SqlCondition {
             }
 		}
 		
-		public final void toSql(Appendable out, SerializedLambda sl, Params params, AtomicInteger paramsCounter) {
+		public final void toSql(Appendable out, Object[] capturedArgs, Params params, AtomicInteger paramsCounter) {
 			try {
-	            _toSql(out, sl, params, paramsCounter);
+	            _toSql(out, capturedArgs, params, paramsCounter);
             } catch (IOException e) {
             	throw new IllegalStateException("Unexpected error," + e.getMessage(), e);
             }
 		}
 		
-		protected void _toSql(Appendable out, SerializedLambda sl, Params params, AtomicInteger paramsCounter) throws IOException {
+		protected void _toSql(Appendable out, Object[] capturedArgs, Params params, AtomicInteger paramsCounter) throws IOException {
 			_toSql(out);
 		}
 		
@@ -126,7 +125,7 @@ final class SqlCondition {
         }
 
 		@Override
-        protected void _toSql(Appendable out, SerializedLambda sl, Params params, AtomicInteger paramsCounter) throws IOException {
+        protected void _toSql(Appendable out, Object[] capturedArgs, Params params, AtomicInteger paramsCounter) throws IOException {
 			String name = "p" + paramsCounter.incrementAndGet();
 			out.append(':').append(name);
 			params.set(name, value);
@@ -147,10 +146,10 @@ final class SqlCondition {
         }
 
 		@Override
-        protected void _toSql(Appendable out, SerializedLambda sl, Params params, AtomicInteger paramsCounter) throws IOException {
+        protected void _toSql(Appendable out, Object[] capturedArgs, Params params, AtomicInteger paramsCounter) throws IOException {
 			String name = "p" + paramsCounter.incrementAndGet();
 			out.append(':').append(name);
-			params.set(name, sl.getCapturedArg(capturedIndex));
+			params.set(name, capturedArgs[capturedIndex]);
         }
 	}
 }
\ No newline at end of file
@@ -49,6 +49,7 @@ public class ClassMappingProcessor extends MappingProcessorAdapter implements Ma
 			mappingEntityTableByAnnotation(context, emb, sourceClass.getAnnotation(Entity.class));
 			mappingEntityTableByAnnotation(context, emb, sourceClass.getAnnotation(Table.class));
 			mappingEntityTableByDomain(context, emb, sourceClass.getAnnotation(Domain.class));
+			mappingEntityCacheByAnnotation(context, emb, sourceClass.getAnnotation(Cacheable.class));
 			mappingManyToOneByClassAnnotation(context, emb, sourceClass.getDeclaredAnnotationsByType(ManyToOne.class));
 			mappingManyToManyByClassAnnotation(context, emb, sourceClass.getDeclaredAnnotationsByType(ManyToMany.class));
 		}
@@ -117,6 +118,14 @@ public class ClassMappingProcessor extends MappingProcessorAdapter implements Ma
 		}
 	}
 	
+	protected void mappingEntityCacheByAnnotation(MetadataContext context,EntityMappingBuilder emb,Cacheable a){
+		if(null != a){
+			emb.setCacheable(a.value());
+			emb.setCacheMaxSize(a.maxSize());
+			emb.setCacheExpires(a.expires());
+		}
+	}
+	
 	protected void mappingEntityTableByDomain(MetadataContext context,EntityMappingBuilder emb,Domain annotation){
 		Domains domains = context.getMetadata().domains();
 		if(null != annotation){
@@ -61,6 +61,9 @@ public class EntityMapping {
     protected final boolean                      sharding;
     protected final boolean                      autoCreateShardingTable;
     protected final ShardingAlgorithm            shardingAlgorithm;
+    protected final boolean                      cacheable;
+    protected final int                          cacheMaxSize;
+    protected final int                          cacheExpires;
 	
 	private final Map<String,FieldMapping> columnNameToFields;
 	private final Map<String,FieldMapping> fieldNameToFields;
@@ -75,7 +78,8 @@ public class EntityMapping {
                          List<EntityValidator> validators,
                          List<RelationMapping> relationMappings,
                          boolean autoCreateTable,
-                         boolean sharding, boolean autoCreateShardingTable, ShardingAlgorithm shardingAlgorithm) {
+                         boolean sharding, boolean autoCreateShardingTable, ShardingAlgorithm shardingAlgorithm,
+                         boolean cacheable, int cacheMaxSize, int cacheExpires) {
 		
 		Args.notEmpty(entityName,"entity name");
 		Args.notNull(table,"table");
@@ -115,6 +119,9 @@ public class EntityMapping {
         this.autoCreateShardingTable= autoCreateShardingTable;
         this.shardingField          = Iterables.firstOrNull(fieldMappings, (f) -> f.isSharding());
         this.shardingAlgorithm      = shardingAlgorithm;
+        this.cacheable              = cacheable;
+        this.cacheMaxSize           = cacheMaxSize;
+        this.cacheExpires           = cacheExpires;
     }
 
     /**
@@ -243,6 +250,28 @@ public class EntityMapping {
         return sharding ? shardingAlgorithm.isShardingTable(this, tableName) : false;
     }
 
+    /**
+     * Returns true if the second-level cache of the entity is enabled.
+     */
+    public boolean isCacheable() {
+        return cacheable;
+    }
+
+    /**
+     * Returns the max number of cached entities, zero means the default size.
+     */
+    public int getCacheMaxSize() {
+        return cacheMaxSize;
+    }
+
+    /**
+     * Returns the seconds to expire the cached entity after loaded, zero means the default (300 seconds),
+     * negative means never expires.
+     */
+    public int getCacheExpires() {
+        return cacheExpires;
+    }
+
     /**
      * Returns the validators for validating the entity.
      */
@@ -52,6 +52,9 @@ public class EntityMappingBuilder implements Buildable<EntityMapping> {
     protected boolean                      sharding;
     protected boolean                      autoCreateShardingTable;
     protected ShardingAlgorithm            shardingAlgorithm;
+    protected boolean                      cacheable;
+    protected int                          cacheMaxSize;
+    protected int                          cacheExpires;
 	
 	public Class<?> getSourceClass(){
 		return null != entityClass ? entityClass : modelClass;
@@ -370,6 +373,33 @@ public class EntityMappingBuilder implements Buildable<EntityMapping> {
         return this;
     }
 
+    public boolean isCacheable() {
+        return cacheable;
+    }
+
+    public EntityMappingBuilder setCacheable(boolean cacheable) {
+        this.cacheable = cacheable;
+        return this;
+    }
+
+    public int getCacheMaxSize() {
+        return cacheMaxSize;
+    }
+
+    public EntityMappingBuilder setCacheMaxSize(int cacheMaxSize) {
+        this.cacheMaxSize = cacheMaxSize;
+        return this;
+    }
+
+    public int getCacheExpires() {
+        return cacheExpires;
+    }
+
+    public EntityMappingBuilder setCacheExpires(int cacheExpires) {
+        this.cacheExpires = cacheExpires;
+        return this;
+    }
+
     @Override
     public EntityMapping build() {
 		Collections.sort(fieldMappings, Comparators.ORDERED_COMPARATOR);
@@ -381,7 +411,8 @@ public class EntityMappingBuilder implements Buildable<EntityMapping> {
 	    return new EntityMapping(entityName,entityClass,table,fields,
 	    						 insertInterceptor,updateInterceptor,deleteInterceptor,findInterceptor,
 	    						 domain,modelClass,validators,relations, autoCreateTable,
-                                 sharding, autoCreateShardingTable, shardingAlgorithm);
+                                 sharding, autoCreateShardingTable, shardingAlgorithm,
+                                 cacheable, cacheMaxSize, cacheExpires);
     }
 	
 	public DbSchemaObjectName getTableSchemaObjectName() {
@@ -32,8 +32,15 @@ import leap.orm.dao.Dao;
 import leap.orm.mapping.EntityMapping;
 
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public abstract class AbstractQuery<T> implements Query<T>,QueryContext {
 	
@@ -190,6 +197,29 @@ public abstract class AbstractQuery<T> implements Query<T>,QueryContext {
 	    return new DefaultPageResult<T>(this, page);
     }
 	
+	@Override
+    public int forEach(int fetchSize, Consumer<? super T> action) {
+		Args.notNull(action, "action");
+	    return executeQueryForIterator(this, fetchSize, (it) -> {
+			int count = 0;
+			while(it.hasNext()) {
+				action.accept(it.next());
+				count++;
+			}
+			return count;
+	    });
+    }
+
+	@Override
+    public <R> R stream(int fetchSize, Function<Stream<T>, R> func) {
+		Args.notNull(func, "func");
+	    return executeQueryForIterator(this, fetchSize, (it) -> {
+			try(Stream<T> stream = StreamSupport.stream(Spliterators.spliteratorUnknownSize(it, Spliterator.ORDERED | Spliterator.NONNULL), false)) {
+				return func.apply(stream);
+			}
+	    });
+    }
+	
 	@Override
     public Scalar scalar() throws EmptyRecordsException, TooManyRecordsException, TooManyColumnsException {
 		Scalar scalar = scalarOrNull();
@@ -213,6 +243,11 @@ public abstract class AbstractQuery<T> implements Query<T>,QueryContext {
 
 	protected abstract QueryResult<T> executeQuery(QueryContext context);
 	
+	/**
+	 * Executes the query and applies the given function to the {@link Iterator} of the opened result set.
+	 */
+	protected abstract <R> R executeQueryForIterator(QueryContext context, int fetchSize, Function<Iterator<T>, R> func);
+	
 	protected abstract Scalar executeQueryForScalar(QueryContext context) throws TooManyRecordsException;
 	
 	protected abstract Scalars executeQueryForScalars(QueryContext context) throws TooManyRecordsException;
@@ -21,11 +21,29 @@ import leap.core.jdbc.SimpleScalarReader;
 import leap.core.jdbc.SimpleScalarsReader;
 import leap.core.value.Scalar;
 import leap.core.value.Scalars;
+import leap.lang.Objects2;
+import leap.lang.reflect.ReflectClass;
+import leap.lang.reflect.ReflectField;
+import leap.lang.reflect.Reflection;
+import leap.lang.params.Params;
+import leap.lang.value.Limit;
+import leap.orm.cache.QueryCache;
 import leap.orm.dao.Dao;
+import leap.orm.model.Model;
 import leap.orm.reader.ResultSetReaders;
 import leap.orm.sql.SqlCommand;
+import leap.orm.value.Entity;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 public class DefaultCommandQuery<T> extends AbstractQuery<T> {
 	
@@ -44,23 +62,163 @@ public class DefaultCommandQuery<T> extends AbstractQuery<T> {
 	
 	@Override
     public long count() {
-	    return command.executeCount(this, params());
+		QueryCache cache = queryCache();
+		if(null == cache) {
+			return command.executeCount(this, params());
+		}
+	    return cache.get(cacheKey("count", this), () -> command.executeCount(this, params()));
     }
 
 	@Override
     protected QueryResult<T> executeQuery(QueryContext qc) {
+		QueryCache cache = queryCache();
+		if(null == cache) {
+			return new DefaultQueryResult<T>(command.toString(), executeQueryForList(qc));
+		}
+		
+		List<T> list = cache.get(cacheKey("list", qc), () -> Collections.unmodifiableList(executeQueryForList(qc)));
+		
+		//the cached rows are shared, returns the copies.
+		List<T> copies = new ArrayList<>(list.size());
+		for(T row : list) {
+			copies.add(copyRow(row));
+		}
+		
+	    return new DefaultQueryResult<T>(command.toString(), copies);
+    }
+	
+	/**
+	 * Returns a shallow copy of the cached row.
+	 * 
+	 * <p>
+	 * Only the maps, entities, models and the beans mapped by the orm (the result class or an entity class) are copied,
+	 * the other values (i.e. string, number, uuid, java time and arrays) are returned directly.
+	 */
+	@SuppressWarnings("unchecked")
+	protected T copyRow(T row) {
+		if(null == row) {
+			return null;
+		}
+		
+		if(row instanceof Entity) {
+			return (T)new Entity(((Entity) row).getEntityName(), (Entity)row);
+		}
+		
+		if(row instanceof Map) {
+			return (T)new LinkedHashMap<>((Map<String, Object>)row);
+		}
+		
+		if(row instanceof Model) {
+			Model model = (Model)Reflection.newInstance(row.getClass());
+			model.setAll(((Model) row).fields());
+			return (T)model;
+		}
+		
+		if(row instanceof Date) {
+			return (T)((Date) row).clone();
+		}
+		
+		if(!isBeanRow(row.getClass())) {
+			return row;
+		}
+		
+		//copies all the fields, the properties may not have both the getter and setter.
+		ReflectClass rc   = ReflectClass.of(row.getClass());
+		T            copy = (T)rc.newInstance();
+		for(ReflectField rf : rc.getFields()) {
+			if(!rf.isStatic()) {
+				rf.setValue(copy, rf.getValue(row));
+			}
+		}
+		return copy;
+	}
+	
+	/**
+	 * Returns true if the row type is a bean mapped by the orm, i.e. the result class or an entity class.
+	 */
+	protected boolean isBeanRow(Class<?> type) {
+		if(type.isArray() || type.isEnum() || type.isPrimitive() || type.getName().startsWith("java.")) {
+			return false;
+		}
+		
+		if(!type.equals(resultClass) && null == metadata.tryGetEntityMapping(type)) {
+			return false;
+		}
+		
+		return ReflectClass.of(type).hasDefaultConstructor();
+	}
+	
+	protected List<T> executeQueryForList(QueryContext qc) {
 		ResultSetReader<List<T>> reader = ResultSetReaders.forListRow(dao.getOrmContext(), targetType, resultClass, command);
 		
-	    return new DefaultQueryResult<T>(command.toString(),command.executeQuery(qc, params(), reader));
+		return command.executeQuery(qc, params(), reader);
+	}
+
+	@Override
+    protected <R> R executeQueryForIterator(QueryContext qc, int fetchSize, Function<Iterator<T>, R> func) {
+		ResultSetReader<R> reader = ResultSetReaders.forRowIterator(dao.getOrmContext(), targetType, resultClass, command, fetchSize, func);
+		
+	    return command.executeQuery(qc, params(), reader);
     }
 
 	@Override
     protected Scalar executeQueryForScalar(QueryContext context) throws TooManyRecordsException {
-	    return command.executeQuery(context, params(), SimpleScalarReader.DEFAULT_INSTANCE);
+		QueryCache cache = queryCache();
+		if(null == cache) {
+			return command.executeQuery(context, params(), SimpleScalarReader.DEFAULT_INSTANCE);
+		}
+	    return cache.get(cacheKey("scalar", context), () -> command.executeQuery(context, params(), SimpleScalarReader.DEFAULT_INSTANCE));
     }
 
 	@Override
     protected Scalars executeQueryForScalars(QueryContext context) throws TooManyRecordsException {
-	    return command.executeQuery(context, params(), SimpleScalarsReader.DEFAULT_INSTANCE);
+		QueryCache cache = queryCache();
+		if(null == cache) {
+			return command.executeQuery(context, params(), SimpleScalarsReader.DEFAULT_INSTANCE);
+		}
+	    return cache.get(cacheKey("scalars", context), () -> command.executeQuery(context, params(), SimpleScalarsReader.DEFAULT_INSTANCE));
     }
+	
+	/**
+	 * Returns the {@link QueryCache} of the command or <code>null</code> if the command is not cached 
+	 * or the cache is not available now, i.e. in an active transaction.
+	 */
+	protected QueryCache queryCache() {
+		QueryCache cache = context.getQueryCacheManager().getQueryCache(context, command);
+		return null == cache || !cache.isAvailable() ? null : cache;
+	}
+	
+	/**
+	 * Returns the cache key of the query, contains the result type, the limit, the order by and the parameter values.
+	 */
+	protected Object cacheKey(String type, QueryContext qc) {
+		Limit limit = qc.getLimit();
+		
+		return Arrays.asList(type, targetType, resultClass, 
+							 null == limit ? null : limit.getStart(), 
+							 null == limit ? null : limit.getEnd(), 
+							 qc.getOrderBy(), 
+							 paramsKey());
+	}
+	
+	@SuppressWarnings("unchecked")
+    protected Map<String, Object> paramsKey() {
+		Object params = params();
+		
+		Map<String, Object> map = params instanceof Params ? ((Params)params).map() : (Map<String, Object>)params;
+		Map<String, Object> key = new HashMap<>(map.size());
+		
+		for(Map.Entry<String, Object> entry : map.entrySet()) {
+			Object value = entry.getValue();
+			
+			//array uses identity equals.
+			if(null != value && value.getClass().isArray()) {
+				value = Arrays.asList(Objects2.toObjectArray(value));
+			}
+			
+			key.put(entry.getKey().toLowerCase(), value);
+		}
+		
+		return key;
+	}
 }
\ No newline at end of file
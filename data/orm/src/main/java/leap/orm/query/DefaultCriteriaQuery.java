@@ -29,6 +29,7 @@ import leap.lang.params.MapArrayParams;
 import leap.lang.params.Params;
 import leap.lang.params.ParamsMap;
 import leap.lang.value.Limit;
+import leap.orm.cache.EntityCache;
 import leap.orm.dao.Dao;
 import leap.orm.linq.Condition;
 import leap.orm.mapping.EntityMapping;
@@ -37,9 +38,12 @@ import leap.orm.reader.ResultSetReaders;
 import leap.orm.sql.SqlClause;
 import leap.orm.sql.SqlStatement;
 
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
 public class DefaultCriteriaQuery<T> extends AbstractQuery<T> implements CriteriaQuery<T>,QueryContext {
@@ -214,7 +218,7 @@ public class DefaultCriteriaQuery<T> extends AbstractQuery<T> implements Criteri
     public int delete() {
 		String sql = builder.buildDeleteSql();
 		SqlStatement statement = createUpdateStatement(this,sql);
-	    return statement.executeUpdate();
+	    return evictCaches(statement.executeUpdate());
     }
 
 	@Override
@@ -222,8 +226,20 @@ public class DefaultCriteriaQuery<T> extends AbstractQuery<T> implements Criteri
 		Args.notEmpty(fields,"update fields");
 		String sql = builder.buildUpdateSql(fields, paramsMap());
 		SqlStatement statement = createUpdateStatement(this,sql);
-	    return statement.executeUpdate();
+	    return evictCaches(statement.executeUpdate());
     }
+	
+	/**
+	 * Clears the entity cache and the query caches of the entity's table, the affected rows of the update or delete query is unknown.
+	 */
+	protected int evictCaches(int result) {
+		EntityCache cache = context.getEntityCacheManager().getEntityCache(context, em);
+		if(null != cache) {
+			cache.clear();
+		}
+		context.getQueryCacheManager().invalidate(context, Collections.singleton(em.getTableName().toLowerCase()));
+		return result;
+	}
 
 	@Override
     protected QueryResult<T> executeQuery(QueryContext qc) {
@@ -235,6 +251,13 @@ public class DefaultCriteriaQuery<T> extends AbstractQuery<T> implements Criteri
 		return new DefaultQueryResult<T>(sql,statement.executeQuery(reader));
     }
 	
+	@Override
+    protected <R> R executeQueryForIterator(QueryContext qc, int fetchSize, Function<Iterator<T>, R> func) {
+		ResultSetReader<R> reader = ResultSetReaders.forEntityIterator(dao.getOrmContext(), em, targetType, targetType, fetchSize, func);
+		
+		return buildQueryStatement(qc).executeQuery(reader);
+    }
+	
 	@Override
     protected Scalar executeQueryForScalar(QueryContext context) throws TooManyRecordsException {
 	    return buildQueryStatement(context).executeQuery(SimpleScalarReader.DEFAULT_INSTANCE);
@@ -26,7 +26,9 @@ import leap.orm.mapping.EntityMapping;
 import leap.orm.reader.ResultSetReaders;
 import leap.orm.sql.SqlCommand;
 
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Function;
 
 public class DefaultEntityQuery<T> extends AbstractQuery<T> implements EntityQuery<T> {
 
@@ -60,6 +62,13 @@ public class DefaultEntityQuery<T> extends AbstractQuery<T> implements EntityQue
 	    return new DefaultQueryResult<T>(command.toString(),command.executeQuery(qc, params(), reader));
     }
 
+	@Override
+    protected <R> R executeQueryForIterator(QueryContext qc, int fetchSize, Function<Iterator<T>, R> func) {
+		ResultSetReader<R> reader = ResultSetReaders.forEntityIterator(dao.getOrmContext(), em, targetType, resultClass, fetchSize, func);
+		
+	    return command.executeQuery(qc, params(), reader);
+    }
+
 	@Override
     protected Scalar executeQueryForScalar(QueryContext context) throws TooManyRecordsException {
 	    return command.executeQuery(context, params(), SimpleScalarReader.DEFAULT_INSTANCE);
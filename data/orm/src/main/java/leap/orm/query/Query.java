@@ -28,9 +28,17 @@ import leap.lang.value.Page;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 public interface Query<T> {
 	
+	/**
+	 * The default fetch size for reading the rows one by one.
+	 */
+	int DEFAULT_FETCH_SIZE = 100;
+	
 	/**
 	 * Sets the given name and value as query parameter.
 	 */
@@ -187,6 +195,46 @@ public interface Query<T> {
 	 */
 	List<T> list();
 	
+	/**
+	 * Executes this query and performs the given action for each row, returns the number of rows.
+	 * 
+	 * <p>
+	 * The rows are read one by one from the opened result set and are not held by the query,
+	 * so it can be used to read a large result without loading all the rows into memory.
+	 * 
+	 * <p>
+	 * Some drivers (e.g. PostgreSQL) stream the rows only in a transaction, 
+	 * the auto-commit mode of the connection is turned off while reading the rows in that case.
+	 */
+	default int forEach(Consumer<? super T> action) {
+		return forEach(DEFAULT_FETCH_SIZE, action);
+	}
+	
+	/**
+	 * Executes this query and performs the given action for each row using the given fetch size, returns the number of rows.
+	 * 
+	 * @see #forEach(Consumer)
+	 */
+	int forEach(int fetchSize, Consumer<? super T> action);
+	
+	/**
+	 * Executes this query and applies the given function to a {@link Stream} of the rows.
+	 * 
+	 * <p>
+	 * The stream reads the rows one by one from the opened result set, 
+	 * it is closed when the function returns and must not be used outside the function.
+	 */
+	default <R> R stream(Function<Stream<T>, R> func) {
+		return stream(DEFAULT_FETCH_SIZE, func);
+	}
+	
+	/**
+	 * Executes this query and applies the given function to a {@link Stream} of the rows using the given fetch size.
+	 * 
+	 * @see #stream(Function)
+	 */
+	<R> R stream(int fetchSize, Function<Stream<T>, R> func);
+	
 	/**
 	 * Returns the scalar value in this query result.
 	 * 
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.orm.reader;
+
+import leap.db.DbDialect;
+import leap.lang.Primitives;
+import leap.lang.beans.BeanProperty;
+import leap.lang.convert.ConversionPlan;
+import leap.lang.convert.Converts;
+import leap.lang.jdbc.JdbcType;
+import leap.lang.jdbc.JdbcTypes;
+
+import java.lang.reflect.Type;
+import java.sql.ResultSet;
+import java.sql.Types;
+
+public class ColumnReaders {
+	
+	private static final ColumnReader STRING = (rs, i) -> rs.getString(i);
+	
+	private static final ColumnReader INTEGER = (rs, i) -> {
+		int v = rs.getInt(i);
+		return rs.wasNull() ? null : v;
+	};
+	
+	private static final ColumnReader LONG = (rs, i) -> {
+		long v = rs.getLong(i);
+		return rs.wasNull() ? null : v;
+	};
+	
+	private static final ColumnReader DOUBLE = (rs, i) -> {
+		double v = rs.getDouble(i);
+		return rs.wasNull() ? null : v;
+	};
+	
+	private static final ColumnReader FLOAT = (rs, i) -> {
+		float v = rs.getFloat(i);
+		return rs.wasNull() ? null : v;
+	};
+	
+	private static final ColumnReader BOOLEAN = (rs, i) -> {
+		boolean v = rs.getBoolean(i);
+		return rs.wasNull() ? null : v;
+	};
+	
+	/**
+	 * Returns a {@link ColumnReader} for reading the column value of the given jdbc type as the given target type.
+	 * 
+	 * <p>
+	 * Uses the typed getter of {@link ResultSet} if the column type matches the primitive or {@link String} target type,
+	 * or reads the value by the {@link DbDialect} and converts it to the target type by a {@link ConversionPlan}.
+	 */
+	public static ColumnReader forType(DbDialect dialect, int columnType, Class<?> targetType, Type genericType) {
+		ColumnReader typed = tryGetTypedReader(columnType, targetType);
+		if(null != typed) {
+			return typed;
+		}
+		
+		ConversionPlan<?> plan = Converts.plan(targetType, genericType);
+		return (rs, i) -> {
+			Object value = dialect.getColumnValue(rs, i, columnType);
+			return null == value ? null : plan.convert(value);
+		};
+	}
+	
+	/**
+	 * Returns a {@link ColumnReader} for reading the column value as the default read type of the given jdbc type.
+	 * 
+	 * @see JdbcType#getDefaultReadType()
+	 */
+	public static ColumnReader forDefaultType(DbDialect dialect, int columnType) {
+		JdbcType jdbcType = JdbcTypes.tryForTypeCode(columnType);
+		if(null != jdbcType) {
+			return forType(dialect, columnType, jdbcType.getDefaultReadType(), null);
+		}
+		
+		return (rs, i) -> {
+			Object value = dialect.getColumnValue(rs, i, columnType);
+			return null == value ? null : Converts.convert(value, JdbcTypes.forTypeCode(columnType).getDefaultReadType());
+		};
+	}
+	
+	/**
+	 * Returns a {@link ColumnReader} for reading the column value of the given {@link BeanProperty}.
+	 * 
+	 * <p>
+	 * Uses the typed getter of {@link ResultSet} if the column type matches the primitive or {@link String} property type,
+	 * or reads the raw value by the {@link DbDialect} and converts it by a {@link ConversionPlan} if it is not an instance of the property type.
+	 */
+	public static ColumnReader forProperty(DbDialect dialect, int columnType, BeanProperty bp) {
+		ColumnReader typed = tryGetTypedReader(columnType, bp.getType());
+		if(null != typed) {
+			return typed;
+		}
+		
+		Class<?>          type = Primitives.wrap(bp.getType());
+		ConversionPlan<?> plan = Converts.plan(bp.getType(), bp.getGenericType());
+		return (rs, i) -> {
+			Object value = dialect.getColumnValue(rs, i, columnType);
+			return null == value || type.isInstance(value) ? value : plan.convert(value);
+		};
+	}
+	
+	/**
+	 * Returns a {@link ColumnReader} for reading the raw column value by the {@link DbDialect}.
+	 */
+	public static ColumnReader forRawValue(DbDialect dialect, int columnType) {
+		return (rs, i) -> dialect.getColumnValue(rs, i, columnType);
+	}
+	
+	/**
+	 * Returns the typed getter of {@link ResultSet} for the primitive and {@link String} target types only, 
+	 * the other values are read by the {@link DbDialect}, which may handle them specially.
+	 */
+	protected static ColumnReader tryGetTypedReader(int columnType, Class<?> targetType) {
+		Class<?> type = Primitives.wrap(targetType);
+		
+		switch (columnType) {
+			case Types.CHAR:
+			case Types.VARCHAR:
+			case Types.LONGVARCHAR:
+			case Types.NCHAR:
+			case Types.NVARCHAR:
+			case Types.LONGNVARCHAR:
+				return String.class.equals(type) ? STRING : null;
+				
+			case Types.TINYINT:
+			case Types.SMALLINT:
+			case Types.INTEGER:
+				if(Integer.class.equals(type)) {
+					return INTEGER;
+				}
+				return Long.class.equals(type) ? LONG : null;
+				
+			case Types.BIGINT:
+				return Long.class.equals(type) ? LONG : null;
+				
+			case Types.DOUBLE:
+			case Types.FLOAT:
+				return Double.class.equals(type) ? DOUBLE : null;
+				
+			case Types.REAL:
+				return Float.class.equals(type) ? FLOAT : null;
+				
+			case Types.BOOLEAN:
+				return Boolean.class.equals(type) ? BOOLEAN : null;
+				
+			default:
+				return null;
+		}
+	}
+	
+	protected ColumnReaders() {
+		
+	}
+}
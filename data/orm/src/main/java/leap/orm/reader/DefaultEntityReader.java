@@ -15,13 +15,13 @@
  */
 package leap.orm.reader;
 
+import leap.core.cache.Cache;
+import leap.core.cache.ConcurrentLFUCache;
 import leap.core.exception.TooManyRecordsException;
 import leap.db.DbDialect;
 import leap.lang.Strings;
 import leap.lang.beans.BeanProperty;
 import leap.lang.beans.BeanType;
-import leap.lang.convert.Converts;
-import leap.lang.jdbc.JdbcTypes;
 import leap.lang.logging.Log;
 import leap.lang.logging.LogFactory;
 import leap.lang.reflect.Reflection;
@@ -34,24 +34,33 @@ import leap.orm.value.Entity;
 import leap.orm.value.EntityBase;
 
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 
 public class DefaultEntityReader implements EntityReader {
 	
 	private static final Log log = LogFactory.get(DefaultEntityReader.class);
 	
+	/**
+	 * The max number of cached {@link RowMapper}s, the queries with dynamic columns may produce unlimited keys.
+	 */
+	public static final int MAX_ROW_MAPPERS = 1024;
+	
 	protected final Map<Class<?>, Map<String,Object>> beanColumnMappings = new ConcurrentHashMap<Class<?>, Map<String,Object>>();
+	protected final Cache<RowMapperKey, RowMapper<?>> rowMappers         = new ConcurrentLFUCache<RowMapperKey, RowMapper<?>>(MAX_ROW_MAPPERS);
 
 	@Override
     public <T> T readFirst(OrmContext context, ResultSet rs, EntityMapping em, Class<T> resultClass) throws SQLException {
 		if(rs.next()){
-			ResultSetMapping rsm = createResultSetMapping(context, rs, em);
-			return readCurrentRow(context, rs, rsm, resultClass);
+			return getRowMapper(context, rs, em, resultClass).mapRow(rs);
 		}
 		return null;
     }
@@ -59,9 +68,7 @@ public class DefaultEntityReader implements EntityReader {
 	@Override
 	public <T> T readSingle(OrmContext context, ResultSet rs, EntityMapping em, Class<T> resultClass) throws SQLException, TooManyRecordsException {
 		if(rs.next()){
-			ResultSetMapping rsm = createResultSetMapping(context, rs, em);
-			
-			T result = readCurrentRow(context, rs, rsm, resultClass);
+			T result = getRowMapper(context, rs, em, resultClass).mapRow(rs);
 			
 			if(rs.next()){
 				throw new TooManyRecordsException("Found two or more results in the returned result set");
@@ -78,9 +85,9 @@ public class DefaultEntityReader implements EntityReader {
 		List<T> list = new ArrayList<T>();
 		
 		if(rs.next()){
-			ResultSetMapping rsm = createResultSetMapping(context, rs, em);
+			RowMapper<? extends T> mapper = getRowMapper(context, rs, em, resultClass);
 			do{
-				list.add(readCurrentRow(context, rs, rsm, resultClass));
+				list.add(mapper.mapRow(rs));
 			}while(rs.next());
 		}
 		
@@ -91,57 +98,109 @@ public class DefaultEntityReader implements EntityReader {
 		return list;
     }
 	
+	@Override
+    public <T> Iterator<T> readIterator(OrmContext context, ResultSet rs, EntityMapping em, Class<T> elementType, Class<? extends T> resultClass) throws SQLException {
+		return new ResultSetIterator<T>(rs) {
+			private RowMapper<? extends T> mapper;
+			
+			@Override
+			protected T readCurrentRow(ResultSet rs) throws SQLException {
+				if(null == mapper) {
+					mapper = getRowMapper(context, rs, em, resultClass);
+				}
+				return mapper.mapRow(rs);
+			}
+		};
+    }
+	
+	/**
+	 * Returns the cached {@link RowMapper} of the given result class for the columns of the given {@link ResultSet}.
+	 * 
+	 * <p>
+	 * Compiles a new {@link RowMapper} if not cached, the least frequently used ones are evicted if exceeds {@link #MAX_ROW_MAPPERS}.
+	 */
+	@SuppressWarnings("unchecked")
+	protected <T> RowMapper<T> getRowMapper(OrmContext context, ResultSet rs, EntityMapping em, Class<T> resultClass) throws SQLException {
+		RowMapperKey key = new RowMapperKey(em, resultClass, rs.getMetaData());
+		
+		RowMapper<T> mapper = (RowMapper<T>)rowMappers.get(key);
+		if(null == mapper) {
+			mapper = compileRowMapper(context, createResultSetMapping(context, rs, em), resultClass);
+			rowMappers.put(key, mapper);
+		}
+		
+		return mapper;
+	}
+	
 	@SuppressWarnings("unchecked")
-    protected <T> T readCurrentRow(OrmContext context, ResultSet rs,ResultSetMapping rsm,Class<T> resultClass) throws SQLException {
+	protected <T> RowMapper<T> compileRowMapper(OrmContext context, ResultSetMapping rsm, Class<T> resultClass) {
 		if(Entity.class.equals(resultClass) || EntityBase.class.equals(resultClass)){
-			return (T)readEntity(context, rs, rsm);
+			return (RowMapper<T>)compileEntityMapper(context, rsm);
 		}
 		
 		if(Model.class.isAssignableFrom(resultClass)){
-			return (T)readModel(context, rs, rsm,(Class<? extends Model>)resultClass);
+			return (RowMapper<T>)compileModelMapper(context, rsm, (Class<? extends Model>)resultClass);
 		}
 		
 		if(Map.class.equals(resultClass)){
-			return (T)readMap(context, rs,rsm);
+			return (RowMapper<T>)compileMapMapper(context, rsm);
 		}
 		
-		return readBean(context, rs,rsm,resultClass);
+		return compileBeanMapper(context, rsm, resultClass);
 	}
 	
 	protected ResultSetMapping createResultSetMapping(OrmContext context,ResultSet rs,EntityMapping em) throws SQLException {
 		return new DefaultResultSetMapping(context, rs, em);
 	}
 	
-	protected EntityBase readEntity(OrmContext context, ResultSet rs,ResultSetMapping rsm) throws SQLException {
-		Entity entity = new Entity(rsm.getPrimaryEntityMapping().getEntityName());
+	protected RowMapper<EntityBase> compileEntityMapper(OrmContext context, ResultSetMapping rsm) {
+		final String		 entityName = rsm.getPrimaryEntityMapping().getEntityName();
+		final String[]       keys       = resolveKeys(rsm);
+		final ColumnReader[] readers    = resolveReaders(context, rsm);
 		
-		readMap(context, rs, rsm, entity);
-
-		return entity;
+		return (rs) -> {
+			Entity entity = new Entity(entityName);
+			for(int i=0;i<keys.length;i++){
+				entity.put(keys[i], readers[i].read(rs, i+1));
+			}
+			return entity;
+		};
 	}
 	
-	protected Object readModel(OrmContext context,ResultSet rs,ResultSetMapping rsm,Class<? extends Model> modelClass) throws SQLException {
-		Model model = Reflection.newInstance(modelClass);
-		
-		model.setAll(readMap(context, rs, rsm));
+	protected RowMapper<Model> compileModelMapper(OrmContext context, ResultSetMapping rsm, Class<? extends Model> modelClass) {
+		final String[]       keys    = resolveKeys(rsm);
+		final ColumnReader[] readers = resolveReaders(context, rsm);
 		
-		return model;
+		return (rs) -> {
+			Model model = Reflection.newInstance(modelClass);
+			for(int i=0;i<keys.length;i++){
+				model.set(keys[i], readers[i].read(rs, i+1));
+			}
+			return model;
+		};
 	}
 	
-	protected Map<String, Object> readMap(OrmContext context, ResultSet rs,ResultSetMapping rsm) throws SQLException {
-		Map<String,Object> map = new LinkedHashMap<String, Object>(rsm.getColumnCount());
+	protected RowMapper<Map<String, Object>> compileMapMapper(OrmContext context, ResultSetMapping rsm) {
+		final String[]       keys    = resolveKeys(rsm);
+		final ColumnReader[] readers = resolveReaders(context, rsm);
 		
-		readMap(context, rs, rsm, map);
-		
-		return map;
+		return (rs) -> {
+			Map<String,Object> map = new LinkedHashMap<String, Object>(keys.length);
+			for(int i=0;i<keys.length;i++){
+				map.put(keys[i], readers[i].read(rs, i+1));
+			}
+			return map;
+		};
 	}
 	
-	protected <T> T readBean(OrmContext context, ResultSet rs,ResultSetMapping rsm,Class<T> beanClass) throws SQLException {
-		BeanType beanType = BeanType.of(beanClass);
+	protected <T> RowMapper<T> compileBeanMapper(OrmContext context, ResultSetMapping rsm, Class<T> beanClass) {
+		final BeanType  beanType = BeanType.of(beanClass);
+		final DbDialect dialect  = context.getDb().getDialect();
 		
-		T bean = beanType.newInstance();
-		
-		DbDialect dialect = context.getDb().getDialect();
+		int   			   count      = 0;
+		int[]              indexes    = new int[rsm.getColumnCount()];
+		BeanProperty[]	   properties = new BeanProperty[rsm.getColumnCount()];
+		ColumnReader[]     readers    = new ColumnReader[rsm.getColumnCount()];
 		
 		for(int i=0;i<rsm.getColumnCount();i++){
 			ResultColumnMapping cm = rsm.getColumnMapping(i);
@@ -159,43 +218,56 @@ public class DefaultEntityReader implements EntityReader {
 			}
 			
 			if(null != bp){
-				bp.setValue(bean, dialect.getColumnValue(rs, i+1,cm.getColumnType()));
+				indexes[count]    = i + 1;
+				properties[count] = bp;
+				readers[count]    = ColumnReaders.forProperty(dialect, cm.getColumnType(), bp);
+				count++;
 			}
 		}
 		
-		return bean;
+		final int[]          columnIndexes  = Arrays.copyOf(indexes, count);
+		final BeanProperty[] beanProperties = Arrays.copyOf(properties, count);
+		final ColumnReader[] columnReaders  = Arrays.copyOf(readers, count);
+		
+		return (rs) -> {
+			T bean = beanType.newInstance();
+			for(int i=0;i<columnIndexes.length;i++){
+				beanProperties[i].setValue(bean, columnReaders[i].read(rs, columnIndexes[i]));
+			}
+			return bean;
+		};
 	}
 	
-	protected void readMap(OrmContext context,ResultSet rs,ResultSetMapping rsm,Map<String,Object> map) throws SQLException {
-		DbDialect dialect = context.getDb().getDialect();
+	protected String[] resolveKeys(ResultSetMapping rsm) {
+		String[] keys = new String[rsm.getColumnCount()];
 		
-		for(int i=0;i<rsm.getColumnCount();i++){
+		for(int i=0;i<keys.length;i++){
 			ResultColumnMapping cm = rsm.getColumnMapping(i);
 			FieldMapping  fm = cm.getFieldMapping();
 			
-			Object value = readColumnValue(dialect, rs, cm, fm, i+1);
-			
-			if(null == fm) {
-				map.put(cm.getColumnLabel(), value);
-				continue;
-			}
-			map.put(fm.getFieldName(), value);
+			keys[i] = null == fm ? cm.getColumnLabel() : fm.getFieldName();
 		}
+		
+		return keys;
 	}
 	
-	protected Object readColumnValue(DbDialect dialect,ResultSet rs,ResultColumnMapping cm,FieldMapping fm, int index) throws SQLException{
-		Object value = dialect.getColumnValue(rs, index, cm.getColumnType());
+	protected ColumnReader[] resolveReaders(OrmContext context, ResultSetMapping rsm) {
+		DbDialect      dialect = context.getDb().getDialect();
+		ColumnReader[] readers = new ColumnReader[rsm.getColumnCount()];
 		
-		if(null != value){
+		for(int i=0;i<readers.length;i++){
+			ResultColumnMapping cm = rsm.getColumnMapping(i);
+			FieldMapping  fm = cm.getFieldMapping();
+			
 			if(null != fm && null != fm.getBeanProperty()){
-				value = Converts.convert(value, fm.getBeanProperty().getType(),fm.getBeanProperty().getGenericType());
+				BeanProperty bp = fm.getBeanProperty();
+				readers[i] = ColumnReaders.forType(dialect, cm.getColumnType(), bp.getType(), bp.getGenericType());
 			}else{
-				Class<?> targetType = JdbcTypes.forTypeCode(cm.getColumnType()).getDefaultReadType();
-				value = Converts.convert(value, targetType);
+				readers[i] = ColumnReaders.forDefaultType(dialect, cm.getColumnType());
 			}
 		}
 		
-		return value;
+		return readers;
 	}
 
 	protected BeanProperty getBeanPropertyByColumn(OrmContext context, BeanType beanType,ResultColumnMapping cm){
@@ -228,4 +300,46 @@ public class DefaultEntityReader implements EntityReader {
 		mappings.put(columnName, Null.VALUE);
 		return null;
 	}
-}
\ No newline at end of file
+	
+	protected static final class RowMapperKey {
+		private final EntityMapping em;
+		private final Class<?>      resultClass;
+		private final String[]      labels;
+		private final int[]         types;
+		private final int           hash;
+		
+		protected RowMapperKey(EntityMapping em, Class<?> resultClass, ResultSetMetaData md) throws SQLException {
+			this.em          = em;
+			this.resultClass = resultClass;
+			this.labels      = new String[md.getColumnCount()];
+			this.types       = new int[labels.length];
+			
+			int h = System.identityHashCode(em) * 31 + resultClass.hashCode();
+			for(int i=0;i<labels.length;i++){
+				labels[i] = md.getColumnLabel(i+1);
+				types[i]  = md.getColumnType(i+1);
+				h = h * 31 + Objects.hashCode(labels[i]);
+				h = h * 31 + types[i];
+			}
+			this.hash = h;
+		}
+
+		@Override
+        public int hashCode() {
+	        return hash;
+        }
+
+		@Override
+        public boolean equals(Object obj) {
+			if(this == obj) {
+				return true;
+			}
+			if(!(obj instanceof RowMapperKey)) {
+				return false;
+			}
+			RowMapperKey o = (RowMapperKey)obj;
+			return hash == o.hash && em == o.em && resultClass == o.resultClass && 
+				   Arrays.equals(types, o.types) && Arrays.equals(labels, o.labels);
+        }
+	}
+}
@@ -34,6 +34,7 @@ import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -100,6 +101,21 @@ public class DefaultRowReader implements RowReader {
 	    return list;
     }
 	
+	@Override
+    public <T> Iterator<T> readIterator(OrmContext context, ResultSet rs, Class<T> elementType, Class<? extends T> resultClass, SqlCommand command) throws SQLException {
+		return new ResultSetIterator<T>(rs) {
+			private ResultColumn[] columns;
+			
+			@Override
+			protected T readCurrentRow(ResultSet rs) throws SQLException {
+				if(null == columns) {
+					columns = createResultColumns(context, command, rs);
+				}
+				return DefaultRowReader.this.readCurrentRow(context, rs, columns, resultClass);
+			}
+		};
+    }
+	
 	@SuppressWarnings("unchecked")
     protected <T> T readCurrentRow(OrmContext context, ResultSet rs,ResultColumn[] columns,Class<T> resultClass) throws SQLException {
 		
@@ -17,6 +17,7 @@ package leap.orm.reader;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Iterator;
 import java.util.List;
 
 import leap.core.exception.TooManyRecordsException;
@@ -32,4 +33,9 @@ public interface EntityReader {
 	
 	<T> List<T> readList(OrmContext context, ResultSet rs,EntityMapping em,Class<T> elementType, Class<? extends T> resultClass) throws SQLException;
 	
+	/**
+	 * Returns an {@link Iterator} which reads the rows one by one, the rows are not held by the reader.
+	 */
+	<T> Iterator<T> readIterator(OrmContext context, ResultSet rs,EntityMapping em,Class<T> elementType, Class<? extends T> resultClass) throws SQLException;
+	
 }
\ No newline at end of file
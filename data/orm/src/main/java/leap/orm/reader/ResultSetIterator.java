@@ -0,0 +1,84 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.orm.reader;
+
+import leap.lang.exception.NestedSQLException;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An {@link Iterator} reads the rows of a {@link ResultSet} one by one.
+ * 
+ * <p>
+ * The iterator is only valid while the underlying {@link ResultSet} is open.
+ */
+public abstract class ResultSetIterator<T> implements Iterator<T> {
+	
+	protected final ResultSet rs;
+	
+	private boolean fetched;
+	private boolean hasNext;
+	private int     count;
+	
+	protected ResultSetIterator(ResultSet rs) {
+		this.rs = rs;
+	}
+	
+	/**
+	 * Returns the number of rows read by this iterator.
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	@Override
+    public boolean hasNext() {
+		if(!fetched) {
+			try {
+				hasNext = rs.next();
+			} catch (SQLException e) {
+				throw new NestedSQLException(e);
+			}
+			fetched = true;
+		}
+	    return hasNext;
+    }
+
+	@Override
+    public T next() {
+		if(!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		
+		fetched = false;
+		count++;
+		
+		try {
+			return readCurrentRow(rs);
+		} catch (SQLException e) {
+			throw new NestedSQLException(e);
+		}
+    }
+	
+	/**
+	 * Reads the current row of the {@link ResultSet}.
+	 */
+	protected abstract T readCurrentRow(ResultSet rs) throws SQLException;
+
+}
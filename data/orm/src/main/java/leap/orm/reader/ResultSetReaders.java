@@ -17,7 +17,9 @@ package leap.orm.reader;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Function;
 
 import leap.core.exception.EmptyRecordsException;
 import leap.core.exception.TooManyRecordsException;
@@ -103,6 +105,36 @@ public class ResultSetReaders {
 		};
 	}
 	
+	public static <T,R> ResultSetReader<R> forEntityIterator(final OrmContext context, final EntityMapping em, final Class<T> elementType,
+															 final Class<? extends T> resultClass, final int fetchSize, final Function<Iterator<T>, R> func){
+		return new ResultSetReader<R>() {
+			@Override
+            public R read(ResultSet rs) throws SQLException {
+				return func.apply(context.getEntityReader().readIterator(context, rs, em, elementType, resultClass));
+            }
+
+			@Override
+            public int getFetchSize() {
+	            return fetchSize;
+            }
+		};
+	}
+	
+	public static <T,R> ResultSetReader<R> forRowIterator(final OrmContext context, final Class<T> elementType, final Class<? extends T> resultClass,
+														  final SqlCommand command, final int fetchSize, final Function<Iterator<T>, R> func){
+		return new ResultSetReader<R>() {
+			@Override
+            public R read(ResultSet rs) throws SQLException {
+				return func.apply(context.getRowReader().readIterator(context, rs, elementType, resultClass, command));
+            }
+
+			@Override
+            public int getFetchSize() {
+	            return fetchSize;
+            }
+		};
+	}
+	
 	protected ResultSetReaders(){
 		
 	}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.orm.reader;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * A compiled mapper which reads the current row of a {@link ResultSet} as a result object.
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+	/**
+	 * Reads the current row of the given {@link ResultSet}.
+	 */
+	T mapRow(ResultSet rs) throws SQLException;
+	
+}
@@ -17,6 +17,7 @@ package leap.orm.reader;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Iterator;
 import java.util.List;
 
 import leap.core.exception.TooManyRecordsException;
@@ -30,5 +31,10 @@ public interface RowReader {
 	<T> T readSingle(OrmContext context, ResultSet rs, Class<T> resultClass,SqlCommand command) throws SQLException, TooManyRecordsException;
 	
 	<T> List<T> readList(OrmContext context, ResultSet rs, Class<T> elementType, Class<? extends T> resultClass, SqlCommand command) throws SQLException;
+	
+	/**
+	 * Returns an {@link Iterator} which reads the rows one by one, the rows are not held by the reader.
+	 */
+	<T> Iterator<T> readIterator(OrmContext context, ResultSet rs, Class<T> elementType, Class<? extends T> resultClass, SqlCommand command) throws SQLException;
 
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package leap.orm.sharding;
+
+/**
+ * Routes a sharding value to one of the sharding data sources.
+ *
+ * @see DataSourceShardingAlgorithms
+ */
+public interface DataSourceShardingAlgorithm {
+
+    /**
+     * Returns the index (starts from 0) of the shard which the given sharding value routes to.
+     *
+     * @param value the sharding value, never be null.
+     * @param shards the number of the shards.
+     */
+    int evalShard(Object value, int shards);
+
+}
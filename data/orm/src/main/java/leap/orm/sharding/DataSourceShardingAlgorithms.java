@@ -0,0 +1,108 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package leap.orm.sharding;
+
+import leap.lang.Args;
+import leap.lang.convert.Converts;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * The built-in {@link DataSourceShardingAlgorithm}s.
+ */
+public class DataSourceShardingAlgorithms {
+
+    /**
+     * Routes by the hash code of the normalized sharding value.
+     *
+     * <p>
+     * The integral values are normalized to the decimal string, so the values <code>3</code>, <code>3L</code> and <code>"3"</code>
+     * route to the same shard. The other values are normalized by {@link Object#toString()}.
+     */
+    public static final DataSourceShardingAlgorithm HASH = (value, shards) -> Math.floorMod(normalize(value).hashCode(), shards);
+
+    /**
+     * Routes by the modulo of the numeric sharding value.
+     */
+    public static final DataSourceShardingAlgorithm MODULO = (value, shards) -> (int)Math.floorMod(Converts.toLong(value), (long)shards);
+
+    /**
+     * Routes by the ranges of the numeric sharding value.
+     *
+     * <p>
+     * The shard i contains the values less than the upper bound i and not less than the upper bound i - 1,
+     * the last shard contains the values not less than the last upper bound.
+     *
+     * <p>
+     * Example : <code>range(1000, 2000)</code> routes [..,1000) to shard 0, [1000,2000) to shard 1 and [2000,..) to shard 2.
+     *
+     * @param upperBounds the ascending upper bounds, the length must be the number of shards minus one.
+     */
+    public static DataSourceShardingAlgorithm range(long... upperBounds) {
+        Args.assertTrue(null != upperBounds && upperBounds.length > 0, "The upper bounds must not be empty");
+        for(int i=1;i<upperBounds.length;i++) {
+            Args.assertTrue(upperBounds[i] > upperBounds[i-1], "The upper bounds must be ascending");
+        }
+        return new RangeAlgorithm(upperBounds);
+    }
+
+    protected static final class RangeAlgorithm implements DataSourceShardingAlgorithm {
+
+        private final long[] upperBounds;
+
+        RangeAlgorithm(long[] upperBounds) {
+            this.upperBounds = upperBounds;
+        }
+
+        @Override
+        public int evalShard(Object value, int shards) {
+            if(upperBounds.length != shards - 1) {
+                throw new ShardingException("The range algorithm requires " + (upperBounds.length + 1) + " shards, but " + shards + " shards found");
+            }
+
+            long v = Converts.toLong(value);
+            for(int i=0;i<upperBounds.length;i++) {
+                if(v < upperBounds[i]) {
+                    return i;
+                }
+            }
+            return upperBounds.length;
+        }
+    }
+
+    /**
+     * Returns the string form of the sharding value for hashing.
+     */
+    protected static String normalize(Object value) {
+        if(value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte ||
+           value instanceof BigInteger) {
+            return value.toString();
+        }
+
+        if(value instanceof BigDecimal || value instanceof Double || value instanceof Float) {
+            BigDecimal d = value instanceof BigDecimal ? (BigDecimal)value : new BigDecimal(value.toString());
+            return d.signum() == 0 ? "0" : d.stripTrailingZeros().toPlainString();
+        }
+
+        return value.toString();
+    }
+
+    protected DataSourceShardingAlgorithms() {
+
+    }
+}
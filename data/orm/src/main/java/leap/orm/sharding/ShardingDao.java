@@ -0,0 +1,246 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package leap.orm.sharding;
+
+import leap.lang.Args;
+import leap.lang.Beans;
+import leap.lang.Disposable;
+import leap.lang.beans.BeanType;
+import leap.lang.beans.DynaBean;
+import leap.orm.dao.Dao;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Routes the reads and writes of the sharding entities to the {@link Dao}s of the sharding data sources.
+ *
+ * <p>
+ * The operations with a sharding value are routed to one shard by the {@link DataSourceShardingAlgorithm},
+ * the queries without a sharding value are executed in all the shards in parallel and the results are merged.
+ *
+ * <p>
+ * The operations executed in parallel run in other threads, so they do not join the transaction of the caller.
+ * The default executor runs at most one thread per shard, the idle threads will be terminated.
+ * An {@link Executor} can be passed instead to share the threads among the sharding daos.
+ *
+ * <p>
+ * {@link #dispose()} shuts down the default executor, the executor passed by the caller is not shut down.
+ */
+public class ShardingDao implements Disposable {
+
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+
+    protected final List<Dao>                   shards;
+    protected final String                      shardingField;
+    protected final DataSourceShardingAlgorithm algorithm;
+    protected final Executor                    executor;
+    protected final boolean                     ownsExecutor;
+
+    /**
+     * Creates a {@link ShardingDao} routes to the {@link Dao}s of the given data sources.
+     */
+    public static ShardingDao of(String shardingField, DataSourceShardingAlgorithm algorithm, String... dataSourceNames) {
+        Args.notEmpty(dataSourceNames, "dataSourceNames");
+
+        List<Dao> shards = new ArrayList<>(dataSourceNames.length);
+        for(String name : dataSourceNames) {
+            shards.add(Dao.get(name));
+        }
+
+        return new ShardingDao(shards, shardingField, algorithm);
+    }
+
+    /**
+     * Creates a {@link ShardingDao} which creates and owns the default executor, see {@link #dispose()}.
+     */
+    public ShardingDao(List<Dao> shards, String shardingField, DataSourceShardingAlgorithm algorithm) {
+        this(shards, shardingField, algorithm, createDefaultExecutor(null == shards ? 1 : Math.max(1, shards.size())), true);
+    }
+
+    /**
+     * Creates a {@link ShardingDao} which runs the parallel operations in the given (shared) executor.
+     */
+    public ShardingDao(List<Dao> shards, String shardingField, DataSourceShardingAlgorithm algorithm, Executor executor) {
+        this(shards, shardingField, algorithm, executor, false);
+    }
+
+    private ShardingDao(List<Dao> shards, String shardingField, DataSourceShardingAlgorithm algorithm, Executor executor, boolean ownsExecutor) {
+        Args.notEmpty(shards, "shards");
+        Args.notEmpty(shardingField, "shardingField");
+        Args.notNull(algorithm, "algorithm");
+        Args.notNull(executor, "executor");
+
+        this.shards        = Collections.unmodifiableList(new ArrayList<>(shards));
+        this.shardingField = shardingField;
+        this.algorithm     = algorithm;
+        this.executor      = executor;
+        this.ownsExecutor  = ownsExecutor;
+    }
+
+    /**
+     * Returns the {@link Dao}s of all the shards.
+     */
+    public List<Dao> getShards() {
+        return shards;
+    }
+
+    /**
+     * Returns the name of the sharding field.
+     */
+    public String getShardingField() {
+        return shardingField;
+    }
+
+    /**
+     * Returns the {@link Dao} of the shard which the given sharding value routes to.
+     *
+     * @throws ShardingException if the sharding value is null or the algorithm returns an invalid shard.
+     */
+    public Dao route(Object shardingValue) throws ShardingException {
+        if(null == shardingValue) {
+            throw new ShardingException("The value of sharding field '" + shardingField + "' must not be null");
+        }
+
+        int index = algorithm.evalShard(shardingValue, shards.size());
+        if(index < 0 || index >= shards.size()) {
+            throw new ShardingException("Invalid shard " + index + " of sharding value '" + shardingValue + "', shards : " + shards.size());
+        }
+
+        return shards.get(index);
+    }
+
+    /**
+     * Returns the {@link Dao} of the shard which the sharding field's value of the given entity routes to.
+     */
+    public Dao routeEntity(Object entity) throws ShardingException {
+        Args.notNull(entity, "entity");
+        return route(getValue(entity, shardingField));
+    }
+
+    /**
+     * Inserts the entity into the routed shard.
+     */
+    public int insert(Object entity) {
+        return routeEntity(entity).insert(entity);
+    }
+
+    /**
+     * Updates the entity in the routed shard.
+     */
+    public int update(Object entity) {
+        return routeEntity(entity).update(entity);
+    }
+
+    /**
+     * Deletes the entity by id in the shard which the given sharding value routes to.
+     */
+    public int delete(Class<?> entityClass, Object shardingValue, Object id) {
+        return route(shardingValue).delete(entityClass, id);
+    }
+
+    /**
+     * Finds the entity by id in the shard which the given sharding value routes to.
+     */
+    public <T> T findOrNull(Class<T> entityClass, Object shardingValue, Object id) {
+        return route(shardingValue).findOrNull(entityClass, id);
+    }
+
+    /**
+     * Creates a new {@link ShardingQuery} of the given entity class.
+     */
+    public <T> ShardingQuery<T> createQuery(Class<T> entityClass) {
+        return new ShardingQuery<>(this, entityClass);
+    }
+
+    /**
+     * Executes the function in all the shards in parallel and returns the results in the order of the shards.
+     */
+    public <R> List<R> executeAll(Function<Dao, R> func) {
+        if(shards.size() == 1) {
+            return Collections.singletonList(func.apply(shards.get(0)));
+        }
+
+        List<CompletableFuture<R>> futures = new ArrayList<>(shards.size());
+        for(Dao shard : shards) {
+            futures.add(CompletableFuture.supplyAsync(() -> func.apply(shard), executor));
+        }
+
+        List<R> results = new ArrayList<>(futures.size());
+        try {
+            for(CompletableFuture<R> future : futures) {
+                results.add(future.join());
+            }
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if(cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            }
+            throw new ShardingException("Error executing in shards, " + cause.getMessage(), cause);
+        }
+        return results;
+    }
+
+    /**
+     * Returns the value of the given field in the entity.
+     */
+    @SuppressWarnings("rawtypes")
+    static Object getValue(Object entity, String field) {
+        if(entity instanceof DynaBean) {
+            return ((DynaBean) entity).getProperty(field);
+        }
+        if(entity instanceof Map) {
+            return ((Map) entity).get(field);
+        }
+        return Beans.getProperty(BeanType.of(entity.getClass()), entity, field);
+    }
+
+    /**
+     * Shuts down the default executor created by this dao, the running operations will be completed.
+     */
+    @Override
+    public void dispose() {
+        if(ownsExecutor) {
+            ((ExecutorService)executor).shutdown();
+        }
+    }
+
+    /**
+     * Creates the executor which runs at most the given threads, the idle threads will be terminated after 60 seconds.
+     */
+    protected static ExecutorService createDefaultExecutor(int threads) {
+        ThreadPoolExecutor executor =
+                new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), (r) -> {
+                    Thread thread = new Thread(r, "sharding-" + COUNTER.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package leap.orm.sharding;
+
+import leap.orm.OrmException;
+
+public class ShardingException extends OrmException {
+
+    private static final long serialVersionUID = -4386420815786359713L;
+
+    public ShardingException() {
+
+    }
+
+    public ShardingException(String message) {
+        super(message);
+    }
+
+    public ShardingException(Throwable cause) {
+        super(cause);
+    }
+
+    public ShardingException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+}
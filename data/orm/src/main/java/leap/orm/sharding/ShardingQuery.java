@@ -0,0 +1,272 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package leap.orm.sharding;
+
+import leap.lang.Args;
+import leap.lang.Strings;
+import leap.lang.value.Limit;
+import leap.orm.dao.Dao;
+import leap.orm.mapping.EntityMapping;
+import leap.orm.mapping.FieldMapping;
+import leap.orm.query.CriteriaQuery;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A criteria query of a sharding entity.
+ *
+ * <p>
+ * Executes in the routed shard if the sharding value was set, or else executes in all the shards in parallel (scatter-gather)
+ * and merges the results.
+ *
+ * <p>
+ * The merged results are sorted by the order by fields and the limit is applied to the merged results,
+ * each shard only returns the first {@link Limit#getEnd()} rows.
+ *
+ * <p>
+ * The merged results are sorted in memory by the natural order of the field values, the null values are the smallest
+ * by default (same as mysql, h2 and sql server), use {@link #nullsLargest(boolean)} for postgresql and oracle.
+ * The strings are compared by {@link String#compareTo(String)} which may differ from the collation of database,
+ * use {@link #comparator(Comparator)} if it matters.
+ */
+public class ShardingQuery<T> {
+
+    protected final ShardingDao         dao;
+    protected final Class<T>            entityClass;
+    protected final Map<String, Object> params = new LinkedHashMap<>();
+
+    protected Object   shardingValue;
+    protected String   where;
+    protected Object[] whereArgs;
+    protected String        orderBy;
+    protected Limit         limit;
+    protected boolean       nullsLargest;
+    protected Comparator<T> comparator;
+
+    public ShardingQuery(ShardingDao dao, Class<T> entityClass) {
+        Args.notNull(dao, "dao");
+        Args.notNull(entityClass, "entityClass");
+        this.dao         = dao;
+        this.entityClass = entityClass;
+    }
+
+    /**
+     * Routes the query to the shard of the given sharding value.
+     */
+    public ShardingQuery<T> shardingValue(Object value) {
+        this.shardingValue = value;
+        return this;
+    }
+
+    /**
+     * @see CriteriaQuery#where(String, Object...)
+     */
+    public ShardingQuery<T> where(String expression, Object... args) {
+        this.where     = expression;
+        this.whereArgs = args;
+        return this;
+    }
+
+    /**
+     * @see CriteriaQuery#param(String, Object)
+     */
+    public ShardingQuery<T> param(String name, Object value) {
+        params.put(name, value);
+        return this;
+    }
+
+    /**
+     * Sets the order by fields, i.e. "name asc, createdAt desc".
+     */
+    public ShardingQuery<T> orderBy(String expression) {
+        this.orderBy = expression;
+        return this;
+    }
+
+    /**
+     * Sets whether the null values are ordered as the largest values when merging the results of shards,
+     * default is <code>false</code>.
+     */
+    public ShardingQuery<T> nullsLargest(boolean nullsLargest) {
+        this.nullsLargest = nullsLargest;
+        return this;
+    }
+
+    /**
+     * Sets the comparator for sorting the merged results instead of the comparator created from the order by fields.
+     */
+    public ShardingQuery<T> comparator(Comparator<T> comparator) {
+        this.comparator = comparator;
+        return this;
+    }
+
+    /**
+     * Limits the results to the given rows.
+     */
+    public ShardingQuery<T> limit(int rows) {
+        return limit(1, rows);
+    }
+
+    /**
+     * Limits the results to the given start and end rows, starts from 1.
+     */
+    public ShardingQuery<T> limit(int startRows, int endRows) {
+        this.limit = new Limit(startRows, endRows);
+        return this;
+    }
+
+    /**
+     * Executes the query and returns the merged results.
+     */
+    public List<T> list() {
+        if(null != shardingValue) {
+            return createQuery(dao.route(shardingValue), limit).list();
+        }
+
+        Limit shardLimit = null == limit ? null : new Limit(1, limit.getEnd());
+
+        List<T> merged = new ArrayList<>();
+        for(List<T> list : dao.executeAll((shard) -> createQuery(shard, shardLimit).list())) {
+            merged.addAll(list);
+        }
+
+        if(null != comparator) {
+            merged.sort(comparator);
+        }else if(!Strings.isEmpty(orderBy)) {
+            merged.sort(createComparator(orderBy));
+        }
+
+        if(null != limit) {
+            int from = Math.min(limit.getStart() - 1, merged.size());
+            int to   = Math.min(limit.getEnd(), merged.size());
+            return new ArrayList<>(merged.subList(from, to));
+        }
+
+        return merged;
+    }
+
+    /**
+     * Executes the query and returns the first record or <code>null</code>.
+     */
+    public T firstOrNull() {
+        Limit old = limit;
+        limit = new Limit(1, 1);
+        try {
+            List<T> list = list();
+            return list.isEmpty() ? null : list.get(0);
+        }finally {
+            limit = old;
+        }
+    }
+
+    /**
+     * Returns the total count of the records in the routed shard or all the shards.
+     */
+    public long count() {
+        if(null != shardingValue) {
+            return createQuery(dao.route(shardingValue), null).count();
+        }
+
+        long count = 0;
+        for(Long c : dao.executeAll((shard) -> createQuery(shard, null).count())) {
+            count += c;
+        }
+        return count;
+    }
+
+    /**
+     * Deletes the records in the routed shard or all the shards and returns the affected rows.
+     */
+    public int delete() {
+        if(null != shardingValue) {
+            return createQuery(dao.route(shardingValue), null).delete();
+        }
+
+        int result = 0;
+        for(Integer r : dao.executeAll((shard) -> createQuery(shard, null).delete())) {
+            result += r;
+        }
+        return result;
+    }
+
+    protected CriteriaQuery<T> createQuery(Dao shard, Limit limit) {
+        CriteriaQuery<T> query = shard.createCriteriaQuery(entityClass);
+
+        if(!Strings.isEmpty(where)) {
+            query.where(where, whereArgs);
+        }
+
+        if(!params.isEmpty()) {
+            query.params(params);
+        }
+
+        if(!Strings.isEmpty(orderBy)) {
+            query.orderBy(orderBy);
+        }
+
+        if(null != limit) {
+            query.limit(limit);
+        }
+
+        return query;
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    protected Comparator<T> createComparator(String orderBy) {
+        EntityMapping em         = dao.getShards().get(0).getOrmContext().getMetadata().getEntityMapping(entityClass);
+        Comparator<T> comparator = null;
+
+        for(String item : Strings.split(orderBy, ',')) {
+            String[] parts = Strings.split(item.trim(), ' ');
+
+            String  field = parts[0];
+            boolean desc  = parts.length > 1 && parts[parts.length - 1].equalsIgnoreCase("desc");
+
+            //removes the alias.
+            int dot = field.lastIndexOf('.');
+            if(dot > 0) {
+                field = field.substring(dot + 1);
+            }
+
+            //the order by item may be a field name or a column name.
+            FieldMapping fm = em.tryGetFieldMapping(field);
+            if(null == fm) {
+                fm = em.tryGetFieldMappingByColumn(field);
+            }
+            if(null == fm) {
+                throw new ShardingException("No field or column '" + field + "' in entity '" + em.getEntityName() +
+                                            "', cannot sort the merged results by '" + orderBy + "'");
+            }
+
+            final String name = fm.getFieldName();
+            Comparator<T> c = Comparator.comparing((T o) -> (Comparable)ShardingDao.getValue(o, name),
+                                                   nullsLargest ? Comparator.nullsLast(Comparator.naturalOrder()) :
+                                                                  Comparator.nullsFirst(Comparator.naturalOrder()));
+            if(desc) {
+                c = c.reversed();
+            }
+
+            comparator = null == comparator ? c : comparator.thenComparing(c);
+        }
+
+        return comparator;
+    }
+}
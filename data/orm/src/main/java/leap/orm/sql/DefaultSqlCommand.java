@@ -29,6 +29,10 @@ import leap.orm.metadata.MetadataContext;
 import leap.orm.query.QueryContext;
 import leap.orm.reader.ResultSetReaders;
 
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
 public class DefaultSqlCommand implements SqlCommand {
 
     private static final Log log = LogFactory.get(DefaultSqlCommand.class);
@@ -41,9 +45,11 @@ public class DefaultSqlCommand implements SqlCommand {
     protected final DefaultSqlIdentity identity;
 
     private boolean prepared;
+    private int     cacheExpires;
 
 	protected SqlClause[] clauses;
 	protected SqlClause   queryClause;
+	protected Set<String> tableNames;
 
     public DefaultSqlCommand(Object source, String desc, String dbType, SqlLanguage lang, String content, DefaultSqlIdentity identity) {
         this.source  = source;
@@ -63,9 +69,14 @@ public class DefaultSqlCommand implements SqlCommand {
         try {
             this.clauses = lang.parseClauses(context,prepareSql(context, content)).toArray(new SqlClause[0]);
             this.queryClause = checkQuery();
+            this.tableNames  = resolveTableNames();
         } catch (Exception e) {
             throw new SqlConfigException("Error parsing sql content in command" + desc + ", source : " + source,e);
         }
+
+        if(cacheExpires > 0 && null == queryClause) {
+            throw new SqlConfigException("Only the query command can be cached, check the command" + desc + ", source : " + source);
+        }
         prepared = true;
     }
 
@@ -90,6 +101,23 @@ public class DefaultSqlCommand implements SqlCommand {
 	    return null != queryClause;
     }
 
+	@Override
+	public int getCacheExpires() {
+		return cacheExpires;
+	}
+
+	/**
+	 * Sets the expiration time in seconds of the cached query results, 0 means not cached.
+	 */
+	public void setCacheExpires(int cacheExpires) {
+		this.cacheExpires = cacheExpires;
+	}
+
+	@Override
+	public Set<String> getTableNames() {
+		return tableNames;
+	}
+
 	@Override
 	public SqlClause getQueryClause() throws SqlClauseException {
 		if(isQuery()){
@@ -167,7 +195,9 @@ public class DefaultSqlCommand implements SqlCommand {
 		Assert.isTrue(null == queryClause,"This command is a query, cannot execute update");
 		
 		if(clauses.length == 1){
-			return clauses[0].createUpdateStatement(context, params).executeUpdate(psHandler);
+			int result = clauses[0].createUpdateStatement(context, params).executeUpdate(psHandler);
+			invalidateQueryCaches(context);
+			return result;
 		}else{
 			throw new IllegalStateException("Two or more sql statements in a sql command not supported now");
 		}
@@ -182,7 +212,9 @@ public class DefaultSqlCommand implements SqlCommand {
 		Assert.isTrue(null == queryClause,"This command is a query, cannot execute batch update");
 		
 		if(clauses.length == 1){
-			return clauses[0].createBatchStatement(context, batchParams).executeBatchUpdate(psHandler);
+			int[] result = clauses[0].createBatchStatement(context, batchParams).executeBatchUpdate(psHandler);
+			invalidateQueryCaches(context);
+			return result;
 		}else{
 			throw new IllegalStateException("Two or more sql statements in a sql command not supported now");
 		}
@@ -195,6 +227,25 @@ public class DefaultSqlCommand implements SqlCommand {
         return new IncludeProcessor(context, content).process();
     }
 
+	protected Set<String> resolveTableNames() {
+		Set<String> names = new HashSet<>();
+		for(SqlClause clause : clauses) {
+			Set<String> clauseTableNames = clause.getTableNames();
+			if(null == clauseTableNames) {
+				return null;
+			}
+			names.addAll(clauseTableNames);
+		}
+		return Collections.unmodifiableSet(names);
+	}
+
+	/**
+	 * Invalidates the cached query results which reference the tables written by this command.
+	 */
+	protected void invalidateQueryCaches(SqlContext context) {
+		context.getOrmContext().getQueryCacheManager().invalidate(context.getOrmContext(), tableNames);
+	}
+
 	protected SqlClause checkQuery(){
 		SqlClause queryClause = null;
 		
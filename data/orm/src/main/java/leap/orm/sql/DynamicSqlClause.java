@@ -30,7 +30,10 @@ import leap.orm.sql.Sql.Type;
 import leap.orm.sql.ast.*;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class DynamicSqlClause extends AbstractSqlClause implements SqlClause {
 	
@@ -50,6 +53,7 @@ public class DynamicSqlClause extends AbstractSqlClause implements SqlClause {
 	private boolean hasOrderByPlaceHolder;
 	
 	private PreparedBatchSqlStatement preparedBatchStatement;
+	private volatile Set<String>      tableNames;
 	
     public DynamicSqlClause(DynamicSqlLanguage lang, Sql raw, Sql sql){
         Args.notNull(lang,"lang");
@@ -68,6 +72,20 @@ public class DynamicSqlClause extends AbstractSqlClause implements SqlClause {
 		return sql.isSelect();
 	}
 
+	@Override
+	public Set<String> getTableNames() {
+		Set<String> names = tableNames;
+		if(null == names) {
+			names = new HashSet<>();
+			if(!sql.isUnresolved()) {
+				AstUtils.collectTableNames(sql.nodes(), names);
+			}
+			tableNames = names = Collections.unmodifiableSet(names);
+		}
+		//no table found means the tables are unknown.
+		return names.isEmpty() ? null : names;
+	}
+
 	@Override
     public SqlStatement createUpdateStatement(SqlContext context, Object params) {
 		return doCreateStatement(context, params);
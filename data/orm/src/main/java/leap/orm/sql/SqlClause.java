@@ -17,12 +17,21 @@ package leap.orm.sql;
 
 import leap.orm.query.QueryContext;
 
+import java.util.Set;
+
 public interface SqlClause {
 	
 	/**
 	 * Returns <code>true</code> if this sql clause is a select statement.
 	 */
 	boolean isQuery();
+
+	/**
+	 * Returns the lower case names of the tables referenced by this sql clause or <code>null</code> if unknown.
+	 */
+	default Set<String> getTableNames() {
+		return null;
+	}
 	
 	SqlStatement createUpdateStatement(SqlContext context,Object params);
 	
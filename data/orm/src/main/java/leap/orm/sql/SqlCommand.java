@@ -27,6 +27,7 @@ import leap.orm.query.QueryContext;
 
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.Set;
 
 public interface SqlCommand extends Sourced {
 	
@@ -68,6 +69,26 @@ public interface SqlCommand extends Sourced {
 	 * @throws SqlClauseException if this command is not a sql query
      */
 	SqlClause getQueryClause() throws SqlClauseException;
+
+	/**
+	 * Returns the expiration time in seconds of the cached query results.
+	 *
+	 * <p>
+	 * Returns 0 if the query results of this command will not be cached.
+	 */
+	default int getCacheExpires() {
+		return 0;
+	}
+
+	/**
+	 * Returns the lower case names of the tables referenced by this command.
+	 *
+	 * <p>
+	 * Returns <code>null</code> if the tables are unknown, i.e. the command was not prepared or the sql was not parsed.
+	 */
+	default Set<String> getTableNames() {
+		return null;
+	}
 	
 	/**
 	 * Executes update and returns the affected rows.
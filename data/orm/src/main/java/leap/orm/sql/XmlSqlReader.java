@@ -50,6 +50,7 @@ public class XmlSqlReader implements SqlReader {
 	private static final String DEFAULT_OVERRIDE_ATTRIBUTE  = "default-override";
 	private static final String NAME_ATTRIBUTE              = "name";
 	private static final String LANG_ATTRIBUTE              = "lang";
+	private static final String CACHE_ATTRIBUTE             = "cache";
 	
 	protected @Inject @M BeanFactory beanFactory;
 	protected @Inject @M SqlLanguage defaultLanguage;
@@ -148,6 +149,7 @@ public class XmlSqlReader implements SqlReader {
 		String	content             = reader.resolveElementTextAndEnd();
 		String  entityName          = reader.resolveAttribute(ENTITY_NAME_ATTRIBUTE);
 		String  entityClassName     = reader.resolveAttribute(ENTITY_CLASS_ATTRIBUTE);
+		String  cache               = reader.resolveAttribute(CACHE_ATTRIBUTE);
 		
 		//check key,name,entity-class,entity-name
 		if(Strings.isEmpty(key) && Strings.isEmpty(name)){
@@ -262,7 +264,11 @@ public class XmlSqlReader implements SqlReader {
 		}
 		
 		log.trace("SQL(s) : \n\n  {}\n",content);
-		SqlCommand command = new DefaultSqlCommand(reader.getSource(), name, dbType, language, content, new DefaultSqlIdentity(key,name,entityName,entityClassName));
+		DefaultSqlCommand command = new DefaultSqlCommand(reader.getSource(), name, dbType, language, content, new DefaultSqlIdentity(key,name,entityName,entityClassName));
+		if(!Strings.isEmpty(cache)) {
+			command.setCacheExpires(parseCacheExpires(reader, cache, commandDescription));
+		}
+		
 		if(!Strings.isEmpty(key)){
 			metadata.addSqlCommand(key, command);
 		}
@@ -272,6 +278,36 @@ public class XmlSqlReader implements SqlReader {
 		}
 	}
 	
+	/**
+	 * Parses the expiration time in seconds of the cache attribute, supports '60', '60s', '5m' and '1h'.
+	 */
+	protected int parseCacheExpires(XmlReader reader, String cache, String commandDescription) {
+		String value = cache.trim().toLowerCase();
+		int    unit  = 1;
+		
+		char last = value.charAt(value.length() - 1);
+		if(last == 's') {
+			value = value.substring(0, value.length() - 1);
+		}else if(last == 'm') {
+			value = value.substring(0, value.length() - 1);
+			unit  = 60;
+		}else if(last == 'h') {
+			value = value.substring(0, value.length() - 1);
+			unit  = 3600;
+		}
+		
+		try {
+			int expires = Integer.parseInt(value.trim()) * unit;
+			if(expires > 0) {
+				return expires;
+			}
+		} catch (NumberFormatException e) {
+			//do nothing.
+		}
+		
+		throw new SqlConfigException("Invalid 'cache' attribute '" + cache + "' in command" + commandDescription + ", xml : " + reader.getSource());
+	}
+	
 	protected String resolveDbType(Resource r) {
 		String filename = r.getFilename();
 		if(null != filename){
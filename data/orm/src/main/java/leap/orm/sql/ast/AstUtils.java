@@ -17,6 +17,7 @@ package leap.orm.sql.ast;
 
 import leap.orm.sql.parser.Token;
 
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class AstUtils {
@@ -258,6 +259,34 @@ public class AstUtils {
         return false;
     }
 
+    /**
+     * Collects the lower case names of all the tables referenced by the given nodes, includes the tables in dynamic nodes.
+     */
+    public static void collectTableNames(AstNode[] nodes, Set<String> names) {
+        for(AstNode node : nodes) {
+            if(node instanceof SqlTableName) {
+                SqlTableName tn = (SqlTableName)node;
+
+                String name = tn.isEntity() ? tn.getEntityMapping().getTableName() : tn.getLastName();
+                if(null != name) {
+                    names.add(name.toLowerCase());
+                }
+            }else if(node instanceof AstNodeContainer) {
+                collectTableNames(((AstNodeContainer) node).getNodes(), names);
+            }else if(node instanceof IfClause) {
+                IfClause clause = (IfClause)node;
+                for(IfStatement stm : clause.getIfStatements()) {
+                    collectTableNames(stm.getBodyNodes(), names);
+                }
+                if(null != clause.getElseStatement()) {
+                    collectTableNames(clause.getElseStatement().getBodyNodes(), names);
+                }
+            }else if(node instanceof DynamicClause) {
+                collectTableNames(((DynamicClause) node).getBodyNodes(), names);
+            }
+        }
+    }
+
     protected AstUtils(){
     	
     }
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.orm.dao;
+
+import leap.core.cache.CacheStats;
+import leap.lang.New;
+import leap.orm.OrmTestCase;
+import leap.orm.cache.EntityCache;
+import leap.orm.mapping.EntityMapping;
+import leap.orm.tested.model.CachedModel;
+import leap.orm.tested.model.petclinic.Owner;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+
+public class EntityCacheTest extends OrmTestCase {
+
+    @Test
+    public void testNotCacheable() {
+        assertNull(context.getEntityCacheManager().getEntityCache(context, metadata.getEntityMapping(Owner.class)));
+    }
+
+    @Test
+    public void testFind() {
+        EntityMapping em    = metadata.getEntityMapping(CachedModel.class);
+        EntityCache   cache = context.getEntityCacheManager().getEntityCache(context, em);
+        assertNotNull(cache);
+
+        deleteAll(CachedModel.class);
+        insert("1", "a");
+
+        CacheStats before = cache.getStats();
+        CachedModel m1 = dao.find(CachedModel.class, "1");
+        CachedModel m2 = dao.find(CachedModel.class, "1");
+        CacheStats after = cache.getStats();
+
+        assertEquals("a", m1.getName());
+        assertEquals("a", m2.getName());
+        assertNotSame(m1, m2);
+        assertEquals(before.getMissCount() + 1, after.getMissCount());
+        assertEquals(before.getHitCount() + 1, after.getHitCount());
+
+        //changes made to a returned instance must not leak into the cache.
+        m1.setName("x");
+        assertEquals("a", dao.find(CachedModel.class, "1").getName());
+
+        //changes made outside the dao are not visible until evicted.
+        updateDirectly("1", "b");
+        assertEquals("a", dao.find(CachedModel.class, "1").getName());
+        assertEquals("a", dao.find("CachedModel", Map.class, "1").get("name"));
+        cache.clear();
+        assertEquals("b", dao.find(CachedModel.class, "1").getName());
+
+        //misses are not cached.
+        assertNull(dao.findOrNull(CachedModel.class, "2"));
+        insert("2", "c");
+        assertEquals("c", dao.find(CachedModel.class, "2").getName());
+    }
+
+    @Test
+    public void testEviction() {
+        deleteAll(CachedModel.class);
+        insert("1", "a");
+        insert("2", "b");
+        insert("3", "c");
+
+        assertEquals("a", dao.find(CachedModel.class, "1").getName());
+
+        CachedModel m = new CachedModel();
+        m.setId("1");
+        m.setName("a1");
+        dao.update(m);
+        assertEquals("a1", dao.find(CachedModel.class, "1").getName());
+
+        dao.find(CachedModel.class, "2");
+        dao.delete(CachedModel.class, "2");
+        assertNull(dao.findOrNull(CachedModel.class, "2"));
+
+        dao.find(CachedModel.class, "3");
+        dao.batchDelete(CachedModel.class, new Object[]{"3"});
+        assertNull(dao.findOrNull(CachedModel.class, "3"));
+
+        dao.find(CachedModel.class, "1");
+        dao.createCriteriaQuery(CachedModel.class).where("id = ?", "1").update(New.hashMap("name", "a2"));
+        assertEquals("a2", dao.find(CachedModel.class, "1").getName());
+
+        dao.find(CachedModel.class, "1");
+        dao.deleteAll(CachedModel.class);
+        assertNull(dao.findOrNull(CachedModel.class, "1"));
+    }
+
+    @Test
+    public void testFindList() {
+        deleteAll(CachedModel.class);
+        insert("1", "a");
+        insert("2", "b");
+        insert("3", "c");
+
+        dao.find(CachedModel.class, "2");
+        updateDirectly("2", "x");
+
+        List<CachedModel> list = dao.findList(CachedModel.class, new Object[]{"3", "2", "1"});
+        assertEquals(3, list.size());
+        assertEquals("c", list.get(0).getName());
+        assertEquals("a", list.get(2).getName());
+        assertEquals("b", list.get(1).getName());
+
+        //all the records are cached now.
+        updateDirectly("1", "y");
+        assertEquals("a", dao.findList(CachedModel.class, new Object[]{"1"}).get(0).getName());
+
+        assertEquals(2, dao.findListIfExists(CachedModel.class, new Object[]{"1", "4", "3"}).size());
+        try {
+            dao.findList(CachedModel.class, new Object[]{"1", "4"});
+            fail("Should throw exception");
+        } catch (RuntimeException e) {
+
+        }
+    }
+
+    @Test
+    public void testTransaction() {
+        EntityMapping em    = metadata.getEntityMapping(CachedModel.class);
+        EntityCache   cache = context.getEntityCacheManager().getEntityCache(context, em);
+
+        deleteAll(CachedModel.class);
+        insert("1", "a");
+        assertEquals("a", dao.find(CachedModel.class, "1").getName());
+
+        //the uncommitted changes must not be cached after rollback.
+        dao.doTransaction((s) -> {
+            CachedModel m = new CachedModel();
+            m.setId("1");
+            m.setName("b");
+            dao.update(m);
+            assertFalse(cache.isAvailable());
+            assertEquals("b", dao.find(CachedModel.class, "1").getName());
+            s.setRollbackOnly();
+        });
+        assertTrue(cache.isAvailable());
+        assertEquals("a", dao.find(CachedModel.class, "1").getName());
+
+        //the committed changes are visible after commit.
+        dao.doTransaction((s) -> {
+            CachedModel m = new CachedModel();
+            m.setId("1");
+            m.setName("c");
+            dao.update(m);
+            dao.find(CachedModel.class, "1");
+        });
+        assertEquals("c", dao.find(CachedModel.class, "1").getName());
+    }
+
+    @Test
+    public void testStalePut() {
+        EntityMapping em    = metadata.getEntityMapping(CachedModel.class);
+        EntityCache   cache = context.getEntityCacheManager().getEntityCache(context, em);
+
+        deleteAll(CachedModel.class);
+        insert("1", "a");
+
+        //a record loaded before an eviction must not be cached.
+        long version = cache.getVersion();
+        cache.remove("1");
+        cache.put(New.hashMap("id", "1", "name", "x"), version);
+        assertEquals("a", dao.find(CachedModel.class, "1").getName());
+    }
+
+    private void insert(String id, String name) {
+        CachedModel m = new CachedModel();
+        m.setId(id);
+        m.setName(name);
+        m.create();
+    }
+
+    private void updateDirectly(String id, String name) {
+        String table = metadata.getEntityMapping(CachedModel.class).getTableName();
+        dao.executeUpdate("update " + table + " set name = :name where id = :id", New.hashMap("name", name, "id", id));
+    }
+
+}
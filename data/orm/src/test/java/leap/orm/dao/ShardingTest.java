@@ -19,9 +19,18 @@ package leap.orm.dao;
 import leap.junit.contexual.Contextual;
 import leap.lang.New;
 import leap.orm.OrmTestCase;
+import leap.orm.sharding.DataSourceShardingAlgorithm;
+import leap.orm.sharding.DataSourceShardingAlgorithms;
+import leap.orm.sharding.ShardingDao;
+import leap.orm.tested.model.ModelWithGuid;
 import leap.orm.tested.model.ShardingModel;
 import org.junit.Test;
 
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
 public class ShardingTest extends OrmTestCase {
 
     @Test
@@ -60,6 +69,117 @@ public class ShardingTest extends OrmTestCase {
         assertNull(ShardingModel.<ShardingModel>where("type = 'b'").firstOrNull());
     }
 
+    @Test
+    @Contextual("h2")
+    public void testDataSourceSharding() {
+        ShardingDao sd = ShardingDao.of("field1", DataSourceShardingAlgorithms.MODULO, "h2", "derby");
+        sd.getShards().forEach((shard) -> shard.deleteAll(ModelWithGuid.class));
+
+        //insert
+        Object[] ids = new Object[5];
+        for(int i=0;i<5;i++) {
+            ModelWithGuid m = new ModelWithGuid();
+            m.setField1(String.valueOf(i));
+            assertEquals(1, sd.insert(m));
+            ids[i] = m.getId();
+        }
+        assertEquals(3, sd.getShards().get(0).createCriteriaQuery(ModelWithGuid.class).count());
+        assertEquals(2, sd.getShards().get(1).createCriteriaQuery(ModelWithGuid.class).count());
+
+        //find
+        assertNotNull(sd.findOrNull(ModelWithGuid.class, "3", ids[3]));
+        assertNull(sd.findOrNull(ModelWithGuid.class, "2", ids[3]));
+
+        //routed query
+        assertEquals(2, sd.createQuery(ModelWithGuid.class).shardingValue(1).count());
+        assertEquals(1, sd.createQuery(ModelWithGuid.class).shardingValue(1).where("field1 = ?", "3").list().size());
+
+        //scatter-gather query
+        assertEquals(5, sd.createQuery(ModelWithGuid.class).count());
+
+        List<ModelWithGuid> list = sd.createQuery(ModelWithGuid.class).orderBy("field1 desc").limit(2, 3).list();
+        assertEquals(2, list.size());
+        assertEquals("3", list.get(0).getField1());
+        assertEquals("2", list.get(1).getField1());
+
+        assertEquals("0", sd.createQuery(ModelWithGuid.class).orderBy("field1").firstOrNull().getField1());
+
+        //the order by item is resolved by the entity mapping.
+        String column = metadata.getEntityMapping(ModelWithGuid.class).getFieldMapping("field1").getColumnName();
+        assertEquals("4", sd.createQuery(ModelWithGuid.class).orderBy("t." + column.toUpperCase() + " desc").firstOrNull().getField1());
+
+        //the null values (nulls are the smallest in h2).
+        ModelWithGuid n = new ModelWithGuid();
+        n.setId("null-field1");
+        sd.getShards().get(0).insert(n);
+        assertNull(sd.createQuery(ModelWithGuid.class).orderBy("field1").firstOrNull().getField1());
+        list = sd.createQuery(ModelWithGuid.class).orderBy("field1").nullsLargest(true).list();
+        assertEquals("0", list.get(0).getField1());
+        assertNull(list.get(5).getField1());
+        sd.getShards().get(0).delete(ModelWithGuid.class, "null-field1");
+
+        assertEquals(2, sd.createQuery(ModelWithGuid.class).where("field1 > ?", "2").list().size());
+
+        //delete
+        assertEquals(1, sd.delete(ModelWithGuid.class, "4", ids[4]));
+        assertEquals(4, sd.createQuery(ModelWithGuid.class).delete());
+        assertEquals(0, sd.createQuery(ModelWithGuid.class).count());
+
+        sd.dispose();
+    }
+
+    @Test
+    @Contextual("h2")
+    public void testShardingExecutor() {
+        //the default executor is owned and shut down by the sharding dao.
+        ShardingDao sd = ShardingDao.of("field1", DataSourceShardingAlgorithms.MODULO, "h2", "derby");
+        sd.createQuery(ModelWithGuid.class).count();
+        sd.dispose();
+        try {
+            sd.createQuery(ModelWithGuid.class).count();
+            fail("Should throw RejectedExecutionException");
+        }catch(RejectedExecutionException e) {
+
+        }
+
+        //the shared executor is not shut down.
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            sd = new ShardingDao(sd.getShards(), "field1", DataSourceShardingAlgorithms.MODULO, executor);
+            sd.createQuery(ModelWithGuid.class).count();
+            sd.dispose();
+            assertFalse(executor.isShutdown());
+            sd.createQuery(ModelWithGuid.class).count();
+        }finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testDataSourceShardingAlgorithms() {
+        assertEquals(1, DataSourceShardingAlgorithms.MODULO.evalShard(5, 2));
+        assertEquals(1, DataSourceShardingAlgorithms.MODULO.evalShard(-1, 2));
+        assertEquals(0, DataSourceShardingAlgorithms.MODULO.evalShard("4", 2));
+
+        int shard = DataSourceShardingAlgorithms.HASH.evalShard("abc", 3);
+        assertTrue(shard >= 0 && shard < 3);
+        assertEquals(shard, DataSourceShardingAlgorithms.HASH.evalShard("abc", 3));
+
+        //the numbers and the strings of the same value route to the same shard.
+        for(int i=0;i<20;i++) {
+            shard = DataSourceShardingAlgorithms.HASH.evalShard(i, 7);
+            assertEquals(shard, DataSourceShardingAlgorithms.HASH.evalShard((long)i, 7));
+            assertEquals(shard, DataSourceShardingAlgorithms.HASH.evalShard(String.valueOf(i), 7));
+            assertEquals(shard, DataSourceShardingAlgorithms.HASH.evalShard(new java.math.BigDecimal(i + ".00"), 7));
+        }
+
+        DataSourceShardingAlgorithm range = DataSourceShardingAlgorithms.range(1000, 2000);
+        assertEquals(0, range.evalShard(-1, 3));
+        assertEquals(1, range.evalShard(1000, 3));
+        assertEquals(1, range.evalShard(1999L, 3));
+        assertEquals(2, range.evalShard("2000", 3));
+    }
+
     //todo
     public void testIndexParamsSharding() {
 
@@ -15,7 +15,10 @@
  */
 package leap.orm.dao.query;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import leap.junit.contexual.Contextual;
 import leap.lang.Confirm;
@@ -149,4 +152,81 @@ public class CriteriaQueryTest extends OrmTestCase {
 		assertEquals(child.getParentId(), childFromDb.getParentId());
 	}
 	
-}
\ No newline at end of file
+	@Test
+	public void testForEachAndStream() {
+		deleteAll(Owner.class);
+		
+		new Owner().setFullName("a", "0").save();
+		new Owner().setFullName("b", "0").save();
+		new Owner().setFullName("c", "1").save();
+		
+		List<String> names = new ArrayList<>();
+		int count = Owner.<Owner>query().where("lastName = ?", "0").orderBy("firstName asc").forEach((o) -> names.add(o.getFirstName()));
+		assertEquals(2, count);
+		assertEquals("a", names.get(0));
+		assertEquals("b", names.get(1));
+		
+		assertEquals(0, Owner.<Owner>query().where("lastName = ?", "x").forEach((o) -> fail()));
+		
+		String joined = Owner.<Owner>query().orderBy("firstName asc").stream(1, (s) -> s.map(Owner::getFirstName).collect(Collectors.joining(",")));
+		assertEquals("a,b,c", joined);
+		
+		assertEquals(2, dao.createNamedQuery("findOwnerByLastName").param("lastName", "0").forEach((m) -> assertNotNull(m)));
+	}
+	
+	@Test
+	public void testReadWithResultClass() {
+		deleteAll(Owner.class);
+		
+		new Owner().setFullName("a", "0").save();
+		new Owner().setFullName("b", "1").save();
+		
+		for(int i=0;i<2;i++) {
+			List<OwnerBean> beans = dao.createCriteriaQuery(metadata.getEntityMapping(Owner.class), OwnerBean.class).orderBy("firstName asc").list();
+			assertEquals(2, beans.size());
+			assertNotNull(beans.get(0).getId());
+			assertEquals("a", beans.get(0).getFirstName());
+			assertEquals("1", beans.get(1).getLastName());
+			
+			List<Map> maps = dao.createCriteriaQuery(metadata.getEntityMapping(Owner.class), Map.class).orderBy("firstName asc").list();
+			assertEquals(2, maps.size());
+			assertTrue(maps.get(0).get("id") instanceof Integer);
+			assertEquals("a", maps.get(0).get("firstName"));
+			
+			Owner owner = Owner.<Owner>query().orderBy("firstName asc").first();
+			assertEquals(Integer.valueOf(beans.get(0).getId()), owner.getId());
+			assertEquals("0", owner.getLastName());
+		}
+	}
+	
+	public static class OwnerBean {
+		private int    id;
+		private String firstName;
+		private String lastName;
+		
+		public int getId() {
+			return id;
+		}
+		
+		public void setId(int id) {
+			this.id = id;
+		}
+		
+		public String getFirstName() {
+			return firstName;
+		}
+		
+		public void setFirstName(String firstName) {
+			this.firstName = firstName;
+		}
+		
+		public String getLastName() {
+			return lastName;
+		}
+		
+		public void setLastName(String lastName) {
+			this.lastName = lastName;
+		}
+	}
+	
+}
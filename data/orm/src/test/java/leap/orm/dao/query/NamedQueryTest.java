@@ -15,10 +15,16 @@
  */
 package leap.orm.dao.query;
 
+import leap.core.cache.CacheStats;
 import leap.junit.contexual.Contextual;
+import leap.lang.New;
 import leap.orm.OrmTestCase;
+import leap.orm.cache.QueryCache;
 import leap.orm.annotation.SqlKey;
 import leap.orm.dao.DaoCommand;
+import leap.orm.query.DefaultCommandQuery;
+import leap.orm.sql.SqlCommand;
+import leap.orm.tested.model.CachedModel;
 import leap.orm.tested.model.file.Directory;
 import leap.orm.tested.model.file.File;
 import leap.orm.tested.model.petclinic.Owner;
@@ -26,8 +32,10 @@ import leap.orm.tested.model.product.Product;
 import org.junit.Test;
 
 import java.sql.Statement;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 public class NamedQueryTest extends OrmTestCase {
 
@@ -78,6 +86,110 @@ public class NamedQueryTest extends OrmTestCase {
         newer = dao.createNamedQuery("findOwnerByLastNameSimple").params(older).single();
         compareFields(older, newer);
 	}
+	@Test
+	public void testCachedQuery() {
+		deleteAll(Owner.class);
+
+		Owner owner = new Owner().setFullName("a", "b");
+		owner.setCity("c1");
+		owner.create();
+
+		QueryCache cache = context.getQueryCacheManager().getQueryCache(context, metadata.getSqlCommand("cachedFindOwnersByCity"));
+		assertNotNull(cache);
+		assertNull(context.getQueryCacheManager().getQueryCache(context, metadata.getSqlCommand("simpleMapParamsSql")));
+
+		CacheStats before = cache.getStats();
+		assertEquals(1, dao.createNamedQuery("cachedFindOwnersByCity").param("city", "c1").list().size());
+		assertEquals(1, dao.createNamedQuery("cachedFindOwnersByCity").param("city", "c1").list().size());
+		assertEquals(0, dao.createNamedQuery("cachedFindOwnersByCity").param("city", "c2").list().size());
+		assertEquals(1, dao.createNamedQuery("cachedFindOwnersByCity").param("city", "c1").count());
+		assertEquals(before.getHitCount() + 1, cache.getStats().getHitCount());
+
+		//writes not made by the orm are not visible.
+		db.executeUpdate("update owners set " + metadata.getEntityMapping(Owner.class).getFieldMapping("city").getColumnName() + " = 'c2'");
+		assertEquals(1, dao.createNamedQuery("cachedFindOwnersByCity").param("city", "c1").list().size());
+
+		//writes to other tables do not invalidate the cache.
+		deleteAll(CachedModel.class);
+		assertEquals(1, dao.createNamedQuery("cachedFindOwnersByCity").param("city", "c1").list().size());
+
+		//writes to the referenced table invalidate the cache.
+		dao.executeUpdate("update Owner set city = :city", New.hashMap("city", "c3"));
+		assertEquals(0, dao.createNamedQuery("cachedFindOwnersByCity").param("city", "c1").list().size());
+		assertEquals(1, dao.createNamedQuery("cachedFindOwnersByCity").param("city", "c3").list().size());
+
+		owner = new Owner().setFullName("c", "d");
+		owner.setCity("c3");
+		owner.create();
+		assertEquals(2, dao.createNamedQuery("cachedFindOwnersByCity").param("city", "c3").list().size());
+
+		dao.createCriteriaQuery(Owner.class).where("city = ?", "c3").update(New.hashMap("city", "c4"));
+		assertEquals(0, dao.createNamedQuery("cachedFindOwnersByCity").param("city", "c3").list().size());
+
+		//the cached list can be modified by caller.
+		List<?> list = dao.createNamedQuery("cachedFindOwnersByCity").param("city", "c4").list();
+		list.clear();
+		assertEquals(2, dao.createNamedQuery("cachedFindOwnersByCity").param("city", "c4").list().size());
+
+		//the cached rows can be modified by caller.
+		dao.createNamedQuery("cachedFindOwnersByCity", Map.class).param("city", "c4").first().put("city", "x");
+		dao.createNamedQuery("cachedFindOwnersByCity", Owner.class).param("city", "c4").first().setCity("x");
+		assertEquals("c4", dao.createNamedQuery("cachedFindOwnersByCity", Map.class).param("city", "c4").first().get("city"));
+		assertEquals("c4", dao.createNamedQuery("cachedFindOwnersByCity", Owner.class).param("city", "c4").first().getCity());
+
+		//the uncommitted writes are neither cached nor remained after rollback.
+		dao.doTransaction((s) -> {
+			dao.executeUpdate("update Owner set city = :city", New.hashMap("city", "c5"));
+			assertEquals(2, dao.createNamedQuery("cachedFindOwnersByCity").param("city", "c5").list().size());
+			s.setRollbackOnly();
+		});
+		assertEquals(0, dao.createNamedQuery("cachedFindOwnersByCity").param("city", "c5").list().size());
+		assertEquals(2, dao.createNamedQuery("cachedFindOwnersByCity").param("city", "c4").list().size());
+	}
+
+	@Test
+	public void testCachedQueryRowCopy() {
+		deleteAll(Owner.class);
+
+		Owner owner = new Owner().setFullName("a", "b");
+		owner.setCity("c1");
+		owner.create();
+
+		//the fields without a getter and setter pair are copied too.
+		for(int i=0;i<2;i++) {
+			OwnerRow row = dao.createNamedQuery("cachedFindOwnersByCity", OwnerRow.class).param("city", "c1").first();
+			assertEquals("a", row.firstName());
+			assertEquals("c1", row.city);
+			row.city = "x";
+		}
+
+		//the non-bean rows are returned directly.
+		SqlCommand command = metadata.getSqlCommand("cachedFindOwnersByCity");
+		new DefaultCommandQuery<Object>(dao, command, Object.class) {
+			{
+				LocalDate date = LocalDate.now();
+				UUID      uuid = UUID.randomUUID();
+				byte[]    bytes = new byte[]{1};
+				assertSame(date, copyRow(date));
+				assertSame(uuid, copyRow(uuid));
+				assertSame(bytes, copyRow(bytes));
+			}
+		};
+	}
+
+	public static class OwnerRow {
+		private String firstName;
+		public  String city;
+
+		public void setFirstName(String firstName) {
+			this.firstName = firstName;
+		}
+
+		String firstName() {
+			return firstName;
+		}
+	}
+
 	@Test
 	public void testQueryWithResultClass(){
 		Product.deleteAll();
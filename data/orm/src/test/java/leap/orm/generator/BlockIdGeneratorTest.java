@@ -0,0 +1,155 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.orm.generator;
+
+import leap.lang.New;
+import leap.orm.OrmTestCase;
+import leap.orm.model.Model;
+import leap.orm.tested.model.HiLoIdModel;
+import leap.orm.tested.model.PooledIdModel;
+import leap.orm.tested.model.SnowflakeIdModel;
+import leap.orm.tested.model.TableIdModel;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class BlockIdGeneratorTest extends OrmTestCase {
+
+    @Test
+    public void testHiLo() {
+        testGenerator(HiLoIdModel.class);
+    }
+
+    @Test
+    public void testPooled() {
+        testGenerator(PooledIdModel.class);
+    }
+
+    @Test
+    public void testTable() {
+        testGenerator(TableIdModel.class);
+    }
+
+    @Test
+    public void testSnowflake() {
+        testGenerator(SnowflakeIdModel.class);
+    }
+
+    @Test
+    public void testSnowflakeOrdering() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator();
+        generator.setWorkerId(SnowflakeIdGenerator.MAX_WORKER_ID);
+
+        long last = 0;
+        for(int i=0;i<10000;i++) {
+            long id = generator.next();
+            assertTrue(id > last);
+            assertEquals(SnowflakeIdGenerator.MAX_WORKER_ID, (id >> SnowflakeIdGenerator.SEQUENCE_BITS) & SnowflakeIdGenerator.MAX_WORKER_ID);
+            last = id;
+        }
+    }
+
+    @Test
+    public void testSnowflakeWorkerIdRequired() {
+        try {
+            new SnowflakeIdGenerator().next();
+            fail("Should throw exception");
+        } catch (IllegalStateException e) {
+
+        }
+    }
+
+    @Test
+    public void testTableAllocationConcurrently() throws Exception {
+        TableIdGenerator generator = new TableIdGenerator();
+        String           name      = "test_concurrent_" + System.currentTimeMillis();
+
+        //all the threads may try to insert the first row.
+        List<Long>   values  = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> threads = new ArrayList<>();
+        for(int i=0;i<5;i++) {
+            threads.add(new Thread(() -> values.add(generator.allocateFromTable(context, name, 10))));
+        }
+        threads.forEach(Thread::start);
+        for(Thread t : threads) {
+            t.join();
+        }
+
+        assertEquals(5, values.size());
+        assertEquals(5, new HashSet<>(values).size());
+    }
+
+    @Test
+    public void testTableAllocation() {
+        TableIdGenerator generator = new TableIdGenerator();
+
+        long first  = generator.allocateFromTable(context, "test_table_allocation", 10);
+        long second = generator.allocateFromTable(context, "test_table_allocation", 10);
+        assertEquals(first + 10, second);
+    }
+
+    private void testGenerator(Class<? extends Model> modelClass) {
+        deleteAll(modelClass);
+
+        Set<Long> ids = new HashSet<>();
+
+        Model single = newModel(modelClass, "single");
+        dao.insert(single);
+        assertNotNull(single.get("id"));
+        ids.add(((Number)single.get("id")).longValue());
+
+        List<Model> models = new ArrayList<>();
+        for(int i=0;i<250;i++) {
+            models.add(newModel(modelClass, "m" + i));
+        }
+        dao.batchInsert(models);
+
+        for(Model m : models) {
+            assertTrue(ids.add(((Number)m.get("id")).longValue()));
+        }
+
+        List<Map<String,Object>> records = new ArrayList<>();
+        for(int i=0;i<10;i++) {
+            records.add(New.hashMap("name", "r" + i));
+        }
+        dao.batchInsert(modelClass, records);
+
+        for(Map<String,Object> record : records) {
+            assertNotNull(record.get("id"));
+            assertTrue(ids.add(((Number)record.get("id")).longValue()));
+        }
+
+        assertEquals(261, dao.count(modelClass));
+        for(Long id : ids) {
+            assertNotNull(dao.find(modelClass, id));
+        }
+    }
+
+    private static Model newModel(Class<? extends Model> modelClass, String name) {
+        try {
+            Model m = modelClass.newInstance();
+            m.set("name", name);
+            return m;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2014 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.orm.linq.jaque;
+
+import leap.lang.params.MapParams;
+import leap.lang.time.StopWatch;
+import leap.orm.linq.Condition;
+import leap.orm.linq.jaque.JaqueConditionTest.O;
+
+/**
+ * Compares translating a capturing lambda condition with building the same string condition.
+ */
+public class JaqueConditionPerfMain {
+
+	private static final int LOOPS = 1000000;
+
+	public static void main(String[] args) {
+		JaqueConditionParser parser = new JaqueConditionParser();
+
+		//warm up
+		for(int i=0;i<3;i++) {
+			run("", parser, true,  true);
+			run("", parser, false, true);
+		}
+
+		System.out.println("\n\nWarm up done, Let's begin!\n");
+
+		run("lambda condition", parser, true,  false);
+		run("string condition", parser, false, false);
+	}
+
+	protected static void run(String name, JaqueConditionParser parser, boolean lambda, boolean warmup) {
+		StopWatch sw = StopWatch.startNew();
+
+		for(int i=0;i<LOOPS;i++) {
+			MapParams params = new MapParams();
+			if(lambda) {
+				parser.parse(condition("name" + (i & 15)), params);
+			}else{
+				params.set("p1", "name" + (i & 15));
+				new StringBuilder().append("name = :p1").toString();
+			}
+		}
+
+		if(!warmup) {
+			long ms = Math.max(1, sw.getElapsedMilliseconds());
+			System.out.println(name + " : " + ms + "ms, " + ((long)LOOPS * 1000 / ms) + " conditions/s");
+		}
+	}
+
+	private static Condition<O> condition(String name) {
+		return o -> o.name == name;
+	}
+}
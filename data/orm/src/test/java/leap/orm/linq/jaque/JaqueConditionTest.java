@@ -16,6 +16,7 @@
 package leap.orm.linq.jaque;
 
 import leap.junit.TestBase;
+import leap.lang.params.MapParams;
 import leap.orm.linq.Condition;
 import leap.orm.linq.jaque.JaqueConditionTest.O.Status;
 
@@ -55,6 +56,26 @@ public class JaqueConditionTest extends TestBase {
 		assertEquals("name = :p1", sqlWithArg1("x"));
 	}
 	
+	@Test
+	public void testCapturedArgs() {
+		JaqueConditionParser parser = new JaqueConditionParser();
+		Condition<O>         cnd    = o -> o.name == "x";
+		
+		for(int i=0;i<3;i++) {
+			MapParams params = new MapParams();
+			assertEquals("name = :p1", parser.parse(nameCondition("x" + i), params));
+			assertEquals("x" + i, params.get("p1"));
+			
+			params = new MapParams();
+			assertEquals("age > :p1", parser.parse(ageCondition(i), params));
+			assertEquals(i, params.get("p1"));
+			
+			params = new MapParams();
+			assertEquals("name = :p1", parser.parse(cnd, params));
+			assertEquals("x", params.get("p1"));
+		}
+	}
+	
 	/*TODO : bug
 	@Test
 	public void testAndOr() {
@@ -72,6 +93,14 @@ public class JaqueConditionTest extends TestBase {
 		return sql(o -> o.name.equals(s));
 	}
 	
+	private static Condition<O> nameCondition(String s) {
+		return o -> o.name == s;
+	}
+	
+	private static Condition<O> ageCondition(int age) {
+		return o -> o.age > age;
+	}
+	
 	private static String sql(Condition<O> cnd) {
 		return JaqueConditionParser.sql(cnd);
 	}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.orm.tested;
+
+import leap.core.AppMainBase;
+import leap.core.annotation.Inject;
+import leap.lang.time.StopWatch;
+import leap.orm.dao.Dao;
+import leap.orm.mapping.EntityMapping;
+import leap.orm.tested.model.petclinic.Owner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class ReaderPerfMain extends AppMainBase {
+
+	public static void main(String[] args) {
+		AppMainBase.main(ReaderPerfMain.class, args);
+	}
+	
+	private @Inject Dao dao;
+	
+	@Override
+	protected void run(Object[] args) throws Throwable {
+		int count = 100000;
+		
+		dao.deleteAll(Owner.class);
+		
+		List<Owner> owners = new ArrayList<>(count);
+		for(int i=0;i<count;i++){
+			Owner owner = new Owner().setFullName("first" + i, "last" + i);
+			owner.setAddress("address" + i);
+			owner.setCity("city" + i);
+			owner.setTelephone(String.valueOf(i));
+			owners.add(owner);
+		}
+		dao.batchInsert(owners);
+		
+		EntityMapping em = dao.getOrmContext().getMetadata().getEntityMapping(Owner.class);
+		
+		for(int i=0;i<10;i++){
+			System.out.println("============read " + count + " rows============");
+			perfRead(em, OwnerBean.class);
+			perfRead(em, Map.class);
+			perfRead(em, Owner.class);
+			System.out.println("");
+		}
+		
+		dao.deleteAll(Owner.class);
+	}
+	
+	private void perfRead(EntityMapping em, Class<?> resultClass) {
+		StopWatch sw = StopWatch.startNew();
+		int rows = dao.createCriteriaQuery(em, resultClass).list().size();
+		System.out.println("read(" + resultClass.getSimpleName() + ") : " + rows + " rows, " + sw.getElapsedMilliseconds() + "ms");
+	}
+	
+	public static class OwnerBean {
+		private Integer id;
+		private String  firstName;
+		private String  lastName;
+		private String  address;
+		private String  city;
+		private String  telephone;
+		
+		public Integer getId() {
+			return id;
+		}
+		
+		public void setId(Integer id) {
+			this.id = id;
+		}
+		
+		public String getFirstName() {
+			return firstName;
+		}
+		
+		public void setFirstName(String firstName) {
+			this.firstName = firstName;
+		}
+		
+		public String getLastName() {
+			return lastName;
+		}
+		
+		public void setLastName(String lastName) {
+			this.lastName = lastName;
+		}
+		
+		public String getAddress() {
+			return address;
+		}
+		
+		public void setAddress(String address) {
+			this.address = address;
+		}
+		
+		public String getCity() {
+			return city;
+		}
+		
+		public void setCity(String city) {
+			this.city = city;
+		}
+		
+		public String getTelephone() {
+			return telephone;
+		}
+		
+		public void setTelephone(String telephone) {
+			this.telephone = telephone;
+		}
+	}
+}
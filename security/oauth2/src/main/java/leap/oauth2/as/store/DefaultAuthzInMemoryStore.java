@@ -18,38 +18,97 @@ package leap.oauth2.as.store;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentHashMap;
 
-import leap.core.el.BeansPropertyResolver;
+import leap.core.annotation.ConfigProperty;
+import leap.core.annotation.Configurable;
 import leap.lang.Args;
 import leap.lang.Beans;
-import leap.lang.beans.BeanProperty;
-import leap.lang.beans.BeanType;
-import leap.lang.convert.BeanConverter;
 import leap.lang.logging.Log;
 import leap.lang.logging.LogFactory;
 import leap.oauth2.as.client.AuthzClient;
 import leap.oauth2.as.client.SimpleAuthzClient;
 import leap.oauth2.as.code.AuthzCode;
+import leap.oauth2.as.code.SimpleAuthzCode;
 import leap.oauth2.as.sso.AuthzSSOLogin;
 import leap.oauth2.as.sso.AuthzSSOSession;
 import leap.oauth2.as.token.AuthzAccessToken;
 import leap.oauth2.as.token.AuthzLoginToken;
 import leap.oauth2.as.token.AuthzRefreshToken;
+import leap.oauth2.as.token.SimpleAuthzAccessToken;
+import leap.oauth2.as.token.SimpleAuthzLoginToken;
+import leap.oauth2.as.token.SimpleAuthzRefreshToken;
 
+/**
+ * The default {@link AuthzInMemoryStore}.
+ *
+ * <p>
+ * The codes, tokens and sso sessions are removed at their expiration time and bounded by the configurable max sizes,
+ * see {@link ExpiringStore}.
+ */
+@Configurable(prefix="oauth2.as.inMemory")
 public class DefaultAuthzInMemoryStore implements AuthzInMemoryStore {
     
     private static final Log log = LogFactory.get(DefaultAuthzInMemoryStore.class);
 
+    public static final int DEFAULT_MAX_CODES          = 10000;
+    public static final int DEFAULT_MAX_ACCESS_TOKENS  = 100000;
+    public static final int DEFAULT_MAX_REFRESH_TOKENS = 100000;
+    public static final int DEFAULT_MAX_LOGIN_TOKENS   = 10000;
+    public static final int DEFAULT_MAX_SSO_SESSIONS   = 100000;
+
+    //the max number of the canonical strings, i.e. client ids and scopes shared by the stored tokens.
+    private static final int MAX_CANONICALS = 1024;
+
     protected boolean enabled;
-    protected Map<String, AuthzClient>         clients       = new ConcurrentHashMap<>();
-    protected Map<String, AuthzCode>           codes         = new ConcurrentHashMap<>();
-    protected Map<String, AuthzAccessToken>    accessTokens  = new ConcurrentHashMap<>();
-    protected Map<String, AuthzRefreshToken>   refreshTokens = new ConcurrentHashMap<>();
-    protected Map<String, AuthzLoginToken>     loginTokens   = new ConcurrentHashMap<>();
-    protected Map<String, AuthzSSOSession>     ssoSessions   = new ConcurrentHashMap<>();
-    protected Map<String, List<AuthzSSOLogin>> ssoLogins     = new ConcurrentHashMap<>();
+    protected Map<String, AuthzClient>                clients       = new ConcurrentHashMap<>();
+    protected Map<String, List<AuthzSSOLogin>>        ssoLogins     = new ConcurrentHashMap<>();
+    protected ExpiringStore<AuthzCode>                codes         = new ExpiringStore<>("codes", DEFAULT_MAX_CODES);
+    protected ExpiringStore<AuthzAccessToken>         accessTokens  = new ExpiringStore<>("accessTokens", DEFAULT_MAX_ACCESS_TOKENS);
+    protected ExpiringStore<AuthzRefreshToken>        refreshTokens = new ExpiringStore<>("refreshTokens", DEFAULT_MAX_REFRESH_TOKENS);
+    protected ExpiringStore<AuthzLoginToken>          loginTokens   = new ExpiringStore<>("loginTokens", DEFAULT_MAX_LOGIN_TOKENS);
+    protected ExpiringStore<AuthzSSOSession>          ssoSessions   = new ExpiringStore<>("ssoSessions", DEFAULT_MAX_SSO_SESSIONS,
+                                                                                          (session) -> ssoLogins.remove(session.getId()));
+
+    private final Map<String, String> canonicals = new ConcurrentHashMap<>();
+
+    @ConfigProperty
+    public void setMaxCodes(int maxCodes) {
+        codes.setMaxSize(maxCodes);
+    }
+
+    @ConfigProperty
+    public void setMaxAccessTokens(int maxAccessTokens) {
+        accessTokens.setMaxSize(maxAccessTokens);
+    }
+
+    @ConfigProperty
+    public void setMaxRefreshTokens(int maxRefreshTokens) {
+        refreshTokens.setMaxSize(maxRefreshTokens);
+    }
+
+    @ConfigProperty
+    public void setMaxLoginTokens(int maxLoginTokens) {
+        loginTokens.setMaxSize(maxLoginTokens);
+    }
+
+    @ConfigProperty
+    public void setMaxSSOSessions(int maxSSOSessions) {
+        ssoSessions.setMaxSize(maxSSOSessions);
+    }
+
+    /**
+     * Returns the statistics of the codes, tokens and sso sessions stores.
+     */
+    public List<ExpiringStoreStats> getStats() {
+        List<ExpiringStoreStats> stats = new ArrayList<>();
+        stats.add(codes.getStats());
+        stats.add(accessTokens.getStats());
+        stats.add(refreshTokens.getStats());
+        stats.add(loginTokens.getStats());
+        stats.add(ssoSessions.getStats());
+        return stats;
+    }
 
     @Override
     public AuthzClient loadClient(String clientId) {
@@ -86,6 +145,10 @@ public class DefaultAuthzInMemoryStore implements AuthzInMemoryStore {
 
     @Override
     public void saveAuthorizationCode(AuthzCode code) {
+        if(code instanceof SimpleAuthzCode) {
+            SimpleAuthzCode c = (SimpleAuthzCode)code;
+            c.setClientId(canonical(c.getClientId()));
+        }
         codes.put(code.getCode(), code);
     }
 
@@ -106,16 +169,33 @@ public class DefaultAuthzInMemoryStore implements AuthzInMemoryStore {
     
     @Override
     public void saveAccessToken(AuthzAccessToken token) {
+        if(token instanceof SimpleAuthzAccessToken) {
+            SimpleAuthzAccessToken at = (SimpleAuthzAccessToken)token;
+            at.setClientId(canonical(at.getClientId()));
+            at.setScope(canonical(at.getScope()));
+            if(null != at.getExtendedParameters() && at.getExtendedParameters().isEmpty()) {
+                at.setExtendedParameters(null);
+            }
+        }
         accessTokens.put(token.getToken(), token);
     }
     
     @Override
     public void saveRefreshToken(AuthzRefreshToken token) {
+        if(token instanceof SimpleAuthzRefreshToken) {
+            SimpleAuthzRefreshToken rt = (SimpleAuthzRefreshToken)token;
+            rt.setClientId(canonical(rt.getClientId()));
+            rt.setScope(canonical(rt.getScope()));
+        }
         refreshTokens.put(token.getToken(), token);
     }
 
     @Override
     public void saveLoginToken(AuthzLoginToken token) {
+        if(token instanceof SimpleAuthzLoginToken) {
+            SimpleAuthzLoginToken lt = (SimpleAuthzLoginToken)token;
+            lt.setClientId(canonical(lt.getClientId()));
+        }
         loginTokens.put(token.getToken(), token);
     }
 
@@ -156,32 +236,18 @@ public class DefaultAuthzInMemoryStore implements AuthzInMemoryStore {
 
     @Override
     public void cleanupTokens() {
-        for(Entry<String, AuthzAccessToken> entry : accessTokens.entrySet()) {
-            AuthzAccessToken at = entry.getValue();
-            if(at.isExpired()) {
-                log.debug("Removing the expired access token : {}", at.getToken());
-                accessTokens.remove(entry.getKey());
-            }
-        }
-        
-        for(Entry<String, AuthzRefreshToken> entry : refreshTokens.entrySet()) {
-            AuthzRefreshToken rt = entry.getValue();
-            if(rt.isExpired()) {
-                log.debug("Removing the expired refresh token : {}", rt.getToken());
-                refreshTokens.remove(entry.getKey());
-            }
-        }
+        accessTokens.expire();
+        refreshTokens.expire();
+        loginTokens.expire();
+
+        log.debug("Cleanup tokens : {}, {}, {}", accessTokens.getStats(), refreshTokens.getStats(), loginTokens.getStats());
     }
 
     @Override
     public void cleanupAuthorizationCodes() {
-        for(Entry<String, AuthzCode> entry : codes.entrySet()) {
-            AuthzCode code = entry.getValue();
-            if(code.isExpired()) {
-                log.debug("Removing the expired authorization code : {}", code.getCode());
-                codes.remove(entry.getKey());
-            }
-        }
+        codes.expire();
+
+        log.debug("Cleanup authorization codes : {}", codes.getStats());
     }
 
     @Override
@@ -201,10 +267,9 @@ public class DefaultAuthzInMemoryStore implements AuthzInMemoryStore {
 
     @Override
     public void saveSession(AuthzSSOSession session, AuthzSSOLogin initialLogin) {
-        if(ssoSessions.containsKey(session.getToken())) {
+        if(null != ssoSessions.putIfAbsent(session.getToken(), session)) {
             throw new IllegalStateException("Duplicated sso token '" + session.getToken() + "'");
         }
-        ssoSessions.put(session.getToken(), session);
 
         List<AuthzSSOLogin> logins = new ArrayList<>();
         logins.add(initialLogin);
@@ -222,15 +287,27 @@ public class DefaultAuthzInMemoryStore implements AuthzInMemoryStore {
 
     @Override
     public void cleanupSSO() {
-        for(Entry<String, AuthzSSOSession> entry : ssoSessions.entrySet()) {
-            AuthzSSOSession session = entry.getValue();
-            if(session.isExpired()) {
-                log.debug("Removing the expired sso session of user '{}", session.getUsername(), session.getUsername());
-                ssoSessions.remove(entry.getKey());
-                ssoLogins.remove(session.getId());
-            }
-        }
+        ssoSessions.expire();
+
+        log.debug("Cleanup sso sessions : {}", ssoSessions.getStats());
     }
 
+    protected String canonical(String s) {
+        if(null == s) {
+            return null;
+        }
+
+        String c = canonicals.get(s);
+        if(null != c) {
+            return c;
+        }
+
+        if(canonicals.size() >= MAX_CANONICALS) {
+            return s;
+        }
+
+        c = canonicals.putIfAbsent(s, s);
+        return null == c ? s : c;
+    }
 
-}
\ No newline at end of file
+}
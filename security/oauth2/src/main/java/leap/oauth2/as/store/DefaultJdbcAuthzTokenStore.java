@@ -16,9 +16,20 @@
 package leap.oauth2.as.store;
 
 import leap.core.AppConfig;
+import leap.core.annotation.ConfigProperty;
+import leap.core.annotation.Configurable;
+import leap.core.annotation.Inject;
+import leap.core.schedule.SchedulerManager;
+import leap.db.Db;
+import leap.db.model.DbIndex;
+import leap.db.model.DbIndexBuilder;
+import leap.db.model.DbTable;
+import leap.lang.Disposable;
 import leap.lang.New;
+import leap.lang.Try;
 import leap.lang.logging.Log;
 import leap.lang.logging.LogFactory;
+import leap.oauth2.OAuth2ExpirableEntity;
 import leap.oauth2.as.entity.AuthzAccessTokenEntity;
 import leap.oauth2.as.entity.AuthzLoginTokenEntity;
 import leap.oauth2.as.entity.AuthzRefreshTokenEntity;
@@ -27,12 +38,30 @@ import leap.orm.OrmMetadata;
 import leap.orm.command.CreateEntityCommand;
 import leap.orm.dao.Dao;
 import leap.orm.dmo.Dmo;
+import leap.orm.mapping.EntityMapping;
 import leap.orm.sql.SqlCommand;
 import leap.web.security.user.UserDetails;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
 
-public class DefaultJdbcAuthzTokenStore extends AbstractJdbcAuthzStore implements AuthzTokenStore {
+/**
+ * The default jdbc {@link AuthzTokenStore}.
+ *
+ * <p>
+ * If the write behind is enabled, the tokens are inserted and deleted in jdbc batches by a background flusher,
+ * the pending writes are visible to the reads of this store only (not the other nodes of a cluster) until flushed.
+ *
+ * <p>
+ * The expired tokens are deleted in chunks of bounded size (by primary key) with a pause between the chunks,
+ * so the cleanup does not hold long locks or large transactions.
+ */
+@Configurable(prefix="oauth2.as.jdbc")
+public class DefaultJdbcAuthzTokenStore extends AbstractJdbcAuthzStore implements AuthzTokenStore, Disposable {
     
     private static final Log log = LogFactory.get(DefaultJdbcAuthzTokenStore.class);
     
@@ -40,59 +69,248 @@ public class DefaultJdbcAuthzTokenStore extends AbstractJdbcAuthzStore implement
     public static final String CLEANUP_REFRESH_TOKENS_SQL_KEY = "oauth2.as.cleanupRefreshTokens";
     public static final String CLEANUP_LOGIN_TOKENS_SQL_KEY   = "oauth2.as.cleanupLoginTokens";
 
+    public static final int DEFAULT_FLUSH_INTERVAL      = 100;
+    public static final int DEFAULT_BATCH_SIZE          = 500;
+    public static final int DEFAULT_MAX_PENDING_WRITES  = 10000;
+    public static final int DEFAULT_CLEANUP_CHUNK_SIZE  = 1000;
+    public static final int DEFAULT_CLEANUP_CHUNK_PAUSE = 50;
+
+    protected @Inject SchedulerManager schedulerManager;
+
     protected SqlCommand cleanupAccessTokensCommand;
     protected SqlCommand cleanupRefreshTokensCommand;
     protected SqlCommand cleanupLoginTokensCommand;
-    
+
+    protected boolean writeBehind       = false;
+    protected int     flushInterval     = DEFAULT_FLUSH_INTERVAL;
+    protected int     batchSize         = DEFAULT_BATCH_SIZE;
+    protected int     maxPendingWrites  = DEFAULT_MAX_PENDING_WRITES;
+    protected int     cleanupChunkSize  = DEFAULT_CLEANUP_CHUNK_SIZE;
+    protected int     cleanupChunkPause = DEFAULT_CLEANUP_CHUNK_PAUSE;
+
+    protected final JdbcWriteBehind<AuthzAccessTokenEntity>  pendingAccessTokens  = new JdbcWriteBehind<>(AuthzAccessTokenEntity.class);
+    protected final JdbcWriteBehind<AuthzRefreshTokenEntity> pendingRefreshTokens = new JdbcWriteBehind<>(AuthzRefreshTokenEntity.class);
+    protected final JdbcWriteBehind<AuthzLoginTokenEntity>   pendingLoginTokens   = new JdbcWriteBehind<>(AuthzLoginTokenEntity.class);
+
+    private final LongAdder cleanupDeleted = new LongAdder();
+    private final LongAdder cleanupChunks  = new LongAdder();
+
+    private volatile long               lastCleanupDuration;
+    private volatile ScheduledFuture<?> flusher;
+
+    public boolean isWriteBehind() {
+        return writeBehind;
+    }
+
+    /**
+     * Enables or disables the write behind of the tokens, default is disabled.
+     *
+     * <p>
+     * Do not enable it if the tokens are read by other nodes immediately after created.
+     */
+    @ConfigProperty
+    public void setWriteBehind(boolean writeBehind) {
+        this.writeBehind = writeBehind;
+    }
+
+    public int getFlushInterval() {
+        return flushInterval;
+    }
+
+    /**
+     * Sets the interval (in milliseconds) of flushing the pending writes.
+     */
+    @ConfigProperty
+    public void setFlushInterval(int flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Sets the max number of the rows written in a jdbc batch.
+     */
+    @ConfigProperty
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getMaxPendingWrites() {
+        return maxPendingWrites;
+    }
+
+    /**
+     * Sets the max number of the pending writes of a token type, the writer flushes a batch by itself if exceeded.
+     */
+    @ConfigProperty
+    public void setMaxPendingWrites(int maxPendingWrites) {
+        this.maxPendingWrites = maxPendingWrites;
+    }
+
+    public int getCleanupChunkSize() {
+        return cleanupChunkSize;
+    }
+
+    /**
+     * Sets the max number of the expired tokens deleted in a chunk.
+     */
+    @ConfigProperty
+    public void setCleanupChunkSize(int cleanupChunkSize) {
+        this.cleanupChunkSize = cleanupChunkSize;
+    }
+
+    public int getCleanupChunkPause() {
+        return cleanupChunkPause;
+    }
+
+    /**
+     * Sets the pause (in milliseconds) between the deleting chunks of the cleanup.
+     */
+    @ConfigProperty
+    public void setCleanupChunkPause(int cleanupChunkPause) {
+        this.cleanupChunkPause = cleanupChunkPause;
+    }
+
+    /**
+     * Returns the number of the pending writes of all the token types.
+     */
+    public int getPendingWrites() {
+        return pendingAccessTokens.size() + pendingRefreshTokens.size() + pendingLoginTokens.size();
+    }
+
+    /**
+     * Returns the number of the tokens inserted by the write behind.
+     */
+    public long getFlushedInserts() {
+        return pendingAccessTokens.getInserted() + pendingRefreshTokens.getInserted() + pendingLoginTokens.getInserted();
+    }
+
+    /**
+     * Returns the number of the tokens deleted by the write behind.
+     */
+    public long getFlushedDeletes() {
+        return pendingAccessTokens.getDeleted() + pendingRefreshTokens.getDeleted() + pendingLoginTokens.getDeleted();
+    }
+
+    /**
+     * Returns the number of the jdbc batches executed by the write behind.
+     */
+    public long getFlushedBatches() {
+        return pendingAccessTokens.getBatches() + pendingRefreshTokens.getBatches() + pendingLoginTokens.getBatches();
+    }
+
+    /**
+     * Returns the number of the failed writes of the write behind.
+     */
+    public long getFlushFailures() {
+        return pendingAccessTokens.getFailures() + pendingRefreshTokens.getFailures() + pendingLoginTokens.getFailures();
+    }
+
+    /**
+     * Returns the number of the expired tokens deleted by the chunked cleanup.
+     */
+    public long getCleanupDeleted() {
+        return cleanupDeleted.sum();
+    }
+
+    /**
+     * Returns the number of the chunks deleted by the cleanup.
+     */
+    public long getCleanupChunks() {
+        return cleanupChunks.sum();
+    }
+
+    /**
+     * Returns the duration (in milliseconds) of the last cleanup.
+     */
+    public long getLastCleanupDuration() {
+        return lastCleanupDuration;
+    }
+
     @Override
     public void saveAccessToken(AuthzAccessToken token) {
-        dao.insert(createEntityFromAccessToken(token));
+        AuthzAccessTokenEntity entity = createEntityFromAccessToken(token);
+        if(writeBehind) {
+            pendingAccessTokens.insert(entity.getToken(), entity);
+            written(pendingAccessTokens);
+        }else{
+            dao.insert(entity);
+        }
     }
     
     @Override
     public void saveRefreshToken(AuthzRefreshToken token) {
-        dao.insert(createEnttiyFromRefreshToken(token));
+        AuthzRefreshTokenEntity entity = createEnttiyFromRefreshToken(token);
+        if(writeBehind) {
+            pendingRefreshTokens.insert(entity.getToken(), entity);
+            written(pendingRefreshTokens);
+        }else{
+            dao.insert(entity);
+        }
     }
 
     @Override
     public void saveLoginToken(AuthzLoginToken token) {
-        dao.insert(createEntityFromLoginToken(token));
+        AuthzLoginTokenEntity entity = createEntityFromLoginToken(token);
+        if(writeBehind) {
+            pendingLoginTokens.insert(entity.getToken(), entity);
+            written(pendingLoginTokens);
+        }else{
+            dao.insert(entity);
+        }
     }
 
     @Override
     public AuthzAccessToken loadAccessToken(String accessToken) {
-        AuthzAccessTokenEntity entity = dao.findOrNull(AuthzAccessTokenEntity.class, accessToken);
+        AuthzAccessTokenEntity entity = find(pendingAccessTokens, AuthzAccessTokenEntity.class, accessToken);
         
         return null == entity ? null : createAccesTokenFromEntity(entity);
     }
     
     @Override
     public AuthzRefreshToken loadRefreshToken(String refreshToken) {
-        AuthzRefreshTokenEntity entity = dao.findOrNull(AuthzRefreshTokenEntity.class, refreshToken);
+        AuthzRefreshTokenEntity entity = find(pendingRefreshTokens, AuthzRefreshTokenEntity.class, refreshToken);
         
         return null == entity ? null : createRefreshTokenFromEntity(entity);
     }
 
     @Override
     public AuthzLoginToken loadLoginToken(String loginToken) {
-        AuthzLoginTokenEntity entity = dao.findOrNull(AuthzLoginTokenEntity.class, loginToken);
+        AuthzLoginTokenEntity entity = find(pendingLoginTokens, AuthzLoginTokenEntity.class, loginToken);
 
         return null == entity ? null : createLoginTokenFromEntity(entity);
     }
 
     @Override
     public void removeAccessToken(String accessToken) {
-        dao.delete(AuthzAccessTokenEntity.class, accessToken);
+        if(writeBehind) {
+            pendingAccessTokens.delete(accessToken);
+            written(pendingAccessTokens);
+        }else{
+            dao.delete(AuthzAccessTokenEntity.class, accessToken);
+        }
     }
 
     @Override
     public void removeRefreshToken(String refreshToken) {
-        dao.delete(AuthzRefreshTokenEntity.class, refreshToken);
+        if(writeBehind) {
+            pendingRefreshTokens.delete(refreshToken);
+            written(pendingRefreshTokens);
+        }else{
+            dao.delete(AuthzRefreshTokenEntity.class, refreshToken);
+        }
     }
 
     @Override
     public void removeLoginToken(String loginToken) {
-        dao.delete(AuthzLoginTokenEntity.class, loginToken);
+        if(writeBehind) {
+            pendingLoginTokens.delete(loginToken);
+            written(pendingLoginTokens);
+        }else{
+            dao.delete(AuthzLoginTokenEntity.class, loginToken);
+        }
     }
 
     @Override
@@ -106,13 +324,25 @@ public class DefaultJdbcAuthzTokenStore extends AbstractJdbcAuthzStore implement
         return token;
     }
 
+    /**
+     * Writes all the pending writes now.
+     */
+    public void flush() {
+        pendingAccessTokens.flush(dao, batchSize);
+        pendingRefreshTokens.flush(dao, batchSize);
+        pendingLoginTokens.flush(dao, batchSize);
+    }
+
     @Override
     public void cleanupTokens() {
-        Date now = new Date();
+        long start = System.currentTimeMillis();
+        Date now   = new Date(start);
         
         cleanupAccessTokens(now);
         cleanupRefreshTokens(now);
         cleanupLoginTokens(now);
+
+        lastCleanupDuration = System.currentTimeMillis() - start;
     }
     
     protected void cleanupAccessTokens(Date now) {
@@ -120,7 +350,7 @@ public class DefaultJdbcAuthzTokenStore extends AbstractJdbcAuthzStore implement
         if(null != cleanupAccessTokensCommand) {
             result = dao.executeUpdate(cleanupAccessTokensCommand, New.hashMap("now",now));
         }else{
-            result = dao.createCriteriaQuery(AuthzAccessTokenEntity.class).where("expiration <= :now",now).delete();
+            result = cleanupInChunks(AuthzAccessTokenEntity.class, AuthzAccessTokenEntity::getToken, now);
         }
         log.info("Cleanup {} expired access tokens", result);
     }
@@ -130,7 +360,7 @@ public class DefaultJdbcAuthzTokenStore extends AbstractJdbcAuthzStore implement
         if(null != cleanupRefreshTokensCommand) {
             result = dao.executeUpdate(cleanupRefreshTokensCommand, New.hashMap("now",now));
         }else{
-            result = dao.createCriteriaQuery(AuthzRefreshTokenEntity.class).where("expiration <= :now",now).delete();
+            result = cleanupInChunks(AuthzRefreshTokenEntity.class, AuthzRefreshTokenEntity::getToken, now);
         }
         log.info("Cleanup {} expired refresh tokens", result);
     }
@@ -140,11 +370,87 @@ public class DefaultJdbcAuthzTokenStore extends AbstractJdbcAuthzStore implement
         if(null != cleanupLoginTokensCommand) {
             result = dao.executeUpdate(cleanupLoginTokensCommand, New.hashMap("now",now));
         }else{
-            result = dao.createCriteriaQuery(AuthzLoginTokenEntity.class).where("expiration <= :now",now).delete();
+            result = cleanupInChunks(AuthzLoginTokenEntity.class, AuthzLoginTokenEntity::getToken, now);
         }
         log.info("Cleanup {} expired login tokens", result);
     }
 
+    /**
+     * Deletes the expired tokens by primary key in chunks, pauses between the chunks.
+     */
+    protected <E extends OAuth2ExpirableEntity> int cleanupInChunks(Class<E> entityClass, Function<E, String> id, Date now) {
+        int total = 0;
+        for(;;) {
+            List<E> expired = dao.createCriteriaQuery(entityClass)
+                                 .select("token")
+                                 .where("expiration <= :now", now)
+                                 .limit(cleanupChunkSize)
+                                 .list();
+            if(expired.isEmpty()) {
+                break;
+            }
+
+            List<String> ids = new ArrayList<>(expired.size());
+            for(E entity : expired) {
+                ids.add(id.apply(entity));
+            }
+            dao.batchDelete(entityClass, ids);
+
+            total += ids.size();
+            cleanupDeleted.add(ids.size());
+            cleanupChunks.increment();
+            log.debug("Cleanup a chunk of {} expired '{}', {} deleted", ids.size(), entityClass.getSimpleName(), total);
+
+            if(expired.size() < cleanupChunkSize) {
+                break;
+            }
+
+            if(cleanupChunkPause > 0) {
+                try {
+                    Thread.sleep(cleanupChunkPause);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        return total;
+    }
+
+    protected <E> E find(JdbcWriteBehind<E> pending, Class<E> entityClass, String id) {
+        if(writeBehind) {
+            Object value = pending.get(id);
+            if(null != value) {
+                return value == JdbcWriteBehind.DELETED ? null : entityClass.cast(value);
+            }
+        }
+        return dao.findOrNull(entityClass, id);
+    }
+
+    protected void written(JdbcWriteBehind<?> pending) {
+        if(null == flusher) {
+            startFlusher();
+        }
+        pending.flushIfExceeded(dao, batchSize, maxPendingWrites);
+    }
+
+    protected synchronized void startFlusher() {
+        if(null == flusher) {
+            flusher = schedulerManager.newFixedThreadPoolScheduler("oauth2-token-flusher")
+                                      .scheduleAtFixedRate(() -> Try.catchAll(this::flush), flushInterval);
+        }
+    }
+
+    @Override
+    public void dispose() throws Throwable {
+        if(null != flusher) {
+            flusher.cancel(false);
+        }
+        if(null != dao) {
+            flush();
+        }
+    }
+
     protected AuthzAccessTokenEntity createEntityFromAccessToken(AuthzAccessToken token) {
         AuthzAccessTokenEntity entity = new AuthzAccessTokenEntity();
         
@@ -229,8 +535,44 @@ public class DefaultJdbcAuthzTokenStore extends AbstractJdbcAuthzStore implement
     @Override
     protected void init(AppConfig config) {
         createEntityMapping(dmo, config.isDebug());
+        if(config.isDebug()) {
+            createExpirationIndexes();
+        }
         resolveSqlCommands(dao, dao.getOrmContext().getMetadata());
     }
+
+    /**
+     * Creates the indexes of the expiration columns (if not exists) used by the cleanup.
+     */
+    protected void createExpirationIndexes() {
+        OrmMetadata md = dao.getOrmContext().getMetadata();
+        Db          db = dao.getOrmContext().getDb();
+
+        createExpirationIndex(db, md.getEntityMapping(AuthzAccessTokenEntity.class));
+        createExpirationIndex(db, md.getEntityMapping(AuthzRefreshTokenEntity.class));
+        createExpirationIndex(db, md.getEntityMapping(AuthzLoginTokenEntity.class));
+    }
+
+    protected void createExpirationIndex(Db db, EntityMapping em) {
+        String  column = em.getFieldMapping("expiration").getColumnName();
+        DbTable table  = db.getMetadata().tryGetTable(em.getTable());
+        if(null == table) {
+            return;
+        }
+
+        for(DbIndex ix : table.getIndexes()) {
+            if(ix.getColumnNames().length > 0 && ix.getColumnNames()[0].equalsIgnoreCase(column)) {
+                return;
+            }
+        }
+
+        DbIndex ix = new DbIndexBuilder().setName("ix_" + table.getName() + "_" + column).addColumnName(column).build();
+        try {
+            db.cmdCreateIndex(table, ix).execute();
+        }catch (RuntimeException e) {
+            log.warn("Error creating index '{}' : {}", ix.getName(), e.getMessage());
+        }
+    }
     
     protected void createEntityMapping(Dmo dmo, boolean debug) {
         CreateEntityCommand cmd1 = dmo.cmdCreateEntity(AuthzAccessTokenEntity.class);
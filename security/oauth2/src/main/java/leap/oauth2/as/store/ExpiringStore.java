@@ -0,0 +1,343 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.oauth2.as.store;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import leap.lang.expirable.TimeExpirable;
+
+/**
+ * A store of the {@link TimeExpirable} values (expires in seconds) keyed by string,
+ * the values are removed at their expiration time.
+ *
+ * <p>
+ * The values are scheduled in a hierarchical timer wheel, so scheduling, descheduling and expiring a value are O(1).
+ * The wheel is advanced by the writes, by the first read of every wheel tick (about one second) and by {@link #expire()}.
+ * The reads never block.
+ *
+ * <p>
+ * If the max size is positive and exceeded, the values which expire soonest are evicted.
+ */
+class ExpiringStore<V extends TimeExpirable> {
+
+    //the spans (in milliseconds) of the buckets of each wheel, the last one is duplicated for finding the bucket.
+    static final int[]  BUCKETS = { 64, 64, 32, 4, 1 };
+    static final long[] SPANS   = {
+            1L << 10, //1.02 seconds
+            1L << 16, //1.09 minutes
+            1L << 22, //1.17 hours
+            1L << 27, //1.55 days
+            1L << 29, //6.21 days
+            1L << 29
+    };
+    static final int[]  SHIFTS  = {
+            Long.numberOfTrailingZeros(SPANS[0]),
+            Long.numberOfTrailingZeros(SPANS[1]),
+            Long.numberOfTrailingZeros(SPANS[2]),
+            Long.numberOfTrailingZeros(SPANS[3]),
+            Long.numberOfTrailingZeros(SPANS[4])
+    };
+
+    private final String                              name;
+    private volatile int                              maxSize;
+    private final Consumer<V>                         removalListener;
+    private final ConcurrentHashMap<String, Node<V>>  data    = new ConcurrentHashMap<>();
+    private final Node<V>[][]                         wheel;
+    private final ReentrantLock                       lock    = new ReentrantLock();
+    private final LongAdder                           expired = new LongAdder();
+    private final LongAdder                           evicted = new LongAdder();
+
+    //guarded by the lock, volatile for checking the tick in reads.
+    private volatile long time;
+
+    ExpiringStore(String name, int maxSize) {
+        this(name, maxSize, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    ExpiringStore(String name, int maxSize, Consumer<V> removalListener) {
+        this.name            = name;
+        this.maxSize         = maxSize;
+        this.removalListener = removalListener;
+        this.time            = System.currentTimeMillis();
+        this.wheel           = new Node[BUCKETS.length][];
+        for(int i=0;i<wheel.length;i++) {
+            wheel[i] = new Node[BUCKETS[i]];
+            for(int j=0;j<wheel[i].length;j++) {
+                wheel[i][j] = new Node<>(null, null, 0);
+            }
+        }
+    }
+
+    public V get(String key) {
+        long now = System.currentTimeMillis();
+        tryExpire(now);
+
+        //the expired value may not be removed yet if its tick has not been processed.
+        Node<V> node = data.get(key);
+        return null == node || expiresAt(node.value) <= now ? null : node.value;
+    }
+
+    public V put(String key, V value) {
+        return put(key, value, false);
+    }
+
+    public V putIfAbsent(String key, V value) {
+        return put(key, value, true);
+    }
+
+    public V remove(String key) {
+        lock.lock();
+        try {
+            advance(System.currentTimeMillis());
+
+            Node<V> node = data.remove(key);
+            if(null == node) {
+                return null;
+            }
+            unlink(node);
+            return node.value;
+        }finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the expired values now.
+     */
+    public void expire() {
+        lock.lock();
+        try {
+            advance(System.currentTimeMillis());
+        }finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        return data.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Sets the max size, zero or negative means unbounded.
+     *
+     * <p>
+     * The exceeded values are evicted at the next write.
+     */
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public ExpiringStoreStats getStats() {
+        return new ExpiringStoreStats(name, data.size(), maxSize, expired.sum(), evicted.sum());
+    }
+
+    protected V put(String key, V value, boolean onlyIfAbsent) {
+        lock.lock();
+        try {
+            long now = System.currentTimeMillis();
+            advance(now);
+
+            Node<V> node = new Node<>(key, value, expiresAt(value));
+            Node<V> old  = data.get(key);
+
+            //the expired value which has not been removed yet is treated as absent.
+            if(null != old && expiresAt(old.value) <= now) {
+                data.remove(key, old);
+                unlink(old);
+                expired.increment();
+                removed(old);
+                old = null;
+            }
+
+            if(null != old) {
+                if(onlyIfAbsent) {
+                    return old.value;
+                }
+                unlink(old);
+            }
+            data.put(key, node);
+            schedule(node);
+
+            if(maxSize > 0) {
+                while(data.size() > maxSize) {
+                    if(!evict()) {
+                        break;
+                    }
+                }
+            }
+
+            return null == old ? null : old.value;
+        }finally {
+            lock.unlock();
+        }
+    }
+
+    protected void tryExpire(long now) {
+        if((now >>> SHIFTS[0]) != (time >>> SHIFTS[0]) && lock.tryLock()) {
+            try {
+                advance(now);
+            }finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Advances the wheels to the given time and removes the expired values. Must be called under the lock.
+     */
+    protected void advance(long now) {
+        long previous = time;
+        if(now <= previous) {
+            return;
+        }
+        time = now;
+
+        for(int i=0;i<SHIFTS.length;i++) {
+            long previousTicks = previous >>> SHIFTS[i];
+            long currentTicks  = now >>> SHIFTS[i];
+            if(currentTicks - previousTicks <= 0) {
+                break;
+            }
+            expire(i, previousTicks, currentTicks);
+        }
+    }
+
+    protected void expire(int index, long previousTicks, long currentTicks) {
+        Node<V>[] buckets = wheel[index];
+        int mask  = buckets.length - 1;
+        int steps = (int)Math.min(1 + currentTicks - previousTicks, buckets.length);
+        int start = (int)(previousTicks & mask);
+        int end   = start + steps;
+
+        for(int i=start;i<end;i++) {
+            Node<V> sentinel = buckets[i & mask];
+            Node<V> node     = sentinel.next;
+
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+
+            while(node != sentinel) {
+                Node<V> next = node.next;
+                node.prev = null;
+                node.next = null;
+
+                //the value may be renewed after scheduled.
+                long expiresAt = expiresAt(node.value);
+                if(expiresAt <= time) {
+                    if(data.remove(node.key, node)) {
+                        expired.increment();
+                        removed(node);
+                    }
+                }else{
+                    node.expiresAt = expiresAt;
+                    schedule(node);
+                }
+
+                node = next;
+            }
+        }
+    }
+
+    /**
+     * Evicts the value which expires soonest.
+     */
+    protected boolean evict() {
+        for(int i=0;i<wheel.length;i++) {
+            Node<V>[] buckets = wheel[i];
+            int mask  = buckets.length - 1;
+            int start = (int)((time >>> SHIFTS[i]) & mask);
+
+            for(int j=start;j<start+buckets.length;j++) {
+                Node<V> node = buckets[j & mask].next;
+                if(node.key != null) {
+                    unlink(node);
+                    if(data.remove(node.key, node)) {
+                        evicted.increment();
+                        removed(node);
+                    }
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    protected void schedule(Node<V> node) {
+        Node<V> sentinel = findBucket(Math.max(node.expiresAt, time));
+
+        node.prev = sentinel.prev;
+        node.next = sentinel;
+        sentinel.prev.next = node;
+        sentinel.prev = node;
+    }
+
+    protected Node<V> findBucket(long expiresAt) {
+        long duration = expiresAt - time;
+        int  length   = wheel.length - 1;
+        for(int i=0;i<length;i++) {
+            if(duration < SPANS[i + 1]) {
+                long ticks = expiresAt >>> SHIFTS[i];
+                return wheel[i][(int)(ticks & (wheel[i].length - 1))];
+            }
+        }
+        return wheel[length][0];
+    }
+
+    protected void unlink(Node<V> node) {
+        if(null != node.prev) {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            node.prev = null;
+            node.next = null;
+        }
+    }
+
+    protected void removed(Node<V> node) {
+        if(null != removalListener) {
+            removalListener.accept(node.value);
+        }
+    }
+
+    protected static long expiresAt(TimeExpirable value) {
+        return value.getCreated() + value.getExpiresIn() * 1000L;
+    }
+
+    protected static final class Node<V> {
+        final String key;
+        final V      value;
+        long         expiresAt;
+        Node<V>      prev;
+        Node<V>      next;
+
+        Node(String key, V value, long expiresAt) {
+            this.key       = key;
+            this.value     = value;
+            this.expiresAt = expiresAt;
+            if(null == key) {
+                this.prev = this;
+                this.next = this;
+            }
+        }
+    }
+}
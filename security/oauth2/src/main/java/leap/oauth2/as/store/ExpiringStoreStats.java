@@ -0,0 +1,77 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.oauth2.as.store;
+
+/**
+ * The statistics of an in memory store of the expirable objects, i.e. access tokens.
+ */
+public class ExpiringStoreStats {
+
+    private final String name;
+    private final int    size;
+    private final int    maxSize;
+    private final long   expiredCount;
+    private final long   evictedCount;
+
+    public ExpiringStoreStats(String name, int size, int maxSize, long expiredCount, long evictedCount) {
+        this.name         = name;
+        this.size         = size;
+        this.maxSize      = maxSize;
+        this.expiredCount = expiredCount;
+        this.evictedCount = evictedCount;
+    }
+
+    /**
+     * Returns the name of the store, i.e. 'accessTokens'.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the number of the objects in the store.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the max number of the objects, zero or negative means unbounded.
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the number of the objects removed at their expiration time.
+     */
+    public long getExpiredCount() {
+        return expiredCount;
+    }
+
+    /**
+     * Returns the number of the objects evicted because the store exceeds the max size.
+     */
+    public long getEvictedCount() {
+        return evictedCount;
+    }
+
+    @Override
+    public String toString() {
+        return name + "[size=" + size + ", maxSize=" + maxSize +
+               ", expired=" + expiredCount + ", evicted=" + evictedCount + "]";
+    }
+}
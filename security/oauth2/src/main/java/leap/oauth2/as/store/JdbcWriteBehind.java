@@ -0,0 +1,184 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.oauth2.as.store;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import leap.lang.logging.Log;
+import leap.lang.logging.LogFactory;
+import leap.orm.dao.Dao;
+
+/**
+ * The pending inserts and deletes of an entity type keyed by id, written to the database in jdbc batches.
+ *
+ * <p>
+ * The last write of an id wins, an insert followed by a delete of the same id is written as a delete.
+ *
+ * <p>
+ * Only one thread flushes at a time, the writers which exceed the max pending writes flush by themselves (backpressure).
+ */
+class JdbcWriteBehind<E> {
+
+    private static final Log log = LogFactory.get(JdbcWriteBehind.class);
+
+    static final Object DELETED = new Object();
+
+    private final Class<E>                  entityClass;
+    private final Map<String, Object>       pending  = new ConcurrentHashMap<>();
+    private final ReentrantLock             lock     = new ReentrantLock();
+    private final LongAdder                 inserted = new LongAdder();
+    private final LongAdder                 deleted  = new LongAdder();
+    private final LongAdder                 batches  = new LongAdder();
+    private final LongAdder                 failures = new LongAdder();
+
+    JdbcWriteBehind(Class<E> entityClass) {
+        this.entityClass = entityClass;
+    }
+
+    public void insert(String id, E entity) {
+        pending.put(id, entity);
+    }
+
+    public void delete(String id) {
+        pending.put(id, DELETED);
+    }
+
+    /**
+     * Returns the pending entity, {@link #DELETED} or <code>null</code> if no pending write of the id.
+     */
+    public Object get(String id) {
+        return pending.get(id);
+    }
+
+    public int size() {
+        return pending.size();
+    }
+
+    public long getInserted() {
+        return inserted.sum();
+    }
+
+    public long getDeleted() {
+        return deleted.sum();
+    }
+
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * Writes all the pending writes in batches of the given size.
+     */
+    public void flush(Dao dao, int batchSize) {
+        lock.lock();
+        try {
+            while(!pending.isEmpty()) {
+                if(flushBatch(dao, batchSize) == 0) {
+                    break;
+                }
+            }
+        }finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes one batch if the pending writes exceed the given max size.
+     */
+    public void flushIfExceeded(Dao dao, int batchSize, int maxPending) {
+        if(pending.size() >= maxPending) {
+            lock.lock();
+            try {
+                if(pending.size() >= maxPending) {
+                    flushBatch(dao, batchSize);
+                }
+            }finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    protected int flushBatch(Dao dao, int batchSize) {
+        List<String> insertIds = new ArrayList<>();
+        List<E>      entities  = new ArrayList<>();
+        List<String> deleteIds = new ArrayList<>();
+
+        for(Map.Entry<String, Object> entry : pending.entrySet()) {
+            if(insertIds.size() + deleteIds.size() >= batchSize) {
+                break;
+            }
+            if(entry.getValue() == DELETED) {
+                deleteIds.add(entry.getKey());
+            }else{
+                insertIds.add(entry.getKey());
+                entities.add((E)entry.getValue());
+            }
+        }
+
+        if(!entities.isEmpty()) {
+            try {
+                dao.batchInsert(entityClass, entities);
+                batches.increment();
+                inserted.add(entities.size());
+            }catch (RuntimeException e) {
+                log.warn("Error batch inserting {} '{}', insert one by one : {}",
+                         entities.size(), entityClass.getSimpleName(), e.getMessage());
+                for(E entity : entities) {
+                    try {
+                        dao.insert(entity);
+                        inserted.increment();
+                    }catch (RuntimeException e1) {
+                        failures.increment();
+                        log.error("Error inserting '{}', discard it : {}", entityClass.getSimpleName(), e1.getMessage(), e1);
+                    }
+                }
+            }
+        }
+
+        if(!deleteIds.isEmpty()) {
+            try {
+                dao.batchDelete(entityClass, deleteIds);
+                batches.increment();
+                deleted.add(deleteIds.size());
+            }catch (RuntimeException e) {
+                failures.add(deleteIds.size());
+                log.error("Error batch deleting {} '{}', retry at next flush : {}",
+                          deleteIds.size(), entityClass.getSimpleName(), e.getMessage(), e);
+                deleteIds.clear();
+            }
+        }
+
+        //the value may be replaced by a newer write while flushing.
+        for(int i=0;i<insertIds.size();i++) {
+            pending.remove(insertIds.get(i), entities.get(i));
+        }
+        for(String id : deleteIds) {
+            pending.remove(id, DELETED);
+        }
+
+        return insertIds.size() + deleteIds.size();
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.oauth2.rs.token;
+
+import leap.core.cache.Cache;
+import leap.core.cache.CacheSpec;
+import leap.core.cache.CacheStats;
+import leap.core.cache.ConcurrentLFUCache;
+import leap.lang.Args;
+import leap.lang.Result;
+import leap.lang.expirable.TimeExpirable;
+import leap.lang.logging.Log;
+import leap.lang.logging.LogFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link ResAccessTokenStore} caches the token details loaded by the underlying store.
+ *
+ * <p>
+ * A cached token details expires when the token expires or after the max expires, whichever comes first.
+ * The not found results are cached for a short time, so the repeated requests carrying an invalid token
+ * will not hit the underlying store.
+ *
+ * <p>
+ * The cache is bounded by size, and the concurrent loadings of the same token are collapsed into one loading.
+ */
+public class CachingResAccessTokenStore implements ResAccessTokenStore {
+
+    private static final Log log = LogFactory.get(CachingResAccessTokenStore.class);
+
+    public static final int DEFAULT_MAX_SIZE                = 10240;
+    public static final int DEFAULT_MAX_EXPIRES_IN_MS       = 5 * 60 * 1000; //5 minutes
+    public static final int DEFAULT_NOT_FOUND_EXPIRES_IN_MS = 10 * 1000;     //10 seconds
+
+    protected final ResAccessTokenStore                store;
+    protected final ConcurrentLFUCache<String, Cached> cache;
+    protected final int                                maxExpiresInMs;
+    protected final int                                notFoundExpiresInMs;
+
+    public CachingResAccessTokenStore(ResAccessTokenStore store) {
+        this(store, DEFAULT_MAX_SIZE, DEFAULT_MAX_EXPIRES_IN_MS, DEFAULT_NOT_FOUND_EXPIRES_IN_MS);
+    }
+
+    public CachingResAccessTokenStore(ResAccessTokenStore store, int maxSize, int maxExpiresInMs, int notFoundExpiresInMs) {
+        Args.notNull(store, "store");
+        Args.assertTrue(maxExpiresInMs > 0, "The maxExpiresInMs must be positive");
+        Args.assertTrue(notFoundExpiresInMs > 0, "The notFoundExpiresInMs must be positive");
+
+        this.store               = store;
+        this.maxExpiresInMs      = maxExpiresInMs;
+        this.notFoundExpiresInMs = notFoundExpiresInMs;
+        this.cache               = new ConcurrentLFUCache<>(new CacheSpec<String, Cached>()
+                                        .setMaxSize(maxSize)
+                                        .setExpireAfterWrite(maxExpiresInMs, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Returns the underlying store.
+     */
+    public ResAccessTokenStore getStore() {
+        return store;
+    }
+
+    /**
+     * Returns the cache of the token details.
+     */
+    public Cache<String, ?> getCache() {
+        return cache;
+    }
+
+    /**
+     * Returns the statistics of the cache, i.e. the hit rate.
+     */
+    public CacheStats getStats() {
+        return cache.getStats();
+    }
+
+    @Override
+    public Result<ResAccessTokenDetails> loadAccessTokenDetails(ResAccessToken token) {
+        final String key = token.getToken();
+        final long   now = System.currentTimeMillis();
+
+        Cached cached = cache.get(key, k -> load(token));
+        if(cached.expiresAt <= now) {
+            log.debug("Cached details of access token '{}' expired, reload it", key);
+            cache.remove(key);
+            cached = cache.get(key, k -> load(token));
+        }
+
+        return cached.result;
+    }
+
+    @Override
+    public void removeAccessToken(ResAccessToken token) {
+        cache.remove(token.getToken());
+        store.removeAccessToken(token);
+    }
+
+    protected Cached load(ResAccessToken token) {
+        Result<ResAccessTokenDetails> result = store.loadAccessTokenDetails(token);
+
+        final long now = System.currentTimeMillis();
+
+        if(!result.isPresent()) {
+            return new Cached(result, now + notFoundExpiresInMs);
+        }
+
+        long expiresAt = now + maxExpiresInMs;
+
+        ResAccessTokenDetails details = result.get();
+        if(details instanceof TimeExpirable) {
+            TimeExpirable expirable = (TimeExpirable)details;
+            if(expirable.getExpiresIn() > 0) {
+                expiresAt = Math.min(expiresAt, expirable.getCreated() + expirable.getExpiresIn());
+            }
+        }
+
+        //An expired token is cached as long as a not found result, the caller checks the expiration of the details.
+        if(expiresAt <= now) {
+            expiresAt = now + notFoundExpiresInMs;
+        }
+
+        return new Cached(result, expiresAt);
+    }
+
+    protected static final class Cached {
+        final Result<ResAccessTokenDetails> result;
+        final long                          expiresAt;
+
+        Cached(Result<ResAccessTokenDetails> result, long expiresAt) {
+            this.result    = result;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -20,21 +20,36 @@ import java.util.Map;
 
 import leap.core.BeanFactory;
 import leap.core.annotation.Inject;
+import leap.core.cache.CacheManager;
+import leap.core.cache.CacheStats;
 import leap.core.ioc.PostCreateBean;
 import leap.lang.Result;
 import leap.oauth2.rs.OAuth2ResServerConfig;
 
 /**
  * The default implementation of {@link ResTokenManager}.
+ * 
+ * <p>
+ * The token details loaded from the remote authz server are cached by {@link CachingResAccessTokenStore}, 
+ * the statistics of the cache is registered as {@link #TOKEN_CACHE_NAME} in the {@link CacheManager}.
  */
 public class DefaultResTokenManager implements ResTokenManager, PostCreateBean {
     
+    public static final String TOKEN_CACHE_NAME = "oauth2.rs.tokenDetails";
+    
     protected @Inject BeanFactory           factory;
     protected @Inject OAuth2ResServerConfig config;
+    protected @Inject CacheManager          cacheManager;
     
     protected Map<String, ResAccessTokenStore> typedTokenStores = new HashMap<>();
     protected ResAccessTokenStore              bearerTokenStore = null;
     protected ResAccessTokenStore              jwtTokenStore    = null;
+    protected CachingResAccessTokenStore       cachingTokenStore;
+    
+    protected boolean cacheEnabled             = true;
+    protected int     cacheSize                = CachingResAccessTokenStore.DEFAULT_MAX_SIZE;
+    protected int     cacheExpiresInMs         = CachingResAccessTokenStore.DEFAULT_MAX_EXPIRES_IN_MS;
+    protected int     cacheNotFoundExpiresInMs = CachingResAccessTokenStore.DEFAULT_NOT_FOUND_EXPIRES_IN_MS;
     
     @Override
     public Result<ResAccessTokenDetails> loadAccessTokenDetails(ResAccessToken token) {
@@ -46,6 +61,45 @@ public class DefaultResTokenManager implements ResTokenManager, PostCreateBean {
         getAccessTokenStore(token).removeAccessToken(token);
     }
 
+    public boolean isCacheEnabled() {
+        return cacheEnabled;
+    }
+
+    public void setCacheEnabled(boolean cacheEnabled) {
+        this.cacheEnabled = cacheEnabled;
+    }
+
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    public void setCacheSize(int cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
+    public int getCacheExpiresInMs() {
+        return cacheExpiresInMs;
+    }
+
+    public void setCacheExpiresInMs(int cacheExpiresInMs) {
+        this.cacheExpiresInMs = cacheExpiresInMs;
+    }
+
+    public int getCacheNotFoundExpiresInMs() {
+        return cacheNotFoundExpiresInMs;
+    }
+
+    public void setCacheNotFoundExpiresInMs(int cacheNotFoundExpiresInMs) {
+        this.cacheNotFoundExpiresInMs = cacheNotFoundExpiresInMs;
+    }
+    
+    /**
+     * Returns the statistics of the token details cache, or {@link CacheStats#EMPTY} if not cached.
+     */
+    public CacheStats getCacheStats() {
+        return null == cachingTokenStore ? CacheStats.EMPTY : cachingTokenStore.getStats();
+    }
+
     @Override
     public void postCreate(BeanFactory factory) throws Throwable {
         this.typedTokenStores.putAll(factory.getNamedBeans(ResAccessTokenStore.class));
@@ -71,7 +125,7 @@ public class DefaultResTokenManager implements ResTokenManager, PostCreateBean {
                 this.bearerTokenStore = factory.tryGetBean(ResBearerAccessTokenStore.class);
                 if(null == bearerTokenStore) {
                     if(config.isUseRemoteAuthorizationServer()) {
-                        this.bearerTokenStore = factory.getBean(ResBearerAccessTokenStore.class, "remote");
+                        this.bearerTokenStore = createRemoteTokenStore();
                     }else if(config.isUseLocalAuthorizationServer()){
                         this.bearerTokenStore = factory.getBean(ResBearerAccessTokenStore.class, "local");
                     }else {
@@ -88,5 +142,22 @@ public class DefaultResTokenManager implements ResTokenManager, PostCreateBean {
         }
         return store;
     }
-    
+
+    protected synchronized ResAccessTokenStore createRemoteTokenStore() {
+        ResAccessTokenStore store = factory.getBean(ResBearerAccessTokenStore.class, "remote");
+        if(!cacheEnabled) {
+            return store;
+        }
+        
+        if(null == cachingTokenStore) {
+            cachingTokenStore = 
+                    new CachingResAccessTokenStore(store, cacheSize, cacheExpiresInMs, cacheNotFoundExpiresInMs);
+            
+            if(null != cacheManager) {
+                cacheManager.registerCache(TOKEN_CACHE_NAME, cachingTokenStore.getCache());
+            }
+        }
+        return cachingTokenStore;
+    }
+
 }
\ No newline at end of file
@@ -16,6 +16,7 @@
 package leap.oauth2.rs.token;
 
 import leap.core.annotation.Inject;
+import leap.core.security.token.jwt.CachingJwtVerifier;
 import leap.core.security.token.jwt.JwtVerifier;
 import leap.core.security.token.jwt.RsaVerifier;
 import leap.lang.Result;
@@ -38,7 +39,7 @@ public class JwtBearerResAccessTokenStore implements ResBearerAccessTokenStore
 
     public JwtBearerResAccessTokenStore(String publicKey) {
         this.publicKey = RSA.decodePublicKey(publicKey);
-        verifier = new RsaVerifier(this.publicKey);
+        verifier = new CachingJwtVerifier(new RsaVerifier(this.publicKey));
     }
 
 
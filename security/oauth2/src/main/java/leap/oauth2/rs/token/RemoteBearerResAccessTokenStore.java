@@ -39,6 +39,10 @@ public class RemoteBearerResAccessTokenStore implements ResBearerAccessTokenStor
     protected @Inject OAuth2ResServerConfig config;
     protected @Inject HttpClient            httpClient;
 
+    public void setConfig(OAuth2ResServerConfig config) {
+        this.config = config;
+    }
+
     public void setHttpClient(HttpClient httpClient) {
         this.httpClient = httpClient;
     }
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tests.as;
+
+import leap.junit.TestBase;
+import leap.oauth2.as.sso.SimpleAuthzSSOLogin;
+import leap.oauth2.as.sso.SimpleAuthzSSOSession;
+import leap.oauth2.as.store.DefaultAuthzInMemoryStore;
+import leap.oauth2.as.store.ExpiringStoreStats;
+import leap.oauth2.as.token.SimpleAuthzAccessToken;
+import org.junit.Test;
+
+public class AuthzInMemoryStoreTest extends TestBase {
+
+    @Test
+    public void testExpiration() throws Exception {
+        DefaultAuthzInMemoryStore store = new DefaultAuthzInMemoryStore();
+
+        store.saveAccessToken(accessToken("t1", System.currentTimeMillis() - 10000, 5));
+        store.saveAccessToken(accessToken("t2", System.currentTimeMillis(), 3600));
+
+        //the expired token is removed at the next tick (about one second), but never returned.
+        assertNull(store.loadAccessToken("t1"));
+        Thread.sleep(1100);
+        store.cleanupTokens();
+
+        assertNull(store.loadAccessToken("t1"));
+        assertNotNull(store.loadAccessToken("t2"));
+
+        ExpiringStoreStats stats = stats(store, "accessTokens");
+        assertEquals(1, stats.getSize());
+        assertEquals(1, stats.getExpiredCount());
+        assertEquals(0, stats.getEvictedCount());
+
+        store.removeAccessToken("t2");
+        assertNull(store.loadAccessToken("t2"));
+        assertEquals(0, stats(store, "accessTokens").getSize());
+    }
+
+    @Test
+    public void testMaxSize() {
+        DefaultAuthzInMemoryStore store = new DefaultAuthzInMemoryStore();
+        store.setMaxAccessTokens(10);
+
+        long now = System.currentTimeMillis();
+        for(int i=0;i<20;i++) {
+            store.saveAccessToken(accessToken("t" + i, now, 100 + (i % 2 == 0 ? i : 100000 + i)));
+        }
+
+        //the tokens expire soonest are evicted.
+        for(int i=0;i<20;i++) {
+            if(i % 2 == 0) {
+                assertNull(store.loadAccessToken("t" + i));
+            }else{
+                assertNotNull(store.loadAccessToken("t" + i));
+            }
+        }
+
+        ExpiringStoreStats stats = stats(store, "accessTokens");
+        assertEquals(10, stats.getSize());
+        assertEquals(10, stats.getMaxSize());
+        assertEquals(10, stats.getEvictedCount());
+    }
+
+    @Test
+    public void testCompactTokens() {
+        DefaultAuthzInMemoryStore store = new DefaultAuthzInMemoryStore();
+
+        SimpleAuthzAccessToken t1 = accessToken("t1", System.currentTimeMillis(), 3600);
+        SimpleAuthzAccessToken t2 = accessToken("t2", System.currentTimeMillis(), 3600);
+        t1.setScope(new String("read write"));
+        t2.setScope(new String("read write"));
+
+        store.saveAccessToken(t1);
+        store.saveAccessToken(t2);
+
+        assertSame(store.loadAccessToken("t1").getClientId(), store.loadAccessToken("t2").getClientId());
+        assertSame(store.loadAccessToken("t1").getScope(), store.loadAccessToken("t2").getScope());
+    }
+
+    @Test
+    public void testSSOSessionExpiration() throws Exception {
+        DefaultAuthzInMemoryStore store = new DefaultAuthzInMemoryStore();
+
+        SimpleAuthzSSOSession session = session("s1", "st1", System.currentTimeMillis(), 3600);
+        store.saveSession(session, new SimpleAuthzSSOLogin());
+        assertEquals(1, store.loadLoginsInSession(session).size());
+
+        try {
+            store.saveSession(session, new SimpleAuthzSSOLogin());
+            fail("Should throw IllegalStateException");
+        }catch (IllegalStateException e) {
+
+        }
+        assertEquals(1, store.loadLoginsInSession(session).size());
+
+        //the expired session is absent before removed at the next tick.
+        SimpleAuthzSSOSession expired = session("s2", "st2", System.currentTimeMillis() - 10000, 5);
+        store.saveSession(expired, new SimpleAuthzSSOLogin());
+        assertNull(store.loadSessionByToken("u1", "st2"));
+
+        SimpleAuthzSSOSession renewed = session("s3", "st2", System.currentTimeMillis(), 3600);
+        store.saveSession(renewed, new SimpleAuthzSSOLogin());
+        assertSame(renewed, store.loadSessionByToken("u1", "st2"));
+        assertTrue(store.loadLoginsInSession(expired).isEmpty());
+        assertEquals(1, store.loadLoginsInSession(renewed).size());
+
+        SimpleAuthzSSOSession expired1 = session("s4", "st4", System.currentTimeMillis() - 10000, 5);
+        store.saveSession(expired1, new SimpleAuthzSSOLogin());
+        assertEquals(1, store.loadLoginsInSession(expired1).size());
+
+        Thread.sleep(1100);
+        store.cleanupSSO();
+
+        assertNull(store.loadSessionByToken("u1", "st4"));
+        assertTrue(store.loadLoginsInSession(expired1).isEmpty());
+        assertNotNull(store.loadSessionByToken("u1", "st1"));
+    }
+
+    private static SimpleAuthzSSOSession session(String id, String token, long created, int expiresIn) {
+        SimpleAuthzSSOSession session = new SimpleAuthzSSOSession();
+        session.setId(id);
+        session.setToken(token);
+        session.setUsername("u1");
+        session.setCreated(created);
+        session.setExpiresIn(expiresIn);
+        return session;
+    }
+
+    private static SimpleAuthzAccessToken accessToken(String token, long created, int expiresIn) {
+        SimpleAuthzAccessToken at = new SimpleAuthzAccessToken();
+        at.setToken(token);
+        at.setClientId(new String("client1"));
+        at.setCreated(created);
+        at.setExpiresIn(expiresIn);
+        return at;
+    }
+
+    private static ExpiringStoreStats stats(DefaultAuthzInMemoryStore store, String name) {
+        for(ExpiringStoreStats stats : store.getStats()) {
+            if(stats.getName().equals(name)) {
+                return stats;
+            }
+        }
+        throw new IllegalStateException("No stats '" + name + "'");
+    }
+}
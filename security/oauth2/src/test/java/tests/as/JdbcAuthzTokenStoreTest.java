@@ -0,0 +1,133 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tests.as;
+
+import leap.core.junit.AppTestBase;
+import leap.core.schedule.SchedulerManager;
+import leap.oauth2.as.entity.AuthzRefreshTokenEntity;
+import leap.oauth2.as.store.DefaultJdbcAuthzTokenStore;
+import leap.oauth2.as.token.SimpleAuthzRefreshToken;
+import leap.orm.Orm;
+import leap.orm.dao.Dao;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JdbcAuthzTokenStoreTest extends AppTestBase {
+
+    private static boolean initialized;
+
+    private DefaultJdbcAuthzTokenStore store;
+    private Dao                        dao;
+
+    @Before
+    public void setUp() {
+        store = new TestStore();
+        if(!initialized) {
+            store.setDataSourceName(Orm.DEFAULT_NAME);
+            initialized = true;
+        }
+
+        dao = Orm.dao();
+        dao.deleteAll(AuthzRefreshTokenEntity.class);
+    }
+
+    @Test
+    public void testWriteBehind() throws Throwable {
+        store.setWriteBehind(true);
+        store.setFlushInterval(60000);
+        store.setBatchSize(3);
+
+        for(int i=0;i<10;i++) {
+            store.saveRefreshToken(refreshToken("t" + i, System.currentTimeMillis(), 3600));
+        }
+        store.removeRefreshToken("t0");
+
+        //the pending writes are visible before flushed.
+        assertNotNull(store.loadRefreshToken("t1"));
+        assertNull(store.loadRefreshToken("t0"));
+        assertEquals(10, store.getPendingWrites());
+
+        store.flush();
+        assertEquals(0, store.getPendingWrites());
+        assertEquals(9, store.getFlushedInserts());
+        assertTrue(store.getFlushedBatches() >= 4);
+        assertEquals(0, store.getFlushFailures());
+
+        assertEquals(9, dao.count(AuthzRefreshTokenEntity.class));
+        assertNull(dao.findOrNull(AuthzRefreshTokenEntity.class, "t0"));
+        assertNotNull(store.loadRefreshToken("t9"));
+
+        store.removeRefreshToken("t9");
+        store.dispose();
+        assertNull(dao.findOrNull(AuthzRefreshTokenEntity.class, "t9"));
+    }
+
+    @Test
+    public void testMaxPendingWrites() {
+        store.setWriteBehind(true);
+        store.setFlushInterval(60000);
+        store.setMaxPendingWrites(5);
+        store.setBatchSize(5);
+
+        for(int i=0;i<12;i++) {
+            store.saveRefreshToken(refreshToken("t" + i, System.currentTimeMillis(), 3600));
+        }
+
+        //the writers flush by themselves if exceeded.
+        assertTrue(store.getPendingWrites() < 5);
+        assertTrue(dao.count(AuthzRefreshTokenEntity.class) >= 8);
+
+        store.flush();
+        assertEquals(12, dao.count(AuthzRefreshTokenEntity.class));
+    }
+
+    @Test
+    public void testCleanupInChunks() {
+        store.setCleanupChunkSize(3);
+        store.setCleanupChunkPause(0);
+
+        long now = System.currentTimeMillis();
+        for(int i=0;i<10;i++) {
+            store.saveRefreshToken(refreshToken("expired" + i, now - 20000, 10));
+        }
+        store.saveRefreshToken(refreshToken("valid", now, 3600));
+
+        store.cleanupTokens();
+
+        assertEquals(1, dao.count(AuthzRefreshTokenEntity.class));
+        assertNotNull(store.loadRefreshToken("valid"));
+        assertEquals(10, store.getCleanupDeleted());
+        assertEquals(4, store.getCleanupChunks());
+    }
+
+    private static SimpleAuthzRefreshToken refreshToken(String token, long created, int expiresIn) {
+        SimpleAuthzRefreshToken rt = new SimpleAuthzRefreshToken();
+        rt.setToken(token);
+        rt.setClientId("client1");
+        rt.setCreated(created);
+        rt.setExpiresIn(expiresIn);
+        return rt;
+    }
+
+    private static final class TestStore extends DefaultJdbcAuthzTokenStore {
+        TestStore() {
+            this.config           = AppTestBase.config;
+            this.schedulerManager = factory.getBean(SchedulerManager.class);
+            this.dao              = Orm.dao();
+            this.dmo              = Orm.dmo();
+        }
+    }
+}
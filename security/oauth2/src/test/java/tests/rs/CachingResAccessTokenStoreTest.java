@@ -0,0 +1,196 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tests.rs;
+
+import com.sun.net.httpserver.HttpServer;
+import leap.junit.TestBase;
+import leap.lang.Result;
+import leap.lang.http.client.JdkHttpClient;
+import leap.lang.json.JSON;
+import leap.oauth2.rs.DefaultOAuth2ResServerConfig;
+import leap.oauth2.rs.token.CachingResAccessTokenStore;
+import leap.oauth2.rs.token.RemoteBearerResAccessTokenStore;
+import leap.oauth2.rs.token.ResAccessToken;
+import leap.oauth2.rs.token.ResAccessTokenDetails;
+import leap.oauth2.rs.token.SimpleResAccessToken;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests {@link CachingResAccessTokenStore} against a local stub tokeninfo endpoint.
+ */
+public class CachingResAccessTokenStoreTest extends TestBase {
+
+    private final Map<String, Map<String, Object>> tokens   = new ConcurrentHashMap<>();
+    private final AtomicInteger                    requests = new AtomicInteger();
+
+    private HttpServer                 server;
+    private volatile long              delay;
+    private CachingResAccessTokenStore store;
+
+    @Before
+    public void startServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/oauth2/tokeninfo", exchange -> {
+            requests.incrementAndGet();
+            if(delay > 0) {
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            String query = exchange.getRequestURI().getQuery();
+            String token = query.substring(query.indexOf('=') + 1);
+
+            Map<String, Object> info = tokens.get(token);
+            if(null == info) {
+                info = new HashMap<>();
+                info.put("error", "invalid_token");
+            }
+
+            byte[] bytes = JSON.encode(info).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json;charset=UTF-8");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try(OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        DefaultOAuth2ResServerConfig config = new DefaultOAuth2ResServerConfig();
+        config.useRemoteAuthorizationServer("http://127.0.0.1:" + server.getAddress().getPort() + "/oauth2/tokeninfo");
+
+        RemoteBearerResAccessTokenStore remote = new RemoteBearerResAccessTokenStore();
+        remote.setConfig(config);
+        remote.setHttpClient(new JdkHttpClient());
+
+        store = new CachingResAccessTokenStore(remote, 100, 60000, 300);
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testCachedDetails() {
+        addToken("t1", System.currentTimeMillis(), 3600);
+
+        for(int i=0;i<20;i++) {
+            ResAccessTokenDetails details = load("t1").get();
+            assertEquals("c1", details.getClientId());
+            assertEquals("u1", details.getUserId());
+            assertFalse(details.isExpired());
+        }
+
+        assertEquals(1, requests.get());
+        assertEquals(19, store.getStats().getHitCount());
+        assertEquals(0.95d, store.getStats().getHitRate(), 0.001d);
+
+        store.removeAccessToken(token("t1"));
+        assertTrue(load("t1").isPresent());
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void testNotFound() throws Exception {
+        assertTrue(load("t2").isEmpty());
+        assertTrue(load("t2").isEmpty());
+        assertEquals(1, requests.get());
+
+        Thread.sleep(400);
+        addToken("t2", System.currentTimeMillis(), 3600);
+        assertTrue(load("t2").isPresent());
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void testTokenExpiresIn() throws Exception {
+        addToken("t3", System.currentTimeMillis() - 59500, 60);
+
+        assertTrue(load("t3").isPresent());
+        assertTrue(load("t3").isPresent());
+        assertEquals(1, requests.get());
+
+        Thread.sleep(600);
+        assertTrue(load("t3").get().isExpired());
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void testConcurrentLoadings() throws Exception {
+        addToken("t4", System.currentTimeMillis(), 3600);
+        delay = 200;
+
+        int threads = 10;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+
+            List<Future<Result<ResAccessTokenDetails>>> futures = new ArrayList<>();
+            for(int i=0;i<threads;i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return load("t4");
+                }));
+            }
+            start.countDown();
+
+            for(Future<Result<ResAccessTokenDetails>> future : futures) {
+                assertEquals("u1", future.get().get().getUserId());
+            }
+        }finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, requests.get());
+    }
+
+    private void addToken(String token, long created, int expiresIn) {
+        Map<String, Object> info = new HashMap<>();
+        info.put("client_id", "c1");
+        info.put("user_id", "u1");
+        info.put("created", created);
+        info.put("expires_in", expiresIn);
+        tokens.put(token, info);
+    }
+
+    private Result<ResAccessTokenDetails> load(String token) {
+        return store.loadAccessTokenDetails(token(token));
+    }
+
+    private static ResAccessToken token(String token) {
+        return new SimpleResAccessToken(null, token, new HashMap<>());
+    }
+}
@@ -17,8 +17,6 @@ package leap.web.security.path;
 
 import leap.core.annotation.Inject;
 import leap.core.annotation.M;
-import leap.core.cache.Cache;
-import leap.core.cache.SimpleLRUCache;
 import leap.lang.logging.Log;
 import leap.lang.logging.LogFactory;
 import leap.lang.path.PathPattern;
@@ -48,37 +46,23 @@ public class DefaultSecuredPathSource implements SecuredPathSource {
         }
     };
 	
-	private static final SecuredPath ANY  = new DefaultSecuredPathBuilder().setPattern(ANY_PATTERN).build();
-	private static final SecuredPath NULL = new DefaultSecuredPathBuilder().setPattern(ANY_PATTERN).build();
+	private static final SecuredPath ANY = new DefaultSecuredPathBuilder().setPattern(ANY_PATTERN).build();
 
 	protected @Inject @M SecurityConfig config;
 
-	protected Cache<String, SecuredPath> cachedPaths = new SimpleLRUCache<>(1024);
-	
 	@Override
 	public SecuredPath getSecuredPath(SecurityContextHolder context, Request request) {
-	    SecuredPath securedPath = cachedPaths.get(request.getPath());
-	    if(null != securedPath) {
-	        return securedPath == NULL ? null : securedPath;
-	    }
-
-        log.debug("Matching request {} ...", request.getPath());
-	    
-		for(SecuredPath p : config.getSecuredPaths()){
-			if(p.matches(request)) {
-                log.debug("Matches -> {}", p.getPattern());
-			    cachedPaths.put(request.getPath(), securedPath);
-				return p;
-			}
-            log.debug("Not matches -> {}", p.getPattern());
+		//the secured paths cache the results of the exact paths.
+		SecuredPath p = config.getSecuredPaths().match(request.getPath());
+		if(null != p) {
+			log.debug("Request {} matches -> {}", request.getPath(), p.getPattern());
+			return p;
 		}
-		
+
 		if(config.isAuthenticateAnyRequests()) {
-		    cachedPaths.put(request.getPath(), ANY);
 		    return ANY;
 		}
-		
-		cachedPaths.put(request.getPath(), NULL);
+
 		return null;
 	}
 }
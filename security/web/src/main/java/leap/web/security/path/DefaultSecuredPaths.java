@@ -25,11 +25,18 @@ import leap.web.security.authz.AuthorizationContext;
 
 import java.util.Iterator;
 import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class DefaultSecuredPaths implements SecuredPaths {
 
     protected final TreeMap<PathPattern,PathEntry> paths = new TreeMap<>(PathPattern.DEFAULT_COMPARATOR);
 
+    //increased at every change of the paths.
+    private final AtomicLong version = new AtomicLong();
+
+    //compiled at the first matching after the paths changed.
+    private volatile Compiled compiled;
+
     @Override
     public boolean isEmpty() {
         return paths.isEmpty();
@@ -78,6 +85,7 @@ public class DefaultSecuredPaths implements SecuredPaths {
     public SecuredPaths apply(SecuredPath p) {
         Args.notNull(p);
         paths.put(p.getPattern(), new PathEntry(p));
+        version.incrementAndGet();
         return this;
     }
 
@@ -90,11 +98,36 @@ public class DefaultSecuredPaths implements SecuredPaths {
     @Override
     public SecuredPath remove(String path) {
         Args.notEmpty(path, "path");
-        return paths.remove(new AntPathPattern(path));
+        PathEntry removed = paths.remove(new AntPathPattern(path));
+        version.incrementAndGet();
+        return removed;
+    }
+
+    @Override
+    public SecuredPath match(String path) {
+        //the version must be read before the paths, a matcher published after a concurrent change will be recompiled.
+        long     v = version.get();
+        Compiled c = compiled;
+        if(null == c || c.version != v) {
+            c = new Compiled(new SecuredPathMatcher(paths.values()), v);
+            compiled = c;
+        }
+        return c.matcher.match(path);
     }
 
     public void apply(SecuredPathConfigurator c, SecuredPath p) {
         paths.put(p.getPattern(), new PathEntry(p, c));
+        version.incrementAndGet();
+    }
+
+    private static final class Compiled {
+        final SecuredPathMatcher matcher;
+        final long               version;
+
+        Compiled(SecuredPathMatcher matcher, long version) {
+            this.matcher = matcher;
+            this.version = version;
+        }
     }
 
     protected static final class PathEntry implements SecuredPath {
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.web.security.path;
+
+import leap.core.cache.Cache;
+import leap.core.cache.ConcurrentLFUCache;
+import leap.core.web.path.PathTemplate;
+import leap.lang.Strings;
+import leap.lang.path.AntPathPattern;
+import leap.lang.path.PathPattern;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compiled matcher of the {@link SecuredPath}s, returns the first matched one in the given order.
+ *
+ * <p>
+ * The literal leading segments of the ant path patterns and path templates are indexed in a trie,
+ * so only the paths indexed along the segments of the request path are tested.
+ * The other patterns are tested for every path.
+ *
+ * <p>
+ * The results of the exact paths are cached.
+ */
+final class SecuredPathMatcher {
+
+    static final int DEFAULT_CACHE_SIZE = 1024;
+
+    private static final Entry[] EMPTY = new Entry[0];
+    private static final Object  NONE  = new Object();
+
+    private final Node                  root = new Node();
+    private final Cache<String, Object> cache;
+
+    SecuredPathMatcher(Iterable<? extends SecuredPath> paths) {
+        this(paths, DEFAULT_CACHE_SIZE);
+    }
+
+    SecuredPathMatcher(Iterable<? extends SecuredPath> paths, int cacheSize) {
+        int index = 0;
+        for(SecuredPath p : paths) {
+            add(new Entry(index++, p));
+        }
+        root.compile();
+        this.cache = new ConcurrentLFUCache<>(cacheSize);
+    }
+
+    /**
+     * Returns the first {@link SecuredPath} matches the given path or <code>null</code> if no matches.
+     */
+    public SecuredPath match(String path) {
+        Object cached = cache.get(path);
+        if(null == cached) {
+            SecuredPath p = doMatch(path);
+            cache.put(path, null == p ? NONE : p);
+            return p;
+        }
+        return cached == NONE ? null : (SecuredPath)cached;
+    }
+
+    SecuredPath doMatch(String path) {
+        //splits the path as the ant path matcher.
+        String[] segments = Strings.split(path, "/");
+
+        Entry best = null;
+        Node  node = root;
+        for(int i=0;;i++) {
+            best = match(node.entries, path, best);
+
+            if(i == segments.length || null == node.children) {
+                break;
+            }
+
+            node = node.children.get(segments[i]);
+            if(null == node) {
+                break;
+            }
+        }
+
+        return null == best ? null : best.path;
+    }
+
+    private static Entry match(Entry[] entries, String path, Entry best) {
+        for(Entry e : entries) {
+            if(null != best && e.index > best.index) {
+                break;
+            }
+            if(e.path.matches(path)) {
+                return e;
+            }
+        }
+        return best;
+    }
+
+    private void add(Entry e) {
+        Node node = root;
+        for(String segment : literalSegments(e.path.getPattern())) {
+            if(null == node.children) {
+                node.children = new HashMap<>();
+            }
+            node = node.children.computeIfAbsent(segment, (s) -> new Node());
+        }
+        node.list.add(e);
+    }
+
+    /**
+     * Returns the leading segments without wildcards and variables, all the matched paths must start with them.
+     */
+    private static List<String> literalSegments(PathPattern pp) {
+        List<String> list = new ArrayList<>();
+
+        if(pp instanceof AntPathPattern || pp instanceof PathTemplate) {
+            for(String segment : Strings.split(pp.pattern(), "/")) {
+                if(!isLiteral(segment)) {
+                    break;
+                }
+                list.add(segment);
+            }
+        }
+
+        return list;
+    }
+
+    private static boolean isLiteral(String segment) {
+        for(int i=0;i<segment.length();i++) {
+            char c = segment.charAt(i);
+            if(c == '*' || c == '?' || c == '{' || c == '}') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class Entry {
+        final int         index;
+        final SecuredPath path;
+
+        Entry(int index, SecuredPath path) {
+            this.index = index;
+            this.path  = path;
+        }
+    }
+
+    private static final class Node {
+        List<Entry>       list    = new ArrayList<>();
+        Entry[]           entries = EMPTY;
+        Map<String, Node> children;
+
+        void compile() {
+            //the entries are added in order.
+            entries = list.toArray(new Entry[list.size()]);
+            list    = null;
+
+            if(null != children) {
+                children.values().forEach(Node::compile);
+            }
+        }
+    }
+}
@@ -54,4 +54,19 @@ public interface SecuredPaths extends Iterable<SecuredPath>,Emptiable {
      */
     SecuredPath remove(String path);
 
+    /**
+     * Returns the first {@link SecuredPath} matches the given path.
+     *
+     * <p/>
+     * Returns null if no matches.
+     */
+    default SecuredPath match(String path) {
+        for(SecuredPath p : this) {
+            if(p.matches(path)) {
+                return p;
+            }
+        }
+        return null;
+    }
+
 }
\ No newline at end of file
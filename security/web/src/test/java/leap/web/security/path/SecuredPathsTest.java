@@ -0,0 +1,122 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.web.security.path;
+
+import leap.core.web.path.JerseyPathTemplateFactory;
+import leap.junit.TestBase;
+import org.junit.Test;
+
+import java.util.ConcurrentModificationException;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class SecuredPathsTest extends TestBase {
+
+    private static final String[] SEGMENTS = { "api", "users", "admin", "1", "x.html", "login", "css", "" };
+
+    @Test
+    public void testMatch() {
+        DefaultSecuredPaths paths = new DefaultSecuredPaths();
+
+        paths.apply("/api/**", false);
+        paths.apply("/api/users/*", true);
+        paths.apply("/api/users/{id}/roles", false);
+        paths.apply("/**/*.html", true);
+        paths.apply("/login", true);
+        paths.apply("/css/**", true);
+        paths.apply("*/users", true);
+        paths.apply(new DefaultSecuredPathBuilder(new JerseyPathTemplateFactory().createPathTemplate("/admin/{id}/users")).build());
+
+        assertEquals("/login", paths.match("/login").getPattern().pattern());
+        assertEquals("/api/**", paths.match("/api/users").getPattern().pattern());
+        assertEquals("/css/**", paths.match("/css/a.css").getPattern().pattern());
+        assertNull(paths.match("/users"));
+
+        Random random = new Random(7);
+        for(int i=0;i<5000;i++) {
+            StringBuilder path = new StringBuilder();
+            int n = random.nextInt(5);
+            for(int j=0;j<n;j++) {
+                if(j > 0 || random.nextInt(8) > 0) {
+                    path.append('/');
+                }
+                path.append(SEGMENTS[random.nextInt(SEGMENTS.length)]);
+            }
+            assertSame(path.toString(), matchOneByOne(paths, path.toString()), paths.match(path.toString()));
+        }
+    }
+
+    @Test
+    public void testMatchAfterChanged() {
+        DefaultSecuredPaths paths = new DefaultSecuredPaths();
+
+        paths.apply("/api/**", true);
+        assertNotNull(paths.match("/api/users"));
+        assertNull(paths.match("/users"));
+
+        paths.apply("/users", false);
+        assertEquals("/users", paths.match("/users").getPattern().pattern());
+
+        paths.remove("/users");
+        assertNull(paths.match("/users"));
+
+        paths.of("/api/**").setAllowAnonymous(false).apply();
+        assertFalse(paths.match("/api/users").isAllowAnonymous());
+    }
+
+    @Test
+    public void testMatchWhileChanging() throws Exception {
+        DefaultSecuredPaths paths = new DefaultSecuredPaths();
+        paths.apply("/api/**", true);
+
+        AtomicBoolean stop   = new AtomicBoolean();
+        Thread        reader = new Thread(() -> {
+            while(!stop.get()) {
+                try {
+                    paths.match("/path" + ThreadLocalRandom.current().nextInt(100));
+                }catch (ConcurrentModificationException e) {
+                    //the paths are not expected to be changed concurrently, ignore it.
+                }
+            }
+        });
+        reader.start();
+
+        try {
+            for(int i=0;i<100;i++) {
+                paths.apply("/path" + i, true);
+                Thread.yield();
+            }
+        }finally {
+            stop.set(true);
+            reader.join();
+        }
+
+        //a matcher compiled before the last change must not be used.
+        for(int i=0;i<100;i++) {
+            assertNotNull(paths.match("/path" + i));
+        }
+    }
+
+    private static SecuredPath matchOneByOne(SecuredPaths paths, String path) {
+        for(SecuredPath p : paths) {
+            if(p.matches(path)) {
+                return p;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package tested;
+
+import leap.lang.time.StopWatch;
+import leap.web.security.path.DefaultSecuredPaths;
+import leap.web.security.path.SecuredPath;
+import leap.web.security.path.SecuredPaths;
+
+/**
+ * Measures the secured path resolutions per second of a single thread.
+ */
+public class SecuredPathsPerfMain {
+
+    private static final int RULES = 300;
+    private static final int LOOPS = 20000;
+
+    public static void main(String[] args) {
+        DefaultSecuredPaths paths = new DefaultSecuredPaths();
+        for(int i=0;i<RULES / 3;i++) {
+            paths.apply("/api/module" + i + "/**", false);
+            paths.apply("/api/module" + i + "/items/{id}", true);
+            paths.apply("/static/module" + i + "/*.js", true);
+        }
+
+        //distinct paths (more than the cache size) and a few hot paths.
+        String[] distinct = new String[10000];
+        for(int i=0;i<distinct.length;i++) {
+            distinct[i] = "/api/module" + (i % (RULES / 3)) + "/items/" + i;
+        }
+        String[] hot = new String[100];
+        System.arraycopy(distinct, 0, hot, 0, hot.length);
+
+        //warm up
+        for(int i=0;i<3;i++) {
+            run("", paths, distinct, LOOPS / 10, false, true);
+            run("", paths, distinct, LOOPS, true, true);
+            run("", paths, hot, LOOPS, true, true);
+        }
+
+        System.out.println("\n\nWarm up done, Let's begin!\n");
+
+        run("One by one       ", paths, distinct, LOOPS / 10, false, false);
+        run("Compiled (misses)", paths, distinct, LOOPS, true, false);
+        run("Compiled (hits)  ", paths, hot, LOOPS * 10, true, false);
+    }
+
+    protected static void run(String name, SecuredPaths paths, String[] requests, int loops, boolean compiled, boolean warmup) {
+        StopWatch sw = StopWatch.startNew();
+
+        int matched = 0;
+        for(int i=0;i<loops;i++) {
+            String path = requests[i % requests.length];
+            SecuredPath p = compiled ? paths.match(path) : matchOneByOne(paths, path);
+            if(null != p) {
+                matched++;
+            }
+        }
+
+        if(!warmup) {
+            long ms = Math.max(1, sw.getElapsedMilliseconds());
+            System.out.println(name + " : " + ms + "ms, " + ((long)loops * 1000 / ms) + " resolutions/s, " + matched + " matched");
+        }
+    }
+
+    protected static SecuredPath matchOneByOne(SecuredPaths paths, String path) {
+        for(SecuredPath p : paths) {
+            if(p.matches(path)) {
+                return p;
+            }
+        }
+        return null;
+    }
+}
@@ -19,6 +19,7 @@ import leap.lang.Beans;
 import leap.lang.Strings;
 import leap.lang.TypeInfo;
 import leap.lang.beans.BeanType;
+import leap.lang.convert.ConversionPlan;
 import leap.lang.convert.Converts;
 import leap.web.App;
 import leap.web.route.RouteBase;
@@ -39,12 +40,14 @@ public class CollectionArgumentResolver extends AbstractMapResolver {
 	private final TypeInfo 						  			  elementType;
 	private final BiFunction<ActionContext, Argument, Object> resolver;
 	private final String									  arrayPrefix;
+	private final ConversionPlan<?>							  plan;
 	
 	public CollectionArgumentResolver(App app, RouteBase route, Argument argument) {
 		super(app,route,argument);
 		
 		this.elementType = argument.getTypeInfo().getElementTypeInfo();
 		this.arrayPrefix = argument.getName() + "[";
+		this.plan        = Converts.plan(argument.getType(), argument.getGenericType());
 		
 		if(this.elementType.isSimpleType()) {
 			this.resolver = (ac,arg) -> resolveSimpleCollection(ac, arg);	
@@ -67,7 +70,7 @@ public class CollectionArgumentResolver extends AbstractMapResolver {
 	        	if(value instanceof Part) {
 	        		return convertFromPart((Part)value, arg);
 	        	}
-        		return Converts.convert(value, arg.getType(), arg.getGenericType());	
+        		return plan.convert(value);	
 	        }
         } catch (Throwable e) {
         	if(e instanceof RuntimeException){
@@ -114,7 +117,7 @@ public class CollectionArgumentResolver extends AbstractMapResolver {
 		}
 		
 		if(null != list){
-			return Converts.convert(list, arg.getType(),arg.getGenericType());
+			return plan.convert(list);
 		}else{
 			return null;
 		}
@@ -125,7 +128,7 @@ public class CollectionArgumentResolver extends AbstractMapResolver {
 			//direct binding
 			Object value = getParameter(ac, arg);
 			if(null != value){
-				return Converts.convert(value, arg.getType(),arg.getGenericType());
+				return plan.convert(value);
 			}
 			
 			return bindingComplexCollectionFromParameters(ac, arg);
@@ -18,6 +18,7 @@ package leap.web.action;
 import leap.lang.Beans;
 import leap.lang.beans.BeanProperty;
 import leap.lang.beans.BeanType;
+import leap.lang.convert.ConversionPlan;
 import leap.lang.convert.Converts;
 import leap.web.App;
 import leap.web.body.RequestBodyReader;
@@ -97,7 +98,7 @@ public class RequestBeanArgumentResolver implements ArgumentResolver {
                             if(null == value) {
                                 bp.setValue(bean, null);
                             }else{
-                                bp.setValue(bean, Converts.convert(value, bp.getType(), bp.getGenericType()));
+                                bp.setValue(bean, ba.plan.convert(value));
                             }
 
                         }
@@ -131,6 +132,7 @@ public class RequestBeanArgumentResolver implements ArgumentResolver {
     public static final class BeanArgument {
         public final BeanProperty     property;
         public final boolean          isMap;
+        public final ConversionPlan<?> plan;
 
         public Argument         argument;
         public boolean          body;
@@ -139,6 +141,7 @@ public class RequestBeanArgumentResolver implements ArgumentResolver {
         public BeanArgument(BeanProperty p) {
             this.property = p;
             this.isMap    = p.getTypeInfo().isMap();
+            this.plan     = Converts.plan(p.getType(), p.getGenericType());
         }
     }
 }
\ No newline at end of file
@@ -16,6 +16,7 @@
 package leap.web.action;
 
 import leap.lang.Classes;
+import leap.lang.convert.ConversionPlan;
 import leap.lang.convert.Converts;
 import leap.web.App;
 import leap.web.route.RouteBase;
@@ -27,8 +28,11 @@ import javax.servlet.http.Part;
  */
 public class SimpleArgumentResolver extends AbstractArgumentResolver {
 	
+	protected final ConversionPlan<?> plan;
+	
 	public SimpleArgumentResolver(App app, RouteBase route, Argument argument) {
 	    super(app,route,argument);
+	    this.plan = Converts.plan(argument.getType(), argument.getGenericType());
     }
 
 	@Override
@@ -41,7 +45,7 @@ public class SimpleArgumentResolver extends AbstractArgumentResolver {
 			if(value instanceof Part) {
 				return convertFromPart((Part)value, arg);
 			}
-			return Converts.convert(value, arg.getType(), arg.getGenericType());
+			return plan.convert(value);
 		}
     }
 }
\ No newline at end of file
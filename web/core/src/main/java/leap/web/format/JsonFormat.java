@@ -18,10 +18,10 @@ package leap.web.format;
 import leap.core.annotation.Inject;
 import leap.core.validation.annotations.NotNull;
 import leap.lang.Exceptions;
-import leap.lang.convert.Converts;
+import leap.lang.exception.NestedIOException;
 import leap.lang.http.MimeTypes;
 import leap.lang.io.IO;
-import leap.lang.json.JsonValue;
+import leap.lang.json.JsonParserException;
 import leap.lang.logging.Log;
 import leap.lang.logging.LogFactory;
 import leap.web.Content;
@@ -58,23 +58,18 @@ public class JsonFormat extends AbstractRequestFormat implements ResponseFormat,
 
 	@Override
     public Object readRequestBody(Request request, Class<?> type, Type genericType) throws IOException, IllegalStateException {
-		JsonValue jsonObject = null;
 		try {
             if(log.isTraceEnabled()) {
                 String json = IO.readString(request.getReader());
 
                 log.trace("Json request body : \n{}", json);
 
-                jsonObject = leap.lang.json.JSON.decodeToJsonValue(json);
+                return leap.lang.json.JSON.decode(json, type, genericType);
             }else{
-                jsonObject = leap.lang.json.JSON.decodeToJsonValue(request.getReader());
+                return leap.lang.json.JSON.decode(request.getReader(), type, genericType);
             }
-        } catch (Exception e) {
+        } catch (JsonParserException | NestedIOException e) {
         	throw new InvalidFormatContentException("Error reading 'json' request body, " + e.getMessage(), e);
-        }
-		
-		try {
-	        return Converts.convert(jsonObject.raw(), type, genericType);
         } catch (Exception e) {
         	throw new InvalidFormatContentException("Error converting 'json' request body to type '" + type.getName() + "', " + e.getMessage(), e);
         }
@@ -17,9 +17,11 @@ package leap.web.json;
 
 import java.io.IOException;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.function.Consumer;
 
 import leap.lang.Strings;
+import leap.lang.io.Utf8OutputStreamWriter;
 import leap.lang.js.JS;
 import leap.web.Request;
 import leap.web.Response;
@@ -31,9 +33,34 @@ public class Jsonp {
 		
 	}
 
+	/**
+	 * Writes the json (or jsonp) content to the response.
+	 * 
+	 * <p>
+	 * If the response charset is UTF-8 the content will be encoded to bytes directly and written to the 
+	 * output stream of response by a pooled byte buffer, the output stream will not be opened if the content fails before
+	 * the first buffer written.
+	 */
 	public static void write(Request request, Response response, JsonConfig jc, Consumer<Writer> func) throws IOException {
-		Writer writer = response.getWriter();
+		if(!isUtf8(response)) {
+			write(request, response.getWriter(), jc, func);
+			return;
+		}
 		
+		Utf8OutputStreamWriter writer = new Utf8OutputStreamWriter(response::getOutputStream);
+		try {
+			write(request, writer, jc, func);
+			writer.release();
+		}finally{
+			writer.discard();
+		}
+	}
+	
+	protected static boolean isUtf8(Response response) {
+		return StandardCharsets.UTF_8.name().equalsIgnoreCase(response.getServletResponse().getCharacterEncoding());
+	}
+	
+	protected static void write(Request request, Writer writer, JsonConfig jc, Consumer<Writer> func) throws IOException {
 		if(jc.isJsonpEnabled()){
 			String callback = request.getParameter(jc.getJsonpParameter());
 			if(!Strings.isEmpty(callback)){
@@ -38,6 +38,8 @@ public class DefaultRoutes implements Routes {
 	private Route[]    array = new Route[]{};
 	private Set<Route> set   = new TreeSet<Route>(Route.COMPARATOR);
 	
+	private volatile RouteIndex index;
+	
 	@Override
     public int size() {
 	    return array.length;
@@ -135,26 +137,22 @@ public class DefaultRoutes implements Routes {
 
 	@Override
     public Route match(String method, String path, Map<String,Object> inParameters,  Map<String, String> outVariables) {
-		Route[] routes = this.array;
+		RouteIndex index = this.index;
 		
-		for(int i=0;i<routes.length;i++){
-			Route route = routes[i];
-			
-			if(null == method || route.getMethod().equals("*") || route.getMethod().equals(method)){
-				
-				if(!matchRequiredParameters(route.getRequiredParameters(), inParameters)){
-					continue;
-				}
-				
-				if(route.getPathTemplate().match(path, outVariables)){
-					return route;
-				}
-			}
+		if(null == index){
+			index = createIndex();
 		}
 		
-		return null;
+		return index.match(method, path, inParameters, outVariables);
     }
 	
+	private synchronized RouteIndex createIndex() {
+		if(null == index){
+			index = new RouteIndex(array, (route, inParameters) -> matchRequiredParameters(route.getRequiredParameters(), inParameters));
+		}
+		return index;
+	}
+	
 	protected boolean matchRequiredParameters(Map<String, String> requiredParameters,Map<String, Object> inParameters) {
 		if(requiredParameters.isEmpty()){
 			return true;
@@ -178,5 +176,6 @@ public class DefaultRoutes implements Routes {
 
 	protected void setNewArray(){
 		this.array = set.toArray(new Route[set.size()]);
+		this.index = null;
 	}
 }
\ No newline at end of file
@@ -0,0 +1,324 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.web.route;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiPredicate;
+import java.util.regex.Pattern;
+
+/**
+ * A compiled index of the routes, a segment trie keyed by the http method and the literal path segments.
+ *
+ * <p>
+ * A route which path template only contains literal segments and whole segment variables like <code>/users/{id}</code>
+ * is matched by walking the trie, the variables are captured without regex.
+ *
+ * <p>
+ * Other routes are attached to the trie node of their literal prefix and matched by the path template.
+ *
+ * <p>
+ * The matched route is the first matched one in the order of {@link Route#COMPARATOR}, the same as matching the routes one by one.
+ */
+final class RouteIndex {
+
+    private static final Pattern VARIABLE_NAME = Pattern.compile("\\w[-\\w\\.]*");
+    private static final boolean[] LITERAL_CHARS = initLiteralChars();
+
+    private static boolean[] initLiteralChars() {
+        boolean[] table = new boolean[0x80];
+        for(char c = '0'; c <= '9'; c++) {
+            table[c] = true;
+        }
+        for(char c = 'a'; c <= 'z'; c++) {
+            table[c] = true;
+            table[Character.toUpperCase(c)] = true;
+        }
+        for(char c : "-._~!$&'()*+,;=:@".toCharArray()) {
+            table[c] = true;
+        }
+        return table;
+    }
+
+    private final Map<String, Node> methodRoots = new HashMap<>();
+    private final Node              anyRoot     = new Node();
+    private final Node              allRoot     = new Node();
+
+    private final BiPredicate<Route, Map<String, Object>> parametersMatcher;
+
+    RouteIndex(Route[] routes, BiPredicate<Route, Map<String, Object>> parametersMatcher) {
+        this.parametersMatcher = parametersMatcher;
+
+        Set<String> methods = new HashSet<>();
+        for(Route route : routes) {
+            if(!"*".equals(route.getMethod())) {
+                methods.add(route.getMethod());
+            }
+        }
+        for(String method : methods) {
+            methodRoots.put(method, new Node());
+        }
+
+        for(int i=0;i<routes.length;i++) {
+            Entry entry = new Entry(i, routes[i]);
+
+            allRoot.add(entry);
+
+            if("*".equals(entry.route.getMethod())) {
+                anyRoot.add(entry);
+                for(Node root : methodRoots.values()) {
+                    root.add(entry);
+                }
+            }else{
+                methodRoots.get(entry.route.getMethod()).add(entry);
+            }
+        }
+    }
+
+    Route match(String method, String path, Map<String, Object> inParameters, Map<String, String> outVariables) {
+        if(null == path || path.isEmpty() || path.charAt(0) != '/') {
+            return null;
+        }
+
+        Node root;
+        if(null == method) {
+            root = allRoot;
+        }else{
+            root = methodRoots.get(method);
+            if(null == root) {
+                root = anyRoot;
+            }
+        }
+
+        Matching m = new Matching(split(path), path, inParameters, outVariables);
+        root.match(m, 0);
+        return null == m.best ? null : m.best.route;
+    }
+
+    private static String[] split(String path) {
+        int count = 0;
+        for(int i=0;i<path.length();i++) {
+            if(path.charAt(i) == '/') {
+                count++;
+            }
+        }
+
+        String[] segments = new String[count];
+        int start = 1;
+        for(int i=0;i<count;i++) {
+            int end = path.indexOf('/', start);
+            if(end < 0) {
+                end = path.length();
+            }
+            segments[i] = path.substring(start, end);
+            start = end + 1;
+        }
+        return segments;
+    }
+
+    private final class Matching {
+        final String[]            segments;
+        final String              path;
+        final Map<String, Object> inParameters;
+        final Map<String, String> outVariables;
+        final String[]            values;
+
+        Entry best;
+
+        Matching(String[] segments, String path, Map<String, Object> inParameters, Map<String, String> outVariables) {
+            this.segments     = segments;
+            this.path         = path;
+            this.inParameters = inParameters;
+            this.outVariables = outVariables;
+            this.values       = new String[segments.length];
+        }
+
+        boolean accepts(Entry entry) {
+            return parametersMatcher.test(entry.route, inParameters);
+        }
+    }
+
+    private static final class Entry {
+        final int      index;
+        final Route    route;
+        final Object[] segments; //String for literal, Variable for variable.
+        final boolean  simple;
+        final int      literalPrefix;
+
+        Entry(int index, Route route) {
+            this.index = index;
+            this.route = route;
+
+            String template = route.getPathTemplate().getTemplate();
+
+            List<Object> list   = new ArrayList<>();
+            Set<String>  names  = new HashSet<>();
+            boolean      simple = !template.isEmpty() && template.charAt(0) == '/';
+
+            if(simple) {
+                for(String segment : split(template)) {
+                    if(isLiteral(segment)) {
+                        list.add(segment);
+                        continue;
+                    }
+                    if(segment.length() > 2 && segment.charAt(0) == '{' && segment.charAt(segment.length() - 1) == '}') {
+                        String name = segment.substring(1, segment.length() - 1);
+                        if(VARIABLE_NAME.matcher(name).matches() && names.add(name)) {
+                            list.add(new Variable(name));
+                            continue;
+                        }
+                    }
+                    simple = false;
+                    break;
+                }
+            }
+
+            int prefix = 0;
+            while(prefix < list.size() && list.get(prefix) instanceof String) {
+                prefix++;
+            }
+
+            this.segments      = list.toArray();
+            this.simple        = simple;
+            this.literalPrefix = prefix;
+        }
+
+        private static boolean isLiteral(String segment) {
+            for(int i=0;i<segment.length();i++) {
+                char c = segment.charAt(i);
+                if(c >= 0x80 || !LITERAL_CHARS[c]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static final class Variable {
+        final String name;
+
+        Variable(String name) {
+            this.name = name;
+        }
+    }
+
+    private static final class Node {
+        Map<String, Node> literals;
+        Node              variable;
+
+        //simple routes end at this node, ordered by index.
+        List<Entry> terminals;
+
+        //routes must be matched by the path template, ordered by index.
+        List<Entry> templates;
+
+        void add(Entry entry) {
+            Node node = this;
+            if(entry.simple) {
+                for(Object segment : entry.segments) {
+                    node = segment instanceof String ? node.literal((String)segment) : node.variable();
+                }
+                node.terminals = append(node.terminals, entry);
+            }else{
+                for(int i=0;i<entry.literalPrefix;i++) {
+                    node = node.literal((String)entry.segments[i]);
+                }
+                node.templates = append(node.templates, entry);
+            }
+        }
+
+        void match(Matching m, int depth) {
+            if(null != templates) {
+                for(Entry entry : templates) {
+                    if(null != m.best && entry.index >= m.best.index) {
+                        break;
+                    }
+                    if(m.accepts(entry) && entry.route.getPathTemplate().match(m.path, m.outVariables)) {
+                        m.best = entry;
+                        break;
+                    }
+                }
+            }
+
+            if(depth == m.segments.length) {
+                if(null != terminals) {
+                    for(Entry entry : terminals) {
+                        if(null != m.best && entry.index >= m.best.index) {
+                            break;
+                        }
+                        if(m.accepts(entry)) {
+                            m.best = entry;
+                            capture(m, entry);
+                            break;
+                        }
+                    }
+                }
+                return;
+            }
+
+            String segment = m.segments[depth];
+
+            if(null != literals) {
+                Node child = literals.get(segment);
+                if(null != child) {
+                    child.match(m, depth + 1);
+                }
+            }
+
+            if(null != variable && !segment.isEmpty()) {
+                m.values[depth] = segment;
+                variable.match(m, depth + 1);
+                m.values[depth] = null;
+            }
+        }
+
+        private static void capture(Matching m, Entry entry) {
+            m.outVariables.clear();
+            for(int i=0;i<entry.segments.length;i++) {
+                Object segment = entry.segments[i];
+                if(segment instanceof Variable) {
+                    m.outVariables.put(((Variable)segment).name, m.values[i]);
+                }
+            }
+        }
+
+        private Node literal(String segment) {
+            if(null == literals) {
+                literals = new HashMap<>();
+            }
+            return literals.computeIfAbsent(segment, (s) -> new Node());
+        }
+
+        private Node variable() {
+            if(null == variable) {
+                variable = new Node();
+            }
+            return variable;
+        }
+
+        private static List<Entry> append(List<Entry> list, Entry entry) {
+            if(null == list) {
+                list = new ArrayList<>(1);
+            }
+            list.add(entry);
+            return list;
+        }
+    }
+}
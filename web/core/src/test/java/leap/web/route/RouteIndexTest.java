@@ -0,0 +1,162 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.web.route;
+
+import leap.core.web.path.JerseyPathTemplateFactory;
+import leap.junit.TestBase;
+import leap.lang.New;
+import leap.web.action.RunnableAction;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+public class RouteIndexTest extends TestBase {
+
+    private static final JerseyPathTemplateFactory factory = new JerseyPathTemplateFactory();
+
+    @Test
+    public void testPrecedence() {
+        DefaultRoutes routes = new DefaultRoutes();
+
+        Route r1 = route("*",    "/users/{id}");
+        Route r2 = route("GET",  "/users/new");
+        Route r3 = route("POST", "/users/{id}");
+        Route r4 = route("*",    "/users/{id}", New.hashMap("action", "edit"));
+        routes.addAll(New.arrayList(r1, r2, r3, r4));
+
+        Map<String, String> vars = new HashMap<>();
+
+        assertSame(r2, routes.match("GET", "/users/new", Collections.emptyMap(), vars));
+        assertSame(r3, routes.match("POST", "/users/new", Collections.emptyMap(), vars));
+        assertEquals("new", vars.get("id"));
+        assertSame(r1, routes.match("GET", "/users/1", Collections.emptyMap(), vars));
+        assertSame(r1, routes.match("PUT", "/users/1", Collections.emptyMap(), vars));
+        assertSame(r4, routes.match("GET", "/users/1", New.hashMap("action", "edit"), vars));
+        assertSame(r3, routes.match(null, "/users/1", Collections.emptyMap(), vars));
+
+        assertNull(routes.match("GET", "/users", Collections.emptyMap(), vars));
+        assertNull(routes.match("GET", "/users/", Collections.emptyMap(), vars));
+        assertNull(routes.match("GET", "/users/1/x", Collections.emptyMap(), vars));
+        assertNull(routes.match("GET", "users/1", Collections.emptyMap(), vars));
+    }
+
+    @Test
+    public void testVariables() {
+        DefaultRoutes routes = new DefaultRoutes();
+
+        Route r1 = route("*", "/{controller}/{action}");
+        Route r2 = route("*", "/files/{path:.+}");
+        Route r3 = route("*", "/docs/{name}.json");
+        Route r4 = route("*", "/");
+        routes.addAll(New.arrayList(r1, r2, r3, r4));
+
+        Map<String, String> vars = new HashMap<>();
+
+        assertSame(r1, routes.match("GET", "/home/index", Collections.emptyMap(), vars));
+        assertEquals(New.hashMap("controller", "home", "action", "index"), vars);
+
+        assertSame(r2, routes.match("GET", "/files/a/b/c.txt", Collections.emptyMap(), vars));
+        assertEquals(New.hashMap("path", "a/b/c.txt"), vars);
+
+        assertSame(r3, routes.match("GET", "/docs/api.json", Collections.emptyMap(), vars));
+        assertEquals(New.hashMap("name", "api"), vars);
+
+        assertSame(r1, routes.match("GET", "/docs/api", Collections.emptyMap(), vars));
+        assertSame(r4, routes.match("GET", "/", Collections.emptyMap(), vars));
+    }
+
+    @Test
+    public void testSameAsLinearMatching() {
+        String[] segments = new String[]{"a", "b", "c", "{x#}", "{y#:\\d+}", "d{z#}", "*", "e.json"};
+        String[] methods  = new String[]{"*", "GET", "POST"};
+
+        Random random = new Random(1);
+
+        List<Route> list = new ArrayList<>();
+        for(int i=0;i<300;i++) {
+            StringBuilder path = new StringBuilder();
+            int depth = 1 + random.nextInt(4);
+            for(int j=0;j<depth;j++) {
+                path.append('/').append(segments[random.nextInt(segments.length)].replace("#", String.valueOf(j)));
+            }
+            if(random.nextInt(10) == 0) {
+                path.append('/');
+            }
+
+            Map<String, String> params = random.nextInt(5) == 0 ? New.hashMap("p", "1") : null;
+            list.add(route(methods[random.nextInt(methods.length)], path.toString(), params));
+        }
+
+        DefaultRoutes routes = new DefaultRoutes();
+        routes.addAll(list);
+
+        String[] values = new String[]{"a", "b", "c", "1", "d2", "*", "e.json", "x", ""};
+        for(int i=0;i<5000;i++) {
+            StringBuilder path = new StringBuilder();
+            int depth = 1 + random.nextInt(4);
+            for(int j=0;j<depth;j++) {
+                path.append('/').append(values[random.nextInt(values.length)]);
+            }
+
+            String              method = random.nextBoolean() ? "GET" : (random.nextBoolean() ? "PUT" : null);
+            Map<String, Object> params = random.nextBoolean() ? New.hashMap("p", "1") : Collections.emptyMap();
+
+            Map<String, String> expectedVars = new HashMap<>();
+            Map<String, String> actualVars   = new HashMap<>();
+
+            Route expected = linearMatch(routes, method, path.toString(), params, expectedVars);
+            Route actual   = routes.match(method, path.toString(), params, actualVars);
+
+            assertSame(path.toString(), expected, actual);
+            assertEquals(path.toString(), expectedVars, actualVars);
+        }
+    }
+
+    private static Route linearMatch(Routes routes, String method, String path, Map<String, Object> params, Map<String, String> vars) {
+        for(Route route : routes) {
+            if(null == method || route.getMethod().equals("*") || route.getMethod().equals(method)) {
+                boolean paramsMatched = true;
+                for(Map.Entry<String, String> entry : route.getRequiredParameters().entrySet()) {
+                    if(!entry.getValue().equals(params.get(entry.getKey()))) {
+                        paramsMatched = false;
+                    }
+                }
+                if(paramsMatched && route.getPathTemplate().match(path, vars)) {
+                    return route;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Route route(String method, String path) {
+        return route(method, path, null);
+    }
+
+    private static Route route(String method, String path, Map<String, String> requiredParameters) {
+        RouteBuilder rb = new RouteBuilder();
+        rb.setMethod(method);
+        rb.setPathTemplate(factory.createPathTemplate(path));
+        rb.setAction(new RunnableAction(() -> {}));
+        rb.setRequiredParameters(requiredParameters);
+        return rb.build();
+    }
+}
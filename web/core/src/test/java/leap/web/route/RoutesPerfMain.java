@@ -0,0 +1,126 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package leap.web.route;
+
+import leap.core.web.path.JerseyPathTemplateFactory;
+import leap.lang.time.StopWatch;
+import leap.web.action.RunnableAction;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares the matching throughput of the indexed routes with matching the routes one by one.
+ */
+public class RoutesPerfMain {
+
+    private static final int[] SIZES   = new int[]{100, 1000, 10000};
+    private static final int   MATCHES = 200000;
+
+    private static final JerseyPathTemplateFactory factory = new JerseyPathTemplateFactory();
+
+    public static void main(String[] args) throws Exception {
+        //warm up
+        runTest(1000, 20000, true);
+
+        System.out.println("\n\nWarm up done, Let's begin!\n");
+
+        for(int size : SIZES) {
+            runTest(size, MATCHES, false);
+            System.out.println();
+        }
+    }
+
+    protected static void runTest(int size, int matches, boolean warmup) {
+        DefaultRoutes routes = new DefaultRoutes();
+        List<String>  paths  = new ArrayList<>();
+
+        for(int i=0;i<size;i++) {
+            String module = "module" + (i % 50);
+            switch (i % 4) {
+                case 0:
+                    routes.add(route("GET", "/" + module + "/resource" + i));
+                    paths.add("/" + module + "/resource" + i);
+                    break;
+                case 1:
+                    routes.add(route("GET", "/" + module + "/resource" + i + "/{id}"));
+                    paths.add("/" + module + "/resource" + i + "/123");
+                    break;
+                case 2:
+                    routes.add(route("POST", "/" + module + "/resource" + i + "/{id}/items/{itemId}"));
+                    paths.add("/" + module + "/resource" + i + "/123/items/456");
+                    break;
+                default:
+                    routes.add(route("*", "/" + module + "/resource" + i + "/{name}.json"));
+                    paths.add("/" + module + "/resource" + i + "/abc.json");
+                    break;
+            }
+        }
+
+        Map<String, Object> params = Collections.emptyMap();
+        Map<String, String> vars   = new HashMap<>();
+
+        //builds the index.
+        routes.match("GET", "/", params, vars);
+
+        StopWatch sw = StopWatch.startNew();
+        for(int i=0;i<matches;i++) {
+            String path = paths.get(i % paths.size());
+            routes.match(path.contains("items") ? "POST" : "GET", path, params, vars);
+        }
+        long indexed = sw.getElapsedMilliseconds();
+
+        int linearMatches = Math.max(1, matches / (size / 10));
+
+        sw = StopWatch.startNew();
+        for(int i=0;i<linearMatches;i++) {
+            String path = paths.get(i % paths.size());
+            linearMatch(routes, path.contains("items") ? "POST" : "GET", path, params, vars);
+        }
+        long linear = sw.getElapsedMilliseconds();
+
+        if(!warmup) {
+            System.out.println(size + " routes, indexed : " + ops(matches, indexed) + " matches/s");
+            System.out.println(size + " routes, linear  : " + ops(linearMatches, linear) + " matches/s");
+        }
+    }
+
+    private static long ops(int matches, long ms) {
+        return (long)matches * 1000 / Math.max(1, ms);
+    }
+
+    private static Route linearMatch(Routes routes, String method, String path, Map<String, Object> params, Map<String, String> vars) {
+        for(Route route : routes) {
+            if(null == method || route.getMethod().equals("*") || route.getMethod().equals(method)) {
+                if(route.getRequiredParameters().isEmpty() && route.getPathTemplate().match(path, vars)) {
+                    return route;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Route route(String method, String path) {
+        RouteBuilder rb = new RouteBuilder();
+        rb.setMethod(method);
+        rb.setPathTemplate(factory.createPathTemplate(path));
+        rb.setAction(new RunnableAction(() -> {}));
+        return rb.build();
+    }
+}